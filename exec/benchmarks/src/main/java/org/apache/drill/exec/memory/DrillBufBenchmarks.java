@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.memory;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.netty.buffer.DrillBuf;
+
+/**
+ * Micro-benchmarks for the {@link DrillBuf} accessors which sit underneath
+ * every value vector get and set. Each benchmark walks a 64K buffer, the
+ * size of a typical fixed-width vector, so that the results report the cost
+ * per buffer rather than per value.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DrillBufBenchmarks {
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final int COPY_LENGTH = 16;
+
+  private BufferAllocator allocator;
+  private DrillBuf buffer;
+  private byte[] bytes;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    buffer = allocator.buffer(BUFFER_SIZE);
+    bytes = new byte[COPY_LENGTH];
+    for (int i = 0; i < BUFFER_SIZE; i += 4) {
+      buffer.setInt(i, i);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    buffer.release();
+    allocator.close();
+  }
+
+  @Benchmark
+  public int getInt() {
+    int sum = 0;
+    for (int i = 0; i < BUFFER_SIZE; i += 4) {
+      sum += buffer.getInt(i);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public DrillBuf setInt() {
+    for (int i = 0; i < BUFFER_SIZE; i += 4) {
+      buffer.setInt(i, i);
+    }
+    return buffer;
+  }
+
+  @Benchmark
+  public long getLong() {
+    long sum = 0;
+    for (int i = 0; i < BUFFER_SIZE; i += 8) {
+      sum += buffer.getLong(i);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public DrillBuf setLong() {
+    for (int i = 0; i < BUFFER_SIZE; i += 8) {
+      buffer.setLong(i, i);
+    }
+    return buffer;
+  }
+
+  @Benchmark
+  public DrillBuf setBytes() {
+    for (int i = 0; i < BUFFER_SIZE; i += COPY_LENGTH) {
+      buffer.setBytes(i, bytes, 0, COPY_LENGTH);
+    }
+    return buffer;
+  }
+
+  @Benchmark
+  public byte[] getBytes() {
+    for (int i = 0; i < BUFFER_SIZE; i += COPY_LENGTH) {
+      buffer.getBytes(i, bytes, 0, COPY_LENGTH);
+    }
+    return bytes;
+  }
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.TopN;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.drill.common.expression.FieldReference;
+import org.apache.drill.common.logical.data.Order.Ordering;
+import org.apache.drill.common.types.TypeProtos.MinorType;
+import org.apache.drill.exec.physical.impl.sort.RecordBatchData;
+import org.apache.drill.exec.physical.rowSet.RowSet.SingleRowSet;
+import org.apache.drill.exec.physical.rowSet.RowSetBuilder;
+import org.apache.drill.exec.record.BatchSchema.SelectionVectorMode;
+import org.apache.drill.exec.record.ExpandableHyperContainer;
+import org.apache.drill.exec.record.metadata.SchemaBuilder;
+import org.apache.drill.exec.record.metadata.TupleMetadata;
+import org.apache.drill.shaded.guava.com.google.common.collect.Lists;
+import org.apache.drill.test.BaseDirTestWatcher;
+import org.apache.drill.test.OperatorFixture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the generated {@link PriorityQueueTemplate} used by the Top-N
+ * operator: adds a series of batches with random keys to the heap and
+ * generates the final SV4. Small limits exercise the "reject against the
+ * root" path, large limits the sift-up/sift-down paths.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class PriorityQueueBenchmarks {
+
+  private static final int ROWS_PER_BATCH = 4096;
+  private static final int BATCH_COUNT = 32;
+
+  @Param({"100", "10000"})
+  public int limit;
+
+  private BaseDirTestWatcher dirTestWatcher;
+  private OperatorFixture fixture;
+  private TupleMetadata schema;
+  private final Random random = new Random(17);
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    dirTestWatcher = new BaseDirTestWatcher();
+    dirTestWatcher.start(getClass());
+    fixture = OperatorFixture.builder(dirTestWatcher).build();
+    schema = new SchemaBuilder()
+        .add("key", MinorType.BIGINT)
+        .add("value", MinorType.INT)
+        .buildSchema();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    fixture.close();
+  }
+
+  private PriorityQueue newPriorityQueue() throws Exception {
+    Ordering ordering = new Ordering(Ordering.ORDER_DESC, FieldReference.getWithQuotedRef("key"), Ordering.NULLS_FIRST);
+    SingleRowSet empty = new RowSetBuilder(fixture.allocator(), schema).build();
+    try {
+      return TopNBatch.createNewPriorityQueue(
+          TopNBatch.createMainMappingSet(), TopNBatch.createLeftMappingSet(), TopNBatch.createRightMappingSet(),
+          Lists.newArrayList(ordering), new ExpandableHyperContainer(empty.container()), false, false,
+          limit, fixture.allocator(), SelectionVectorMode.NONE, fixture.getFragmentContext());
+    } finally {
+      empty.clear();
+    }
+  }
+
+  /**
+   * Fresh queue and input batches for each invocation; the queue takes
+   * ownership of the batches it is given. The generated class is cached,
+   * so creating the queue only costs the instantiation.
+   */
+  @State(Scope.Thread)
+  public static class QueueInput {
+    private PriorityQueue queue;
+    private List<RecordBatchData> batches;
+
+    @Setup(Level.Invocation)
+    public void setup(PriorityQueueBenchmarks benchmark) throws Exception {
+      queue = benchmark.newPriorityQueue();
+      batches = new ArrayList<>();
+      for (int i = 0; i < BATCH_COUNT; i++) {
+        RowSetBuilder builder = new RowSetBuilder(benchmark.fixture.allocator(), benchmark.schema, ROWS_PER_BATCH);
+        for (int j = 0; j < ROWS_PER_BATCH; j++) {
+          builder.addRow(benchmark.random.nextLong(), j);
+        }
+        SingleRowSet rowSet = builder.build();
+        batches.add(new RecordBatchData(rowSet.container(), benchmark.fixture.allocator()));
+        rowSet.clear();
+      }
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+      queue.cleanup();
+    }
+  }
+
+  @Benchmark
+  public int addAndGenerate(QueueInput input) throws Exception {
+    for (RecordBatchData batch : input.batches) {
+      input.queue.add(batch);
+    }
+    input.queue.generate();
+    return input.queue.getFinalSv4().getTotalCount();
+  }
+}
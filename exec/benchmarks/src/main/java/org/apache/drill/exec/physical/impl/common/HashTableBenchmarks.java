@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.common;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.drill.common.expression.FieldReference;
+import org.apache.drill.common.expression.SchemaPath;
+import org.apache.drill.common.logical.data.NamedExpression;
+import org.apache.drill.common.types.TypeProtos.MinorType;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.physical.impl.MockRecordBatch;
+import org.apache.drill.exec.physical.rowSet.RowSet;
+import org.apache.drill.exec.physical.rowSet.RowSetBuilder;
+import org.apache.drill.exec.record.metadata.SchemaBuilder;
+import org.apache.drill.exec.record.metadata.TupleMetadata;
+import org.apache.drill.shaded.guava.com.google.common.collect.Lists;
+import org.apache.drill.test.BaseDirTestWatcher;
+import org.apache.drill.test.OperatorFixture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the generated {@link HashTableTemplate} and
+ * {@link OpenAddressingHashTableTemplate} on a single INT key,
+ * the shape used by most hash aggregates and hash joins. The build
+ * benchmark inserts a full batch into an empty table (including the
+ * resizes that a growing table goes through); the probe benchmark looks up
+ * a batch of keys against a table built once per trial.
+ * <p>
+ * The number of distinct keys controls the hit ratio and the length of
+ * the chains: with few keys most build rows find their key already
+ * present, with many keys every row adds an entry.
+ * <tt>openAddressing</tt> selects between the two table implementations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class HashTableBenchmarks {
+
+  private static final int ROW_COUNT = 32 * 1024;
+
+  @Param({"1024", "32768"})
+  public int distinctKeys;
+
+  @Param({"false", "true"})
+  public boolean openAddressing;
+
+  private BaseDirTestWatcher dirTestWatcher;
+  private OperatorFixture fixture;
+  private MockRecordBatch buildBatch;
+  private MockRecordBatch probeBatch;
+  private ChainedHashTable baseHashTable;
+
+  /** Table built once per trial, used by the probe benchmark. */
+  private HashTable probeTable;
+
+  private final IndexPointer htIdxHolder = new IndexPointer();
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    dirTestWatcher = new BaseDirTestWatcher();
+    dirTestWatcher.start(getClass());
+    fixture = OperatorFixture.builder(dirTestWatcher)
+        .systemOption(ExecConstants.HASH_TABLE_OPEN_ADDRESSING_KEY, openAddressing)
+        .build();
+    FragmentContext context = fixture.getFragmentContext();
+
+    Random random = new Random(17);
+    buildBatch = makeBatch("buildKey", random, context);
+    probeBatch = makeBatch("probeKey", random, context);
+
+    List<NamedExpression> buildExprs = Lists.newArrayList(
+        new NamedExpression(SchemaPath.getSimplePath("buildKey"), new FieldReference("build_side_0")));
+    List<NamedExpression> probeExprs = Lists.newArrayList(
+        new NamedExpression(SchemaPath.getSimplePath("probeKey"), new FieldReference("probe_side_0")));
+    int initialSize = (int) context.getOptions().getOption(ExecConstants.MIN_HASH_TABLE_SIZE);
+    HashTableConfig htConfig = new HashTableConfig(initialSize, HashTable.DEFAULT_LOAD_FACTOR,
+        buildExprs, probeExprs, Lists.newArrayList(Comparator.EQUALS));
+    baseHashTable = new ChainedHashTable(htConfig, context, fixture.allocator(), buildBatch, probeBatch, null);
+
+    probeTable = baseHashTable.createAndSetupHashTable(null);
+    insertAll(probeTable);
+  }
+
+  private MockRecordBatch makeBatch(String name, Random random, FragmentContext context) {
+    TupleMetadata schema = new SchemaBuilder()
+        .add(name, MinorType.INT)
+        .buildSchema();
+    RowSetBuilder builder = new RowSetBuilder(fixture.allocator(), schema, ROW_COUNT);
+    for (int i = 0; i < ROW_COUNT; i++) {
+      builder.addRow(random.nextInt(distinctKeys));
+    }
+    RowSet rowSet = builder.build();
+    MockRecordBatch batch = new MockRecordBatch.Builder()
+        .sendData(rowSet)
+        .build(context);
+    batch.next();
+    return batch;
+  }
+
+  private int insertAll(HashTable table) throws Exception {
+    for (int i = 0; i < ROW_COUNT; i++) {
+      table.put(i, htIdxHolder, table.getBuildHashCode(i), HashTable.BATCH_SIZE);
+    }
+    return table.size();
+  }
+
+  /**
+   * Fresh, empty table for each invocation of the build benchmark.
+   */
+  @State(Scope.Thread)
+  public static class EmptyTable {
+    private HashTable table;
+
+    @Setup(Level.Invocation)
+    public void setup(HashTableBenchmarks benchmark) throws Exception {
+      table = benchmark.baseHashTable.createAndSetupHashTable(null);
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+      table.clear();
+      table = null;
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    probeTable.clear();
+    buildBatch.close();
+    probeBatch.close();
+    fixture.close();
+  }
+
+  @Benchmark
+  public int put(EmptyTable empty) throws Exception {
+    return insertAll(empty.table);
+  }
+
+  @Benchmark
+  public int probeForKey() throws Exception {
+    int matches = 0;
+    for (int i = 0; i < ROW_COUNT; i++) {
+      if (probeTable.probeForKey(i, probeTable.getProbeHashCode(i)) != -1) {
+        matches++;
+      }
+    }
+    return matches;
+  }
+}
@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.xsort.managed;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.drill.common.expression.FieldReference;
+import org.apache.drill.common.logical.data.Order.Ordering;
+import org.apache.drill.common.types.TypeProtos.MinorType;
+import org.apache.drill.exec.ops.OperatorContext;
+import org.apache.drill.exec.physical.config.Sort;
+import org.apache.drill.exec.physical.rowSet.RowSet.SingleRowSet;
+import org.apache.drill.exec.physical.rowSet.RowSetBuilder;
+import org.apache.drill.exec.record.VectorContainer;
+import org.apache.drill.exec.record.metadata.SchemaBuilder;
+import org.apache.drill.exec.record.metadata.TupleMetadata;
+import org.apache.drill.shaded.guava.com.google.common.collect.Lists;
+import org.apache.drill.test.BaseDirTestWatcher;
+import org.apache.drill.test.OperatorFixture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the two in-memory phases of the managed external sort:
+ * sorting each incoming batch through its SV2 (the generated
+ * <tt>SingleBatchSorterTemplate</tt>) and merging the sorted batches
+ * through an SV4 (the generated {@link MSortTemplate}). Batches are
+ * rebuilt before each invocation since both phases consume their input.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class SortBenchmarks {
+
+  private static final int ROWS_PER_BATCH = 4096;
+  private static final int OUTPUT_BATCH_SIZE = 4096;
+
+  @Param({"16", "128"})
+  public int batchCount;
+
+  private BaseDirTestWatcher dirTestWatcher;
+  private OperatorFixture fixture;
+  private OperatorContext opContext;
+  private TupleMetadata schema;
+  private final Random random = new Random(17);
+
+  @Setup(Level.Trial)
+  public void setup() {
+    dirTestWatcher = new BaseDirTestWatcher();
+    dirTestWatcher.start(getClass());
+    fixture = OperatorFixture.builder(dirTestWatcher).build();
+    Ordering ordering = new Ordering(Ordering.ORDER_ASC, FieldReference.getWithQuotedRef("key"), Ordering.NULLS_LAST);
+    opContext = fixture.newOperatorContext(new Sort(null, Lists.newArrayList(ordering), false));
+    schema = new SchemaBuilder()
+        .add("key", MinorType.INT)
+        .add("value", MinorType.VARCHAR)
+        .buildSchema();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    opContext.close();
+    fixture.close();
+  }
+
+  private List<SingleRowSet> makeBatches() {
+    List<SingleRowSet> batches = new ArrayList<>();
+    for (int i = 0; i < batchCount; i++) {
+      RowSetBuilder builder = new RowSetBuilder(fixture.allocator(), schema, ROWS_PER_BATCH)
+          .withSv2();
+      for (int j = 0; j < ROWS_PER_BATCH; j++) {
+        int key = random.nextInt();
+        builder.addRow(key, Integer.toString(key));
+      }
+      batches.add(builder.build());
+    }
+    return batches;
+  }
+
+  /**
+   * Unsorted batches, each with its own SV2.
+   */
+  @State(Scope.Thread)
+  public static class UnsortedBatches {
+    private List<SingleRowSet> batches;
+
+    @Setup(Level.Invocation)
+    public void setup(SortBenchmarks benchmark) {
+      batches = benchmark.makeBatches();
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() {
+      for (SingleRowSet batch : batches) {
+        batch.clear();
+      }
+    }
+  }
+
+  /**
+   * Batches already sorted through their SV2, as handed to the merge
+   * phase by the sort operator.
+   */
+  @State(Scope.Thread)
+  public static class SortedBatches {
+    private List<BatchGroup.InputBatch> batches;
+
+    @Setup(Level.Invocation)
+    public void setup(SortBenchmarks benchmark) {
+      SorterWrapper sorter = new SorterWrapper(benchmark.opContext);
+      batches = new ArrayList<>();
+      for (SingleRowSet rowSet : benchmark.makeBatches()) {
+        sorter.sortBatch(rowSet.container(), rowSet.getSv2());
+        batches.add(new BatchGroup.InputBatch(rowSet.container(), rowSet.getSv2(),
+            benchmark.fixture.allocator(), rowSet.size()));
+      }
+      sorter.close();
+    }
+  }
+
+  @Benchmark
+  public int sortBatches(UnsortedBatches input) {
+    SorterWrapper sorter = new SorterWrapper(opContext);
+    int count = 0;
+    for (SingleRowSet rowSet : input.batches) {
+      sorter.sortBatch(rowSet.container(), rowSet.getSv2());
+      count += rowSet.rowCount();
+    }
+    sorter.close();
+    return count;
+  }
+
+  /**
+   * Merges the sorted batches; the merge wrapper takes ownership of the
+   * batches and releases them on close.
+   */
+  @Benchmark
+  public int merge(SortedBatches input) {
+    VectorContainer dest = new VectorContainer();
+    MergeSortWrapper merger = new MergeSortWrapper(opContext, dest);
+    try {
+      merger.merge(input.batches, OUTPUT_BATCH_SIZE);
+      return merger.getRecordCount();
+    } finally {
+      merger.close();
+    }
+  }
+}
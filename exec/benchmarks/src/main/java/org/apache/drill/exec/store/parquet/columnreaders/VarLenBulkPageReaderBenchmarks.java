@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.parquet.columnreaders;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.test.BaseDirTestWatcher;
+import org.apache.drill.test.ClientFixture;
+import org.apache.drill.test.ClusterFixture;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks the flat Parquet reader on variable-length columns. The
+ * {@link VarLenBulkPageReader} is package-private and needs a live page
+ * reader, so it is exercised through a scan-only query against an embedded
+ * Drillbit; the <tt>bulk</tt> parameter compares it with the
+ * value-at-a-time variable-length readers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class VarLenBulkPageReaderBenchmarks {
+
+  private static final String VARLEN_SCAN =
+      "SELECT l_comment, l_shipinstruct, l_shipmode FROM cp.`tpch/lineitem.parquet`";
+
+  @Param({"true", "false"})
+  public boolean bulk;
+
+  private BaseDirTestWatcher dirTestWatcher;
+  private ClusterFixture cluster;
+  private ClientFixture client;
+
+  @Setup(Level.Trial)
+  public void setup() throws Exception {
+    dirTestWatcher = new BaseDirTestWatcher();
+    dirTestWatcher.start(getClass());
+    cluster = ClusterFixture.builder(dirTestWatcher).build();
+    client = cluster.clientFixture();
+    client.alterSession(ExecConstants.PARQUET_FLAT_READER_BULK, bulk);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    client.close();
+    cluster.close();
+  }
+
+  @Benchmark
+  public long scanVarLenColumns() throws Exception {
+    return client.queryBuilder().sql(VARLEN_SCAN).run().recordCount();
+  }
+}
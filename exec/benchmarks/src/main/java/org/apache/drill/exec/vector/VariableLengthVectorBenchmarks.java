@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.vector;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.drill.common.types.TypeProtos.MinorType;
+import org.apache.drill.common.types.Types;
+import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.memory.RootAllocator;
+import org.apache.drill.exec.record.MaterializedField;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Micro-benchmarks for the generated variable-length vectors
+ * (see <tt>VariableLengthVectors.java</tt> template), using
+ * {@link VarCharVector} as the representative. Covers the two paths used
+ * by readers and operators: writing values with <tt>setSafe()</tt>
+ * (with and without buffer growth) and row-wise <tt>copyFromSafe()</tt>
+ * as done by the generic copiers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class VariableLengthVectorBenchmarks {
+
+  private static final int VALUE_COUNT = 4096;
+
+  @Param({"8", "64"})
+  public int valueWidth;
+
+  private BufferAllocator allocator;
+  private MaterializedField field;
+  private VarCharVector source;
+  private VarCharVector target;
+  private byte[] value;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    allocator = new RootAllocator(Long.MAX_VALUE);
+    field = MaterializedField.create("col", Types.required(MinorType.VARCHAR));
+    value = new byte[valueWidth];
+    Arrays.fill(value, (byte) 'x');
+
+    source = new VarCharVector(field, allocator);
+    source.allocateNew(VALUE_COUNT * valueWidth, VALUE_COUNT);
+    for (int i = 0; i < VALUE_COUNT; i++) {
+      source.getMutator().setSafe(i, value);
+    }
+    source.getMutator().setValueCount(VALUE_COUNT);
+
+    target = new VarCharVector(field, allocator);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    source.close();
+    target.close();
+    allocator.close();
+  }
+
+  /**
+   * Writes into a vector sized for the data; measures the bounds checks and
+   * offset maintenance alone.
+   */
+  @Benchmark
+  public int setSafe() {
+    target.allocateNew(VALUE_COUNT * valueWidth, VALUE_COUNT);
+    VarCharVector.Mutator mutator = target.getMutator();
+    for (int i = 0; i < VALUE_COUNT; i++) {
+      mutator.setSafe(i, value);
+    }
+    mutator.setValueCount(VALUE_COUNT);
+    int size = target.getBufferSize();
+    target.clear();
+    return size;
+  }
+
+  /**
+   * Writes into a vector with the default allocation, so the data and
+   * offset buffers are doubled as the vector fills.
+   */
+  @Benchmark
+  public int setSafeWithRealloc() {
+    target.allocateNew();
+    VarCharVector.Mutator mutator = target.getMutator();
+    for (int i = 0; i < VALUE_COUNT; i++) {
+      mutator.setSafe(i, value);
+    }
+    mutator.setValueCount(VALUE_COUNT);
+    int size = target.getBufferSize();
+    target.clear();
+    return size;
+  }
+
+  @Benchmark
+  public int copyFromSafe() {
+    target.allocateNew(VALUE_COUNT * valueWidth, VALUE_COUNT);
+    for (int i = 0; i < VALUE_COUNT; i++) {
+      target.copyFromSafe(i, i, source);
+    }
+    target.getMutator().setValueCount(VALUE_COUNT);
+    int size = target.getBufferSize();
+    target.clear();
+    return size;
+  }
+}
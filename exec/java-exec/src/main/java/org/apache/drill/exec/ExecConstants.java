@@ -59,6 +59,12 @@ public final class ExecConstants {
   public static final String INITIAL_BIT_PORT = "drill.exec.rpc.bit.server.port";
   public static final String INITIAL_DATA_PORT = "drill.exec.rpc.bit.server.dataport";
   public static final String BIT_RPC_TIMEOUT = "drill.exec.rpc.bit.timeout";
+  // Codec asked of other Drillbits to compress record batches with: "none", "snappy", "deflate" or a SpillCodec class name
+  public static final String BIT_DATA_COMPRESSION_CODEC = "drill.exec.rpc.bit.data.compression.codec";
+  // Record batches with fewer bytes of data than this are sent uncompressed
+  public static final String BIT_DATA_COMPRESSION_THRESHOLD = "drill.exec.rpc.bit.data.compression.threshold";
+  // Batches sent to fragments of the same Drillbit are handed over in process instead of through a data connection
+  public static final String BIT_DATA_LOCAL_EXCHANGE = "drill.exec.rpc.bit.data.local_exchange";
   public static final String INITIAL_USER_PORT = "drill.exec.rpc.user.server.port";
   public static final String USER_RPC_TIMEOUT = "drill.exec.rpc.user.timeout";
   public static final String METRICS_CONTEXT_NAME = "drill.exec.metrics.context";
@@ -84,6 +90,8 @@ public final class ExecConstants {
 
   public static final String SPILL_FILESYSTEM = "drill.exec.spill.fs";
   public static final String SPILL_DIRS = "drill.exec.spill.directories";
+  // Block compression codec for spill files: "none", "snappy", "deflate" or a SpillCodec class name
+  public static final String SPILL_COMPRESSION = "drill.exec.spill.compression";
 
   public static final String OUTPUT_BATCH_SIZE = "drill.exec.memory.operator.output_batch_size";
   // Output Batch Size in Bytes. We have a small lower bound so we can test with unit tests without the
@@ -96,6 +104,22 @@ public final class ExecConstants {
   public static final DoubleValidator OUTPUT_BATCH_SIZE_AVAIL_MEM_FACTOR_VALIDATOR = new RangeDoubleValidator(OUTPUT_BATCH_SIZE_AVAIL_MEM_FACTOR, 0.01, 1.0,
       new OptionDescription("Based on the available system memory, adjusts the output batch size for buffered operators by the factor set."));
 
+  // Buffered operators of a fragment give back the memory they did not use, for the others to borrow before spilling
+  public static final String MEMORY_REBALANCE = "exec.memory.rebalance";
+  public static final BooleanValidator MEMORY_REBALANCE_VALIDATOR = new BooleanValidator(MEMORY_REBALANCE,
+      new OptionDescription("Lets the Sort, Hash Aggregate and Hash Join operators of a fragment give back the memory they were planned with but did not use once done with their input, and lets the Sort and Hash Aggregate operators of the same fragment borrow that memory instead of spilling."));
+
+  // Hash partition sender: size of the batches sent to each receiver, and memory of the batches of all its receivers
+  public static final String PARTITION_SENDER_BATCH_SIZE = "exec.partition_sender.batch_size";
+  public static final LongValidator PARTITION_SENDER_BATCH_SIZE_VALIDATOR = new RangeLongValidator(PARTITION_SENDER_BATCH_SIZE, 1024, 64 * 1024 * 1024,
+      new OptionDescription("Target size in bytes of the batches the hash partition sender sends to each receiver. The record count of a batch is set from the width of the incoming rows."));
+  public static final String PARTITION_SENDER_MEMORY_LIMIT = "exec.partition_sender.memory_limit";
+  public static final LongValidator PARTITION_SENDER_MEMORY_LIMIT_VALIDATOR = new RangeLongValidator(PARTITION_SENDER_MEMORY_LIMIT, 1024, Long.MAX_VALUE,
+      new OptionDescription("Bound in bytes on the data the hash partition sender holds in the batches of all its receivers. Batches are made smaller when there are too many receivers for the batch size, and the largest ones are sent first when the bound is hit."));
+  public static final String PARTITION_SENDER_PIPELINED = "exec.partition_sender.pipelined";
+  public static final BooleanValidator PARTITION_SENDER_PIPELINED_VALIDATOR = new BooleanValidator(PARTITION_SENDER_PIPELINED,
+      new OptionDescription("Lets the threads of the hash partition sender partition an incoming batch while the fragment gets the next one from the upstream operators, instead of waiting for each batch to be partitioned. Does not apply to incoming batches with a four-byte selection vector."));
+
   // External Sort Boot configuration
 
   public static final String EXTERNAL_SORT_TARGET_SPILL_BATCH_SIZE = "drill.exec.sort.external.spill.batch.size";
@@ -115,6 +139,23 @@ public final class ExecConstants {
   // External Sort Runtime options
 
   public static final BooleanValidator EXTERNAL_SORT_DISABLE_MANAGED_OPTION = new BooleanValidator("exec.sort.disable_managed", null);
+  public static final String EXTERNAL_SORT_NORMALIZED_KEYS_KEY = "exec.sort.normalized_keys.enable";
+  public static final BooleanValidator EXTERNAL_SORT_NORMALIZED_KEYS = new BooleanValidator(EXTERNAL_SORT_NORMALIZED_KEYS_KEY,
+      new OptionDescription("Sorts each incoming batch of the external sort by byte-comparable keys encoded from the sort columns when all of them are plain columns of a numeric, date-time or character type, instead of by generated comparisons."));
+  public static final String EXTERNAL_SORT_PARALLEL_MERGE_THREADS_KEY = "exec.sort.parallel_merge.threads_per_query";
+  public static final RangeLongValidator EXTERNAL_SORT_PARALLEL_MERGE_THREADS = new RangeLongValidator(EXTERNAL_SORT_PARALLEL_MERGE_THREADS_KEY, 0, 1024,
+      new OptionDescription("Maximum number of additional threads the external sorts of a query may use at a time on a Drillbit to merge their in-memory batches in parallel. 0 merges on the fragment thread only."));
+  public static final String EXTERNAL_SORT_SPILL_READ_AHEAD_KEY = "exec.sort.spill.read_ahead.enable";
+  public static final BooleanValidator EXTERNAL_SORT_SPILL_READ_AHEAD = new BooleanValidator(EXTERNAL_SORT_SPILL_READ_AHEAD_KEY,
+      new OptionDescription("Reads the next batch of each spilled run merged by the external sort on a background thread, when the sort has memory for one more batch per run."));
+
+  // TopN Options
+  public static final String TOPN_CUTOFF_PUSHDOWN_KEY = "exec.topn.cutoff_pushdown.enable";
+  public static final BooleanValidator TOPN_CUTOFF_PUSHDOWN = new BooleanValidator(TOPN_CUTOFF_PUSHDOWN_KEY,
+      new OptionDescription("Shares the first sort key of the last row kept by a full Top-N with the operators below it in the same fragment, so that the batches and the Parquet row groups none of whose rows may enter the Top-N are discarded early."));
+  public static final String TOPN_SPILL_MIN_LIMIT_KEY = "exec.topn.spill.min_limit";
+  public static final RangeLongValidator TOPN_SPILL_MIN_LIMIT = new RangeLongValidator(TOPN_SPILL_MIN_LIMIT_KEY, 0, Integer.MAX_VALUE,
+      new OptionDescription("Smallest limit of a Top-N which gets a memory budget and spills through the external sort once its rows outgrow half of it. Smaller limits keep the rows in memory. 0 disables spilling."));
 
   // Hash Join Options
   public static final String HASHJOIN_HASHTABLE_CALC_TYPE_KEY = "exec.hashjoin.hash_table_calc_type";
@@ -157,6 +198,15 @@ public final class ExecConstants {
   public static final BooleanValidator HASHJOIN_ENABLE_RUNTIME_FILTER_WAITING = new BooleanValidator(HASHJOIN_RUNTIME_FILTER_WAITING_ENABLE_KEY, null);
   public static final String HASHJOIN_RUNTIME_FILTER_MAX_WAITING_TIME_KEY = "exec.hashjoin.runtime_filter.max.waiting.time";
   public static final PositiveLongValidator HASHJOIN_RUNTIME_FILTER_MAX_WAITING_TIME = new PositiveLongValidator(HASHJOIN_RUNTIME_FILTER_MAX_WAITING_TIME_KEY, Character.MAX_VALUE, null);
+  public static final String HASHJOIN_RUNTIME_FILTER_RANGE_ENABLE_KEY = "exec.hashjoin.runtime_filter.range.enable";
+  public static final BooleanValidator HASHJOIN_RUNTIME_FILTER_RANGE_ENABLE = new BooleanValidator(HASHJOIN_RUNTIME_FILTER_RANGE_ENABLE_KEY,
+      new OptionDescription("Sends the range of the build side join keys along with the runtime filter, so that the Parquet scans of the probe side skip the row groups whose statistics show that none of their rows joins."));
+  public static final String HASHJOIN_RUNTIME_FILTER_IN_LIST_MAX_SIZE_KEY = "exec.hashjoin.runtime_filter.in_list.max.size";
+  public static final LongValidator HASHJOIN_RUNTIME_FILTER_IN_LIST_MAX_SIZE = new RangeLongValidator(HASHJOIN_RUNTIME_FILTER_IN_LIST_MAX_SIZE_KEY, 0, 1024,
+      new OptionDescription("Maximum number of distinct build side join keys sent along with their range, so that row groups whose range lies between two of them are skipped as well."));
+  public static final String HASHJOIN_RUNTIME_FILTER_AGGREGATION_TIMEOUT_KEY = "exec.hashjoin.runtime_filter.aggregation.timeout";
+  public static final PositiveLongValidator HASHJOIN_RUNTIME_FILTER_AGGREGATION_TIMEOUT = new PositiveLongValidator(HASHJOIN_RUNTIME_FILTER_AGGREGATION_TIMEOUT_KEY, Integer.MAX_VALUE,
+      new OptionDescription("Time in milliseconds a Drillbit, and then the Foreman, waits for the runtime filters of all the build side fragments once the first one arrived. Incomplete filters are dropped after it, and the probe side scans proceed without them."));
 
 
 
@@ -179,6 +229,9 @@ public final class ExecConstants {
   public static final String HASHAGG_USE_MEMORY_PREDICTION_KEY = "exec.hashagg.use_memory_prediction";
   public static final BooleanValidator HASHAGG_USE_MEMORY_PREDICTION_VALIDATOR = new BooleanValidator(HASHAGG_USE_MEMORY_PREDICTION_KEY,
       new OptionDescription("Enables Hash Aggregates to use memory predictions to proactively spill early. Default is true."));
+  public static final String HASHAGG_SINGLE_KEY_FAST_PATH_KEY = "exec.hashagg.single_key_fast_path";
+  public static final BooleanValidator HASHAGG_SINGLE_KEY_FAST_PATH_VALIDATOR = new BooleanValidator(HASHAGG_SINGLE_KEY_FAST_PATH_KEY,
+      new OptionDescription("Enables Hash Aggregates grouping on a single INT, BIGINT, DATE, TIME or TIMESTAMP column to hash each incoming batch in one pass over the key values. Default is true."));
 
   public static final String HASHAGG_SPILL_DIRS = "drill.exec.hashagg.spill.directories";
   public static final String HASHAGG_SPILL_FILESYSTEM = "drill.exec.hashagg.spill.fs";
@@ -231,6 +284,8 @@ public final class ExecConstants {
   public static final String HTTP_WEB_CLIENT_RESULTSET_ROWS_PER_PAGE_VALUES = "drill.exec.http.web.client.resultset.rowsPerPageValues";
   //Control Heap usage runaway
   public static final String HTTP_MEMORY_HEAP_FAILURE_THRESHOLD = "drill.exec.http.memory.heap.failure.threshold";
+  //Number of batches a streamed REST query may send ahead of the HTTP client
+  public static final String HTTP_STREAMING_QUEUE_SIZE = "drill.exec.http.streaming.queue_size";
   //Customize filters in options
   public static final String HTTP_WEB_OPTIONS_FILTERS = "drill.exec.http.web.options.filters";
   public static final String SYS_STORE_PROVIDER_CLASS = "drill.exec.sys.store.provider.class";
@@ -265,6 +320,24 @@ public final class ExecConstants {
   public static final String SCAN_THREADPOOL_SIZE = "drill.exec.scan.threadpool_size";
   // The size of the thread pool used by a scan to decode the data. Used by Parquet
   public static final String SCAN_DECODE_THREADPOOL_SIZE = "drill.exec.scan.decode_threadpool_size";
+  // Run fragments on a bounded, work-stealing pool instead of a thread per fragment
+  public static final String FRAGMENT_SCHEDULER_ENABLED = "drill.exec.fragment_scheduler.enabled";
+  // Number of fragments the bounded pool runs at once, as a multiple of the number of cores
+  public static final String FRAGMENT_SCHEDULER_PARALLELISM_FACTOR = "drill.exec.fragment_scheduler.parallelism_factor";
+  // Threads the bounded pool may grow to while making up for blocked fragments
+  public static final String FRAGMENT_SCHEDULER_MAX_THREADS = "drill.exec.fragment_scheduler.max_threads";
+  // Maximum number of physical plans kept by the plan cache of a Drillbit
+  public static final String PLAN_CACHE_MAX_ENTRIES = "drill.exec.plan_cache.max_entries";
+  // Time after which a cached plan is planned again, even if its tables did not change
+  public static final String PLAN_CACHE_EXPIRE_SECS = "drill.exec.plan_cache.expire_secs";
+  // Local directory under which the result cache of a Drillbit keeps the cached batches
+  public static final String RESULT_CACHE_DIRECTORY = "drill.exec.result_cache.directory";
+  // Maximum total size of the results cached by a Drillbit
+  public static final String RESULT_CACHE_MAX_BYTES = "drill.exec.result_cache.max_bytes";
+  // Results larger than this are not cached
+  public static final String RESULT_CACHE_MAX_ENTRY_BYTES = "drill.exec.result_cache.max_entry_bytes";
+  // Time after which a cached result is computed again, even if its tables did not change
+  public static final String RESULT_CACHE_EXPIRE_SECS = "drill.exec.result_cache.expire_secs";
 
   /**
    * Currently if a query is cancelled, but one of the fragments reports the status as FAILED instead of CANCELLED or
@@ -399,6 +472,16 @@ public final class ExecConstants {
   public static final OptionValidator PARQUET_FLAT_READER_BULK_VALIDATOR = new BooleanValidator(PARQUET_FLAT_READER_BULK,
       new OptionDescription("Parquet Reader which uses bulk processing (default)."));
 
+  // Controls whether the flat parquet reader skips the pages that cannot match the filter of the scan
+  public static final String PARQUET_FLAT_READER_PAGE_FILTER = "store.parquet.flat.reader.page_filter";
+  public static final OptionValidator PARQUET_FLAT_READER_PAGE_FILTER_VALIDATOR = new BooleanValidator(PARQUET_FLAT_READER_PAGE_FILTER,
+      new OptionDescription("Skips the pages of a row group whose statistics cannot match the filter of the scan, when reading flat columns (default)."));
+
+  // Controls whether run-time pruning checks the dictionaries of the filter columns
+  public static final String PARQUET_READER_DICTIONARY_FILTER = "store.parquet.reader.dictionary_filter";
+  public static final OptionValidator PARQUET_READER_DICTIONARY_FILTER_VALIDATOR = new BooleanValidator(PARQUET_READER_DICTIONARY_FILTER,
+      new OptionDescription("Prunes the row groups whose dictionary-encoded filter columns have no value matching the filter of the scan (default)."));
+
   // Controls the flat parquet reader batching constraints (number of record and memory limit)
   public static final String PARQUET_FLAT_BATCH_NUM_RECORDS = "store.parquet.flat.batch.num_records";
   public static final OptionValidator PARQUET_FLAT_BATCH_NUM_RECORDS_VALIDATOR = new RangeLongValidator(PARQUET_FLAT_BATCH_NUM_RECORDS, 1, ValueVector.MAX_ROW_COUNT -1,
@@ -598,6 +681,9 @@ public final class ExecConstants {
   public static final String MAX_HASH_TABLE_SIZE_KEY = "exec.max_hash_table_size";
   public static final PositiveLongValidator MAX_HASH_TABLE_SIZE = new PositiveLongValidator(MAX_HASH_TABLE_SIZE_KEY, HashTable.MAXIMUM_CAPACITY,
       new OptionDescription("Ending size in buckets for hash tables. Range: 0 - 1073741824."));
+  public static final String HASH_TABLE_OPEN_ADDRESSING_KEY = "exec.hashtable.open_addressing";
+  public static final BooleanValidator HASH_TABLE_OPEN_ADDRESSING = new BooleanValidator(HASH_TABLE_OPEN_ADDRESSING_KEY,
+      new OptionDescription("Use the open-addressing (linear probing) hash table instead of the chained hash table for hash aggregation and hash join keys."));
 
   /**
    * Limits the maximum level of parallelization to this factor time the number of Drillbits
@@ -1082,6 +1168,11 @@ public final class ExecConstants {
   public static final RangeLongValidator QUERY_MAX_ROWS_VALIDATOR = new RangeLongValidator(QUERY_MAX_ROWS, 0, Integer.MAX_VALUE,
       new OptionDescription("The maximum number of rows that the query will return. This can be only set at a SYSTEM level by an admin. (Drill 1.16+)"));
 
+  public static final String RESULT_CACHE_ENABLED_KEY = "exec.query.result_cache.enabled";
+  public static final BooleanValidator RESULT_CACHE_ENABLED = new BooleanValidator(RESULT_CACHE_ENABLED_KEY,
+      new OptionDescription("Serves repeated SELECT statements over files from the results of an earlier run, " +
+          "cached on the Foreman Drillbit. A cached result is computed again when the files of a scanned table change."));
+
   /**
    * Option that enables Drill Metastore usage.
    */
@@ -0,0 +1,385 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.cache;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.drill.common.config.DrillConfig;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.ops.QueryContext;
+import org.apache.drill.exec.ops.QueryContext.SqlStatementType;
+import org.apache.drill.exec.physical.PhysicalPlan;
+import org.apache.drill.exec.physical.base.FileGroupScan;
+import org.apache.drill.exec.physical.base.GroupScan;
+import org.apache.drill.exec.physical.base.PhysicalOperator;
+import org.apache.drill.exec.physical.base.ScanStats;
+import org.apache.drill.exec.physical.base.ScanStats.GroupScanProperty;
+import org.apache.drill.exec.physical.config.Screen;
+import org.apache.drill.exec.physical.impl.materialize.QueryWritableBatch;
+import org.apache.drill.exec.planner.sql.PlanCache;
+import org.apache.drill.exec.proto.UserBitShared.RecordBatchDef;
+import org.apache.drill.exec.store.direct.DirectGroupScan;
+import org.apache.drill.shaded.guava.com.google.common.cache.Cache;
+import org.apache.drill.shaded.guava.com.google.common.cache.CacheBuilder;
+import org.apache.drill.shaded.guava.com.google.common.cache.RemovalNotification;
+import org.apache.drill.shaded.guava.com.google.common.hash.Hashing;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Drillbit-wide cache of the results of SELECT statements over files, so that
+ * queries repeated by dashboards and BI tools against tables which did not
+ * change are answered without scanning the tables again.
+ * <p>
+ * On a miss, {@link #getPlan(QueryContext, String, PhysicalPlan)} marks the
+ * {@link Screen} of the plan with a {@link ResultCacheKey}; the screen then
+ * writes the batches it sends to the client to a file on the local disk of
+ * the Foreman, in the format of {@link VectorSerializer}, and the file is
+ * added to the cache when the query succeeds. On a hit, the plan is replaced
+ * by a scan of that file.
+ * <p>
+ * Results are keyed on the physical plan, the options and the user of the
+ * query. Each entry also records the {@link GroupScan#getMetadataVersion()
+ * metadata version} of every scan of the plan, and is only used while the
+ * versions still match. Only plans which scan nothing but files are cached,
+ * since the versions of other scans do not follow their data, and neither
+ * are queries calling functions whose value depends on the query or is
+ * random, results larger than <tt>drill.exec.result_cache.max_entry_bytes</tt>
+ * and results whose schema changes. The cache is bounded by
+ * <tt>drill.exec.result_cache.max_bytes</tt> and entries expire after
+ * <tt>drill.exec.result_cache.expire_secs</tt>. Each Drillbit caches the
+ * results of the queries it is the Foreman of, in its own directory.
+ * <p>
+ * The file of an entry is shared by the cache and the queries it answered:
+ * it is deleted once the entry left the cache and the readers of those
+ * queries released it, so that an eviction does not fail a query that
+ * already got the entry.
+ */
+public class ResultCache implements AutoCloseable {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ResultCache.class);
+
+  private final Path directory;
+  private final long maxEntryBytes;
+  private final Cache<String, Entry> results;
+  // Entries whose file is still in use, by file
+  private final Map<String, Entry> files = new ConcurrentHashMap<>();
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong invalidations = new AtomicLong();
+
+  public ResultCache(DrillConfig config) {
+    directory = Paths.get(config.getString(ExecConstants.RESULT_CACHE_DIRECTORY), UUID.randomUUID().toString());
+    maxEntryBytes = config.getLong(ExecConstants.RESULT_CACHE_MAX_ENTRY_BYTES);
+    results = CacheBuilder.newBuilder()
+        .maximumWeight(config.getLong(ExecConstants.RESULT_CACHE_MAX_BYTES))
+        .weigher((String digest, Entry entry) -> (int) Math.min(entry.bytes, Integer.MAX_VALUE))
+        .expireAfterWrite(config.getLong(ExecConstants.RESULT_CACHE_EXPIRE_SECS), TimeUnit.SECONDS)
+        .removalListener((RemovalNotification<String, Entry> notification) -> notification.getValue().release())
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Returns the plan to run for a query: a scan of its cached results on a
+   * hit, otherwise the given plan, set up to cache its results if they can be.
+   *
+   * @param context query context
+   * @param sql sql query
+   * @param plan physical plan of the query
+   * @return the plan to run
+   */
+  public PhysicalPlan getPlan(QueryContext context, String sql, PhysicalPlan plan) {
+    if (!context.getOptions().getOption(ExecConstants.RESULT_CACHE_ENABLED) ||
+        context.getSQLStatementType() != SqlStatementType.SELECT) {
+      return plan;
+    }
+    Screen screen = null;
+    List<String> scanVersions = new ArrayList<>();
+    try {
+      for (PhysicalOperator op : plan.getSortedOperators()) {
+        if (op instanceof Screen) {
+          screen = (Screen) op;
+        } else if (op instanceof GroupScan) {
+          String version = op instanceof FileGroupScan ? ((GroupScan) op).getMetadataVersion() : null;
+          if (version == null) {
+            return plan;
+          }
+          scanVersions.add(version);
+        }
+      }
+    } catch (IOException e) {
+      logger.debug("Failed to get the metadata versions of the tables of the query: {}", sql, e);
+      return plan;
+    }
+    if (screen == null || !PlanCache.isQueryIndependent(context, sql)) {
+      return plan;
+    }
+
+    String digest = Hashing.sha256().newHasher()
+        .putString(plan.unparse(context.getLpPersistence().getMapper().writer()), StandardCharsets.UTF_8)
+        .putString(String.valueOf(context.getQueryUserName()), StandardCharsets.UTF_8)
+        .putString(PlanCache.digestOptions(context), StandardCharsets.UTF_8)
+        .hash().toString();
+    Entry entry = results.getIfPresent(digest);
+    if (entry != null) {
+      if (!entry.scanVersions.equals(scanVersions)) {
+        logger.debug("Files of a table scanned by cached results changed, running the query: {}", sql);
+        results.invalidate(digest);
+        invalidations.incrementAndGet();
+      } else if (entry.retain()) {
+        // Released by the reader of the results
+        hits.incrementAndGet();
+        return entry.newPlan(plan, screen);
+      }
+    }
+    misses.incrementAndGet();
+    screen.setResultCacheKey(new ResultCacheKey(digest, scanVersions));
+    return plan;
+  }
+
+  /**
+   * @return a new capture of the results sent by a screen, to be cached under
+   * the given key
+   */
+  public Capture newCapture(ResultCacheKey key) {
+    return new Capture(key);
+  }
+
+  /**
+   * Releases the file of cached results read by a query, deleting it if
+   * it is no longer cached nor read by another query.
+   *
+   * @param file file of the results, as given to the {@link ResultCacheRecordReader}
+   */
+  public void release(String file) {
+    Entry entry = files.get(file);
+    if (entry != null) {
+      entry.release();
+    }
+  }
+
+  public long size() {
+    return results.size();
+  }
+
+  /**
+   * @return the number of files of results, cached or still being read
+   */
+  int getFileCount() {
+    return files.size();
+  }
+
+  public long getSizeBytes() {
+    long bytes = 0;
+    for (Entry entry : results.asMap().values()) {
+      bytes += entry.bytes;
+    }
+    return bytes;
+  }
+
+  public long getHits() {
+    return hits.get();
+  }
+
+  public long getMisses() {
+    return misses.get();
+  }
+
+  public long getEvictions() {
+    return results.stats().evictionCount();
+  }
+
+  public long getInvalidations() {
+    return invalidations.get();
+  }
+
+  @Override
+  public void close() {
+    results.invalidateAll();
+    FileUtils.deleteQuietly(directory.toFile());
+  }
+
+  /**
+   * Writes the batches sent to the client by a screen to a file, which is
+   * added to the cache by {@link #commit()} once all of them were sent.
+   * Closing a capture that was not committed drops the file.
+   */
+  public class Capture implements AutoCloseable {
+    private final ResultCacheKey key;
+    private Path file;
+    private OutputStream out;
+    private long bytes;
+    private long rowCount;
+    private int batchCount;
+    private boolean done;
+
+    private Capture(ResultCacheKey key) {
+      this.key = key;
+    }
+
+    /**
+     * Writes a batch about to be sent to the client. The buffers of the
+     * batch are only read.
+     */
+    public void write(QueryWritableBatch batch) {
+      if (done) {
+        return;
+      }
+      try {
+        if (out == null) {
+          Files.createDirectories(directory);
+          file = directory.resolve(UUID.randomUUID().toString());
+          out = new BufferedOutputStream(Files.newOutputStream(file));
+        }
+        RecordBatchDef def = batch.getHeader().getDef();
+        def.writeDelimitedTo(out);
+        bytes += def.getSerializedSize();
+        for (ByteBuf buf : batch.getBuffers()) {
+          buf.getBytes(buf.readerIndex(), out, buf.readableBytes());
+          bytes += buf.readableBytes();
+        }
+        rowCount += batch.getHeader().getRowCount();
+        batchCount++;
+      } catch (IOException e) {
+        logger.warn("Failed to write results to the result cache, they will not be cached.", e);
+        abandon();
+        return;
+      }
+      if (bytes > maxEntryBytes) {
+        logger.debug("Results larger than {} bytes are not cached.", maxEntryBytes);
+        abandon();
+      }
+    }
+
+    /**
+     * Drops the results, for instance when their schema changed.
+     */
+    public void abandon() {
+      if (!done) {
+        done = true;
+        closeFile(true);
+      }
+    }
+
+    /**
+     * Adds the results written so far to the cache.
+     */
+    public void commit() {
+      if (done) {
+        return;
+      }
+      done = true;
+      if (closeFile(false)) {
+        Entry entry = new Entry(key.getScanVersions(), file, batchCount, rowCount, bytes);
+        files.put(file.toString(), entry);
+        results.put(key.getDigest(), entry);
+      }
+    }
+
+    private boolean closeFile(boolean delete) {
+      boolean closed = true;
+      if (out != null) {
+        try {
+          out.close();
+        } catch (IOException e) {
+          logger.warn("Failed to write results to the result cache, they will not be cached.", e);
+          closed = false;
+        }
+      }
+      if (file != null && (delete || !closed)) {
+        deleteQuietly(file);
+      }
+      return closed;
+    }
+
+    @Override
+    public void close() {
+      abandon();
+    }
+  }
+
+  private static void deleteQuietly(Path file) {
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      logger.warn("Failed to delete result cache file {}", file, e);
+    }
+  }
+
+  private class Entry {
+    private final List<String> scanVersions;
+    private final Path file;
+    private final int batchCount;
+    private final long rowCount;
+    private final long bytes;
+    // Held by the cache and by each query reading the file
+    private int references = 1;
+
+    Entry(List<String> scanVersions, Path file, int batchCount, long rowCount, long bytes) {
+      this.scanVersions = scanVersions;
+      this.file = file;
+      this.batchCount = batchCount;
+      this.rowCount = rowCount;
+      this.bytes = bytes;
+    }
+
+    /**
+     * @return a plan which sends the cached results to the client, in place
+     * of the given one
+     */
+    PhysicalPlan newPlan(PhysicalPlan plan, Screen screen) {
+      DirectGroupScan scan = new DirectGroupScan(new ResultCacheRecordReader(file.toString(), batchCount),
+          new ScanStats(GroupScanProperty.EXACT_ROW_COUNT, rowCount, 1, bytes));
+      Screen root = new Screen(scan, screen.getEndpoint());
+      return new PhysicalPlan(plan.getProperties(), Arrays.asList(scan, root));
+    }
+
+    /**
+     * @return false if the file was already deleted
+     */
+    synchronized boolean retain() {
+      if (references == 0) {
+        return false;
+      }
+      references++;
+      return true;
+    }
+
+    synchronized void release() {
+      if (references > 0 && --references == 0) {
+        files.remove(file.toString());
+        deleteQuietly(file);
+      }
+    }
+  }
+}
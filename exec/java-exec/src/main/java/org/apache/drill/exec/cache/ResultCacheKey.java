@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.cache;
+
+import java.util.List;
+import java.util.Objects;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Identifies the results of a query in the {@link ResultCache}: a digest of
+ * the physical plan, the options and the user of the query, and the
+ * metadata versions of the tables it scans at the time it was planned.
+ */
+public class ResultCacheKey {
+
+  private final String digest;
+  private final List<String> scanVersions;
+
+  @JsonCreator
+  public ResultCacheKey(@JsonProperty("digest") String digest,
+                        @JsonProperty("scanVersions") List<String> scanVersions) {
+    this.digest = digest;
+    this.scanVersions = scanVersions;
+  }
+
+  @JsonProperty
+  public String getDigest() {
+    return digest;
+  }
+
+  @JsonProperty
+  public List<String> getScanVersions() {
+    return scanVersions;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    ResultCacheKey that = (ResultCacheKey) o;
+    return digest.equals(that.digest) && scanVersions.equals(that.scanVersions);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(digest, scanVersions);
+  }
+
+  @Override
+  public String toString() {
+    return "ResultCacheKey [digest=" + digest + ", scanVersions=" + scanVersions + "]";
+  }
+}
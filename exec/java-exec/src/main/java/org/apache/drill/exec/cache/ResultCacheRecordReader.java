@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.cache;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Map;
+
+import org.apache.drill.common.exceptions.ExecutionSetupException;
+import org.apache.drill.common.exceptions.UserException;
+import org.apache.drill.exec.exception.SchemaChangeException;
+import org.apache.drill.exec.ops.ExecutorFragmentContext;
+import org.apache.drill.exec.ops.OperatorContext;
+import org.apache.drill.exec.physical.impl.OutputMutator;
+import org.apache.drill.exec.record.VectorContainer;
+import org.apache.drill.exec.record.VectorWrapper;
+import org.apache.drill.exec.store.AbstractRecordReader;
+import org.apache.drill.exec.vector.ValueVector;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonTypeName;
+
+/**
+ * Reads the batches of a query result cached by the {@link ResultCache} back
+ * from the local file they were written to. The reader releases the file
+ * when closed, as the cache keeps it until then.
+ */
+@JsonTypeName("result-cache-record-reader")
+public class ResultCacheRecordReader extends AbstractRecordReader {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ResultCacheRecordReader.class);
+
+  private final String path;
+  private final int batchCount;
+
+  private ResultCache resultCache;
+  private OutputMutator output;
+  private InputStream in;
+  private VectorSerializer.Reader reader;
+  private int batchesRead;
+
+  @JsonCreator
+  public ResultCacheRecordReader(@JsonProperty("path") String path,
+                                 @JsonProperty("batchCount") int batchCount) {
+    this.path = path;
+    this.batchCount = batchCount;
+  }
+
+  @JsonProperty
+  public String getPath() {
+    return path;
+  }
+
+  @JsonProperty
+  public int getBatchCount() {
+    return batchCount;
+  }
+
+  @Override
+  public void setup(OperatorContext context, OutputMutator output) throws ExecutionSetupException {
+    this.output = output;
+    if (context.getFragmentContext() instanceof ExecutorFragmentContext) {
+      resultCache = ((ExecutorFragmentContext) context.getFragmentContext()).getResultCache();
+    }
+    try {
+      in = new BufferedInputStream(Files.newInputStream(Paths.get(path)));
+    } catch (IOException e) {
+      throw new ExecutionSetupException("Failed to open cached results " + path, e);
+    }
+    reader = VectorSerializer.reader(context.getAllocator(), in);
+  }
+
+  @Override
+  public void allocate(Map<String, ValueVector> vectorMap) {
+    // The vectors receive the buffers of the cached batches
+  }
+
+  /**
+   * Transfers the next batch with rows to the output. Empty batches only
+   * contribute their schema, since returning no rows ends the scan.
+   */
+  @Override
+  public int next() {
+    try {
+      while (batchesRead < batchCount) {
+        VectorContainer container = reader.read();
+        batchesRead++;
+        int recordCount = container.getRecordCount();
+        for (VectorWrapper<?> wrapper : container) {
+          ValueVector vector = wrapper.getValueVector();
+          ValueVector outVector = output.addField(vector.getField(), vector.getClass());
+          vector.makeTransferPair(outVector).transfer();
+        }
+        container.clear();
+        if (recordCount > 0) {
+          return recordCount;
+        }
+      }
+      return 0;
+    } catch (IOException | SchemaChangeException e) {
+      throw UserException.dataReadError(e)
+          .message("Failed to read cached results")
+          .addContext("File", path)
+          .build(logger);
+    }
+  }
+
+  @Override
+  public void close() throws Exception {
+    try {
+      if (in != null) {
+        in.close();
+        in = null;
+      }
+    } finally {
+      if (resultCache != null) {
+        resultCache.release(path);
+        resultCache = null;
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "ResultCacheRecordReader[path=" + path + ", batchCount=" + batchCount + "]";
+  }
+}
@@ -48,6 +48,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Set;
 
@@ -58,6 +59,8 @@ import java.util.Set;
 public class FilterBuilder extends AbstractExprVisitor<LogicalExpression, Set<LogicalExpression>, RuntimeException> {
   private static final Logger logger = LoggerFactory.getLogger(FilterBuilder.class);
 
+  private static final String LIKE = "like";
+
   // Flag to check whether predicate cannot be fully converted
   // to metadata filter predicate without omitting its parts.
   // It should be set to false for the case when we want to
@@ -250,6 +253,10 @@ public class FilterBuilder extends AbstractExprVisitor<LogicalExpression, Set<Lo
       return handleIsFunction(funcHolderExpr, value);
     }
 
+    if (LIKE.equals(funcName)) {
+      return handleLikeFunction(funcHolderExpr, value);
+    }
+
     if (FunctionReplacementUtils.isCastFunction(funcName)) {
       List<LogicalExpression> newArgs = generateNewExpressions(funcHolderExpr.args, value);
       if (newArgs == null) {
@@ -292,6 +299,60 @@ public class FilterBuilder extends AbstractExprVisitor<LogicalExpression, Set<Lo
     return ComparisonPredicate.createComparisonPredicate(funcName, newArgs.get(0), newArgs.get(1));
   }
 
+  /**
+   * Converts <tt>column LIKE 'prefix%'</tt> into the range <tt>column >= 'prefix' AND column < 'prefiy'</tt>,
+   * which holds for the same values. Other patterns and LIKE with an escape character are not converted.
+   */
+  private LogicalExpression handleLikeFunction(FunctionHolderExpression functionHolderExpression, Set<LogicalExpression> value) {
+    if (functionHolderExpression.args.size() != 2) {
+      return null;
+    }
+    List<LogicalExpression> newArgs = generateNewExpressions(functionHolderExpression.args, value);
+    if (newArgs == null
+        || !(newArgs.get(0) instanceof TypedFieldExpr)
+        || newArgs.get(0).getMajorType().getMinorType() != TypeProtos.MinorType.VARCHAR
+        || !(newArgs.get(1) instanceof ValueExpressions.QuotedString)) {
+      return null;
+    }
+    String prefix = getLikePrefix(((ValueExpressions.QuotedString) newArgs.get(1)).getString());
+    if (prefix == null) {
+      return null;
+    }
+    String upperBound = prefix.substring(0, prefix.length() - 1) + (char) (prefix.charAt(prefix.length() - 1) + 1);
+    LogicalExpression lower = ComparisonPredicate.createComparisonPredicate(FunctionGenerationHelper.GE,
+        newArgs.get(0), ValueExpressions.getChar(prefix, prefix.length()));
+    LogicalExpression upper = ComparisonPredicate.createComparisonPredicate(FunctionGenerationHelper.LT,
+        newArgs.get(0), ValueExpressions.getChar(upperBound, upperBound.length()));
+    return BooleanPredicate.createBooleanPredicate("booleanAnd", "booleanAnd",
+        Arrays.asList(lower, upper), functionHolderExpression.getPosition());
+  }
+
+  /**
+   * Returns the prefix matched by a LIKE pattern made of literal characters followed by <tt>%</tt>,
+   * or null for any other pattern.
+   */
+  static String getLikePrefix(String pattern) {
+    int end = pattern.length();
+    while (end > 0 && pattern.charAt(end - 1) == '%') {
+      end--;
+    }
+    if (end == 0 || end == pattern.length()) {
+      return null;
+    }
+    for (int i = 0; i < end; i++) {
+      char c = pattern.charAt(i);
+      if (c == '%' || c == '_' || Character.isSurrogate(c)) {
+        return null;
+      }
+    }
+    // the upper bound is made by incrementing the last character, which must stay a character of its own
+    char last = pattern.charAt(end - 1);
+    if (last == Character.MAX_VALUE || Character.isSurrogate((char) (last + 1))) {
+      return null;
+    }
+    return pattern.substring(0, end);
+  }
+
   private LogicalExpression handleIsFunction(FunctionHolderExpression functionHolderExpression, Set<LogicalExpression> value) {
     String funcName;
 
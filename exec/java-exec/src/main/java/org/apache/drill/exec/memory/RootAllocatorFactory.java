@@ -24,6 +24,8 @@ import org.apache.drill.shaded.guava.com.google.common.annotations.VisibleForTes
 public class RootAllocatorFactory {
 
   public static final String TOP_LEVEL_MAX_ALLOC = "drill.memory.top.max";
+  // Fraction of the top level limit above which operators are asked to release memory
+  public static final String PRESSURE_THRESHOLD = "drill.memory.pressure.threshold";
 
   /**
    * Constructor to prevent instantiation of this static utility class.
@@ -37,7 +39,10 @@ public class RootAllocatorFactory {
    * @return a new root allocator
    */
   public static BufferAllocator newRoot(final DrillConfig drillConfig) {
-    return newRoot(drillConfig.getLong(TOP_LEVEL_MAX_ALLOC));
+    final double pressureThreshold = drillConfig.hasPath(PRESSURE_THRESHOLD)
+        ? drillConfig.getDouble(PRESSURE_THRESHOLD) : 1;
+    return new RootAllocator(Math.min(DrillConfig.getMaxDirectMemory(), drillConfig.getLong(TOP_LEVEL_MAX_ALLOC)),
+        pressureThreshold);
   }
 
   @VisibleForTesting
@@ -51,6 +51,13 @@ public class AccountingDataTunnel {
     tunnel.sendRuntimeFilter(statusHandler, batch);
   }
 
+  /**
+   * See {@link DataTunnel#isLocal()}.
+   */
+  public boolean isLocal() {
+    return tunnel.isLocal();
+  }
+
   /**
    * See {@link DataTunnel#setTestInjectionControls(ControlsInjector, ExecutionControls, Logger)}.
    */
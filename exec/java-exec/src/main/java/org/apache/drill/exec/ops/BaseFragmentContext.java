@@ -20,6 +20,7 @@ package org.apache.drill.exec.ops;
 import io.netty.buffer.DrillBuf;
 import java.io.IOException;
 import java.util.List;
+import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.exception.ClassTransformationException;
 import org.apache.drill.exec.expr.ClassGenerator;
 import org.apache.drill.exec.expr.CodeGenerator;
@@ -34,6 +35,7 @@ import org.apache.drill.exec.proto.UserBitShared;
 public abstract class BaseFragmentContext implements FragmentContext {
 
   private final FunctionImplementationRegistry funcRegistry;
+  private FragmentMemoryPool memoryPool;
 
   public BaseFragmentContext(final FunctionImplementationRegistry funcRegistry) {
     this.funcRegistry = funcRegistry;
@@ -70,6 +72,14 @@ public abstract class BaseFragmentContext implements FragmentContext {
     return instances;
   }
 
+  @Override
+  public FragmentMemoryPool getMemoryPool() {
+    if (memoryPool == null) {
+      memoryPool = new FragmentMemoryPool(getOptions().getOption(ExecConstants.MEMORY_REBALANCE_VALIDATOR));
+    }
+    return memoryPool;
+  }
+
   protected abstract BufferManager getBufferManager();
 
   @Override
@@ -17,15 +17,18 @@
  */
 package org.apache.drill.exec.ops;
 
+import org.apache.drill.exec.cache.ResultCache;
 import org.apache.drill.exec.coord.ClusterCoordinator;
 import org.apache.drill.exec.memory.BufferAllocator;
 import org.apache.drill.exec.physical.impl.OperatorCreatorRegistry;
 import org.apache.drill.exec.planner.PhysicalPlanReader;
+import org.apache.drill.exec.planner.sql.PlanCache;
 import org.apache.drill.exec.proto.CoordinationProtos;
 import org.apache.drill.exec.rpc.control.WorkEventBus;
 import org.apache.drill.exec.rpc.user.UserServer;
 import org.apache.drill.exec.server.QueryProfileStoreContext;
 import org.apache.drill.exec.work.batch.IncomingBuffers;
+import org.apache.drill.exec.work.filter.LocalRuntimeFilterAggregator;
 
 import java.util.Collection;
 import java.util.Map;
@@ -46,6 +49,15 @@ public interface ExecutorFragmentContext extends RootFragmentContext {
 
   PhysicalPlanReader getPlanReader();
 
+  PlanCache getPlanCache();
+
+  ResultCache getResultCache();
+
+  /**
+   * Returns the aggregator of the RuntimeFilters of the build side fragments running on this Drillbit.
+   */
+  LocalRuntimeFilterAggregator getRuntimeFilterAggregator();
+
   ClusterCoordinator getClusterCoordinator();
 
   CoordinationProtos.DrillbitEndpoint getForemanEndpoint();
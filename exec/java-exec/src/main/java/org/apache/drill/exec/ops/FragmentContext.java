@@ -145,6 +145,11 @@ public interface FragmentContext extends UdfUtilities, AutoCloseable {
 
   BufferAllocator getAllocator();
 
+  /**
+   * @return the memory the buffered operators of this fragment gave back, for the others to borrow
+   */
+  FragmentMemoryPool getMemoryPool();
+
   /**
    * @return ID {@link java.util.UUID} of the current query
    */
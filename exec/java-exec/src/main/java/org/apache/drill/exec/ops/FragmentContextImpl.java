@@ -37,6 +37,7 @@ import org.apache.drill.common.exceptions.ExecutionSetupException;
 import org.apache.drill.common.exceptions.UserException;
 import org.apache.drill.common.types.TypeProtos.MinorType;
 import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.cache.ResultCache;
 import org.apache.drill.exec.compile.CodeCompiler;
 import org.apache.drill.exec.coord.ClusterCoordinator;
 import org.apache.drill.exec.exception.OutOfMemoryException;
@@ -48,6 +49,7 @@ import org.apache.drill.exec.physical.base.PhysicalOperator;
 import org.apache.drill.exec.physical.impl.OperatorCreatorRegistry;
 import org.apache.drill.exec.planner.PhysicalPlanReader;
 import org.apache.drill.exec.planner.physical.PlannerSettings;
+import org.apache.drill.exec.planner.sql.PlanCache;
 import org.apache.drill.exec.proto.BitControl.PlanFragment;
 import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
 import org.apache.drill.exec.proto.ExecProtos.FragmentHandle;
@@ -70,7 +72,9 @@ import org.apache.drill.exec.store.SchemaConfig;
 import org.apache.drill.exec.testing.ExecutionControls;
 import org.apache.drill.exec.util.ImpersonationUtil;
 import org.apache.drill.exec.work.batch.IncomingBuffers;
+import org.apache.drill.exec.work.filter.LocalRuntimeFilterAggregator;
 import org.apache.drill.exec.work.filter.RuntimeFilterWritable;
+import org.apache.drill.exec.work.fragment.FragmentScheduler;
 import org.apache.drill.metastore.MetastoreRegistry;
 import org.apache.drill.shaded.guava.com.google.common.base.Function;
 import org.apache.drill.shaded.guava.com.google.common.base.Preconditions;
@@ -245,6 +249,21 @@ public class FragmentContextImpl extends BaseFragmentContext implements Executor
     return context.getPlanReader();
   }
 
+  @Override
+  public PlanCache getPlanCache() {
+    return context.getPlanCache();
+  }
+
+  @Override
+  public ResultCache getResultCache() {
+    return context.getResultCache();
+  }
+
+  @Override
+  public LocalRuntimeFilterAggregator getRuntimeFilterAggregator() {
+    return context.getRuntimeFilterAggregator();
+  }
+
   @Override
   public ClusterCoordinator getClusterCoordinator() {
     return context.getClusterCoordinator();
@@ -406,7 +425,7 @@ public class FragmentContextImpl extends BaseFragmentContext implements Executor
       lock4RF.lock();
       try {
         if (rfIdentifier2RFW.get(rfIdentifier) == null) {
-          condition4RF.await(maxWaitTime, timeUnit);
+          FragmentScheduler.managedCall(() -> condition4RF.await(maxWaitTime, timeUnit));
         }
       } catch (InterruptedException e) {
         logger.info("Condition was interrupted", e);
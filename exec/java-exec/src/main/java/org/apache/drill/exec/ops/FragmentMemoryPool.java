@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.ops;
+
+import org.apache.drill.exec.memory.BufferAllocator;
+
+/**
+ * Memory given at plan time to the buffered operators of a fragment (sort,
+ * hash aggregate, hash join) that one of them did not use, and that the
+ * others may borrow instead of spilling.
+ * <p>
+ * The planner divides the memory of a query evenly between its buffered
+ * operators, whatever the amount of data each of them will see. An operator
+ * that is done with its input gives back what its allocator may still
+ * allocate beyond what it holds: its allocator limit is lowered by that much
+ * and the memory goes to this pool. An operator about to spill first asks the
+ * pool for the memory it lacks, and the limit of its allocator is raised by
+ * the amount lent. Limits only move from one operator allocator of the
+ * fragment to another, so the memory of the fragment never exceeds what it
+ * was planned with.
+ */
+public class FragmentMemoryPool {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(FragmentMemoryPool.class);
+
+  private final boolean enabled;
+  private long available;
+
+  public FragmentMemoryPool(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * Gives back to the pool the memory the given operator allocator may still
+   * allocate, lowering its limit to the memory it holds. The operator must not
+   * allocate anything afterwards without borrowing first.
+   *
+   * @param allocator allocator of an operator that is done with its input
+   * @return the number of bytes given back
+   */
+  public synchronized long giveBack(BufferAllocator allocator) {
+    if (!enabled) {
+      return 0;
+    }
+    long unused = allocator.getLimit() - allocator.getAllocatedMemory();
+    if (unused <= 0) {
+      return 0;
+    }
+    allocator.setLimit(allocator.getLimit() - unused);
+    available += unused;
+    logger.debug("{} gave back {} bytes, {} bytes available", allocator.getName(), unused, available);
+    return unused;
+  }
+
+  /**
+   * Lends the given amount of memory to an operator allocator, raising its
+   * limit by that much, if the pool holds that much.
+   *
+   * @param allocator allocator of an operator about to spill
+   * @param bytes memory the operator lacks
+   * @return whether the memory was lent
+   */
+  public synchronized boolean borrow(BufferAllocator allocator, long bytes) {
+    if (!enabled || bytes <= 0 || bytes > available) {
+      return false;
+    }
+    available -= bytes;
+    allocator.setLimit(allocator.getLimit() + bytes);
+    logger.debug("{} borrowed {} bytes, {} bytes available", allocator.getName(), bytes, available);
+    return true;
+  }
+
+  /**
+   * @return the number of bytes the pool may lend
+   */
+  public synchronized long getAvailable() {
+    return available;
+  }
+}
@@ -30,9 +30,11 @@ import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.expr.fn.FunctionImplementationRegistry;
 import org.apache.drill.exec.expr.fn.registry.RemoteFunctionRegistry;
 import org.apache.drill.exec.expr.holders.ValueHolder;
+import org.apache.drill.exec.cache.ResultCache;
 import org.apache.drill.exec.memory.BufferAllocator;
 import org.apache.drill.exec.planner.physical.PlannerSettings;
 import org.apache.drill.exec.planner.sql.DrillOperatorTable;
+import org.apache.drill.exec.planner.sql.PlanCache;
 import org.apache.drill.exec.proto.BitControl.QueryContextInformation;
 import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
 import org.apache.drill.exec.proto.UserBitShared.QueryId;
@@ -278,6 +280,14 @@ public class QueryContext implements AutoCloseable, OptimizerRulesContext, Schem
     return this.getOption(ExecConstants.HASHJOIN_ENABLE_RUNTIME_FILTER_KEY).bool_val;
   }
 
+  public PlanCache getPlanCache() {
+    return drillbitContext.getPlanCache();
+  }
+
+  public ResultCache getResultCache() {
+    return drillbitContext.getResultCache();
+  }
+
   public DrillOperatorTable getDrillOperatorTable() {
     return table;
   }
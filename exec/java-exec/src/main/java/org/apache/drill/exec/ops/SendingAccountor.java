@@ -20,6 +20,8 @@ package org.apache.drill.exec.ops;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.drill.exec.work.fragment.FragmentScheduler;
+
 /**
  * Account for whether all messages sent have been completed. Necessary before finishing a task so we don't think
  * buffers are hanging when they will be released.
@@ -45,7 +47,11 @@ public class SendingAccountor {
       boolean isInterrupted = false;
       while(waitForBatches != 0) {
         try {
-          wait.acquire(waitForBatches);
+          final int permits = waitForBatches;
+          FragmentScheduler.managedCall(() -> {
+            wait.acquire(permits);
+            return null;
+          });
           waitForBatches = batchesSent.addAndGet(-1 * waitForBatches);
         } catch (InterruptedException e) {
           // We should always wait for send complete. If we don't, we'll leak memory or have a memory miss when we try
@@ -76,6 +76,7 @@ public class ViewExpansionContext {
   private final String queryUser;
   private final ObjectIntHashMap<String> userTokens = new ObjectIntHashMap<>();
   private final boolean impersonationEnabled;
+  private boolean viewExpanded;
 
   public ViewExpansionContext(QueryContext queryContext) {
     this(queryContext.getConfig(), queryContext);
@@ -92,6 +93,20 @@ public class ViewExpansionContext {
     return impersonationEnabled;
   }
 
+  /**
+   * Records that the query expanded a view, whose definition its plan depends on.
+   */
+  public void setViewExpanded() {
+    viewExpanded = true;
+  }
+
+  /**
+   * @return true if the query expanded at least one view
+   */
+  public boolean isViewExpanded() {
+    return viewExpanded;
+  }
+
   /**
    * Reserve a token for expansion of view owned by given user name. If it can't issue any more tokens,
    * throws {@link UserException}.
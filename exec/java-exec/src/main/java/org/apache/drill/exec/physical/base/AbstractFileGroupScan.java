@@ -18,8 +18,21 @@
 package org.apache.drill.exec.physical.base;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 
+import org.apache.drill.exec.store.dfs.DrillFileSystem;
 import org.apache.drill.exec.store.dfs.FileSelection;
+import org.apache.drill.exec.util.FileSystemUtil;
+import org.apache.drill.exec.util.ImpersonationUtil;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileStatus;
+import org.apache.hadoop.fs.Path;
+
+import org.apache.drill.shaded.guava.com.google.common.hash.Hasher;
+import org.apache.drill.shaded.guava.com.google.common.hash.Hashing;
 
 public abstract class AbstractFileGroupScan extends AbstractGroupScan implements FileGroupScan {
 
@@ -45,4 +58,47 @@ public abstract class AbstractFileGroupScan extends AbstractGroupScan implements
   public boolean supportsPartitionFilterPushdown() {
     return true;
   }
+
+  /**
+   * Versions the scanned files by a fingerprint of the path, length and
+   * modification time of each file and directory under the selection root,
+   * so that added, removed and replaced files are all noticed, even when a
+   * replacing file kept an older modification time. The version is derived
+   * from the files alone, so that a freshly planned scan and the same scan
+   * read back from a cached plan get the same one.
+   */
+  @Override
+  public String getMetadataVersion() throws IOException {
+    Configuration fsConf = getFsConf();
+    Path selectionRoot = getSelectionRoot();
+    if (fsConf == null || selectionRoot == null) {
+      return null;
+    }
+    DrillFileSystem fs = ImpersonationUtil.createFileSystem(ImpersonationUtil.resolveUserName(getUserName()), fsConf);
+    FileStatus rootStatus = fs.getFileStatus(selectionRoot);
+    Hasher hasher = Hashing.sha256().newHasher();
+    putStatus(hasher, rootStatus);
+    if (rootStatus.isDirectory()) {
+      List<FileStatus> statuses = new ArrayList<>(FileSystemUtil.listAll(fs, selectionRoot, true));
+      statuses.sort(Comparator.comparing(FileStatus::getPath));
+      for (FileStatus status : statuses) {
+        putStatus(hasher, status);
+      }
+    }
+    return "files:" + hasher.hash();
+  }
+
+  private static void putStatus(Hasher hasher, FileStatus status) {
+    hasher.putString(status.getPath().toString(), StandardCharsets.UTF_8)
+        .putLong(status.getLen())
+        .putLong(status.getModificationTime());
+  }
+
+  /**
+   * @return the file system configuration of the scanned files, or null if
+   * the scan does not know it, in which case it has no metadata version
+   */
+  protected Configuration getFsConf() {
+    return null;
+  }
 }
@@ -17,6 +17,7 @@
  */
 package org.apache.drill.exec.physical.base;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
@@ -218,4 +219,9 @@ public abstract class AbstractGroupScan extends AbstractBase implements GroupSca
   public AnalyzeInfoProvider getAnalyzeInfoProvider() {
     return null;
   }
+
+  @Override
+  public String getMetadataVersion() throws IOException {
+    return null;
+  }
 }
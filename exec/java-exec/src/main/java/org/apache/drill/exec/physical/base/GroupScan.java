@@ -18,6 +18,7 @@
 package org.apache.drill.exec.physical.base;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import java.io.IOException;
 import java.util.Collection;
 import java.util.List;
 import org.apache.drill.common.exceptions.ExecutionSetupException;
@@ -188,4 +189,14 @@ public interface GroupScan extends Scan, HasAffinity {
    */
   @JsonIgnore
   AnalyzeInfoProvider getAnalyzeInfoProvider();
+
+  /**
+   * Returns a version of the data and metadata this group scan was planned from,
+   * which changes whenever they change. Used to check that a cached plan is still valid.
+   *
+   * @return version of the scanned data, or {@code null} if unknown, in which case
+   * plans with this group scan are not cached
+   */
+  @JsonIgnore
+  String getMetadataVersion() throws IOException;
 }
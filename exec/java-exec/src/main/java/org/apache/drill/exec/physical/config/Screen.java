@@ -20,6 +20,7 @@ package org.apache.drill.exec.physical.config;
 import java.util.Collections;
 import java.util.List;
 
+import org.apache.drill.exec.cache.ResultCacheKey;
 import org.apache.drill.exec.physical.EndpointAffinity;
 import org.apache.drill.exec.physical.PhysicalOperatorSetupException;
 import org.apache.drill.exec.physical.base.AbstractStore;
@@ -31,7 +32,9 @@ import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
 import org.apache.drill.exec.proto.UserBitShared.CoreOperatorType;
 
 import com.fasterxml.jackson.annotation.JacksonInject;
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 
@@ -40,11 +43,20 @@ public class Screen extends AbstractStore {
   static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(Screen.class);
 
   private final DrillbitEndpoint endpoint;
+  private ResultCacheKey resultCacheKey;
 
-  public Screen(@JsonProperty("child") PhysicalOperator child, @JacksonInject DrillbitEndpoint endpoint) {
+  public Screen(PhysicalOperator child, DrillbitEndpoint endpoint) {
+    this(child, endpoint, null);
+  }
+
+  @JsonCreator
+  public Screen(@JsonProperty("child") PhysicalOperator child,
+                @JacksonInject DrillbitEndpoint endpoint,
+                @JsonProperty("resultCacheKey") ResultCacheKey resultCacheKey) {
     super(child);
     assert (endpoint!=null);
     this.endpoint = endpoint;
+    this.resultCacheKey = resultCacheKey;
   }
 
   @Override
@@ -75,7 +87,7 @@ public class Screen extends AbstractStore {
 
   @Override
   public Store getSpecificStore(PhysicalOperator child, int minorFragmentId) {
-    return new Screen(child, endpoint);
+    return new Screen(child, endpoint, resultCacheKey);
   }
 
   @JsonIgnore
@@ -83,6 +95,20 @@ public class Screen extends AbstractStore {
     return endpoint;
   }
 
+  /**
+   * @return the key under which the results sent to the client are cached,
+   * or null if they are not
+   */
+  @JsonProperty
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  public ResultCacheKey getResultCacheKey() {
+    return resultCacheKey;
+  }
+
+  public void setResultCacheKey(ResultCacheKey resultCacheKey) {
+    this.resultCacheKey = resultCacheKey;
+  }
+
   @Override
   public String toString() {
     return "Screen [endpoint=" + endpoint + ", getChild()=" + getChild() + "]";
@@ -90,7 +116,7 @@ public class Screen extends AbstractStore {
 
   @Override
   protected PhysicalOperator getNewWithChild(PhysicalOperator child) {
-    return new Screen(child, endpoint);
+    return new Screen(child, endpoint, resultCacheKey);
   }
 
   @Override
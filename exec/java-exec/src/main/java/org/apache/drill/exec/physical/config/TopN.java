@@ -20,6 +20,8 @@ package org.apache.drill.exec.physical.config;
 import java.util.List;
 
 import org.apache.drill.common.logical.data.Order.Ordering;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.ops.QueryContext;
 import org.apache.drill.exec.physical.base.PhysicalOperator;
 import org.apache.drill.exec.physical.base.PhysicalVisitor;
 import org.apache.drill.exec.proto.UserBitShared.CoreOperatorType;
@@ -54,6 +56,20 @@ public class TopN extends Sort {
     return limit;
   }
 
+  /**
+   * A Top-N whose limit is large enough for it to spill gets memory like the other buffered operators,
+   * the heap of a smaller one stays within the memory of the fragment.
+   * @param queryContext
+   */
+  @Override
+  public boolean isBufferedOperator(QueryContext queryContext) {
+    if (queryContext == null) {
+      return false;
+    }
+    long minLimit = queryContext.getOptions().getOption(ExecConstants.TOPN_SPILL_MIN_LIMIT);
+    return minLimit > 0 && limit >= minLimit;
+  }
+
   @Override
   public <T, X, E extends Throwable> T accept(PhysicalVisitor<T, X, E> physicalVisitor, X value) throws E{
     return physicalVisitor.visitSort(this, value);
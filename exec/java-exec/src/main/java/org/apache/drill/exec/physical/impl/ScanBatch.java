@@ -17,6 +17,7 @@
  */
 package org.apache.drill.exec.physical.impl;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
@@ -56,6 +57,8 @@ import org.apache.drill.exec.vector.AllocationHelper;
 import org.apache.drill.exec.vector.NullableVarCharVector;
 import org.apache.drill.exec.vector.SchemaChangeCallBack;
 import org.apache.drill.exec.vector.ValueVector;
+import org.apache.drill.exec.work.filter.RangeFilterAware;
+import org.apache.drill.exec.work.filter.StatisticsFilter;
 import org.apache.drill.shaded.guava.com.google.common.annotations.VisibleForTesting;
 import org.apache.drill.shaded.guava.com.google.common.base.Preconditions;
 import org.slf4j.Logger;
@@ -95,6 +98,9 @@ public class ScanBatch implements CloseableRecordBatch {
   private List<RecordReader> readerList; // needed for repeatable scanners
   private boolean isRepeatableScan;      // needed for repeatable scanners
 
+  // Range filters of the hash joins this scan is the probe side of, received so far
+  private final List<StatisticsFilter> filters = new ArrayList<>();
+
   /**
    *
    * @param context
@@ -161,6 +167,15 @@ public class ScanBatch implements CloseableRecordBatch {
 
   public OperatorContext getOperatorContext() { return oContext; }
 
+  /**
+   * Adds a filter received at runtime, such as the range filter of a hash join whose probe
+   * side this scan is, or the cutoff of a Top-N above it. The readers not set up yet which
+   * can tell that none of their rows passes it are skipped.
+   */
+  public void addFilter(StatisticsFilter filter) {
+    filters.add(filter);
+  }
+
   @Override
   public BatchSchema getSchema() {
     return schema;
@@ -317,18 +332,42 @@ public class ScanBatch implements CloseableRecordBatch {
     }
   }
 
-  private boolean getNextReaderIfHas() throws ExecutionSetupException {
-    if (!readers.hasNext()) {
+  private boolean getNextReaderIfHas() throws Exception {
+    while (readers.hasNext()) {
+      currentReader = readers.next();
+      if (!isRepeatableScan && readers.hasNext()) {
+        readers.remove();
+      }
+      implicitValues = implicitColumns.hasNext() ? implicitColumns.next() : null;
+      if (canSkip(currentReader)) {
+        // Never set up, the reader still holds resources and reports its stats on close
+        currentReader.close();
+        currentReader = null;
+        continue;
+      }
+      currentReader.setup(oContext, mutator);
+      currentReaderClassName = currentReader.getClass().getSimpleName();
+      return true;
+    }
+    currentReader = null;
+    return false;
+  }
+
+  /**
+   * Tells whether a reader may be skipped according to the filters received so far.
+   * Readers are only skipped once the schema is known, from the readers set up before.
+   */
+  private boolean canSkip(RecordReader reader) {
+    if (schema == null || isRepeatableScan || !(reader instanceof RangeFilterAware)) {
       return false;
     }
-    currentReader = readers.next();
-    if (!isRepeatableScan && readers.hasNext()) {
-      readers.remove();
+    for (StatisticsFilter filter : filters) {
+      if (((RangeFilterAware) reader).canSkip(filter, oContext)) {
+        logger.debug("Skipping reader {}, none of its rows passes the {}", reader, filter);
+        return true;
+      }
     }
-    implicitValues = implicitColumns.hasNext() ? implicitColumns.next() : null;
-    currentReader.setup(oContext, mutator);
-    currentReaderClassName = currentReader.getClass().getSimpleName();
-    return true;
+    return false;
   }
 
   private void addImplicitVectors() {
@@ -20,6 +20,7 @@ package org.apache.drill.exec.physical.impl;
 import java.util.List;
 
 import org.apache.drill.common.exceptions.ExecutionSetupException;
+import org.apache.drill.exec.cache.ResultCache;
 import org.apache.drill.exec.exception.OutOfMemoryException;
 import org.apache.drill.exec.ops.AccountingUserConnection;
 import org.apache.drill.exec.ops.ExecutorFragmentContext;
@@ -46,7 +47,9 @@ public class ScreenCreator implements RootCreator<Screen> {
       throws ExecutionSetupException {
     Preconditions.checkNotNull(children);
     Preconditions.checkArgument(children.size() == 1);
-    return new ScreenRoot(context, children.iterator().next(), config);
+    ResultCache.Capture resultCapture = config.getResultCacheKey() == null ? null :
+        context.getResultCache().newCapture(config.getResultCacheKey());
+    return new ScreenRoot(context, children.iterator().next(), config, resultCapture);
   }
 
   public static class ScreenRoot extends BaseRootExec {
@@ -54,6 +57,7 @@ public class ScreenCreator implements RootCreator<Screen> {
     private final RecordBatch incoming;
     private final RootFragmentContext context;
     private final AccountingUserConnection userConnection;
+    private final ResultCache.Capture resultCapture;
     private RecordMaterializer materializer;
 
     private boolean firstBatch = true;
@@ -68,9 +72,19 @@ public class ScreenCreator implements RootCreator<Screen> {
     }
 
     public ScreenRoot(RootFragmentContext context, RecordBatch incoming, Screen config) throws OutOfMemoryException {
+      this(context, incoming, config, null);
+    }
+
+    /**
+     * @param resultCapture capture of the sent batches for the result cache,
+     * or null if the results are not cached
+     */
+    public ScreenRoot(RootFragmentContext context, RecordBatch incoming, Screen config,
+                      ResultCache.Capture resultCapture) throws OutOfMemoryException {
       super(context, config);
       this.context = context;
       this.incoming = incoming;
+      this.resultCapture = resultCapture;
       userConnection = context.getUserDataTunnel();
     }
 
@@ -88,6 +102,9 @@ public class ScreenCreator implements RootCreator<Screen> {
       case STOP:
         return false;
       case NONE:
+        if (resultCapture != null) {
+          resultCapture.commit();
+        }
         if (firstBatch) {
           // this is the only data message sent to the client and may contain the schema
           QueryWritableBatch batch;
@@ -110,11 +127,18 @@ public class ScreenCreator implements RootCreator<Screen> {
         return false;
       case OK_NEW_SCHEMA:
         materializer = new VectorRecordMaterializer(context, oContext, incoming);
+        if (!firstBatch && resultCapture != null) {
+          // Cached results are read back with the schema of their first batch
+          resultCapture.abandon();
+        }
         //$FALL-THROUGH$
       case OK:
         injector.injectPause(context.getExecutionControls(), "sending-data", logger);
         final QueryWritableBatch batch = materializer.convertNext();
         updateStats(batch);
+        if (resultCapture != null) {
+          resultCapture.write(batch);
+        }
         stats.startWait();
         try {
           userConnection.sendData(batch);
@@ -140,6 +164,9 @@ public class ScreenCreator implements RootCreator<Screen> {
     @Override
     public void close() throws Exception {
       injector.injectPause(context.getExecutionControls(), "send-complete", logger);
+      if (resultCapture != null) {
+        resultCapture.close();
+      }
       super.close();
     }
   }
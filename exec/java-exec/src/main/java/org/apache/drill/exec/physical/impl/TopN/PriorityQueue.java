@@ -82,5 +82,16 @@ public interface PriorityQueue {
 
   boolean isInitialized();
 
+  /**
+   * @return true once the queue holds as many rows as its size, the root of the heap being the last row kept
+   * as given by {@link #getSv4()}
+   */
+  boolean isFull();
+
+  /**
+   * @return the number of rows kept so far, at the start of {@link #getSv4()}
+   */
+  int getQueueSize();
+
   TemplateClassDefinition<PriorityQueue> TEMPLATE_DEFINITION = new TemplateClassDefinition<>(PriorityQueue.class, PriorityQueueTemplate.class);
 }
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.TopN;
+
+import java.util.function.ObjIntConsumer;
+
+import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.ops.OperatorContext;
+import org.apache.drill.exec.physical.config.TopN;
+import org.apache.drill.exec.physical.impl.spill.SpillSet;
+import org.apache.drill.exec.physical.impl.xsort.managed.PriorityQueueCopierWrapper;
+import org.apache.drill.exec.physical.impl.xsort.managed.SortConfig;
+import org.apache.drill.exec.physical.impl.xsort.managed.SortImpl;
+import org.apache.drill.exec.physical.impl.xsort.managed.SortImpl.SortResults;
+import org.apache.drill.exec.physical.impl.xsort.managed.SpilledRuns;
+import org.apache.drill.exec.record.BatchSchema;
+import org.apache.drill.exec.record.RecordBatch.IterOutcome;
+import org.apache.drill.exec.record.VectorAccessible;
+import org.apache.drill.exec.record.VectorContainer;
+import org.apache.drill.exec.record.selection.SelectionVector4;
+
+/**
+ * The spilling mode of {@link TopNBatch}, used once the rows kept by its heap outgrow half of the memory of
+ * the operator. The rows kept so far and all the following incoming batches go to the managed external sort
+ * ({@link SortImpl}), which spills sorted runs of at most <i>limit</i> rows through a {@link SpillSet} and merges
+ * them back. Only the first <i>limit</i> rows of its output are returned.
+ * <p>
+ * As with the external sort, spilling is not supported with EMIT outcome.
+ */
+public class SpillingTopN implements AutoCloseable {
+
+  private final SortImpl sortImpl;
+  private final BatchSchema schema;
+  // Container the sort merges the spilled runs into
+  private final VectorContainer sortContainer;
+  private SortResults results;
+  private int rowsLeft;
+  private int recordCount;
+
+  /**
+   * @param runLimitListener told the batch and the index of the last row of each spilled run reaching the limit
+   */
+  public SpillingTopN(OperatorContext context, TopN popConfig, BatchSchema schema,
+                      ObjIntConsumer<VectorContainer> runLimitListener) {
+    FragmentContext fragmentContext = context.getFragmentContext();
+    SortConfig sortConfig = new SortConfig(fragmentContext.getConfig(), fragmentContext.getOptions());
+    SpillSet spillSet = new SpillSet(fragmentContext.getConfig(), fragmentContext.getHandle(), popConfig);
+    PriorityQueueCopierWrapper copierHolder = new PriorityQueueCopierWrapper(context);
+    SpilledRuns spilledRuns = new SpilledRuns(context, spillSet, copierHolder);
+    // The rows of a run past the limit may not be part of the Top-N
+    spilledRuns.setRunRowLimit(popConfig.getLimit(), runLimitListener);
+    sortContainer = new VectorContainer(fragmentContext.getAllocator());
+    sortImpl = new SortImpl(context, sortConfig, spilledRuns, sortContainer);
+    sortImpl.setSchema(schema);
+    this.schema = schema;
+    rowsLeft = popConfig.getLimit();
+  }
+
+  /**
+   * Takes over the rows of a batch, spilling if needed.
+   */
+  public void add(VectorAccessible batch) {
+    sortImpl.addBatch(batch);
+  }
+
+  /**
+   * Merges the rows added and loads the first output batch into the container of the TopN.
+   *
+   * @param container output container of the TopN
+   * @param sv4 output selection vector of the TopN, used when the rows were merged in memory
+   * @return false if there are no rows
+   */
+  public boolean startOutput(VectorContainer container, SelectionVector4 sv4) {
+    results = sortImpl.startMerge();
+    if (!results.next()) {
+      return false;
+    }
+    container.clear();
+    results.updateOutputContainer(container, sv4, IterOutcome.OK, schema);
+    limitOutput(container);
+    return true;
+  }
+
+  /**
+   * Loads the next output batch, until <i>limit</i> rows were returned.
+   *
+   * @return false once all the rows were returned
+   */
+  public boolean nextOutput(VectorContainer container, SelectionVector4 sv4) {
+    if (rowsLeft == 0) {
+      return false;
+    }
+    // The output selection vector progresses along with the one of the results
+    sv4.next();
+    if (!results.next()) {
+      return false;
+    }
+    limitOutput(container);
+    return true;
+  }
+
+  /**
+   * Cuts the output batch short after the last row of the Top-N. The selection vector remover below the TopN
+   * only copies as many rows as the record count.
+   */
+  private void limitOutput(VectorContainer container) {
+    recordCount = Math.min(results.getRecordCount(), rowsLeft);
+    rowsLeft -= recordCount;
+    container.setRecordCount(recordCount);
+  }
+
+  public int getRecordCount() {
+    return recordCount;
+  }
+
+  @Override
+  public void close() {
+    RuntimeException ex = null;
+    try {
+      if (results != null) {
+        results.close();
+        results = null;
+      }
+    } catch (RuntimeException e) {
+      ex = e;
+    }
+    try {
+      sortImpl.close();
+    } catch (RuntimeException e) {
+      ex = ex == null ? e : ex;
+    }
+    sortContainer.clear();
+    if (ex != null) {
+      throw ex;
+    }
+  }
+}
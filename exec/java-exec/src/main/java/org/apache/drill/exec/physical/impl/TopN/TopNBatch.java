@@ -27,6 +27,8 @@ import org.apache.drill.common.config.DrillConfig;
 import org.apache.drill.common.expression.ErrorCollector;
 import org.apache.drill.common.expression.ErrorCollectorImpl;
 import org.apache.drill.common.expression.LogicalExpression;
+import org.apache.drill.common.expression.SchemaPath;
+import org.apache.drill.common.logical.data.NamedExpression;
 import org.apache.drill.common.logical.data.Order.Ordering;
 import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.compile.CodeCompiler;
@@ -44,11 +46,19 @@ import org.apache.drill.exec.expr.fn.FunctionLookupContext;
 import org.apache.drill.exec.memory.BufferAllocator;
 import org.apache.drill.exec.ops.FragmentContext;
 import org.apache.drill.exec.physical.config.TopN;
+import org.apache.drill.exec.physical.impl.ScanBatch;
+import org.apache.drill.exec.physical.impl.filter.FilterRecordBatch;
+import org.apache.drill.exec.physical.impl.filter.RuntimeFilterRecordBatch;
+import org.apache.drill.exec.physical.impl.project.ProjectRecordBatch;
 import org.apache.drill.exec.physical.impl.sort.RecordBatchData;
 import org.apache.drill.exec.physical.impl.sort.SortRecordBatchBuilder;
 import org.apache.drill.exec.physical.impl.svremover.Copier;
 import org.apache.drill.exec.physical.impl.svremover.GenericCopierFactory;
+import org.apache.drill.exec.physical.impl.svremover.RemovingRecordBatch;
+import org.apache.drill.exec.physical.impl.validate.IteratorValidatorBatchIterator;
+import org.apache.drill.exec.planner.StarColumnHelper;
 import org.apache.drill.exec.record.AbstractRecordBatch;
+import org.apache.drill.exec.record.AbstractSingleRecordBatch;
 import org.apache.drill.exec.record.BatchSchema;
 import org.apache.drill.exec.record.BatchSchema.SelectionVectorMode;
 import org.apache.drill.exec.record.ExpandableHyperContainer;
@@ -56,6 +66,7 @@ import org.apache.drill.exec.record.HyperVectorWrapper;
 import org.apache.drill.exec.record.RecordBatch;
 import org.apache.drill.exec.record.SchemaUtil;
 import org.apache.drill.exec.record.SimpleRecordBatch;
+import org.apache.drill.exec.record.TypedFieldId;
 import org.apache.drill.exec.record.VectorAccessible;
 import org.apache.drill.exec.record.VectorContainer;
 import org.apache.drill.exec.record.VectorWrapper;
@@ -65,6 +76,7 @@ import org.apache.drill.exec.record.selection.SelectionVector4;
 import org.apache.drill.exec.server.options.OptionSet;
 import org.apache.drill.exec.vector.ValueVector;
 import org.apache.drill.exec.vector.complex.AbstractContainerVector;
+import org.apache.drill.exec.work.filter.TopNCutoff;
 
 import org.apache.drill.shaded.guava.com.google.common.base.Stopwatch;
 import com.sun.codemodel.JConditional;
@@ -79,6 +91,14 @@ import static org.apache.drill.exec.record.RecordBatch.IterOutcome.OK_NEW_SCHEMA
  * Operator Batch which implements the TopN functionality. It is more efficient than (sort + limit) since unlike sort
  * it doesn't have to store all the input data to sort it first and then apply limit on the sorted data. Instead
  * internally it maintains a priority queue backed by a heap with the size being same as limit value.
+ * <p>
+ * Once the heap is full, the first sort key of its last row is shared as a {@link TopNCutoff}: the incoming
+ * batches none of whose rows pass it are released right away, and the scan below skips the readers none of
+ * whose rows may pass it.
+ * <p>
+ * When the limit is at least <tt>exec.topn.spill.min_limit</tt>, the TopN gets a memory budget, and once its rows
+ * outgrow half of it, it hands them and the rest of its input over to a {@link SpillingTopN}. Each spilled run
+ * reaching the limit then tightens the cutoff.
  */
 public class TopNBatch extends AbstractRecordBatch<TopN> {
   static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(TopNBatch.class);
@@ -87,10 +107,19 @@ public class TopNBatch extends AbstractRecordBatch<TopN> {
   private final MappingSet leftMapping = createLeftMappingSet();
   private final MappingSet rightMapping = createRightMappingSet();
 
+  // Rows per batch when handing the rows of the heap over to the spilling mode
+  private static final int SPILL_BATCH_SIZE = 4096;
+
   private final int batchPurgeThreshold;
   private final boolean codegenDump;
+  private final boolean spillable;
 
   private final RecordBatch incoming;
+  // Null when the first sort key is not a column or the pushdown is disabled
+  private final TopNCutoff cutoff;
+  private boolean cutoffPushedDown;
+  // Set once the rows are handed over to the external sort
+  private SpillingTopN spillingTopN;
   private BatchSchema schema;
   private boolean schemaChanged = false;
   private PriorityQueue priorityQueue;
@@ -112,6 +141,10 @@ public class TopNBatch extends AbstractRecordBatch<TopN> {
     DrillConfig drillConfig = context.getConfig();
     batchPurgeThreshold = drillConfig.getInt(ExecConstants.BATCH_PURGE_THRESHOLD);
     codegenDump = drillConfig.getBoolean(CodeCompiler.ENABLE_SAVE_CODE_FOR_DEBUG_TOPN);
+    cutoff = context.getOptions().getOption(ExecConstants.TOPN_CUTOFF_PUSHDOWN) && !popConfig.getOrderings().isEmpty()
+        ? TopNCutoff.create(popConfig.getOrderings().get(0)) : null;
+    long spillMinLimit = context.getOptions().getOption(ExecConstants.TOPN_SPILL_MIN_LIMIT);
+    spillable = spillMinLimit > 0 && popConfig.getLimit() >= spillMinLimit;
   }
 
   @Override
@@ -232,12 +265,18 @@ public class TopNBatch extends AbstractRecordBatch<TopN> {
           firstBatchForSchema = true;
           if (!incoming.getSchema().equals(schema)) {
             if (schema != null) {
-              if (!unionTypeEnabled) {
+              if (spillingTopN != null) {
+                throw new UnsupportedOperationException("TopN doesn't support changing schemas once it spilled");
+              } else if (!unionTypeEnabled) {
                 throw new UnsupportedOperationException(String.format("TopN currently doesn't support changing " +
                   "schemas with union type disabled. Please try enabling union type: %s and re-execute the query",
                   ExecConstants.ENABLE_UNION_TYPE_KEY));
               } else {
                 this.schema = SchemaUtil.mergeSchemas(this.schema, incoming.getSchema());
+                // The type of the key may change
+                if (cutoff != null) {
+                  cutoff.disable();
+                }
                 purgeAndResetPriorityQueue();
                 this.schemaChanged = true;
               }
@@ -248,7 +287,7 @@ public class TopNBatch extends AbstractRecordBatch<TopN> {
           // fall through.
         case OK:
         case EMIT:
-          if (incoming.getRecordCount() == 0) {
+          if (incoming.getRecordCount() == 0 || !canEnterTopN(incomingHasSv2)) {
             for (VectorWrapper<?> w : incoming) {
               w.clear();
             }
@@ -258,6 +297,14 @@ public class TopNBatch extends AbstractRecordBatch<TopN> {
             }
             break;
           }
+          if (spillingTopN != null) {
+            if (lastKnownOutcome == EMIT) {
+              throw new UnsupportedOperationException("TopN spilled with EMIT outcome, which is not supported. " +
+                "This TopN is most likely used within the subquery between Lateral and Unnest.");
+            }
+            spillingTopN.add(incoming);
+            break;
+          }
           countSincePurge += incoming.getRecordCount();
           batchCount++;
           RecordBatchData batch;
@@ -284,12 +331,16 @@ public class TopNBatch extends AbstractRecordBatch<TopN> {
               countSincePurge = 0;
               batchCount = 0;
             }
+            updateCutoff();
             success = true;
           } finally {
             if (!success) {
               batch.clear();
             }
           }
+          if (lastKnownOutcome != EMIT && isSpillNeeded()) {
+            startSpilling();
+          }
           break;
         default:
           throw new UnsupportedOperationException();
@@ -302,6 +353,10 @@ public class TopNBatch extends AbstractRecordBatch<TopN> {
         }
       }
 
+      if (spillingTopN != null) {
+        return startSpilledOutput();
+      }
+
       // PriorityQueue can be null here if first batch is received with OK_NEW_SCHEMA and is empty and second next()
       // call returned NONE or EMIT.
       // PriorityQueue can be uninitialized here if only empty batch is received between 2 EMIT outcome.
@@ -371,6 +426,199 @@ public class TopNBatch extends AbstractRecordBatch<TopN> {
     logger.debug("Took {} us to purge", watch.elapsed(TimeUnit.MICROSECONDS));
   }
 
+  /**
+   * Tells whether some rows of the incoming batch pass the cutoff, otherwise there is no need to hold the batch
+   * until the next purge.
+   */
+  private boolean canEnterTopN(boolean incomingHasSv2) {
+    if (cutoff == null || !cutoff.isSet() || schemaChanged) {
+      return true;
+    }
+    TypedFieldId fieldId = incoming.getValueVectorId(SchemaPath.getSimplePath(cutoff.getField()));
+    if (fieldId == null || fieldId.getFieldIds().length != 1) {
+      return true;
+    }
+    ValueVector vector = incoming.getValueAccessorById(ValueVector.class, fieldId.getFieldIds()).getValueVector();
+    return cutoff.canMatchAny(vector, incomingHasSv2 ? incoming.getSelectionVector2() : null,
+        incoming.getRecordCount());
+  }
+
+  /**
+   * Tightens the cutoff to the first sort key of the last row kept once the queue is full, and hands it over
+   * to the scan below the first time it is set.
+   */
+  private void updateCutoff() {
+    if (cutoff == null || !priorityQueue.isFull()) {
+      return;
+    }
+    VectorContainer hyperBatch = priorityQueue.getHyperBatch();
+    TypedFieldId fieldId = getCutoffFieldId(hyperBatch);
+    if (fieldId == null) {
+      return;
+    }
+    int last = priorityQueue.getSv4().get(0);
+    ValueVector[] vectors = hyperBatch.getValueAccessorById(ValueVector.class, fieldId.getFieldIds()).getValueVectors();
+    tightenCutoff(vectors[last >>> 16], last & Character.MAX_VALUE);
+  }
+
+  /**
+   * Tightens the cutoff once spilled to the first sort key of the last row of a run cut short at the limit, as
+   * the run alone holds <i>limit</i> rows at least as good.
+   *
+   * @param batch last batch of the run
+   * @param index index of the last row of the run in the batch
+   */
+  private void updateCutoffFromRun(VectorContainer batch, int index) {
+    if (cutoff == null) {
+      return;
+    }
+    TypedFieldId fieldId = getCutoffFieldId(batch);
+    if (fieldId != null) {
+      tightenCutoff(batch.getValueAccessorById(ValueVector.class, fieldId.getFieldIds()).getValueVector(), index);
+    }
+  }
+
+  /**
+   * @return the id of the key column of the cutoff, or null, disabling the cutoff, if it is not a top level column
+   */
+  private TypedFieldId getCutoffFieldId(VectorContainer batch) {
+    TypedFieldId fieldId = batch.getValueVectorId(SchemaPath.getSimplePath(cutoff.getField()));
+    if (fieldId == null || fieldId.getFieldIds().length != 1) {
+      cutoff.disable();
+      return null;
+    }
+    return fieldId;
+  }
+
+  private void tightenCutoff(ValueVector vector, int index) {
+    cutoff.update(vector, index);
+    if (!cutoffPushedDown && cutoff.isSet()) {
+      cutoffPushedDown = true;
+      pushDownCutoff();
+    }
+  }
+
+  /**
+   * Hands the cutoff over to the scan below, when the rows reach the Top-N through operators which neither compute
+   * the key nor depend on the rows before them. A filter only drops rows, so that the rows of the scan which do not
+   * pass the cutoff still may not enter the Top-N.
+   */
+  private void pushDownCutoff() {
+    String field = cutoff.getField();
+    RecordBatch batch = incoming;
+    while (!(batch instanceof ScanBatch)) {
+      if (batch instanceof IteratorValidatorBatchIterator) {
+        batch = ((IteratorValidatorBatchIterator) batch).getIncoming();
+      } else if (batch instanceof FilterRecordBatch || batch instanceof RuntimeFilterRecordBatch
+          || batch instanceof RemovingRecordBatch) {
+        batch = ((AbstractSingleRecordBatch<?>) batch).getIncoming();
+      } else if (batch instanceof ProjectRecordBatch) {
+        field = projectedFrom(((ProjectRecordBatch) batch).getPopConfig().getExprs(), field);
+        if (field == null) {
+          return;
+        }
+        batch = ((ProjectRecordBatch) batch).getIncoming();
+      } else {
+        return;
+      }
+    }
+    ((ScanBatch) batch).addFilter(field.equals(cutoff.getField()) ? cutoff : cutoff.renamed(field));
+    logger.debug("Pushed down the {} to the scan as {}", cutoff, field);
+  }
+
+  /**
+   * @return the name of the column below a project which it outputs as the given one, or null if the project
+   * computes it
+   */
+  private static String projectedFrom(List<NamedExpression> exprs, String field) {
+    for (NamedExpression namedExpression : exprs) {
+      SchemaPath ref = namedExpression.getRef();
+      if (ref.isLeaf() && !ref.isDynamicStar() && ref.getRootSegmentPath().equalsIgnoreCase(field)) {
+        LogicalExpression expr = namedExpression.getExpr();
+        return expr instanceof SchemaPath && ((SchemaPath) expr).isLeaf() && !((SchemaPath) expr).isDynamicStar()
+            ? ((SchemaPath) expr).getRootSegmentPath() : null;
+      }
+    }
+    // The columns of the table may also come out of a star, possibly with a prefix
+    for (NamedExpression namedExpression : exprs) {
+      LogicalExpression expr = namedExpression.getExpr();
+      if (!(expr instanceof SchemaPath) || !((SchemaPath) expr).isDynamicStar()) {
+        continue;
+      }
+      String ref = namedExpression.getRef().getRootSegmentPath();
+      if (ref.equals(SchemaPath.DYNAMIC_STAR)) {
+        return field;
+      }
+      if (ref.endsWith(StarColumnHelper.PREFIX_DELIMITER + SchemaPath.DYNAMIC_STAR)) {
+        String prefix = ref.substring(0, ref.length() - SchemaPath.DYNAMIC_STAR.length());
+        if (field.regionMatches(true, 0, prefix, 0, prefix.length())) {
+          return field.substring(prefix.length());
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Tells whether the rows kept use more than half of the memory of the operator, the other half leaving room
+   * to copy them when purging or spilling. Purges first if the heap is full, as the batches held until the next
+   * purge may hold most of the memory.
+   */
+  private boolean isSpillNeeded() throws SchemaChangeException {
+    BufferAllocator allocator = oContext.getAllocator();
+    if (!spillable || schemaChanged || allocator.getAllocatedMemory() <= allocator.getLimit() / 2) {
+      return false;
+    }
+    if (priorityQueue.isFull() && batchCount > 1) {
+      purge();
+      countSincePurge = 0;
+      batchCount = 0;
+    }
+    return allocator.getAllocatedMemory() > allocator.getLimit() / 2;
+  }
+
+  /**
+   * Hands the rows kept so far over to the external sort, which takes the rest of the input.
+   */
+  private void startSpilling() throws SchemaChangeException {
+    logger.debug("TopN holds {} bytes out of {}, spilling its {} rows", oContext.getAllocator().getAllocatedMemory(),
+        oContext.getAllocator().getLimit(), priorityQueue.getQueueSize());
+    spillingTopN = new SpillingTopN(oContext, config, schema, this::updateCutoffFromRun);
+    VectorContainer hyperBatch = priorityQueue.getHyperBatch();
+    SelectionVector4 queueSv4 = priorityQueue.getSv4();
+    int queueSize = priorityQueue.getQueueSize();
+    SelectionVector4 rows = new SelectionVector4(oContext.getAllocator().buffer(4 * queueSize), queueSize, SPILL_BATCH_SIZE);
+    VectorContainer rowContainer = new VectorContainer(oContext);
+    try {
+      for (int i = 0; i < queueSize; i++) {
+        rows.set(i, queueSv4.get(i));
+      }
+      Copier rowCopier = GenericCopierFactory.createAndSetupCopier(
+          new SimpleSV4RecordBatch(hyperBatch, rows, context), rowContainer, null);
+      rowContainer.buildSchema(SelectionVectorMode.NONE);
+      do {
+        rowCopier.copyRecords(0, rows.getCount());
+        // The sort takes over the vectors, the copier allocates new ones for the next rows
+        spillingTopN.add(rowContainer);
+      } while (rows.next());
+    } finally {
+      rows.clear();
+      rowContainer.clear();
+    }
+    priorityQueue.cleanup();
+    countSincePurge = 0;
+    batchCount = 0;
+  }
+
+  private IterOutcome startSpilledOutput() {
+    if (!spillingTopN.startOutput(container, sv4)) {
+      return handleEmptyBatches(lastKnownOutcome);
+    }
+    hasOutputRecords = true;
+    recordCount = spillingTopN.getRecordCount();
+    return getFinalOutcome();
+  }
+
   private PriorityQueue createNewPriorityQueue(VectorAccessible batch, int limit)
     throws SchemaChangeException, ClassTransformationException, IOException {
     return createNewPriorityQueue(
@@ -490,6 +738,9 @@ public class TopNBatch extends AbstractRecordBatch<TopN> {
     countSincePurge = 0;
     batchCount = 0;
     hasOutputRecords = false;
+    if (cutoff != null) {
+      cutoff.reset();
+    }
     releaseResource();
   }
 
@@ -497,6 +748,10 @@ public class TopNBatch extends AbstractRecordBatch<TopN> {
    * Cleanup resources held by TopN Batch such as sv4, priority queue and outgoing container
    */
   private void releaseResource() {
+    if (spillingTopN != null) {
+      spillingTopN.close();
+      spillingTopN = null;
+    }
     if (sv4 != null) {
       sv4.clear();
     }
@@ -615,6 +870,11 @@ public class TopNBatch extends AbstractRecordBatch<TopN> {
    * @return - Outcome to return downstream
    */
   private IterOutcome handleRemainingOutput() {
+    if (spillingTopN != null) {
+      recordCount = spillingTopN.nextOutput(container, sv4) ? spillingTopN.getRecordCount() : 0;
+      container.setRecordCount(recordCount);
+      return getFinalOutcome();
+    }
     // if priority queue is not null that means the incoming batches were non-empty. And if there are more records
     // to send downstream for this record boundary
     if (priorityQueue != null && sv4.next()) {
@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.aggregate;
+
+import java.util.List;
+
+import org.apache.drill.common.expression.SchemaPath;
+import org.apache.drill.common.logical.data.NamedExpression;
+import org.apache.drill.common.types.TypeProtos.DataMode;
+import org.apache.drill.common.types.TypeProtos.MajorType;
+import org.apache.drill.exec.expr.fn.impl.HashHelper;
+import org.apache.drill.exec.record.BatchSchema.SelectionVectorMode;
+import org.apache.drill.exec.record.RecordBatch;
+import org.apache.drill.exec.record.TypedFieldId;
+import org.apache.drill.exec.vector.BaseDataValueVector;
+import org.apache.drill.exec.vector.NullableVector;
+import org.apache.drill.exec.vector.ValueVector;
+
+import io.netty.buffer.DrillBuf;
+
+/**
+ * Computes the hash codes of a whole incoming batch at once when the hash
+ * aggregate groups on a single INT, TIME, BIGINT, DATE or TIMESTAMP column
+ * (required or nullable).
+ * <p>
+ * The generated hash table computes the hash of one row per call, through
+ * the <tt>hash32</tt> function holder of the key type. Here the values are
+ * read directly from the key vector's data buffer in a single loop, which
+ * the JIT can keep in registers and unroll. The hash codes are exactly those
+ * of the generated <tt>getHashBuild()</tt> (same {@link HashHelper} function,
+ * seed 0, and a null key hashes to the seed) so that partitioning and
+ * spilling behave identically with or without this path.
+ */
+class FixedWidthKeyHasher {
+
+  private static final int INITIAL_CAPACITY = 4096;
+
+  private final TypedFieldId keyFieldId;
+  private final int width;
+  private final boolean nullable;
+  private int[] hashCodes = new int[INITIAL_CAPACITY];
+
+  private FixedWidthKeyHasher(TypedFieldId keyFieldId, int width, boolean nullable) {
+    this.keyFieldId = keyFieldId;
+    this.width = width;
+    this.nullable = nullable;
+  }
+
+  /**
+   * @return a hasher for the group-by key of the given incoming batch, or
+   * null if the key is not a single, directly referenced fixed-width column
+   * of a supported type (in which case the generated hash is used)
+   */
+  static FixedWidthKeyHasher create(List<NamedExpression> groupByExprs, RecordBatch incoming) {
+    if (groupByExprs.size() != 1 ||
+        !(groupByExprs.get(0).getExpr() instanceof SchemaPath) ||
+        incoming.getSchema() == null ||
+        incoming.getSchema().getSelectionVectorMode() != SelectionVectorMode.NONE) {
+      return null;
+    }
+    TypedFieldId fieldId = incoming.getValueVectorId((SchemaPath) groupByExprs.get(0).getExpr());
+    if (fieldId == null || fieldId.isHyperReader() || fieldId.hasRemainder() || fieldId.getFieldIds().length != 1) {
+      return null;
+    }
+    MajorType type = fieldId.getFinalType();
+    boolean nullable;
+    if (type.getMode() == DataMode.REQUIRED) {
+      nullable = false;
+    } else if (type.getMode() == DataMode.OPTIONAL) {
+      nullable = true;
+    } else {
+      return null;
+    }
+    switch (type.getMinorType()) {
+      case INT:
+      case TIME:
+        return new FixedWidthKeyHasher(fieldId, 4, nullable);
+      case BIGINT:
+      case DATE:
+      case TIMESTAMP:
+        return new FixedWidthKeyHasher(fieldId, 8, nullable);
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * Hashes the key of every row of the current batch of the given incoming.
+   */
+  void hashBatch(RecordBatch incoming, int recordCount) {
+    if (hashCodes.length < recordCount) {
+      hashCodes = new int[Math.max(recordCount, 2 * hashCodes.length)];
+    }
+    if (recordCount == 0) {
+      return;
+    }
+    ValueVector vector = incoming.getValueAccessorById(ValueVector.class, keyFieldId.getFieldIds()).getValueVector();
+    if (nullable) {
+      NullableVector nullableVector = (NullableVector) vector;
+      DrillBuf values = ((BaseDataValueVector) nullableVector.getValuesVector()).getBuffer();
+      DrillBuf bits = ((BaseDataValueVector) nullableVector.getBitsVector()).getBuffer();
+      if (width == 4) {
+        for (int i = 0; i < recordCount; i++) {
+          hashCodes[i] = bits.getByte(i) == 0 ? 0 : HashHelper.hash32(values.getInt(i << 2), 0);
+        }
+      } else {
+        for (int i = 0; i < recordCount; i++) {
+          hashCodes[i] = bits.getByte(i) == 0 ? 0 : HashHelper.hash32(values.getLong(i << 3), 0);
+        }
+      }
+    } else {
+      DrillBuf values = ((BaseDataValueVector) vector).getBuffer();
+      if (width == 4) {
+        for (int i = 0; i < recordCount; i++) {
+          hashCodes[i] = HashHelper.hash32(values.getInt(i << 2), 0);
+        }
+      } else {
+        for (int i = 0; i < recordCount; i++) {
+          hashCodes[i] = HashHelper.hash32(values.getLong(i << 3), 0);
+        }
+      }
+    }
+  }
+
+  /**
+   * @return the hash code of the key of the given row of the last hashed batch
+   */
+  int getHashCode(int incomingRowIdx) {
+    return hashCodes[incomingRowIdx];
+  }
+}
@@ -46,6 +46,7 @@ import org.apache.drill.exec.expr.ClassGenerator;
 import org.apache.drill.exec.expr.TypeHelper;
 import org.apache.drill.exec.memory.BaseAllocator;
 import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.memory.MemoryReleaseRequest;
 import org.apache.drill.exec.ops.FragmentContext;
 import org.apache.drill.exec.ops.MetricDef;
 import org.apache.drill.exec.ops.OperatorContext;
@@ -101,6 +102,7 @@ public abstract class HashAggTemplate implements HashAggregator {
 
   private AggPrelBase.OperatorPhase phase;
   private boolean canSpill = true; // make it false in case can not spill/return-early
+  private boolean canBorrow; // whether to borrow memory given back by other operators of the fragment, rather than spill
   private ChainedHashTable baseHashTable;
   private boolean earlyOutput; // when 1st phase returns a partition due to no memory
   private int earlyPartition; // which partition to return early
@@ -134,6 +136,7 @@ public abstract class HashAggTemplate implements HashAggregator {
   protected ClassGenerator<?> cg;
   private OperatorContext oContext;
   private BufferAllocator allocator;
+  private MemoryReleaseRequest releaseRequest; // requests of the Drillbit to release memory
 
   private HashTable htables[];
   private ArrayList<BatchHolder> batchHolders[];
@@ -150,6 +153,8 @@ public abstract class HashAggTemplate implements HashAggregator {
   private int originalPartition = -1; // the partition a secondary reads from
 
   private IndexPointer htIdxHolder; // holder for the Hashtable's internal index returned by put()
+  private FixedWidthKeyHasher keyHasher; // hashes a whole batch at once for a single fixed-width key (null if n/a)
+  private boolean currentBatchHashed; // whether keyHasher holds the hash codes of the current batch
   private int numGroupByOutFields; // Note: this should be <= number of group-by fields
   private TypedFieldId[] groupByOutFieldIds;
 
@@ -182,7 +187,11 @@ public abstract class HashAggTemplate implements HashAggregator {
     OUTPUT_BATCH_COUNT,
     AVG_OUTPUT_BATCH_BYTES,
     AVG_OUTPUT_ROW_BYTES,
-    OUTPUT_RECORD_COUNT;
+    OUTPUT_RECORD_COUNT,
+    SPILL_UNCOMPRESSED_BYTES, // bytes spilled, before compression
+    SPILL_COMPRESSED_BYTES,   // bytes spilled as stored on disk (same as above if not compressed)
+    PRESSURE_SPILLS,          // partitions spilled (or returned early) as asked by the Drillbit when short of memory
+    BORROWS;                  // times memory given back by other operators of the fragment was borrowed instead of spilling
 
     @Override
     public int metricId() {
@@ -321,6 +330,9 @@ public abstract class HashAggTemplate implements HashAggregator {
     this.useMemoryPrediction = context.getOptions().getOption(ExecConstants.HASHAGG_USE_MEMORY_PREDICTION_VALIDATOR);
     this.phase = hashAggrConfig.getAggPhase();
     canSpill = phase.hasTwo(); // single phase can not spill
+    if ( canSpill ) {
+      releaseRequest = new MemoryReleaseRequest(allocator);
+    }
 
     // Typically for testing - force a spill after a partition has more than so many batches
     minBatchesPerPartition = context.getOptions().getOption(ExecConstants.HASHAGG_MIN_BATCHES_PER_PARTITION_VALIDATOR);
@@ -334,6 +346,7 @@ public abstract class HashAggTemplate implements HashAggregator {
       memoryLimit = Math.min(memoryLimit, configLimit);
       allocator.setLimit(memoryLimit); // enforce at the allocator
     }
+    canBorrow = canSpill && configLimit == 0; // a configured limit stays in force
 
     // All the settings that require the number of partitions were moved into delayedSetup()
     // which would be called later, after the actuall data first arrives
@@ -350,6 +363,9 @@ public abstract class HashAggTemplate implements HashAggregator {
     }
 
     this.htIdxHolder = new IndexPointer();
+    if (context.getOptions().getOption(ExecConstants.HASHAGG_SINGLE_KEY_FAST_PATH_VALIDATOR)) {
+      keyHasher = FixedWidthKeyHasher.create(hashAggrConfig.getGroupByExprs(), incoming);
+    }
     materializedValueFields = new MaterializedField[valueFieldIds.size()];
 
     if (valueFieldIds.size() > 0) {
@@ -488,6 +504,7 @@ public abstract class HashAggTemplate implements HashAggregator {
     baseHashTable.updateIncoming(newIncoming, null); // after a spill - a new incoming
     this.incoming = newIncoming;
     currentBatchRecordCount = newIncoming.getRecordCount(); // first batch in this spill file
+    currentBatchHashed = false;
     nextPartitionToReturn = 0;
     for (int i = 0; i < spilledState.getNumPartitions(); i++ ) {
       htables[i].updateIncoming(newIncoming.getContainer(), null);
@@ -827,13 +844,23 @@ public abstract class HashAggTemplate implements HashAggregator {
     }
   }
 
-  @Override
-  public void cleanup() {
-    if ( schema == null ) { return; } // not set up; nothing to clean
+  private void updateSpillStats() {
     if ( phase.is2nd() && spillSet.getWriteBytes() > 0 ) {
       stats.setLongStat(Metric.SPILL_MB, // update stats - total MB spilled
           (int) Math.round(spillSet.getWriteBytes() / 1024.0D / 1024.0));
+      stats.setLongStat(Metric.SPILL_UNCOMPRESSED_BYTES, spillSet.getWriteBytes());
+      stats.setLongStat(Metric.SPILL_COMPRESSED_BYTES, spillSet.getCompressedWriteBytes());
+    }
+  }
+
+  @Override
+  public void cleanup() {
+    if ( releaseRequest != null ) {
+      releaseRequest.close();
+      releaseRequest = null;
     }
+    if ( schema == null ) { return; } // not set up; nothing to clean
+    updateSpillStats();
     // clean (and deallocate) each partition
     for ( int i = 0; i < spilledState.getNumPartitions(); i++) {
           if (htables[i] != null) {
@@ -876,6 +903,16 @@ public abstract class HashAggTemplate implements HashAggregator {
     materializedValueFields = null;
   }
 
+  /**
+   * All the output was returned: give back the memory no longer needed, for the other
+   * buffered operators of the fragment to borrow.
+   */
+  private void giveBackMemory() {
+    if ( canSpill ) {
+      context.getMemoryPool().giveBack(allocator);
+    }
+  }
+
   // First free the memory used by the given (spilled) partition (i.e., hash table plus batches)
   // then reallocate them in pristine state to allow the partition to continue receiving rows
   private void reinitPartition(int part) /* throws SchemaChangeException /*, IOException */ {
@@ -905,6 +942,7 @@ public abstract class HashAggTemplate implements HashAggregator {
   }
 
   private final void resetIndex() {
+    currentBatchHashed = false; // a new batch
     underlyingIndex = -1; // will become 0 in incIndex()
     incIndex();
   }
@@ -1079,6 +1117,7 @@ public abstract class HashAggTemplate implements HashAggregator {
       logger.trace("Incoming was empty; output is an empty batch.");
       this.outcome = IterOutcome.NONE; // no records were read
       allFlushed = true;
+      giveBackMemory();
       return AggIterOutcome.AGG_NONE;
     }
 
@@ -1132,10 +1171,8 @@ public abstract class HashAggTemplate implements HashAggregator {
         if (spilledState.isEmpty()) { // and no spilled partitions
           allFlushed = true;
           this.outcome = IterOutcome.NONE;
-          if ( phase.is2nd() && spillSet.getWriteBytes() > 0 ) {
-            stats.setLongStat(Metric.SPILL_MB, // update stats - total MB spilled
-                (int) Math.round(spillSet.getWriteBytes() / 1024.0D / 1024.0));
-          }
+          updateSpillStats();
+          giveBackMemory();
           return AggIterOutcome.AGG_NONE;  // then return NONE
         }
         // Else - there are still spilled partitions to process - pick one and handle just like a new incoming
@@ -1229,6 +1266,7 @@ public abstract class HashAggTemplate implements HashAggregator {
 
         // cleanup my internal state since there is nothing more to return
         this.cleanup();
+        giveBackMemory();
       }
     }
 
@@ -1293,11 +1331,19 @@ public abstract class HashAggTemplate implements HashAggregator {
     // The hash code is computed once, then its lower bits are used to determine the
     // partition to use, and the higher bits determine the location in the hash table.
     int hashCode;
-    try {
-      // htables[0].updateBatches();
-      hashCode = htables[0].getBuildHashCode(incomingRowIdx);
-    } catch (SchemaChangeException e) {
-      throw new UnsupportedOperationException("Unexpected schema change", e);
+    if (keyHasher != null) {
+      if (!currentBatchHashed) {
+        keyHasher.hashBatch(incoming, currentBatchRecordCount);
+        currentBatchHashed = true;
+      }
+      hashCode = keyHasher.getHashCode(incomingRowIdx);
+    } else {
+      try {
+        // htables[0].updateBatches();
+        hashCode = htables[0].getBuildHashCode(incomingRowIdx);
+      } catch (SchemaChangeException e) {
+        throw new UnsupportedOperationException("Unexpected schema change", e);
+      }
     }
 
     // right shift hash code for secondary (or tertiary...) spilling
@@ -1411,6 +1457,31 @@ public abstract class HashAggTemplate implements HashAggregator {
     if ( needToCheckIfSpillIsNeeded && canSpill && useMemoryPrediction ) {
       spillIfNeeded(currentPartition);
     }
+    // The Drillbit runs short of direct memory: spill (or return early) a partition, whatever our own limit says
+    if ( canSpill && releaseRequest != null && releaseRequest.isPending() ) {
+      spillUnderPressure(currentPartition);
+    }
+  }
+
+  /**
+   *  Spill (or return early, if 1st phase) one partition as asked by the Drillbit, when short of
+   *  direct memory. The request stays pending while there is no partition worth spilling.
+   *  @param currentPartition - the preferred candidate for spilling
+   */
+  private void spillUnderPressure(int currentPartition) {
+    if ( phase.is1st() && earlyOutput ) { return; } // already returning a partition early
+    int victimPartition = chooseAPartitionToFlush(currentPartition, false);
+    if ( victimPartition < 0 ) { return; }
+    releaseRequest.take();
+    stats.addLongStat(Metric.PRESSURE_SPILLS, 1);
+    if ( phase.is2nd() ) {
+      spillAPartition(victimPartition);
+      logger.trace("MEMORY PRESSURE: Spilled partition {}", victimPartition);
+      reinitPartition(victimPartition);
+    } else {
+      earlyOutput = true;
+      earlyPartition = victimPartition;
+    }
   }
 
   private void spillIfNeeded(int currentPartition) { spillIfNeeded(currentPartition, false);}
@@ -1438,6 +1509,15 @@ public abstract class HashAggTemplate implements HashAggregator {
           estMaxBatchSize, allocator.getLimit());
     }
     //
+    //   Rather than spill, borrow the memory missing from what other operators of the fragment gave back
+    //
+    if ( !forceSpill && canBorrow && allocator.getAllocatedMemory() + maxMemoryNeeded > allocator.getLimit() &&
+        context.getMemoryPool().borrow(allocator, allocator.getAllocatedMemory() + maxMemoryNeeded - allocator.getLimit()) ) {
+      logger.trace("MEMORY CHECK: Borrowed memory, new mem limit {}", allocator.getLimit());
+      stats.addLongStat(Metric.BORROWS, 1);
+      return;
+    }
+    //
     //   Spill if (forced, or) the allocated memory plus the memory needed exceed the memory limit.
     //
     if ( forceSpill || allocator.getAllocatedMemory() + maxMemoryNeeded > allocator.getLimit() ) {
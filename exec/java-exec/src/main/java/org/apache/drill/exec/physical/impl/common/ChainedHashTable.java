@@ -28,6 +28,8 @@ import org.apache.drill.common.expression.ValueExpressions;
 import org.apache.drill.common.logical.data.NamedExpression;
 import org.apache.drill.common.types.TypeProtos;
 import org.apache.drill.common.types.Types;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.compile.TemplateClassDefinition;
 import org.apache.drill.exec.compile.sig.GeneratorMapping;
 import org.apache.drill.exec.compile.sig.MappingSet;
 import org.apache.drill.exec.exception.ClassTransformationException;
@@ -150,7 +152,10 @@ public class ChainedHashTable {
 
   public HashTable createAndSetupHashTable(TypedFieldId[] outKeyFieldIds) throws ClassTransformationException,
       IOException, SchemaChangeException {
-    CodeGenerator<HashTable> top = CodeGenerator.get(HashTable.TEMPLATE_DEFINITION, context.getOptions());
+    TemplateClassDefinition<HashTable> templateDefinition =
+        context.getOptions().getOption(ExecConstants.HASH_TABLE_OPEN_ADDRESSING) ?
+        HashTable.OPEN_ADDRESSING_TEMPLATE_DEFINITION : HashTable.TEMPLATE_DEFINITION;
+    CodeGenerator<HashTable> top = CodeGenerator.get(templateDefinition, context.getOptions());
     top.plainJavaCapable(true);
     // Uncomment out this line to debug the generated code.
     // This code is called from generated code, so to step into this code,
@@ -30,6 +30,8 @@ import org.apache.drill.common.exceptions.RetryAfterSpillException;
 public interface HashTable {
   TemplateClassDefinition<HashTable> TEMPLATE_DEFINITION =
       new TemplateClassDefinition<>(HashTable.class, HashTableTemplate.class);
+  TemplateClassDefinition<HashTable> OPEN_ADDRESSING_TEMPLATE_DEFINITION =
+      new TemplateClassDefinition<>(HashTable.class, OpenAddressingHashTableTemplate.class);
 
   /**
    * The maximum capacity of the hash table (in terms of number of buckets).
@@ -0,0 +1,728 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.common;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+
+import javax.inject.Named;
+
+import org.apache.commons.lang3.tuple.Pair;
+import org.apache.drill.common.exceptions.RetryAfterSpillException;
+import org.apache.drill.exec.compile.sig.RuntimeOverridden;
+import org.apache.drill.exec.exception.OutOfMemoryException;
+import org.apache.drill.exec.exception.SchemaChangeException;
+import org.apache.drill.exec.expr.ClassGenerator;
+import org.apache.drill.exec.expr.TypeHelper;
+import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.physical.impl.join.HashJoinMemoryCalculator;
+import org.apache.drill.exec.record.RecordBatch;
+import org.apache.drill.exec.record.RecordBatchSizer;
+import org.apache.drill.exec.record.TransferPair;
+import org.apache.drill.exec.record.VectorContainer;
+import org.apache.drill.exec.record.VectorWrapper;
+import org.apache.drill.exec.vector.FixedWidthVector;
+import org.apache.drill.exec.vector.ValueVector;
+import org.apache.drill.exec.vector.VariableWidthVector;
+
+import io.netty.buffer.DrillBuf;
+
+/**
+ * An open-addressing alternative to {@link HashTableTemplate}, selected with
+ * the <tt>exec.hashtable.open_addressing</tt> option.
+ * <p>
+ * The keys are still stored in {@link BatchHolder}s, using the same
+ * composite (batch, row) index as the chained table, so that the hash
+ * aggregate and hash join see no difference. What differs is the bucket
+ * structure: rather than a <tt>startIndices</tt> vector plus per-batch
+ * <tt>links</tt> and <tt>hashValues</tt> vectors, the table is a single
+ * off-heap array of 8-byte slots. Each slot packs the 32-bit hash value
+ * (high word) and the composite index of the key (low word). Collisions are
+ * resolved with linear probing.
+ * <p>
+ * A probe therefore reads one slot (usually one cache line) and compares the
+ * full hash before touching the key vectors, instead of chasing a start index
+ * into a links vector. Resizing only rebuilds the slot array from the stored
+ * hash values; the batch holders are never reallocated.
+ */
+public abstract class OpenAddressingHashTableTemplate implements HashTable {
+
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(OpenAddressingHashTableTemplate.class);
+
+  /**
+   * An unused slot. A used slot never has this value since its low word
+   * holds a non-negative composite index.
+   */
+  private static final long EMPTY_SLOT = -1L;
+
+  private static final int SLOT_WIDTH = 8;
+
+  /**
+   * Largest slot array that fits in a single DrillBuf.
+   */
+  static final int MAXIMUM_SLOTS = 1 << 27;
+
+  // Slot array: (hash << 32) | compositeIndex per slot
+  private DrillBuf slots;
+
+  // Number of slots (a power of 2) and mask to compute the home slot of a hash
+  private int capacity;
+  private int mask;
+
+  // Original capacity of the table (needed when re-initializing)
+  private int originalCapacity;
+
+  // Threshold after which we resize; It must be the capacity * loadFactor
+  private int threshold;
+
+  // Actual number of entries in the hash table
+  private int numEntries = 0;
+
+  // Array of batch holders..each batch holder can hold up to BATCH_SIZE entries
+  private ArrayList<BatchHolder> batchHolders;
+
+  private int totalIndexSize; // index size of all batchHolders including current batch
+  private int prevIndexSize; // index size of all batchHolders not including current batch
+  private int currentIndexSize; // prevIndexSize + current batch count.
+
+  // current available (free) slot globally across all batch holders
+  private int freeIndex = 0;
+
+  private BufferAllocator allocator;
+
+  // The incoming build side record batch
+  private VectorContainer incomingBuild;
+
+  // The incoming probe side record batch (may be null)
+  private RecordBatch incomingProbe;
+
+  // The outgoing record batch
+  private RecordBatch outgoing;
+
+  // Hash table configuration parameters
+  private HashTableConfig htConfig;
+
+  // Allocation tracker
+  private HashTableAllocationTracker allocationTracker;
+
+  // The original container from which others may be cloned
+  private VectorContainer htContainerOrig;
+
+  protected FragmentContext context;
+
+  protected ClassGenerator<?> cg;
+
+  private int numResizing = 0;
+
+  private int resizingTime = 0;
+
+  private Iterator<BatchHolder> htIter = null;
+
+  /**
+   * Holds the keys for up to BATCH_SIZE unique records. Unlike the chained
+   * table, there is no per-batch hash metadata: the hash values live in the
+   * slot array.
+   */
+  public class BatchHolder {
+
+    // Container of vectors to hold type-specific keys
+    private VectorContainer htContainer;
+
+    private int maxOccupiedIdx = -1;
+    private int targetBatchRowCount;
+    private int batchIndex = 0;
+
+    public BatchHolder(int idx, int newBatchHolderSize) {
+
+      this.batchIndex = idx;
+      this.targetBatchRowCount = newBatchHolderSize;
+
+      htContainer = new VectorContainer();
+      boolean success = false;
+      try {
+        for (VectorWrapper<?> w : htContainerOrig) {
+          ValueVector vv = TypeHelper.getNewVector(w.getField(), allocator);
+          htContainer.add(vv); // add to container before actual allocation (to allow clearing in case of an OOM)
+
+          if (vv instanceof FixedWidthVector) {
+            ((FixedWidthVector) vv).allocateNew(newBatchHolderSize);
+          } else if (vv instanceof VariableWidthVector) {
+            ((VariableWidthVector) vv).allocateNew(HashTableTemplate.MAX_VARCHAR_SIZE * newBatchHolderSize, newBatchHolderSize);
+          } else {
+            vv.allocateNew();
+          }
+        }
+        success = true;
+      } finally {
+        if (!success) {
+          htContainer.clear();
+        }
+      }
+    }
+
+    public void setTargetBatchRowCount(int targetBatchRowCount) {
+      this.targetBatchRowCount = targetBatchRowCount;
+    }
+
+    public int getTargetBatchRowCount() {
+      return targetBatchRowCount;
+    }
+
+    protected void setup() throws SchemaChangeException {
+      setupInterior(incomingBuild, incomingProbe, outgoing, htContainer);
+    }
+
+    // Check if the key at the current Index position in hash table matches the key
+    // at the incomingRowIdx.
+    private boolean isKeyMatch(int incomingRowIdx, int currentIndex, boolean isProbe) throws SchemaChangeException {
+      int currentIdxWithinBatch = currentIndex & BATCH_MASK;
+      assert currentIdxWithinBatch < targetBatchRowCount;
+      assert incomingRowIdx < HashTable.BATCH_SIZE;
+
+      if (isProbe) {
+        return isKeyMatchInternalProbe(incomingRowIdx, currentIdxWithinBatch);
+      }
+
+      // As in the chained table, a hash-join build treats two null keys as a
+      // match so that null keys do not form long probe sequences (DRILL-6880).
+      if (areBothKeysNull(incomingRowIdx, currentIdxWithinBatch)) {
+        return true;
+      }
+      return isKeyMatchInternalBuild(incomingRowIdx, currentIdxWithinBatch);
+    }
+
+    // Insert a new <key1, key2...keyN> entry coming from the incoming batch into the hash table
+    // container at the specified index
+    private void insertEntry(int incomingRowIdx, int currentIdx) throws SchemaChangeException {
+      int currentIdxWithinBatch = currentIdx & BATCH_MASK;
+      setValue(incomingRowIdx, currentIdxWithinBatch);
+      // setValue may OOM when doubling of one of the VarChar Key Value Vectors
+      // This would be caught and retried later (setValue() is idempotent)
+      maxOccupiedIdx = Math.max(maxOccupiedIdx, currentIdxWithinBatch);
+    }
+
+    private boolean outputKeys(VectorContainer outContainer) {
+      // set the value count for htContainer's value vectors before the transfer ..
+      setValueCount();
+
+      Iterator<VectorWrapper<?>> outgoingIter = outContainer.iterator();
+
+      for (VectorWrapper<?> sourceWrapper : htContainer) {
+        ValueVector sourceVV = sourceWrapper.getValueVector();
+        ValueVector targetVV = outgoingIter.next().getValueVector();
+        TransferPair tp = sourceVV.makeTransferPair(targetVV);
+        tp.transfer();
+      }
+      return true;
+    }
+
+    private void setValueCount() {
+      for (VectorWrapper<?> vw : htContainer) {
+        ValueVector vv = vw.getValueVector();
+        vv.getMutator().setValueCount(maxOccupiedIdx + 1);
+      }
+      htContainer.setRecordCount(maxOccupiedIdx + 1);
+    }
+
+    private void clear() {
+      htContainer.clear();
+    }
+
+    // These methods will be code-generated
+
+    @RuntimeOverridden
+    protected void setupInterior(
+        @Named("incomingBuild") VectorContainer incomingBuild,
+        @Named("incomingProbe") RecordBatch incomingProbe,
+        @Named("outgoing") RecordBatch outgoing,
+        @Named("htContainer") VectorContainer htContainer) throws SchemaChangeException {
+    }
+
+    @RuntimeOverridden
+    protected boolean isKeyMatchInternalBuild(
+        @Named("incomingRowIdx") int incomingRowIdx, @Named("htRowIdx") int htRowIdx) throws SchemaChangeException {
+      return false;
+    }
+
+    @RuntimeOverridden
+    protected boolean areBothKeysNull(
+        @Named("incomingRowIdx") int incomingRowIdx, @Named("htRowIdx") int htRowIdx) throws SchemaChangeException {
+      return false;
+    }
+
+    @RuntimeOverridden
+    protected boolean isKeyMatchInternalProbe(
+        @Named("incomingRowIdx") int incomingRowIdx, @Named("htRowIdx") int htRowIdx) throws SchemaChangeException {
+      return false;
+    }
+
+    @RuntimeOverridden
+    protected void setValue(@Named("incomingRowIdx") int incomingRowIdx, @Named("htRowIdx") int htRowIdx) throws SchemaChangeException {
+    }
+
+    @RuntimeOverridden
+    protected void outputRecordKeys(@Named("htRowIdx") int htRowIdx, @Named("outRowIdx") int outRowIdx) throws SchemaChangeException {
+    }
+
+    public long getActualSize() {
+      // In some rare cases (e.g., making a detailed debug msg after an OOM) the container
+      // was not initialized; ignore such cases
+      if (htContainer.hasRecordCount()) {
+        return new RecordBatchSizer(htContainer).getActualSize();
+      }
+      return 0;
+    }
+  }
+
+  @Override
+  public void setup(HashTableConfig htConfig, BufferAllocator allocator, VectorContainer incomingBuild,
+                    RecordBatch incomingProbe, RecordBatch outgoing, VectorContainer htContainerOrig,
+                    FragmentContext context, ClassGenerator<?> cg) {
+    float loadf = htConfig.getLoadFactor();
+    int initialCap = htConfig.getInitialCapacity();
+
+    if (loadf <= 0 || loadf >= 1 || Float.isNaN(loadf)) {
+      throw new IllegalArgumentException("Load factor of an open addressing hash table must be between 0 and 1");
+    }
+    if (initialCap <= 0) {
+      throw new IllegalArgumentException("The initial capacity must be greater than 0");
+    }
+    if (initialCap > MAXIMUM_CAPACITY) {
+      throw new IllegalArgumentException("The initial capacity must be less than maximum capacity allowed");
+    }
+
+    if (htConfig.getKeyExprsBuild() == null || htConfig.getKeyExprsBuild().size() == 0) {
+      throw new IllegalArgumentException("Hash table must have at least 1 key expression");
+    }
+
+    this.htConfig = htConfig;
+    this.allocator = allocator;
+    this.incomingBuild = incomingBuild;
+    this.incomingProbe = incomingProbe;
+    this.outgoing = outgoing;
+    this.htContainerOrig = htContainerOrig;
+    this.context = context;
+    this.cg = cg;
+    this.allocationTracker = new HashTableAllocationTracker(htConfig);
+
+    originalCapacity = slotsFor(initialCap);
+    allocSlots(originalCapacity);
+
+    // First BatchHolder is created when the first put request is received.
+    batchHolders = new ArrayList<>();
+
+    prevIndexSize = 0;
+    currentIndexSize = 0;
+    totalIndexSize = 0;
+
+    try {
+      doSetup(incomingBuild, incomingProbe);
+    } catch (SchemaChangeException e) {
+      throw new IllegalStateException("Unexpected schema change", e);
+    }
+  }
+
+  @Override
+  public void updateInitialCapacity(int initialCapacity) {
+    htConfig = htConfig.withInitialCapacity(initialCapacity);
+    allocationTracker = new HashTableAllocationTracker(htConfig);
+    enlargeEmptyHashTableIfNeeded(initialCapacity);
+  }
+
+  @Override
+  public void updateBatches() throws SchemaChangeException {
+    doSetup(incomingBuild, incomingProbe);
+    for (BatchHolder batchHolder : batchHolders) {
+      batchHolder.setup();
+    }
+  }
+
+  public int numBuckets() {
+    return capacity;
+  }
+
+  public int numResizing() {
+    return numResizing;
+  }
+
+  @Override
+  public int size() {
+    return numEntries;
+  }
+
+  @Override
+  public void getStats(HashTableStats stats) {
+    assert stats != null;
+    stats.numBuckets = numBuckets();
+    stats.numEntries = numEntries;
+    stats.numResizing = numResizing;
+    stats.resizingTime = resizingTime;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return numEntries == 0;
+  }
+
+  @Override
+  public void clear() {
+    clear(true);
+  }
+
+  private void clear(boolean close) {
+    if (close) {
+      // If we are closing, we need to clear the htContainerOrig as well.
+      htContainerOrig.clear();
+    }
+
+    if (batchHolders != null) {
+      for (BatchHolder bh : batchHolders) {
+        bh.clear();
+      }
+      batchHolders.clear();
+      batchHolders = null;
+      prevIndexSize = 0;
+      currentIndexSize = 0;
+      totalIndexSize = 0;
+    }
+    releaseSlots();
+    numEntries = 0;
+  }
+
+  /**
+   * Number of slots needed to hold the given number of entries without
+   * exceeding the load factor, rounded up to a power of 2.
+   */
+  private int slotsFor(int entries) {
+    long needed = (long) Math.ceil(entries / (double) htConfig.getLoadFactor());
+    if (needed >= MAXIMUM_SLOTS) {
+      return MAXIMUM_SLOTS;
+    }
+    return Math.max(2, Integer.highestOneBit((int) needed - 1) << 1);
+  }
+
+  private void allocSlots(int newCapacity) {
+    slots = allocator.buffer(newCapacity * SLOT_WIDTH);
+    for (int i = 0; i < newCapacity; i++) {
+      slots.setLong(i * SLOT_WIDTH, EMPTY_SLOT);
+    }
+    capacity = newCapacity;
+    mask = newCapacity - 1;
+    threshold = computeThreshold(newCapacity);
+  }
+
+  private int computeThreshold(int numSlots) {
+    // At the maximum size, leave at least one empty slot so that every probe sequence terminates.
+    return numSlots == MAXIMUM_SLOTS
+        ? numSlots - 1
+        : (int) Math.ceil(numSlots * htConfig.getLoadFactor());
+  }
+
+  private void releaseSlots() {
+    if (slots != null) {
+      slots.release();
+      slots = null;
+    }
+  }
+
+  private static long makeSlot(int hashCode, int compositeIdx) {
+    return ((long) hashCode << 32) | (compositeIdx & 0xFFFFFFFFL);
+  }
+
+  private static int slotHash(long slot) {
+    return (int) (slot >>> 32);
+  }
+
+  private static int slotIndex(long slot) {
+    return (int) slot;
+  }
+
+  private void retryAfterOOM(boolean batchAdded) throws RetryAfterSpillException {
+    // If a batch was added then undo; otherwise when retrying this put() we'd miss a NEW_BATCH_ADDED
+    if (batchAdded) {
+      logger.trace("OOM - Removing index {} from the batch holders list", batchHolders.size() - 1);
+      BatchHolder bh = batchHolders.remove(batchHolders.size() - 1);
+      prevIndexSize = batchHolders.size() > 1 ? (batchHolders.size() - 1) * BATCH_SIZE : 0;
+      currentIndexSize = prevIndexSize + (batchHolders.size() > 0 ? batchHolders.get(batchHolders.size() - 1).getTargetBatchRowCount() : 0);
+      totalIndexSize = batchHolders.size() * BATCH_SIZE;
+      // update freeIndex to point to end of last batch + 1
+      freeIndex = totalIndexSize + 1;
+      bh.clear();
+    } else {
+      freeIndex--;
+    }
+    throw new RetryAfterSpillException();
+  }
+
+  @Override
+  public int getBuildHashCode(int incomingRowIdx) throws SchemaChangeException {
+    return getHashBuild(incomingRowIdx, 0);
+  }
+
+  @Override
+  public int getProbeHashCode(int incomingRowIdx) throws SchemaChangeException {
+    return getHashProbe(incomingRowIdx, 0);
+  }
+
+  /**
+   * Probes the slot array starting at the home slot of the hash code until
+   * either a slot with a matching key or an empty slot is found. The keys
+   * are compared only for slots whose stored hash matches.
+   *
+   * @return the slot position; the slot is empty if the key is not present
+   */
+  private int findSlot(int incomingRowIdx, int hashCode, boolean isProbe) throws SchemaChangeException {
+    int pos = hashCode & mask;
+    while (true) {
+      long slot = slots.getLong(pos * SLOT_WIDTH);
+      if (slot == EMPTY_SLOT) {
+        return pos;
+      }
+      if (slotHash(slot) == hashCode) {
+        int currentIndex = slotIndex(slot);
+        if (batchHolders.get((currentIndex >>> 16) & BATCH_MASK).isKeyMatch(incomingRowIdx, currentIndex, isProbe)) {
+          return pos;
+        }
+      }
+      pos = (pos + 1) & mask;
+    }
+  }
+
+  /**
+   * Same contract as {@link HashTableTemplate#put(int, IndexPointer, int, int)}.
+   */
+  @Override
+  public PutStatus put(int incomingRowIdx, IndexPointer htIdxHolder, int hashCode, int targetBatchRowCount) throws SchemaChangeException, RetryAfterSpillException {
+
+    int pos = findSlot(incomingRowIdx, hashCode, false);
+    long slot = slots.getLong(pos * SLOT_WIDTH);
+    if (slot != EMPTY_SLOT) {
+      htIdxHolder.value = slotIndex(slot);
+      return PutStatus.KEY_PRESENT;
+    }
+
+    // no match was found, so insert a new entry
+    int currentIdx = freeIndex++;
+    boolean addedBatch = false;
+    try {  // ADD A BATCH
+      addedBatch = addBatchIfNeeded(currentIdx, targetBatchRowCount);
+      if (addedBatch) {
+        // If we just added the batch, update the current index to point to beginning of new batch.
+        currentIdx = (batchHolders.size() - 1) * BATCH_SIZE;
+        freeIndex = currentIdx + 1;
+      }
+    } catch (OutOfMemoryException OOME) {
+      retryAfterOOM(currentIdx < totalIndexSize);
+    }
+
+    try { // INSERT ENTRY
+      BatchHolder bh = batchHolders.get((currentIdx >>> 16) & BATCH_MASK);
+      bh.insertEntry(incomingRowIdx, currentIdx);
+      numEntries++;
+    } catch (OutOfMemoryException OOME) {
+      retryAfterOOM(addedBatch);
+    }
+
+    // The slot found above was empty, so filling it cannot break any other probe sequence.
+    slots.setLong(pos * SLOT_WIDTH, makeSlot(hashCode, currentIdx));
+
+    try {  // RESIZE HT
+      resizeIfNeeded();
+    } catch (OutOfMemoryException OOME) {
+      numEntries--; // undo - insert entry
+      slots.setLong(pos * SLOT_WIDTH, EMPTY_SLOT);
+      retryAfterOOM(addedBatch);
+    }
+
+    htIdxHolder.value = currentIdx;
+    return addedBatch ? PutStatus.NEW_BATCH_ADDED :
+        (freeIndex + 1 > currentIndexSize) ?
+        PutStatus.KEY_ADDED_LAST : // the last key in the batch
+        PutStatus.KEY_ADDED;     // otherwise
+  }
+
+  @Override
+  public int probeForKey(int incomingRowIdx, int hashCode) throws SchemaChangeException {
+    long slot = slots.getLong(findSlot(incomingRowIdx, hashCode, true) * SLOT_WIDTH);
+    return slot == EMPTY_SLOT ? -1 : slotIndex(slot);
+  }
+
+  // Add a new BatchHolder to the list of batch holders if needed. This is based on the supplied
+  // currentIdx; since each BatchHolder can hold up to BATCH_SIZE entries, if the currentIdx exceeds
+  // the capacity, we will add a new BatchHolder. Return true if a new batch was added.
+  private boolean addBatchIfNeeded(int currentIdx, int batchRowCount) throws SchemaChangeException {
+    if (batchHolders.size() == 0 || (currentIdx >= currentIndexSize)) {
+      final int allocationSize = allocationTracker.getNextBatchHolderSize(batchRowCount);
+      final BatchHolder bh = newBatchHolder(batchHolders.size(), allocationSize);
+      batchHolders.add(bh);
+      prevIndexSize = batchHolders.size() > 1 ? (batchHolders.size() - 1) * BATCH_SIZE : 0;
+      currentIndexSize = prevIndexSize + batchHolders.get(batchHolders.size() - 1).getTargetBatchRowCount();
+      totalIndexSize = batchHolders.size() * BATCH_SIZE;
+      bh.setup();
+      allocationTracker.commit(allocationSize);
+      return true;
+    }
+    return false;
+  }
+
+  protected BatchHolder newBatchHolder(int index, int newBatchHolderSize) { // special method to allow debugging of gen code
+    return this.injectMembers(new BatchHolder(index, newBatchHolderSize));
+  }
+
+  protected BatchHolder injectMembers(BatchHolder batchHolder) {
+    CodeGenMemberInjector.injectMembers(cg, batchHolder, context);
+    return batchHolder;
+  }
+
+  // Double the slot array if the load factor was reached, re-inserting every
+  // entry from its stored hash value. Keys in the batch holders do not move.
+  private void resizeIfNeeded() {
+    if (numEntries < threshold) {
+      return;
+    }
+
+    if (capacity == MAXIMUM_SLOTS) {
+      throw new OutOfMemoryException("Hash table reached its maximum number of slots");
+    }
+
+    int newCapacity = capacity * 2;
+
+    // if not enough memory available to allocate the new slot array, then OOM
+    if ((long) SLOT_WIDTH * newCapacity >= allocator.getLimit() - allocator.getAllocatedMemory()) {
+      throw new OutOfMemoryException("Resize Hash Table");
+    }
+
+    long t0 = System.currentTimeMillis();
+
+    DrillBuf oldSlots = slots;
+    int oldCapacity = capacity;
+    allocSlots(newCapacity);
+    for (int i = 0; i < oldCapacity; i++) {
+      long slot = oldSlots.getLong(i * SLOT_WIDTH);
+      if (slot == EMPTY_SLOT) {
+        continue;
+      }
+      int pos = slotHash(slot) & mask;
+      while (slots.getLong(pos * SLOT_WIDTH) != EMPTY_SLOT) {
+        pos = (pos + 1) & mask;
+      }
+      slots.setLong(pos * SLOT_WIDTH, slot);
+    }
+    oldSlots.release();
+
+    resizingTime += System.currentTimeMillis() - t0;
+    numResizing++;
+  }
+
+  /**
+   *  Resize up the Hash Table if needed (to hold newNum entries)
+   */
+  public void enlargeEmptyHashTableIfNeeded(int newNum) {
+    assert numEntries == 0;
+    if (newNum < threshold) {
+      return; // no need to resize
+    }
+    releaseSlots();
+    allocSlots(slotsFor(newNum));
+  }
+
+  /**
+   * Reinit the hash table to its original size, and clear up all its prior batch holder
+   */
+  @Override
+  public void reset() {
+    this.clear(false); // Clear all current batch holders and hash table (i.e. free their memory)
+
+    freeIndex = 0; // all batch holders are gone
+    batchHolders = new ArrayList<>();
+    prevIndexSize = 0;
+    currentIndexSize = 0;
+    totalIndexSize = 0;
+    allocSlots(originalCapacity);
+  }
+
+  @Override
+  public void updateIncoming(VectorContainer newIncoming, RecordBatch newIncomingProbe) {
+    incomingBuild = newIncoming;
+    incomingProbe = newIncomingProbe;
+    try {
+      updateBatches();  // Needed to update the value vectors in the generated code with the new incoming
+    } catch (SchemaChangeException e) {
+      throw new IllegalStateException("Unexpected schema change", e);
+    }
+  }
+
+  @Override
+  public boolean outputKeys(int batchIdx, VectorContainer outContainer, int numRecords) {
+    assert batchIdx < batchHolders.size();
+    return batchHolders.get(batchIdx).outputKeys(outContainer);
+  }
+
+  @Override
+  public Pair<VectorContainer, Integer> nextBatch() {
+    if (batchHolders == null || batchHolders.size() == 0) {
+      return null;
+    }
+    if (htIter == null) {
+      htIter = batchHolders.iterator();
+    }
+    if (htIter.hasNext()) {
+      BatchHolder bh = htIter.next();
+      if (bh != null) {
+        bh.setValueCount();
+        return Pair.of(bh.htContainer, bh.maxOccupiedIdx);
+      }
+    }
+    return null;
+  }
+
+  // These methods will be code-generated in the context of the outer class
+  protected abstract void doSetup(@Named("incomingBuild") VectorContainer incomingBuild, @Named("incomingProbe") RecordBatch incomingProbe) throws SchemaChangeException;
+
+  protected abstract int getHashBuild(@Named("incomingRowIdx") int incomingRowIdx, @Named("seedValue") int seedValue) throws SchemaChangeException;
+
+  protected abstract int getHashProbe(@Named("incomingRowIdx") int incomingRowIdx, @Named("seedValue") int seedValue) throws SchemaChangeException;
+
+  @Override
+  public long getActualSize() {
+    long size = slots == null ? 0 : slots.capacity();
+    if (batchHolders != null) {
+      for (BatchHolder batchHolder : batchHolders) {
+        size += batchHolder.getActualSize();
+      }
+    }
+    return size;
+  }
+
+  @Override
+  public String makeDebugString() {
+    return String.format("[numBuckets = %d, numEntries = %d, numBatchHolders = %d, actualSize = %s]",
+      numBuckets(), numEntries, batchHolders.size(), HashJoinMemoryCalculator.PartitionStatSet.prettyPrintBytes(getActualSize()));
+  }
+
+  @Override
+  public void setTargetBatchRowCount(int batchRowCount) {
+    batchHolders.get(batchHolders.size() - 1).targetBatchRowCount = batchRowCount;
+  }
+
+  @Override
+  public int getTargetBatchRowCount() {
+    return batchHolders.get(batchHolders.size() - 1).targetBatchRowCount;
+  }
+}
@@ -18,7 +18,7 @@
 package org.apache.drill.exec.physical.impl.filter;
 
 import java.util.ArrayList;
-import java.util.BitSet;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -37,6 +37,8 @@ import org.apache.drill.exec.expr.fn.impl.ValueVectorHashHelper;
 import org.apache.drill.exec.ops.FragmentContext;
 import org.apache.drill.exec.ops.MetricDef;
 import org.apache.drill.exec.physical.config.RuntimeFilterPOP;
+import org.apache.drill.exec.physical.impl.ScanBatch;
+import org.apache.drill.exec.physical.impl.validate.IteratorValidatorBatchIterator;
 import org.apache.drill.exec.record.AbstractSingleRecordBatch;
 import org.apache.drill.exec.record.BatchSchema.SelectionVectorMode;
 import org.apache.drill.exec.record.RecordBatch;
@@ -45,7 +47,9 @@ import org.apache.drill.exec.record.VectorWrapper;
 import org.apache.drill.exec.record.selection.SelectionVector2;
 import org.apache.drill.exec.record.selection.SelectionVector4;
 import org.apache.drill.exec.work.filter.BloomFilter;
+import org.apache.drill.exec.work.filter.RangeFilter;
 import org.apache.drill.exec.work.filter.RuntimeFilterWritable;
+import org.apache.drill.shaded.guava.com.google.common.base.Stopwatch;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -65,11 +69,17 @@ public class RuntimeFilterRecordBatch extends AbstractSingleRecordBatch<RuntimeF
   private final Map<String, Integer> field2id = new HashMap<>();
   private List<String> toFilterFields;
   private List<BloomFilter> bloomFilters;
+  // Hashes of the probe field of the rows, and bitmap of the rows passing all the bloom filters
+  private long[] hashes;
+  private long[] selection;
   private RuntimeFilterWritable current;
   private int originalRecordCount;
   private long filteredRows;
   private long appliedTimes;
   private int batchTimes;
+  private long unfilteredBatches;
+  private long arrivalTime = -1;
+  private final Stopwatch sinceStart = Stopwatch.createStarted();
   private boolean waited;
   private final boolean enableRFWaiting;
   private final long maxWaitingTime;
@@ -177,7 +187,9 @@ public class RuntimeFilterRecordBatch extends AbstractSingleRecordBatch<RuntimeF
       return;
     }
     if (bloomFilters == null) {
+      arrivalTime = sinceStart.elapsed(TimeUnit.MILLISECONDS);
       bloomFilters = current.unwrap();
+      pushDownRangeFilter();
     }
     // Check if HashHelper is initialized or not
     if (hash64 == null) {
@@ -203,6 +215,22 @@ public class RuntimeFilterRecordBatch extends AbstractSingleRecordBatch<RuntimeF
     }
   }
 
+  /**
+   * Hands the range filter received along with the bloom filters, if any, over to the scan
+   * below, so that it skips the readers none of whose rows may pass it.
+   */
+  private void pushDownRangeFilter() {
+    RangeFilter rangeFilter = current.unwrapRangeFilter();
+    RecordBatch scan = incoming;
+    while (scan instanceof RuntimeFilterRecordBatch || scan instanceof IteratorValidatorBatchIterator) {
+      scan = scan instanceof RuntimeFilterRecordBatch ? ((RuntimeFilterRecordBatch) scan).incoming
+          : ((IteratorValidatorBatchIterator) scan).getIncoming();
+    }
+    if (rangeFilter != null && scan instanceof ScanBatch) {
+      ((ScanBatch) scan).addFilter(rangeFilter);
+    }
+  }
+
   /**
    * If RuntimeFilter is available then applies the filter condition on the incoming batch records and creates an SV2
    * to store indexes which passes the filter condition. In case when RuntimeFilter is not available it just pass
@@ -219,6 +247,7 @@ public class RuntimeFilterRecordBatch extends AbstractSingleRecordBatch<RuntimeF
     batchTimes++;
     sv2.allocateNew(originalRecordCount);
     if (current == null) {
+      unfilteredBatches++;
       // means none of the rows are filtered out hence set all the indexes
       for (int i = 0; i < originalRecordCount; ++i) {
         sv2.setIndex(i, i);
@@ -228,58 +257,41 @@ public class RuntimeFilterRecordBatch extends AbstractSingleRecordBatch<RuntimeF
     }
     // Setup a hash helper if needed
     setupHashHelper();
-    //To make each independent bloom filter work together to construct a final filter result: BitSet.
-    BitSet bitSet = new BitSet(originalRecordCount);
+    //To make each independent bloom filter work together to construct a final filter result: a bitmap
+    //of the rows, whose bits are cleared by any of the bloom filters.
+    int words = (originalRecordCount + 63) >>> 6;
+    if (hashes == null || hashes.length < originalRecordCount) {
+      hashes = new long[originalRecordCount];
+      selection = new long[words];
+    }
+    Arrays.fill(selection, 0, words, -1L);
 
-    int filterSize = toFilterFields.size();
-    int svIndex = 0;
-    if (filterSize == 1) {
-      BloomFilter bloomFilter = bloomFilters.get(0);
-      String fieldName = toFilterFields.get(0);
-      int fieldId = field2id.get(fieldName);
+    for (int i = 0; i < toFilterFields.size(); i++) {
+      int fieldId = field2id.get(toFilterFields.get(i));
       for (int rowIndex = 0; rowIndex < originalRecordCount; rowIndex++) {
-        long hash = hash64.hash64Code(rowIndex, 0, fieldId);
-        boolean contain = bloomFilter.find(hash);
-        if (contain) {
-          sv2.setIndex(svIndex, rowIndex);
-          svIndex++;
-        } else {
-          filteredRows++;
-        }
+        hashes[rowIndex] = hash64.hash64Code(rowIndex, 0, fieldId);
       }
-    } else {
-      for (int i = 0; i < toFilterFields.size(); i++) {
-        BloomFilter bloomFilter = bloomFilters.get(i);
-        String fieldName = toFilterFields.get(i);
-        computeBitSet(field2id.get(fieldName), bloomFilter, bitSet);
+      bloomFilters.get(i).findAll(hashes, originalRecordCount, selection);
+    }
+
+    int svIndex = 0;
+    for (int word = 0; word < words; word++) {
+      long bits = selection[word];
+      if (word == words - 1 && (originalRecordCount & 63) != 0) {
+        bits &= (1L << originalRecordCount) - 1;
       }
-      for (int i = 0; i < originalRecordCount; i++) {
-        boolean contain = bitSet.get(i);
-        if (contain) {
-          sv2.setIndex(svIndex, i);
-          svIndex++;
-        } else {
-          filteredRows++;
-        }
+      while (bits != 0) {
+        sv2.setIndex(svIndex, (word << 6) + Long.numberOfTrailingZeros(bits));
+        svIndex++;
+        bits &= bits - 1;
       }
     }
+    filteredRows += originalRecordCount - svIndex;
 
     appliedTimes++;
     sv2.setRecordCount(svIndex);
   }
 
-  private void computeBitSet(int fieldId, BloomFilter bloomFilter, BitSet bitSet) throws SchemaChangeException {
-    for (int rowIndex = 0; rowIndex < originalRecordCount; rowIndex++) {
-      long hash = hash64.hash64Code(rowIndex, 0, fieldId);
-      boolean contain = bloomFilter.find(hash);
-      if (contain) {
-        bitSet.set(rowIndex, true);
-      } else {
-        bitSet.set(rowIndex, false);
-      }
-    }
-  }
-
   @Override
   public void dump() {
     logger.error("RuntimeFilterRecordBatch[container={}, selectionVector={}, toFilterFields={}, "
@@ -288,7 +300,11 @@ public class RuntimeFilterRecordBatch extends AbstractSingleRecordBatch<RuntimeF
   }
 
   public enum Metric implements MetricDef {
-    FILTERED_ROWS, APPLIED_TIMES;
+    FILTERED_ROWS, APPLIED_TIMES,
+    // Time from the setup of the operator until the runtime filter arrived, -1 if it never did
+    FILTER_ARRIVAL_MS,
+    // Batches passed through unfiltered because the runtime filter had not arrived yet
+    UNFILTERED_BATCHES;
 
     @Override
     public int metricId() {
@@ -299,6 +315,8 @@ public class RuntimeFilterRecordBatch extends AbstractSingleRecordBatch<RuntimeF
   public void updateStats() {
     stats.setLongStat(Metric.FILTERED_ROWS, filteredRows);
     stats.setLongStat(Metric.APPLIED_TIMES, appliedTimes);
+    stats.setLongStat(Metric.FILTER_ARRIVAL_MS, arrivalTime);
+    stats.setLongStat(Metric.UNFILTERED_BATCHES, unfilteredBatches);
   }
 
   private void timedWaiting() {
@@ -55,6 +55,7 @@ import org.apache.drill.exec.expr.ExpressionTreeMaterializer;
 import org.apache.drill.exec.expr.fn.impl.ValueVectorHashHelper;
 import org.apache.drill.exec.memory.BaseAllocator;
 import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.memory.MemoryReleaseRequest;
 import org.apache.drill.exec.ops.ExecutorFragmentContext;
 import org.apache.drill.exec.ops.FragmentContext;
 import org.apache.drill.exec.ops.MetricDef;
@@ -87,6 +88,7 @@ import org.apache.drill.exec.vector.ValueVector;
 import org.apache.drill.exec.vector.complex.AbstractContainerVector;
 import org.apache.drill.exec.work.filter.BloomFilter;
 import org.apache.drill.exec.work.filter.BloomFilterDef;
+import org.apache.drill.exec.work.filter.RangeFilter;
 import org.apache.drill.exec.work.filter.RuntimeFilterDef;
 import org.apache.drill.exec.work.filter.RuntimeFilterReporter;
 import org.apache.drill.shaded.guava.com.google.common.base.Preconditions;
@@ -172,6 +174,8 @@ public class HashJoinBatch extends AbstractBinaryRecordBatch<HashJoinPOP> implem
   private final MutableBoolean buildSideIsEmpty = new MutableBoolean(false);
   private final MutableBoolean probeSideIsEmpty = new MutableBoolean(false);
   private boolean canSpill = true;
+  // Requests of the Drillbit to release memory when it runs short of it
+  private final MemoryReleaseRequest releaseRequest;
   private boolean wasKilled; // a kill was received, may need to clean spilled partns
 
   /**
@@ -227,6 +231,8 @@ public class HashJoinBatch extends AbstractBinaryRecordBatch<HashJoinPOP> implem
   private final Map<BloomFilter, Integer> bloomFilter2buildId = new HashMap<>();
   private final Map<BloomFilterDef, Integer> bloomFilterDef2buildId = new HashMap<>();
   private final List<BloomFilter> bloomFilters = new ArrayList<>();
+  // Range and distinct values of the build side keys, in the sequence of the bloomFilters
+  private RangeFilter rangeFilter;
   private boolean bloomFiltersGenerated;
 
   /**
@@ -333,7 +339,10 @@ public class HashJoinBatch extends AbstractBinaryRecordBatch<HashJoinPOP> implem
     OUTPUT_BATCH_COUNT,
     AVG_OUTPUT_BATCH_BYTES,
     AVG_OUTPUT_ROW_BYTES,
-    OUTPUT_RECORD_COUNT;
+    OUTPUT_RECORD_COUNT,
+    SPILL_UNCOMPRESSED_BYTES, // bytes spilled, before compression
+    SPILL_COMPRESSED_BYTES,   // bytes spilled as stored on disk (same as above if not compressed)
+    PRESSURE_SPILLS;          // partitions spilled as asked by the Drillbit when short of memory
 
     // duplicate for hash ag
 
@@ -686,6 +695,12 @@ public class HashJoinBatch extends AbstractBinaryRecordBatch<HashJoinPOP> implem
 
       cleanup();
 
+      // The memory no longer needed can go to the other buffered operators of the fragment
+      // (unless spilling was disabled, which lifted the limit of the allocator)
+      if (canSpill) {
+        context.getMemoryPool().giveBack(allocator);
+      }
+
       return IterOutcome.NONE;
     } catch (SchemaChangeException e) {
       context.getExecutorState().fail(e);
@@ -859,6 +874,10 @@ public class HashJoinBatch extends AbstractBinaryRecordBatch<HashJoinPOP> implem
         bloomFilters.add(bloomFilter);
         bloomFilter2buildId.put(bloomFilter, buildFieldId);
       }
+      if (runtimeFilterDef.isGenerateMinMaxFilter()) {
+        int maxValues = (int) context.getOptions().getLong(ExecConstants.HASHJOIN_RUNTIME_FILTER_IN_LIST_MAX_SIZE_KEY);
+        rangeFilter = new RangeFilter(probeFields, maxValues);
+      }
     }
     bloomFiltersGenerated = true;
   }
@@ -943,6 +962,27 @@ public class HashJoinBatch extends AbstractBinaryRecordBatch<HashJoinPOP> implem
     allocator.setLimit(AbstractBase.MAX_ALLOCATION); // Violate framework and force unbounded memory
   }
 
+  /**
+   * Spill the partition holding the most build side data in memory, as asked by the Drillbit when short of
+   * direct memory. The request stays pending while no partition holds any data.
+   */
+  private void spillUnderPressure() {
+    HashPartition victim = null;
+    for (HashPartition partn : partitions) {
+      if (partn.getInMemorySize() > 0 && (victim == null || partn.getInMemorySize() > victim.getInMemorySize())) {
+        victim = partn;
+      }
+    }
+    if (victim == null) {
+      return;
+    }
+    releaseRequest.take();
+    logger.debug("Spilling partition {} of {} bytes as the Drillbit is short of memory",
+      victim.getPartitionNum(), victim.getInMemorySize());
+    victim.spillThisPartition();
+    stats.addLongStat(Metric.PRESSURE_SPILLS, 1);
+  }
+
   /**
    *  Execute the BUILD phase; first read incoming and split rows into partitions;
    *  may decide to spill some of the partitions
@@ -1035,6 +1075,12 @@ public class HashJoinBatch extends AbstractBinaryRecordBatch<HashJoinPOP> implem
               bloomFilter.insert(hashCode);
             }
           }
+          if (rangeFilter != null) {
+            for (int i = 0; i < bloomFilters.size(); i++) {
+              int fieldId = bloomFilter2buildId.get(bloomFilters.get(i));
+              rangeFilter.insert(i, buildBatch.getContainer().getValueVector(fieldId).getValueVector(), currentRecordCount);
+            }
+          }
         }
         // Special treatment (when no spill, and single partition) -- use the incoming vectors as they are (no row copy)
         if ( numPartitions == 1 ) {
@@ -1068,6 +1114,10 @@ public class HashJoinBatch extends AbstractBinaryRecordBatch<HashJoinPOP> implem
       default:
         throw new IllegalStateException(rightUpstream.name());
       }
+      // The Drillbit runs short of direct memory: spill the largest partition held in memory
+      if ( canSpill && numPartitions > 1 && releaseRequest.isPending() ) {
+        spillUnderPressure();
+      }
       // Get the next incoming record batch
       rightUpstream = next(HashJoinHelper.RIGHT_INPUT, buildBatch);
     }
@@ -1075,7 +1125,7 @@ public class HashJoinBatch extends AbstractBinaryRecordBatch<HashJoinPOP> implem
     if (spilledState.isFirstCycle() && enableRuntimeFilter) {
       if (bloomFilter2buildId.size() > 0) {
         int hashJoinOpId = this.popConfig.getOperatorId();
-        runtimeFilterReporter.sendOut(bloomFilters, probeFields, this.popConfig.getRuntimeFilterDef(), hashJoinOpId);
+        runtimeFilterReporter.sendOut(bloomFilters, rangeFilter, probeFields, this.popConfig.getRuntimeFilterDef(), hashJoinOpId);
       }
     }
 
@@ -1243,6 +1293,7 @@ public class HashJoinBatch extends AbstractBinaryRecordBatch<HashJoinPOP> implem
     }
 
     this.allocator = oContext.getAllocator();
+    this.releaseRequest = new MemoryReleaseRequest(allocator);
 
     numPartitions = (int)context.getOptions().getOption(ExecConstants.HASHJOIN_NUM_PARTITIONS_VALIDATOR);
     if ( numPartitions == 1 ) { //
@@ -1293,6 +1344,8 @@ public class HashJoinBatch extends AbstractBinaryRecordBatch<HashJoinPOP> implem
     if ( spillSet.getWriteBytes() > 0 ) {
       stats.setLongStat(Metric.SPILL_MB, // update stats - total MB spilled
         (int) Math.round(spillSet.getWriteBytes() / 1024.0D / 1024.0));
+      stats.setLongStat(Metric.SPILL_UNCOMPRESSED_BYTES, spillSet.getWriteBytes());
+      stats.setLongStat(Metric.SPILL_COMPRESSED_BYTES, spillSet.getCompressedWriteBytes());
     }
     // clean (and deallocate) each partition, and delete its spill file
     for (HashPartition partn : partitions) {
@@ -1463,6 +1516,7 @@ public class HashJoinBatch extends AbstractBinaryRecordBatch<HashJoinPOP> implem
       batchMemoryManager.getNumOutgoingBatches(), batchMemoryManager.getAvgOutputBatchSize(),
       batchMemoryManager.getAvgOutputRowWidth(), batchMemoryManager.getTotalOutputRecords());
 
+    releaseRequest.close();
     cleanup();
     super.close();
   }
@@ -64,6 +64,8 @@ public class PartitionSenderRootExec extends BaseRootExec {
   private RecordBatch incoming;
   private HashPartitionSender operator;
   private PartitionerDecorator partitioner;
+  // batch the partitioners work on while the next incoming batch is produced, when pipelined
+  private StagingRecordBatch staging;
 
   private ExchangeFragmentContext context;
   private final int outGoingBatchCount;
@@ -75,6 +77,7 @@ public class PartitionSenderRootExec extends BaseRootExec {
   private boolean done = false;
   private boolean first = true;
   private boolean closeIncoming;
+  private final boolean pipelined;
 
   long minReceiverRecordCount = Long.MAX_VALUE;
   long maxReceiverRecordCount = Long.MIN_VALUE;
@@ -91,7 +94,10 @@ public class PartitionSenderRootExec extends BaseRootExec {
     N_RECEIVERS,
     BYTES_SENT,
     SENDING_THREADS_COUNT,
-    COST;
+    COST,
+    LOCAL_BATCHES_SENT,
+    REMOTE_BATCHES_SENT,
+    MEMORY_LIMIT_FLUSHES;
 
     @Override
     public int metricId() {
@@ -142,6 +148,7 @@ public class PartitionSenderRootExec extends BaseRootExec {
     this.actualPartitions = outGoingBatchCount > numberPartitions ? numberPartitions : outGoingBatchCount;
     this.stats.setLongStat(Metric.SENDING_THREADS_COUNT, actualPartitions);
     this.stats.setDoubleStat(Metric.COST, this.cost);
+    this.pipelined = optMgr.getOption(ExecConstants.PARTITION_SENDER_PIPELINED_VALIDATOR);
   }
 
   @Override
@@ -191,6 +198,7 @@ public class PartitionSenderRootExec extends BaseRootExec {
             partitioner.flushOutgoingBatches(false, true);
             partitioner.clear();
           }
+          closeStaging();
           createPartitioner();
 
           if (first) {
@@ -211,6 +219,16 @@ public class PartitionSenderRootExec extends BaseRootExec {
         }
       case OK:
         try {
+          if (staging != null) {
+            // Wait for the previous batch to be partitioned before taking over this one, which
+            // is then partitioned while the upstream operators produce the next batch
+            partitioner.awaitPartitionBatch();
+            if (out == IterOutcome.OK) {
+              staging.transferFrom(incoming);
+            }
+            partitioner.submitPartitionBatch(staging);
+            return true;
+          }
           partitioner.partitionBatch(incoming);
         } catch (ExecutionException e) {
           context.getExecutorState().fail(e.getCause());
@@ -259,7 +277,8 @@ public class PartitionSenderRootExec extends BaseRootExec {
     cg.getEvalBlock().decl(JType.parse(cg.getModel(), "int"), "bucket", exprHolder.getValue().mod(JExpr.lit(outGoingBatchCount)));
     cg.getEvalBlock()._return(cg.getModel().ref(Math.class).staticInvoke("abs").arg(bucket));
 
-    CopyUtil.generateCopies(cgInner, incoming, incoming.getSchema().getSelectionVectorMode() == SelectionVectorMode.FOUR_BYTE);
+    final boolean hyperBatch = incoming.getSchema().getSelectionVectorMode() == SelectionVectorMode.FOUR_BYTE;
+    CopyUtil.generateCopies(cgInner, incoming, hyperBatch);
 
     try {
       // compile and setup generated code
@@ -272,6 +291,15 @@ public class PartitionSenderRootExec extends BaseRootExec {
 
       boolean success = false;
       try {
+        // The partitioners of a pipelined sender are set up against the batch the incoming batches
+        // are transferred to, which has the same field ids. Hyper batches are not transferred.
+        final RecordBatch partitionerIncoming;
+        if (pipelined && !hyperBatch) {
+          staging = new StagingRecordBatch(incoming, context, oContext);
+          partitionerIncoming = staging;
+        } else {
+          partitionerIncoming = incoming;
+        }
         for (int i = 0; i < actualPartitions; i++) {
           startIndex = endIndex;
           endIndex = (i < actualPartitions - 1) ? startIndex + divisor : outGoingBatchCount;
@@ -279,11 +307,13 @@ public class PartitionSenderRootExec extends BaseRootExec {
             endIndex++;
           }
           final OperatorStats partitionStats = new OperatorStats(stats, true);
-          subPartitioners.get(i).setup(context, incoming, popConfig, partitionStats, oContext,
+          subPartitioners.get(i).setup(context, partitionerIncoming, popConfig, partitionStats, oContext,
             cgInner, startIndex, endIndex);
         }
 
-        partitioner = new PartitionerDecorator(subPartitioners, stats, context);
+        // A single partitioner runs on a thread of its own as well when pipelined
+        partitioner = new PartitionerDecorator(subPartitioners, stats, context,
+            subPartitioners.size() > 1 || staging != null);
         for (int index = 0; index < terminations.size(); index++) {
           partitioner.getOutgoingBatches(terminations.buffer[index]).terminate();
         }
@@ -295,6 +325,7 @@ public class PartitionSenderRootExec extends BaseRootExec {
           for (Partitioner p : subPartitioners) {
             p.clear();
           }
+          closeStaging();
         }
       }
       return subPartitioners;
@@ -339,18 +370,34 @@ public class PartitionSenderRootExec extends BaseRootExec {
   @Override
   public void close() throws Exception {
     logger.debug("Partition sender stopping.");
+    if (partitioner != null) {
+      try {
+        // Partitioner tasks may still be sending the last batch submitted
+        partitioner.awaitPartitionBatch();
+      } catch (ExecutionException e) {
+        logger.warn("Failure of partitioner tasks while closing partition sender", e);
+      }
+    }
     super.close();
 
     if (partitioner != null) {
       updateAggregateStats();
       partitioner.clear();
     }
+    closeStaging();
 
     if (closeIncoming) {
       ((CloseableRecordBatch) incoming).close();
     }
   }
 
+  private void closeStaging() {
+    if (staging != null) {
+      staging.close();
+      staging = null;
+    }
+  }
+
   private void sendEmptyBatch(boolean isLast) {
     BatchSchema schema = incoming.getSchema();
     if (schema == null) {
@@ -376,6 +423,7 @@ public class PartitionSenderRootExec extends BaseRootExec {
       } finally {
         stats.stopWait();
       }
+      stats.addLongStat(tunnel.isLocal() ? Metric.LOCAL_BATCHES_SENT : Metric.REMOTE_BATCHES_SENT, 1);
     }
     stats.addLongStat(Metric.BATCHES_SENT, 1);
   }
@@ -34,6 +34,7 @@ import org.apache.drill.exec.record.RecordBatch;
 import org.apache.drill.exec.testing.ControlsInjector;
 import org.apache.drill.exec.testing.ControlsInjectorFactory;
 import org.apache.drill.exec.testing.CountDownLatchInjection;
+import org.apache.drill.exec.testing.NoOpControlsInjector;
 
 import org.apache.drill.shaded.guava.com.google.common.annotations.VisibleForTesting;
 import org.apache.drill.shaded.guava.com.google.common.base.Preconditions;
@@ -57,6 +58,9 @@ public final class PartitionerDecorator {
   private final FragmentContext context;
   private final Thread thread;
   private final boolean enableParallelTaskExecution;
+  // tasks partitioning the batch submitted by submitPartitionBatch(), until awaited
+  private List<PartitionerTask> pendingTasks;
+  private AtomicInteger pendingCount;
 
   PartitionerDecorator(List<Partitioner> partitioners, OperatorStats stats, FragmentContext context) {
     this(partitioners, stats, context, partitioners.size() > 1);
@@ -81,13 +85,65 @@ public final class PartitionerDecorator {
     executeMethodLogic(new PartitionBatchHandlingClass(incoming));
   }
 
+  /**
+   * submitPartitionBatch - decorator method to start real Partitioner(s) on the incoming batch
+   * without waiting for them to be done with it, so that the caller can get the next incoming
+   * batch in the meantime. The batch must be left alone until {@link #awaitPartitionBatch()}
+   * returns, which has to be called before any other batch is submitted.
+   * @param incoming
+   * @throws ExecutionException
+   */
+  public void submitPartitionBatch(final RecordBatch incoming) throws ExecutionException {
+    Preconditions.checkState(pendingTasks == null, "Previous batch is still being partitioned");
+    final GeneralExecuteIface iface = new PartitionBatchHandlingClass(incoming);
+    pendingCount = new AtomicInteger();
+    pendingTasks = new ArrayList<>(partitioners.size());
+    try {
+      for (Partitioner partitioner : partitioners) {
+        createAndExecute(iface, NoOpControlsInjector.LATCH, pendingCount, pendingTasks, partitioner);
+      }
+    } catch (RejectedExecutionException e) {
+      logger.warn("Failed to execute partitioner tasks. Execution service down?", e);
+      awaitPartitionBatch(new ExecutionException(e));
+    }
+  }
+
+  /**
+   * Waits for real Partitioner(s) to be done with the batch given to
+   * {@link #submitPartitionBatch(RecordBatch)}, if any.
+   * Only the time spent waiting is accounted as wait time of the sender, the partitioning itself
+   * overlaps with the work of the upstream operators.
+   * @throws ExecutionException
+   */
+  public void awaitPartitionBatch() throws ExecutionException {
+    awaitPartitionBatch(null);
+  }
+
+  private void awaitPartitionBatch(ExecutionException executionException) throws ExecutionException {
+    if (pendingTasks == null) {
+      return;
+    }
+    final List<PartitionerTask> partitionerTasks = pendingTasks;
+    stats.startWait();
+    try {
+      await(pendingCount, partitionerTasks);
+    } finally {
+      stats.stopWait();
+      pendingTasks = null;
+      pendingCount = null;
+    }
+    processPartitionerTasks(partitionerTasks, executionException, false);
+  }
+
   /**
    * flushOutgoingBatches - decorator to call real Partitioner(s) flushOutgoingBatches
+   * once they are done with the batch submitted for partitioning, if any
    * @param isLastBatch
    * @param schemaChanged
    * @throws ExecutionException
    */
   public void flushOutgoingBatches(final boolean isLastBatch, final boolean schemaChanged) throws ExecutionException {
+    awaitPartitionBatch();
     executeMethodLogic(new FlushBatchesHandlingClass(isLastBatch, schemaChanged));
   }
 
@@ -102,8 +158,14 @@ public final class PartitionerDecorator {
 
   /**
    * decorator method to call multiple Partitioners clear()
+   * once they are done with the batch submitted for partitioning, if any
    */
   public void clear() {
+    try {
+      awaitPartitionBatch();
+    } catch (ExecutionException e) {
+      logger.warn("Failure of partitioner tasks while clearing partitioners", e);
+    }
     for (Partitioner part : partitioners ) {
       part.clear();
     }
@@ -161,7 +223,7 @@ public final class PartitionerDecorator {
       } finally {
         await(count, partitionerTasks);
         stopWait();
-        processPartitionerTasks(partitionerTasks, executionException);
+        processPartitionerTasks(partitionerTasks, executionException, true);
       }
     }
   }
@@ -204,7 +266,8 @@ public final class PartitionerDecorator {
     }
   }
 
-  private void processPartitionerTasks(List<PartitionerTask> partitionerTasks, ExecutionException executionException) throws ExecutionException {
+  private void processPartitionerTasks(List<PartitionerTask> partitionerTasks, ExecutionException executionException,
+      boolean adjustWaitTime) throws ExecutionException {
     long maxProcessTime = 0l;
     for (PartitionerTask partitionerTask : partitionerTasks) {
       ExecutionException e = partitionerTask.getException();
@@ -230,6 +293,9 @@ public final class PartitionerDecorator {
     if (executionException != null) {
       throw executionException;
     }
+    if (!adjustWaitTime) {
+      return;
+    }
     // scale down main stats wait time based on calculated processing time
     // since we did not wait for whole duration of above execution
     if (enableParallelTaskExecution) {
@@ -18,12 +18,14 @@
 package org.apache.drill.exec.physical.impl.partitionsender;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 
 import javax.inject.Named;
 
 import org.apache.drill.common.expression.SchemaPath;
+import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.compile.sig.RuntimeOverridden;
 import org.apache.drill.exec.exception.SchemaChangeException;
 import org.apache.drill.exec.expr.ClassGenerator;
@@ -43,6 +45,7 @@ import org.apache.drill.exec.record.BatchSchema;
 import org.apache.drill.exec.record.BatchSchema.SelectionVectorMode;
 import org.apache.drill.exec.record.FragmentWritableBatch;
 import org.apache.drill.exec.record.RecordBatch;
+import org.apache.drill.exec.record.RecordBatchSizer;
 import org.apache.drill.exec.record.TypedFieldId;
 import org.apache.drill.exec.record.VectorAccessible;
 import org.apache.drill.exec.record.VectorContainer;
@@ -50,6 +53,7 @@ import org.apache.drill.exec.record.VectorWrapper;
 import org.apache.drill.exec.record.WritableBatch;
 import org.apache.drill.exec.record.selection.SelectionVector2;
 import org.apache.drill.exec.record.selection.SelectionVector4;
+import org.apache.drill.exec.server.options.OptionManager;
 import org.apache.drill.exec.vector.ValueVector;
 import org.apache.drill.shaded.guava.com.google.common.collect.Lists;
 import org.slf4j.Logger;
@@ -62,6 +66,11 @@ public abstract class PartitionerTemplate implements Partitioner {
   // allocation in ValueVectors
   private static final int DEFAULT_RECORD_BATCH_SIZE = (1 << 10) - 1;
 
+  private static final int MAX_RECORD_BATCH_SIZE = ValueVector.MAX_ROW_COUNT - 1;
+
+  // Bits of the index of an outgoing batch when sorting them by size
+  private static final int INDEX_BITS = 20;
+
   private SelectionVector2 sv2;
   private SelectionVector4 sv4;
   private RecordBatch incoming;
@@ -74,6 +83,12 @@ public abstract class PartitionerTemplate implements Partitioner {
 
   private int outgoingRecordBatchSize = DEFAULT_RECORD_BATCH_SIZE;
 
+  // Target number of bytes of an outgoing batch
+  private long outgoingBatchBytes;
+
+  // Bound on the bytes held by the outgoing batches of this partitioner
+  private long memoryLimit;
+
   @Override
   public List<? extends PartitionOutgoingBatch> getOutgoingBatches() {
     return outgoingBatches;
@@ -105,12 +120,22 @@ public abstract class PartitionerTemplate implements Partitioner {
     doSetup(context, incoming, null);
 
     // Half the outgoing record batch size if the number of senders exceeds 1000 to reduce the total amount of memory
-    // allocated.
+    // allocated, until the width of the incoming rows is known.
     if (popConfig.getDestinations().size() > 1000) {
       // Always keep the recordCount as (2^x) - 1 to better utilize the memory allocation in ValueVectors
       outgoingRecordBatchSize = (DEFAULT_RECORD_BATCH_SIZE + 1)/2 - 1;
     }
 
+    // The memory limit applies to the batches of all the receivers; each partitioner has the share of
+    // its receivers, and a batch may not be larger than the share of a receiver.
+    final OptionManager options = context.getOptions();
+    final int destinationCount = popConfig.getDestinations().size();
+    final long senderMemoryLimit = options.getLong(ExecConstants.PARTITION_SENDER_MEMORY_LIMIT);
+    memoryLimit = senderMemoryLimit / destinationCount * (end - start);
+    outgoingBatchBytes = Math.min(options.getLong(ExecConstants.PARTITION_SENDER_BATCH_SIZE),
+        senderMemoryLimit / destinationCount);
+    updateOutgoingRecordBatchSize(incoming);
+
     int fieldId = 0;
     for (MinorFragmentEndpoint destination : popConfig.getDestinations()) {
       // create outgoingBatches only for subset of Destination Points
@@ -191,6 +216,7 @@ public abstract class PartitionerTemplate implements Partitioner {
 
   @Override
   public void partitionBatch(RecordBatch incoming) throws IOException {
+    updateOutgoingRecordBatchSize(incoming);
     SelectionVectorMode svMode = incoming.getSchema().getSelectionVectorMode();
 
     // Keeping the for loop inside the case to avoid case evaluation for each record.
@@ -218,6 +244,52 @@ public abstract class PartitionerTemplate implements Partitioner {
       default:
         throw new UnsupportedOperationException("Unknown selection vector mode: " + svMode.toString());
     }
+    enforceMemoryLimit();
+  }
+
+  /**
+   * Sets the record count of the outgoing batches so that they hold about {@link #outgoingBatchBytes}
+   * of rows as wide as the ones of the incoming batch. The width of the rows of a hyper batch is not
+   * measured, the previous record count is kept.
+   */
+  private void updateOutgoingRecordBatchSize(RecordBatch incoming) {
+    if (incoming.getRecordCount() == 0
+        || incoming.getSchema().getSelectionVectorMode() == SelectionVectorMode.FOUR_BYTE) {
+      return;
+    }
+    final long rowWidth = Math.max(1, new RecordBatchSizer(incoming).getNetRowWidth());
+    final long recordCount = Math.min(Math.max(outgoingBatchBytes / rowWidth, 1), MAX_RECORD_BATCH_SIZE);
+    // Always keep the recordCount as (2^x) - 1 to better utilize the memory allocation in ValueVectors
+    outgoingRecordBatchSize = Integer.highestOneBit((int) recordCount + 1) - 1;
+  }
+
+  /**
+   * Sends the outgoing batches holding the most data until the data held by the outgoing batches
+   * of this partitioner is within its share of the memory limit of the sender. Rows wider than
+   * the ones the batches were sized for may take them over the limit.
+   */
+  private void enforceMemoryLimit() throws IOException {
+    final long[] sizes = new long[outgoingBatches.size()];
+    long bufferedBytes = 0;
+    for (int i = 0; i < sizes.length; i++) {
+      final long size = outgoingBatches.get(i).getBufferedBytes();
+      bufferedBytes += size;
+      // sorts the batches by size with their index in the low bits
+      sizes[i] = size << INDEX_BITS | i;
+    }
+    if (bufferedBytes <= memoryLimit) {
+      return;
+    }
+    Arrays.sort(sizes);
+    for (int i = sizes.length - 1; i >= 0 && bufferedBytes > memoryLimit; i--) {
+      final OutgoingRecordBatch batch = outgoingBatches.get((int) (sizes[i] & ((1 << INDEX_BITS) - 1)));
+      if (batch.getRecordCount() == 0) {
+        continue;
+      }
+      batch.flush(false);
+      bufferedBytes -= sizes[i] >>> INDEX_BITS;
+      stats.addLongStat(Metric.MEMORY_LIMIT_FLUSHES, 1);
+    }
   }
 
   /**
@@ -287,7 +359,7 @@ public abstract class PartitionerTemplate implements Partitioner {
       }
       recordCount++;
       totalRecords++;
-      if (recordCount == outgoingRecordBatchSize) {
+      if (recordCount >= outgoingRecordBatchSize) {
         flush(false);
       }
     }
@@ -377,13 +449,26 @@ public abstract class PartitionerTemplate implements Partitioner {
 
     private void allocateOutgoingRecordBatch() {
       for (VectorWrapper<?> v : vectorContainer) {
+        v.getValueVector().setInitialCapacity(outgoingRecordBatchSize);
         v.getValueVector().allocateNew();
       }
     }
 
+    /**
+     * @return the number of bytes of the rows copied to this batch since it was last sent
+     */
+    public long getBufferedBytes() {
+      long bytes = 0;
+      for (VectorWrapper<?> v : vectorContainer) {
+        bytes += v.getValueVector().getBufferSizeFor(recordCount);
+      }
+      return bytes;
+    }
+
     public void updateStats(FragmentWritableBatch writableBatch) {
       stats.addLongStat(Metric.BYTES_SENT, writableBatch.getByteCount());
       stats.addLongStat(Metric.BATCHES_SENT, 1);
+      stats.addLongStat(tunnel.isLocal() ? Metric.LOCAL_BATCHES_SENT : Metric.REMOTE_BATCHES_SENT, 1);
       stats.addLongStat(Metric.RECORDS_SENT, writableBatch.getHeader().getDef().getRecordCount());
     }
 
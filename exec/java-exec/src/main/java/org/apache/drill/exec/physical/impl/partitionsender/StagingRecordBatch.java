@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.partitionsender;
+
+import java.util.Iterator;
+
+import io.netty.buffer.DrillBuf;
+
+import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.ops.OperatorContext;
+import org.apache.drill.exec.record.BatchSchema.SelectionVectorMode;
+import org.apache.drill.exec.record.RecordBatch;
+import org.apache.drill.exec.record.SimpleRecordBatch;
+import org.apache.drill.exec.record.VectorContainer;
+import org.apache.drill.exec.record.VectorWrapper;
+import org.apache.drill.exec.record.selection.SelectionVector2;
+
+/**
+ * Batch owned by the partition sender, into which the vectors of each incoming batch are
+ * transferred so that the partitioners can work on it while the upstream operators produce
+ * the next batch into their own vectors. The vectors of this batch are created once per schema
+ * with the field ids of the incoming ones, so the code of the partitioners is set up against
+ * this batch and stays bound to it from one batch to the next.
+ */
+class StagingRecordBatch extends SimpleRecordBatch {
+
+  private final VectorContainer container;
+  private final SelectionVector2 sv2;
+
+  /**
+   * Takes over the current batch of the given incoming batch.
+   */
+  StagingRecordBatch(RecordBatch incoming, FragmentContext context, OperatorContext oContext) {
+    this(VectorContainer.getTransferClone(incoming, oContext), incoming, context, oContext);
+  }
+
+  private StagingRecordBatch(VectorContainer container, RecordBatch incoming,
+                             FragmentContext context, OperatorContext oContext) {
+    super(container, context);
+    this.container = container;
+    SelectionVectorMode svMode = incoming.getSchema().getSelectionVectorMode();
+    this.sv2 = svMode == SelectionVectorMode.TWO_BYTE ? new SelectionVector2(oContext.getAllocator()) : null;
+    container.buildSchema(svMode);
+    transferSelectionVector(incoming);
+  }
+
+  /**
+   * Releases the previous batch and takes over the current batch of the given incoming batch,
+   * which must have the schema this batch was created with.
+   */
+  void transferFrom(RecordBatch incoming) {
+    clear();
+    Iterator<VectorWrapper<?>> targets = container.iterator();
+    for (VectorWrapper<?> source : incoming) {
+      source.transfer(targets.next());
+    }
+    transferSelectionVector(incoming);
+  }
+
+  private void transferSelectionVector(RecordBatch incoming) {
+    if (sv2 != null) {
+      SelectionVector2 incomingSv2 = incoming.getSelectionVector2();
+      int count = incomingSv2.getCount();
+      int actualRecordCount = incomingSv2.getBatchActualRecordCount();
+      // The buffer handed over by the incoming selection vector is retained again by ours
+      DrillBuf buffer = incomingSv2.getBuffer(true);
+      sv2.setBuffer(buffer);
+      buffer.release();
+      sv2.setRecordCount(count);
+      sv2.setBatchActualRecordCount(actualRecordCount);
+      if (actualRecordCount >= 0) {
+        container.setRecordCount(actualRecordCount);
+      }
+    } else {
+      container.setRecordCount(incoming.getRecordCount());
+    }
+  }
+
+  @Override
+  public int getRecordCount() {
+    return sv2 != null ? sv2.getCount() : container.getRecordCount();
+  }
+
+  @Override
+  public SelectionVector2 getSelectionVector2() {
+    if (sv2 == null) {
+      throw new UnsupportedOperationException();
+    }
+    return sv2;
+  }
+
+  /**
+   * Releases the vectors of the current batch, keeping them for the next one.
+   */
+  void clear() {
+    container.zeroVectors();
+    if (sv2 != null) {
+      sv2.clear();
+    }
+  }
+
+  /**
+   * Releases the vectors and the selection vector of this batch for good.
+   */
+  void close() {
+    container.clear();
+    if (sv2 != null) {
+      sv2.clear();
+    }
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.spill;
+
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Deflate spill codec, at the fastest compression level. Slower than
+ * {@link SnappySpillCodec} but compresses better; useful when spill
+ * directories are short on space.
+ */
+
+public class DeflateSpillCodec implements SpillCodec {
+
+  private final Deflater deflater = new Deflater(Deflater.BEST_SPEED, true);
+  private final Inflater inflater = new Inflater(true);
+
+  @Override
+  public String getName() { return DEFLATE; }
+
+  @Override
+  public int maxCompressedLength(int length) {
+    // Incompressible input is emitted as stored blocks, 5 bytes of overhead per 16K
+    return length + (length >> 12) + 64;
+  }
+
+  @Override
+  public int compress(byte[] input, int length, byte[] output) throws IOException {
+    deflater.reset();
+    deflater.setInput(input, 0, length);
+    deflater.finish();
+    int n = 0;
+    while (!deflater.finished()) {
+      if (n == output.length) {
+        throw new IOException("Deflate output exceeds the maximum compressed length");
+      }
+      n += deflater.deflate(output, n, output.length - n);
+    }
+    return n;
+  }
+
+  @Override
+  public void decompress(byte[] input, int length, byte[] output, int uncompressedLength) throws IOException {
+    inflater.reset();
+    inflater.setInput(input, 0, length);
+    int n = 0;
+    try {
+      while (n < uncompressedLength && !inflater.finished()) {
+        int count = inflater.inflate(output, n, uncompressedLength - n);
+        if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+          break;
+        }
+        n += count;
+      }
+    } catch (DataFormatException e) {
+      throw new IOException("Corrupt spill block", e);
+    }
+    if (n != uncompressedLength) {
+      throw new IOException(String.format(
+          "Corrupt spill block: expected %d bytes, decompressed %d", uncompressedLength, n));
+    }
+  }
+
+  @Override
+  public void close() {
+    deflater.end();
+    inflater.end();
+  }
+}
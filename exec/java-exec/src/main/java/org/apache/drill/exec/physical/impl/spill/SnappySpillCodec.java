@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.spill;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.xerial.snappy.Snappy;
+
+/**
+ * Snappy spill codec: fast, with a moderate compression ratio. The usual
+ * choice when spilling is limited by disk bandwidth.
+ */
+
+public class SnappySpillCodec implements SpillCodec {
+
+  @Override
+  public String getName() { return SNAPPY; }
+
+  @Override
+  public int maxCompressedLength(int length) {
+    return Snappy.maxCompressedLength(length);
+  }
+
+  @Override
+  public int compress(byte[] input, int length, byte[] output) throws IOException {
+    return Snappy.compress(input, 0, length, output, 0);
+  }
+
+  @Override
+  public void decompress(byte[] input, int length, byte[] output, int uncompressedLength) throws IOException {
+    int n = Snappy.uncompress(input, 0, length, output, 0);
+    if (n != uncompressedLength) {
+      throw new IOException(String.format(
+          "Corrupt spill block: expected %d bytes, decompressed %d", uncompressedLength, n));
+    }
+  }
+
+  @Override
+  public boolean supportsDirectBuffers() {
+    return true;
+  }
+
+  @Override
+  public int compress(ByteBuffer input, ByteBuffer output) throws IOException {
+    return Snappy.compress(input, output);
+  }
+
+  @Override
+  public void decompress(ByteBuffer input, ByteBuffer output, int uncompressedLength) throws IOException {
+    int n = Snappy.uncompress(input, output);
+    if (n != uncompressedLength) {
+      throw new IOException(String.format(
+          "Corrupt spill block: expected %d bytes, decompressed %d", uncompressedLength, n));
+    }
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.spill;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.apache.drill.common.exceptions.UserException;
+
+/**
+ * Block compression codec for spill files. Spill files are written as a
+ * sequence of independently compressed blocks (see
+ * {@link SpillSet#openForOutput(String)}), so a codec only needs to
+ * compress and decompress one block held in a byte array.
+ * <p>
+ * The codec is selected with the <tt>drill.exec.spill.compression</tt>
+ * boot option: <tt>none</tt>, <tt>snappy</tt>, <tt>deflate</tt>, or the
+ * fully qualified name of a class implementing this interface that has a
+ * public no-argument constructor.
+ * <p>
+ * A codec need not be thread-safe: each spill stream creates its own and
+ * closes it with the stream.
+ */
+
+public interface SpillCodec {
+
+  String NONE = "none";
+  String SNAPPY = "snappy";
+  String DEFLATE = "deflate";
+
+  String getName();
+
+  /**
+   * @return the maximum size of the compressed form of a block of the given
+   * length; used to size the output buffer passed to {@link #compress}
+   */
+  int maxCompressedLength(int length);
+
+  /**
+   * Compresses <tt>length</tt> bytes of <tt>input</tt> into <tt>output</tt>.
+   *
+   * @return the number of bytes written to <tt>output</tt>
+   */
+  int compress(byte[] input, int length, byte[] output) throws IOException;
+
+  /**
+   * Decompresses <tt>length</tt> bytes of <tt>input</tt> into exactly
+   * <tt>uncompressedLength</tt> bytes of <tt>output</tt>.
+   */
+  void decompress(byte[] input, int length, byte[] output, int uncompressedLength) throws IOException;
+
+  /**
+   * @return true if the codec also compresses between direct buffers, with
+   * {@link #compress(ByteBuffer, ByteBuffer)} and
+   * {@link #decompress(ByteBuffer, ByteBuffer, int)}
+   */
+  default boolean supportsDirectBuffers() {
+    return false;
+  }
+
+  /**
+   * Compresses the remaining bytes of the direct buffer <tt>input</tt> into
+   * the direct buffer <tt>output</tt>, from its position.
+   *
+   * @return the number of bytes written to <tt>output</tt>
+   */
+  default int compress(ByteBuffer input, ByteBuffer output) throws IOException {
+    throw new UnsupportedOperationException(getName() + " does not compress direct buffers");
+  }
+
+  /**
+   * Decompresses the remaining bytes of the direct buffer <tt>input</tt> into
+   * exactly <tt>uncompressedLength</tt> bytes of the direct buffer
+   * <tt>output</tt>, from its position.
+   */
+  default void decompress(ByteBuffer input, ByteBuffer output, int uncompressedLength) throws IOException {
+    throw new UnsupportedOperationException(getName() + " does not decompress direct buffers");
+  }
+
+  /**
+   * Releases any native resources held by the codec.
+   */
+  default void close() { }
+
+  /**
+   * @return the codec with the given name or class name, or null for
+   * <tt>none</tt>
+   */
+  static SpillCodec create(String name) {
+    if (name == null || name.trim().isEmpty() || name.equalsIgnoreCase(NONE)) {
+      return null;
+    }
+    if (name.equalsIgnoreCase(SNAPPY)) {
+      return new SnappySpillCodec();
+    }
+    if (name.equalsIgnoreCase(DEFLATE)) {
+      return new DeflateSpillCodec();
+    }
+    try {
+      return Class.forName(name).asSubclass(SpillCodec.class).newInstance();
+    } catch (ClassNotFoundException | ClassCastException | InstantiationException | IllegalAccessException e) {
+      throw UserException.validationError(e)
+          .message("Unknown spill compression codec: %s", name)
+          .addContext("Expected", "none, snappy, deflate or the name of a SpillCodec class")
+          .build(org.slf4j.LoggerFactory.getLogger(SpillCodec.class));
+    }
+  }
+}
@@ -18,6 +18,7 @@
 package org.apache.drill.exec.physical.impl.spill;
 
 import java.io.BufferedInputStream;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -30,6 +31,7 @@ import java.nio.file.StandardOpenOption;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.drill.common.config.DrillConfig;
 import org.apache.drill.common.exceptions.UserException;
@@ -385,6 +387,213 @@ public class SpillSet {
     }
   }
 
+  /**
+   * Writes spill data as a sequence of independently compressed blocks.
+   * Each block is preceded by its uncompressed length and its stored
+   * length; a negative stored length marks a block kept as is because
+   * compression did not make it smaller.
+   * <p>
+   * Codecs may keep state between blocks, so each channel has its own.
+   */
+
+  private class CompressingChannel implements WritableByteChannel {
+
+    private final WritableByteChannel out;
+    private final SpillCodec codec = SpillCodec.create(codecName);
+    private final byte block[] = new byte[COMPRESSION_BLOCK_SIZE];
+    private final byte compressed[] = new byte[codec.maxCompressedLength(COMPRESSION_BLOCK_SIZE)];
+    private final ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+    private int blockLength;
+    private long storedBytes;
+    // Uncompressed bytes taken in, the same basis as the bytes read
+    private long bytesWritten;
+
+    CompressingChannel(WritableByteChannel out) {
+      this.out = out;
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+      int totalWritten = src.remaining();
+      bytesWritten += totalWritten;
+      while (src.hasRemaining()) {
+        int len = Math.min(src.remaining(), block.length - blockLength);
+        src.get(block, blockLength, len);
+        blockLength += len;
+        if (blockLength == block.length) {
+          writeBlock();
+        }
+      }
+      return totalWritten;
+    }
+
+    private void writeBlock() throws IOException {
+      if (blockLength == 0) {
+        return;
+      }
+      int compressedLength = codec.compress(block, blockLength, compressed);
+      header.clear();
+      header.putInt(blockLength);
+      if (compressedLength < blockLength) {
+        header.putInt(compressedLength);
+        writeFully(header.array(), BLOCK_HEADER_SIZE);
+        writeFully(compressed, compressedLength);
+        storedBytes += BLOCK_HEADER_SIZE + compressedLength;
+      } else {
+        header.putInt(-blockLength);
+        writeFully(header.array(), BLOCK_HEADER_SIZE);
+        writeFully(block, blockLength);
+        storedBytes += BLOCK_HEADER_SIZE + blockLength;
+      }
+      blockLength = 0;
+    }
+
+    private void writeFully(byte buf[], int len) throws IOException {
+      ByteBuffer buffer = ByteBuffer.wrap(buf, 0, len);
+      while (buffer.hasRemaining()) {
+        out.write(buffer);
+      }
+    }
+
+    @Override
+    public boolean isOpen() {
+      return out.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (!out.isOpen()) {
+        return;
+      }
+      try {
+        writeBlock();
+      } finally {
+        codec.close();
+        out.close();
+        compressedWriteBytes.addAndGet(storedBytes);
+      }
+    }
+  }
+
+  /**
+   * Reads the blocks written by a {@link CompressingChannel}. Several runs
+   * may be read at the same time on different threads, each through its
+   * own stream and codec.
+   */
+
+  private class DecompressingInputStream extends InputStream {
+
+    private final InputStream in;
+    private final SpillCodec codec = SpillCodec.create(codecName);
+    private final byte header[] = new byte[BLOCK_HEADER_SIZE];
+    private byte block[] = new byte[COMPRESSION_BLOCK_SIZE];
+    private byte compressed[] = new byte[0];
+    private int position;
+    private int limit;
+    // Uncompressed bytes handed out, the same basis as the bytes written
+    private long bytesRead;
+
+    DecompressingInputStream(InputStream in) {
+      this.in = in;
+    }
+
+    @Override
+    public int read() throws IOException {
+      if (position == limit && !readBlock()) {
+        return -1;
+      }
+      bytesRead++;
+      return block[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte b[], int off, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      // Fill the request across blocks: callers such as DrillBuf.writeBytes()
+      // read a whole vector buffer with a single call.
+      int total = 0;
+      while (total < len) {
+        if (position == limit && !readBlock()) {
+          break;
+        }
+        int n = Math.min(len - total, limit - position);
+        System.arraycopy(block, position, b, off + total, n);
+        position += n;
+        total += n;
+      }
+      bytesRead += total;
+      return total == 0 ? -1 : total;
+    }
+
+    @Override
+    public int available() {
+      return limit - position;
+    }
+
+    private boolean readBlock() throws IOException {
+      int n = readFully(header, BLOCK_HEADER_SIZE);
+      if (n == 0) {
+        return false;
+      }
+      if (n < BLOCK_HEADER_SIZE) {
+        throw new EOFException("Truncated spill block header");
+      }
+      ByteBuffer headerBuf = ByteBuffer.wrap(header);
+      int uncompressedLength = headerBuf.getInt();
+      int storedLength = headerBuf.getInt();
+      if (block.length < uncompressedLength) {
+        block = new byte[uncompressedLength];
+      }
+      if (storedLength < 0) {
+        if (readFully(block, -storedLength) != -storedLength) {
+          throw new EOFException("Truncated spill block");
+        }
+      } else {
+        if (compressed.length < storedLength) {
+          compressed = new byte[storedLength];
+        }
+        if (readFully(compressed, storedLength) != storedLength) {
+          throw new EOFException("Truncated spill block");
+        }
+        codec.decompress(compressed, storedLength, block, uncompressedLength);
+      }
+      position = 0;
+      limit = uncompressedLength;
+      return true;
+    }
+
+    private int readFully(byte buf[], int len) throws IOException {
+      int total = 0;
+      while (total < len) {
+        int n = in.read(buf, total, len - total);
+        if (n == -1) {
+          break;
+        }
+        total += n;
+      }
+      return total;
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        in.close();
+      } finally {
+        codec.close();
+      }
+    }
+  }
+
+  /**
+   * Size of the uncompressed blocks of a compressed spill file.
+   */
+
+  private static final int COMPRESSION_BLOCK_SIZE = 256 * 1024;
+
+  private static final int BLOCK_HEADER_SIZE = 8;
+
   private final Iterator<String> dirs;
 
   /**
@@ -408,9 +617,23 @@ public class SpillSet {
 
   private FileManager fileManager;
 
-  private long readBytes;
+  // Updated by the threads reading ahead spilled runs
+  private final AtomicLong readBytes = new AtomicLong();
+
+  private final AtomicLong writeBytes = new AtomicLong();
 
-  private long writeBytes;
+  /**
+   * Name of the codec used to compress the spill files, null if they are
+   * not compressed. Each stream creates its own codec from it.
+   */
+
+  private final String codecName;
+
+  /**
+   * Bytes actually written to the compressed spill files (after compression).
+   */
+
+  private final AtomicLong compressedWriteBytes = new AtomicLong();
 
   public SpillSet(FragmentContext context, PhysicalOperator popConfig) {
     this(context.getConfig(), context.getHandle(), popConfig);
@@ -472,6 +695,14 @@ public class SpillSet {
       fileManager = new HadoopFileManager(spillFs);
     }
 
+    // Create a codec up front so that an unknown one fails the query early
+    String compression = config.getString(ExecConstants.SPILL_COMPRESSION);
+    SpillCodec codec = SpillCodec.create(compression);
+    if (codec != null) {
+      codec.close();
+    }
+    codecName = codec == null ? null : compression;
+
     spillDirName = String.format("%s_%s_%s-%s-%s",
         QueryIdHelper.getQueryId(handle.getQueryId()),
         operName, handle.getMajorFragmentId(), popConfig.getOperatorId(), handle.getMinorFragmentId());
@@ -512,19 +743,31 @@ public class SpillSet {
   public int getFileCount() { return fileCount; }
 
   public InputStream openForInput(String fileName) throws IOException {
-    return fileManager.openForInput(fileName);
+    InputStream in = fileManager.openForInput(fileName);
+    return codecName == null ? in : new DecompressingInputStream(in);
   }
 
   public WritableByteChannel openForOutput(String fileName) throws IOException {
-    return fileManager.createForWrite(fileName);
+    WritableByteChannel channel = fileManager.createForWrite(fileName);
+    return codecName == null ? channel : new CompressingChannel(channel);
   }
 
   public void delete(String fileName) throws IOException {
     fileManager.deleteFile(fileName);
   }
 
-  public long getWriteBytes() { return writeBytes; }
-  public long getReadBytes() { return readBytes; }
+  public long getWriteBytes() { return writeBytes.get(); }
+  public long getReadBytes() { return readBytes.get(); }
+
+  /**
+   * @return the number of bytes spilled as stored on disk: the same as
+   * {@link #getWriteBytes()} unless the spill files are compressed
+   */
+  public long getCompressedWriteBytes() {
+    return codecName == null ? writeBytes.get() : compressedWriteBytes.get();
+  }
+
+  public boolean isCompressed() { return codecName != null; }
 
   public void close() {
     for (String path : currSpillDirs) {
@@ -538,20 +781,30 @@ public class SpillSet {
     }
   }
 
+  /**
+   * @return the bytes read so far from the stream, before compression as
+   * for {@link #tallyWriteBytes(long)}
+   */
   public long getPosition(InputStream inputStream) {
+    if (inputStream instanceof DecompressingInputStream) {
+      return ((DecompressingInputStream) inputStream).bytesRead;
+    }
     return fileManager.getReadBytes(inputStream);
   }
 
   public long getPosition(WritableByteChannel channel) {
+    if (channel instanceof CompressingChannel) {
+      return ((CompressingChannel) channel).bytesWritten;
+    }
     return fileManager.getWriteBytes(channel);
   }
 
   public void tallyReadBytes(long readLength) {
-    readBytes += readLength;
+    readBytes.addAndGet(readLength);
   }
 
   public void tallyWriteBytes(long writeLength) {
-    writeBytes += writeLength;
+    writeBytes.addAndGet(writeLength);
   }
 
   public VectorSerializer.Writer writer(String fileName) throws IOException {
@@ -21,6 +21,9 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 import org.apache.drill.common.exceptions.UserException;
@@ -38,6 +41,7 @@ import org.apache.drill.exec.record.VectorContainer;
 import org.apache.drill.exec.record.VectorWrapper;
 import org.apache.drill.exec.record.selection.SelectionVector2;
 import org.apache.drill.exec.record.selection.SelectionVector4;
+import org.apache.drill.exec.work.fragment.FragmentScheduler;
 
 import org.apache.drill.shaded.guava.com.google.common.base.Stopwatch;
 
@@ -131,6 +135,10 @@ public abstract class BatchGroup implements VectorAccessible, AutoCloseable {
    * When reading, has destructive read-once behavior: closing the
    * batch (after reading) deletes the underlying spill file.
    * <p>
+   * When read-ahead is enabled, the next batch is read from the spill file
+   * on another thread while the rows of the current batch are merged, at
+   * the cost of memory for one more batch.
+   * <p>
    * This single class does three tasks: load data, hold data and
    * read data. This should be split into three separate classes. But,
    * the original (combined) structure is retained for expedience at
@@ -146,6 +154,12 @@ public abstract class BatchGroup implements VectorAccessible, AutoCloseable {
     private long batchSize;
     private Writer writer;
     private VectorSerializer.Reader reader;
+    private ExecutorService readAheadExecutor;
+
+    /**
+     * Next batch being read from the spill file, if read-ahead is enabled.
+     */
+    private Future<VectorContainer> readAhead;
 
     public SpilledRun(SpillSet spillSet, String path, BufferAllocator allocator) throws IOException {
       super(null, allocator);
@@ -175,6 +189,23 @@ public abstract class BatchGroup implements VectorAccessible, AutoCloseable {
     public long getBatchSize() { return batchSize; }
     public String getPath() { return path; }
 
+    /**
+     * Reads the batches of the run on the given executor, one batch ahead
+     * of the merge.
+     *
+     * @param executor executor for the reads
+     */
+    public void startReadAhead(ExecutorService executor) {
+      readAheadExecutor = executor;
+      scheduleReadAhead();
+    }
+
+    private void scheduleReadAhead() {
+      if (readAheadExecutor != null && readAhead == null && spilledBatches > 0) {
+        readAhead = readAheadExecutor.submit(this::readBatch);
+      }
+    }
+
     @Override
     public int getNextIndex() {
       if (pointer == getRecordCount()) {
@@ -183,7 +214,7 @@ public abstract class BatchGroup implements VectorAccessible, AutoCloseable {
         }
         try {
           currentContainer.zeroVectors();
-          getBatch();
+          loadBatch(nextBatch());
         } catch (IOException e) {
           // Release any partially-loaded data.
           currentContainer.clear();
@@ -191,6 +222,7 @@ public abstract class BatchGroup implements VectorAccessible, AutoCloseable {
               .message("Failure while reading spilled data")
               .build(logger);
         }
+        scheduleReadAhead();
 
         // The pointer indicates the NEXT index, not the one we
         // return here. At this point, we just started reading a
@@ -203,7 +235,34 @@ public abstract class BatchGroup implements VectorAccessible, AutoCloseable {
       return super.getNextIndex();
     }
 
-    private VectorContainer getBatch() throws IOException {
+    private VectorContainer nextBatch() throws IOException {
+      if (readAhead == null) {
+        return readBatch();
+      }
+      Future<VectorContainer> batch = readAhead;
+      readAhead = null;
+      try {
+        return FragmentScheduler.managedCall(batch::get);
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof IOException) {
+          throw (IOException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        }
+        throw new IOException(cause);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while reading spilled data", e);
+      }
+    }
+
+    /**
+     * Reads the next batch from the spill file. Called by a single thread
+     * at a time: the fragment thread, or the read-ahead one.
+     */
+    private VectorContainer readBatch() throws IOException {
       if (inputStream == null) {
         inputStream = spillSet.openForInput(path);
         reader = VectorSerializer.reader(allocator, inputStream);
@@ -219,6 +278,10 @@ public abstract class BatchGroup implements VectorAccessible, AutoCloseable {
       if (schema != null) {
         c = SchemaUtil.coerceContainer(c, schema, allocator);
       }
+      return c;
+    }
+
+    private void loadBatch(VectorContainer c) {
       spilledBatches--;
       currentContainer.zeroVectors();
       Iterator<VectorWrapper<?>> wrapperIterator = c.iterator();
@@ -228,7 +291,25 @@ public abstract class BatchGroup implements VectorAccessible, AutoCloseable {
       }
       currentContainer.setRecordCount(c.getRecordCount());
       c.zeroVectors();
-      return c;
+    }
+
+    /**
+     * Waits for the pending read, if any, and releases its batch, before
+     * the spill file is closed.
+     */
+    private void cancelReadAhead() {
+      if (readAhead == null) {
+        return;
+      }
+      Future<VectorContainer> batch = readAhead;
+      readAhead = null;
+      try {
+        batch.get().clear();
+      } catch (ExecutionException e) {
+        logger.debug("Read-ahead of {} failed", path, e.getCause());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
     }
 
     /**
@@ -250,6 +331,7 @@ public abstract class BatchGroup implements VectorAccessible, AutoCloseable {
       } catch (IOException e) {
         ex = ex == null ? e : ex;
       }
+      cancelReadAhead();
       try {
         closeInputStream();
       } catch (IOException e) {
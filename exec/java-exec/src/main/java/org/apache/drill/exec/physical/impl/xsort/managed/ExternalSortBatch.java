@@ -216,9 +216,16 @@ public class ExternalSortBatch extends AbstractRecordBatch<ExternalSort> {
     PEAK_BATCHES_IN_MEMORY, // maximum number of batches kept in memory
     MERGE_COUNT,            // Number of second+ generation merges
     MIN_BUFFER,             // Minimum memory level observed in operation.
-    SPILL_MB;               // Number of MB of data spilled to disk. This
+    SPILL_MB,               // Number of MB of data spilled to disk. This
                             // amount is first written, then later re-read.
                             // So, disk I/O is twice this amount.
+    SPILL_UNCOMPRESSED_BYTES, // Bytes spilled, before compression
+    SPILL_COMPRESSED_BYTES,   // Bytes spilled as stored on disk (same as
+                              // above if spill files are not compressed)
+    PRESSURE_SPILL_COUNT,     // Number of spills asked for by the Drillbit
+                              // when short of direct memory
+    BORROW_COUNT;             // Number of times memory given back by other
+                              // operators of the fragment was borrowed
 
     @Override
     public int metricId() {
@@ -627,6 +634,10 @@ public class ExternalSortBatch extends AbstractRecordBatch<ExternalSort> {
       // Set the schema again since with reset we create new instance of SortImpl
       sortImpl.setSchema(schema);
       resultsIterator = new SortImpl.EmptyResults(outputWrapperContainer);
+    } else {
+      // Done for good: the memory we no longer need can go to the
+      // other buffered operators of the fragment.
+      context.getMemoryPool().giveBack(oContext.getAllocator());
     }
   }
 
@@ -17,14 +17,18 @@
  */
 package org.apache.drill.exec.physical.impl.xsort.managed;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Queue;
 
 import javax.inject.Named;
 
+import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.exception.SchemaChangeException;
 import org.apache.drill.exec.memory.BaseAllocator;
 import org.apache.drill.exec.memory.BufferAllocator;
 import org.apache.drill.exec.ops.FragmentContext;
+import org.apache.drill.exec.proto.helper.QueryIdHelper;
 import org.apache.drill.exec.record.RecordBatch;
 import org.apache.drill.exec.record.VectorContainer;
 import org.apache.drill.exec.record.selection.SelectionVector4;
@@ -35,7 +39,7 @@ import org.apache.drill.shaded.guava.com.google.common.collect.Queues;
 
 import io.netty.buffer.DrillBuf;
 
-public abstract class MSortTemplate implements MSorter, IndexedSortable {
+public abstract class MSortTemplate implements MSorter, IndexedSortable, ParallelMerger.RangeMerger {
 //  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(MSortTemplate.class);
 
   private SelectionVector4 vector4;
@@ -56,6 +60,12 @@ public abstract class MSortTemplate implements MSorter, IndexedSortable {
    */
   private int desiredRecordBatchCount;
 
+  /**
+   * Runs the merge passes on several threads, null to merge on the
+   * fragment thread only.
+   */
+  private ParallelMerger parallelMerger;
+
   @Override
   public void setup(final FragmentContext context, final BufferAllocator allocator, final SelectionVector4 vector4,
                     final VectorContainer hyperBatch, int outputBatchSize, int desiredBatchSize) throws SchemaChangeException{
@@ -91,6 +101,12 @@ public abstract class MSortTemplate implements MSorter, IndexedSortable {
     desiredRecordBatchCount = Math.min(outputBatchSize, desiredBatchSize);
     desiredRecordBatchCount = Math.min(desiredRecordBatchCount, totalCount);
     aux = new SelectionVector4(drillBuf, totalCount, desiredRecordBatchCount);
+
+    final long threadsPerQuery = context.getOptions().getOption(ExecConstants.EXTERNAL_SORT_PARALLEL_MERGE_THREADS);
+    if (threadsPerQuery > 0) {
+      parallelMerger = new ParallelMerger(this, QueryIdHelper.getQueryId(context.getHandle().getQueryId()),
+          (int) threadsPerQuery);
+    }
   }
 
   /**
@@ -120,24 +136,34 @@ public abstract class MSortTemplate implements MSorter, IndexedSortable {
    * @return
    */
   protected int merge(final int leftStart, final int rightStart, final int rightEnd, final int outStart) {
+    merge(leftStart, rightStart, rightStart, rightEnd, outStart);
+    return outStart + (rightEnd - leftStart);
+  }
+
+  /**
+   * Merge two regions of the selection vector 4, which need not be
+   * adjacent, into the auxiliary selection vector. Called concurrently
+   * on disjoint output regions by the {@link ParallelMerger}.
+   */
+  @Override
+  public void merge(final int leftStart, final int leftEnd, final int rightStart, final int rightEnd, final int outStart) {
     int l = leftStart;
     int r = rightStart;
     int o = outStart;
-    while (l < rightStart && r < rightEnd) {
+    while (l < leftEnd && r < rightEnd) {
       if (compare(l, r) <= 0) {
         aux.set(o++, vector4.get(l++));
       } else {
         aux.set(o++, vector4.get(r++));
       }
     }
-    while (l < rightStart) {
+    while (l < leftEnd) {
       aux.set(o++, vector4.get(l++));
     }
     while (r < rightEnd) {
       aux.set(o++, vector4.get(r++));
     }
-    assert o == outStart + (rightEnd - leftStart);
-    return o;
+    assert o == outStart + (leftEnd - leftStart) + (rightEnd - rightStart);
   }
 
   @Override
@@ -153,10 +179,26 @@ public abstract class MSortTemplate implements MSorter, IndexedSortable {
    * Runs are merge pairwise in multiple passes, providing performance
    * of O(n * m * log(n)), where n = number of runs, m = number of records
    * per run.
+   * <p>
+   * With a {@link ParallelMerger}, the pairs of runs of each pass are merged
+   * on the threads it reserved for the duration of the sort.
    */
 
   @Override
   public void sort() {
+    if (parallelMerger != null) {
+      parallelMerger.acquire(vector4.getTotalCount());
+    }
+    try {
+      mergeRuns();
+    } finally {
+      if (parallelMerger != null) {
+        parallelMerger.release();
+      }
+    }
+  }
+
+  private void mergeRuns() {
     while (runStarts.size() > 1) {
       final int totalCount = this.vector4.getTotalCount();
 
@@ -166,6 +208,7 @@ public abstract class MSortTemplate implements MSorter, IndexedSortable {
 
       int outIndex = 0;
       final Queue<Integer> newRunStarts = Queues.newLinkedBlockingQueue();
+      final List<int[]> pairs = new ArrayList<>();
       newRunStarts.add(outIndex);
       final int size = runStarts.size();
       for (int i = 0; i < size / 2; i++) {
@@ -175,11 +218,19 @@ public abstract class MSortTemplate implements MSorter, IndexedSortable {
         if (end == null) {
           end = totalCount;
         }
-        outIndex = merge(left, right, end, outIndex);
+        if (parallelMerger == null) {
+          outIndex = merge(left, right, end, outIndex);
+        } else {
+          pairs.add(new int[] {left, right, end});
+          outIndex = end;
+        }
         if (outIndex < vector4.getTotalCount()) {
           newRunStarts.add(outIndex);
         }
       }
+      if (parallelMerger != null) {
+        parallelMerger.mergePairs(pairs, outIndex);
+      }
       if (outIndex < totalCount) {
         copyRun(outIndex, totalCount);
       }
@@ -0,0 +1,491 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.xsort.managed;
+
+import io.netty.buffer.DrillBuf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.calcite.rel.RelFieldCollation.Direction;
+import org.apache.drill.common.expression.SchemaPath;
+import org.apache.drill.common.logical.data.Order.Ordering;
+import org.apache.drill.common.types.TypeProtos.DataMode;
+import org.apache.drill.common.types.TypeProtos.MajorType;
+import org.apache.drill.exec.physical.impl.xsort.SingleBatchSorter;
+import org.apache.drill.exec.record.TypedFieldId;
+import org.apache.drill.exec.record.VectorAccessible;
+import org.apache.drill.exec.record.selection.SelectionVector2;
+import org.apache.drill.exec.vector.BaseDataValueVector;
+import org.apache.drill.exec.vector.NullableVector;
+import org.apache.drill.exec.vector.ValueVector;
+import org.apache.drill.exec.vector.VariableWidthVector;
+
+/**
+ * Sorts a single batch by normalized keys rather than by generated
+ * comparisons. The leading sort columns are encoded, for each row, into
+ * a fixed-width key whose unsigned byte order is the sort order: the
+ * null ordering and the direction of each column are folded into its
+ * bytes. The rows are then sorted with an LSD radix sort over the keys,
+ * which touches each key byte a few times instead of calling the
+ * generated comparison O(n log n) times.
+ * <p>
+ * Strings are encoded as a fixed-length prefix, so the columns after the
+ * first string column are not encoded. Rows whose keys are equal are
+ * ordered with the generated comparison (the tie-breaker) when some of
+ * them were truncated or when some sort columns were not encoded.
+ * <p>
+ * A sorter is bound to the schema of the batch it was created for, and
+ * must be discarded on a schema change.
+ */
+
+public class NormalizedKeySorter {
+
+  /**
+   * Number of bytes of a VARCHAR or VARBINARY value held in its key.
+   */
+
+  public static final int STRING_PREFIX_WIDTH = 16;
+
+  private final List<KeyColumn> columns;
+  private final int keyWidth;
+  private final boolean allEncoded;
+
+  private byte[] keys = new byte[0];
+  private boolean[] truncated = new boolean[0];
+  private int[] order = new int[0];
+  private int[] buffer = new int[0];
+  private final int[] counts = new int[256];
+
+  private NormalizedKeySorter(List<KeyColumn> columns, boolean allEncoded) {
+    this.columns = columns;
+    this.allEncoded = allEncoded;
+    int width = 0;
+    for (KeyColumn column : columns) {
+      width += column.width();
+    }
+    this.keyWidth = width;
+  }
+
+  /**
+   * Creates a sorter for the given sort specification and schema.
+   *
+   * @param orderings the sort columns
+   * @param batch a batch with the schema to be sorted
+   * @return the sorter, or null if the first sort column cannot be
+   * encoded into a normalized key
+   */
+
+  public static NormalizedKeySorter create(List<Ordering> orderings, VectorAccessible batch) {
+    List<KeyColumn> columns = new ArrayList<>();
+    for (Ordering ordering : orderings) {
+      KeyColumn column = keyColumn(ordering, batch);
+      if (column == null) {
+        break;
+      }
+      columns.add(column);
+      if (column instanceof StringKeyColumn) {
+        break;
+      }
+    }
+    if (columns.isEmpty()) {
+      return null;
+    }
+    return new NormalizedKeySorter(columns, columns.size() == orderings.size());
+  }
+
+  private static KeyColumn keyColumn(Ordering ordering, VectorAccessible batch) {
+    if (!(ordering.getExpr() instanceof SchemaPath)) {
+      return null;
+    }
+    SchemaPath path = (SchemaPath) ordering.getExpr();
+    if (!path.isLeaf()) {
+      return null;
+    }
+    TypedFieldId fieldId = batch.getValueVectorId(path);
+    if (fieldId == null || fieldId.isHyperReader() || fieldId.getFieldIds().length != 1) {
+      return null;
+    }
+    MajorType type = fieldId.getFinalType();
+    if (type.getMode() == DataMode.REPEATED) {
+      return null;
+    }
+    int vectorIndex = fieldId.getFieldIds()[0];
+    boolean nullable = type.getMode() == DataMode.OPTIONAL;
+    boolean nullsHigh = ordering.nullsSortHigh();
+    boolean descending = ordering.getDirection() == Direction.DESCENDING;
+    switch (type.getMinorType()) {
+      case INT:
+      case TIME:
+        return new IntKeyColumn(vectorIndex, nullable, nullsHigh, descending);
+      case BIGINT:
+      case DATE:
+      case TIMESTAMP:
+        return new LongKeyColumn(vectorIndex, nullable, nullsHigh, descending);
+      case FLOAT4:
+        return new FloatKeyColumn(vectorIndex, nullable, nullsHigh, descending);
+      case FLOAT8:
+        return new DoubleKeyColumn(vectorIndex, nullable, nullsHigh, descending);
+      case VARCHAR:
+      case VARBINARY:
+        return new StringKeyColumn(vectorIndex, nullable, nullsHigh, descending);
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * @return true if some rows with equal keys may have to be ordered with
+   * the generated comparison
+   */
+
+  public boolean needsTieBreaker() {
+    return !allEncoded || columns.get(columns.size() - 1) instanceof StringKeyColumn;
+  }
+
+  /**
+   * Sorts the rows of the batch, in place in the selection vector.
+   *
+   * @param batch the batch to sort
+   * @param sv2 the selection vector of the batch
+   * @param tieBreaker generated sorter, set up for the batch and the selection
+   * vector, to order rows with equal keys. Required if {@link #needsTieBreaker()}
+   */
+
+  public void sort(VectorAccessible batch, SelectionVector2 sv2, SingleBatchSorter tieBreaker) {
+    int count = sv2.getCount();
+    if (count < 2) {
+      return;
+    }
+    ensureCapacity(count);
+    for (KeyColumn column : columns) {
+      column.bind(batch);
+    }
+    encode(sv2, count);
+    radixSort(count);
+    if (needsTieBreaker()) {
+      breakTies(count, tieBreaker);
+    }
+
+    // The order holds positions in the selection vector, which is rewritten last
+    // as the tie-breaker compares rows through it.
+    for (int i = 0; i < count; i++) {
+      buffer[i] = sv2.getIndex(order[i]);
+    }
+    for (int i = 0; i < count; i++) {
+      sv2.setIndex(i, buffer[i]);
+    }
+  }
+
+  private void ensureCapacity(int count) {
+    if (order.length < count) {
+      order = new int[count];
+      buffer = new int[count];
+      truncated = new boolean[count];
+    }
+    if (keys.length < count * keyWidth) {
+      keys = new byte[count * keyWidth];
+    }
+  }
+
+  private void encode(SelectionVector2 sv2, int count) {
+    for (int i = 0; i < count; i++) {
+      int index = sv2.getIndex(i);
+      int offset = i * keyWidth;
+      boolean rowTruncated = false;
+      for (KeyColumn column : columns) {
+        rowTruncated |= column.encode(index, keys, offset);
+        offset += column.width();
+      }
+      truncated[i] = rowTruncated;
+      order[i] = i;
+    }
+  }
+
+  /**
+   * Stable counting sort on each key byte, from the last one to the first.
+   * Bytes which are the same for all rows are skipped.
+   */
+
+  private void radixSort(int count) {
+    for (int b = keyWidth - 1; b >= 0; b--) {
+      Arrays.fill(counts, 0);
+      for (int i = 0; i < count; i++) {
+        counts[keys[order[i] * keyWidth + b] & 0xFF]++;
+      }
+      if (counts[keys[order[0] * keyWidth + b] & 0xFF] == count) {
+        continue;
+      }
+      int start = 0;
+      for (int value = 0; value < counts.length; value++) {
+        int valueCount = counts[value];
+        counts[value] = start;
+        start += valueCount;
+      }
+      for (int i = 0; i < count; i++) {
+        int row = order[i];
+        buffer[counts[keys[row * keyWidth + b] & 0xFF]++] = row;
+      }
+      int[] sorted = buffer;
+      buffer = order;
+      order = sorted;
+    }
+  }
+
+  private void breakTies(int count, SingleBatchSorter tieBreaker) {
+    int start = 0;
+    while (start < count) {
+      int end = start + 1;
+      boolean needsComparison = !allEncoded || truncated[order[start]];
+      while (end < count && sameKey(order[start], order[end])) {
+        needsComparison |= truncated[order[end]];
+        end++;
+      }
+      if (end - start > 1 && needsComparison) {
+        mergeSort(start, end, tieBreaker);
+      }
+      start = end;
+    }
+  }
+
+  private boolean sameKey(int left, int right) {
+    int leftOffset = left * keyWidth;
+    int rightOffset = right * keyWidth;
+    for (int b = 0; b < keyWidth; b++) {
+      if (keys[leftOffset + b] != keys[rightOffset + b]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private void mergeSort(int from, int to, SingleBatchSorter tieBreaker) {
+    if (to - from < 2) {
+      return;
+    }
+    int middle = (from + to) >>> 1;
+    mergeSort(from, middle, tieBreaker);
+    mergeSort(middle, to, tieBreaker);
+    if (tieBreaker.compare(order[middle - 1], order[middle]) <= 0) {
+      return;
+    }
+    System.arraycopy(order, from, buffer, from, to - from);
+    int left = from;
+    int right = middle;
+    for (int i = from; i < to; i++) {
+      if (right >= to || (left < middle && tieBreaker.compare(buffer[left], buffer[right]) <= 0)) {
+        order[i] = buffer[left++];
+      } else {
+        order[i] = buffer[right++];
+      }
+    }
+  }
+
+  /**
+   * Encodes one sort column into the keys: an optional null byte, followed
+   * by the value bytes, all of them inverted for a descending order.
+   */
+
+  private abstract static class KeyColumn {
+    private final int vectorIndex;
+    private final boolean nullable;
+    private final boolean nullsHigh;
+    private final boolean descending;
+    private final int valueWidth;
+    private DrillBuf bits;
+
+    KeyColumn(int vectorIndex, boolean nullable, boolean nullsHigh, boolean descending, int valueWidth) {
+      this.vectorIndex = vectorIndex;
+      this.nullable = nullable;
+      this.nullsHigh = nullsHigh;
+      this.descending = descending;
+      this.valueWidth = valueWidth;
+    }
+
+    int width() {
+      return nullable ? valueWidth + 1 : valueWidth;
+    }
+
+    void bind(VectorAccessible batch) {
+      ValueVector vector = batch.getValueAccessorById(ValueVector.class, vectorIndex).getValueVector();
+      if (nullable) {
+        NullableVector nullableVector = (NullableVector) vector;
+        bits = ((BaseDataValueVector) nullableVector.getBitsVector()).getBuffer();
+        bindValues(nullableVector.getValuesVector());
+      } else {
+        bindValues(vector);
+      }
+    }
+
+    /**
+     * @return true if the value did not fit in the key
+     */
+
+    boolean encode(int index, byte[] keys, int offset) {
+      int valueOffset = offset;
+      boolean valueTruncated = false;
+      boolean isNull = false;
+      if (nullable) {
+        isNull = bits.getByte(index) == 0;
+        keys[valueOffset++] = (byte) (isNull == nullsHigh ? 1 : 0);
+      }
+      if (isNull) {
+        Arrays.fill(keys, valueOffset, valueOffset + valueWidth, (byte) 0);
+      } else {
+        valueTruncated = encodeValue(index, keys, valueOffset);
+      }
+      if (descending) {
+        for (int i = offset; i < valueOffset + valueWidth; i++) {
+          keys[i] = (byte) ~keys[i];
+        }
+      }
+      return valueTruncated;
+    }
+
+    abstract void bindValues(ValueVector values);
+
+    abstract boolean encodeValue(int index, byte[] keys, int offset);
+  }
+
+  private abstract static class FixedWidthKeyColumn extends KeyColumn {
+    DrillBuf data;
+
+    FixedWidthKeyColumn(int vectorIndex, boolean nullable, boolean nullsHigh, boolean descending, int valueWidth) {
+      super(vectorIndex, nullable, nullsHigh, descending, valueWidth);
+    }
+
+    @Override
+    void bindValues(ValueVector values) {
+      data = ((BaseDataValueVector) values).getBuffer();
+    }
+  }
+
+  /**
+   * Signed integers: the flipped sign bit makes negative values sort first.
+   */
+
+  private static class IntKeyColumn extends FixedWidthKeyColumn {
+
+    IntKeyColumn(int vectorIndex, boolean nullable, boolean nullsHigh, boolean descending) {
+      super(vectorIndex, nullable, nullsHigh, descending, 4);
+    }
+
+    @Override
+    boolean encodeValue(int index, byte[] keys, int offset) {
+      putInt(keys, offset, data.getInt(index * 4) ^ Integer.MIN_VALUE);
+      return false;
+    }
+  }
+
+  private static class LongKeyColumn extends FixedWidthKeyColumn {
+
+    LongKeyColumn(int vectorIndex, boolean nullable, boolean nullsHigh, boolean descending) {
+      super(vectorIndex, nullable, nullsHigh, descending, 8);
+    }
+
+    @Override
+    boolean encodeValue(int index, byte[] keys, int offset) {
+      putLong(keys, offset, data.getLong(index * 8) ^ Long.MIN_VALUE);
+      return false;
+    }
+  }
+
+  /**
+   * Floating point values: all the bits of negative values are flipped, the
+   * sign bit only of the positive ones. NaN values are all encoded the same,
+   * above positive infinity, and -0.0 as 0.0, as they compare in Drill.
+   */
+
+  private static class FloatKeyColumn extends FixedWidthKeyColumn {
+
+    FloatKeyColumn(int vectorIndex, boolean nullable, boolean nullsHigh, boolean descending) {
+      super(vectorIndex, nullable, nullsHigh, descending, 4);
+    }
+
+    @Override
+    boolean encodeValue(int index, byte[] keys, int offset) {
+      float value = data.getFloat(index * 4);
+      // -0.0 compares equal to 0.0, so shares its encoding
+      int bits = Float.floatToIntBits(value == 0.0f ? 0.0f : value);
+      putInt(keys, offset, bits ^ ((bits >> 31) | Integer.MIN_VALUE));
+      return false;
+    }
+  }
+
+  private static class DoubleKeyColumn extends FixedWidthKeyColumn {
+
+    DoubleKeyColumn(int vectorIndex, boolean nullable, boolean nullsHigh, boolean descending) {
+      super(vectorIndex, nullable, nullsHigh, descending, 8);
+    }
+
+    @Override
+    boolean encodeValue(int index, byte[] keys, int offset) {
+      double value = data.getDouble(index * 8);
+      // -0.0 compares equal to 0.0, so shares its encoding
+      long bits = Double.doubleToLongBits(value == 0.0 ? 0.0 : value);
+      putLong(keys, offset, bits ^ ((bits >> 63) | Long.MIN_VALUE));
+      return false;
+    }
+  }
+
+  /**
+   * VARCHAR and VARBINARY values, which compare as unsigned bytes: the
+   * zero-padded prefix of the value followed by its length, capped to one
+   * more than the prefix so that a shorter value sorts before any value it
+   * is a prefix of.
+   */
+
+  private static class StringKeyColumn extends KeyColumn {
+    private DrillBuf offsets;
+    private DrillBuf data;
+
+    StringKeyColumn(int vectorIndex, boolean nullable, boolean nullsHigh, boolean descending) {
+      super(vectorIndex, nullable, nullsHigh, descending, STRING_PREFIX_WIDTH + 1);
+    }
+
+    @Override
+    void bindValues(ValueVector values) {
+      offsets = ((VariableWidthVector) values).getOffsetVector().getBuffer();
+      data = ((BaseDataValueVector) values).getBuffer();
+    }
+
+    @Override
+    boolean encodeValue(int index, byte[] keys, int offset) {
+      int start = offsets.getInt(index * 4);
+      int length = offsets.getInt((index + 1) * 4) - start;
+      int prefixLength = Math.min(length, STRING_PREFIX_WIDTH);
+      data.getBytes(start, keys, offset, prefixLength);
+      Arrays.fill(keys, offset + prefixLength, offset + STRING_PREFIX_WIDTH, (byte) 0);
+      keys[offset + STRING_PREFIX_WIDTH] = (byte) Math.min(length, STRING_PREFIX_WIDTH + 1);
+      return length > STRING_PREFIX_WIDTH;
+    }
+  }
+
+  private static void putInt(byte[] keys, int offset, int value) {
+    keys[offset] = (byte) (value >>> 24);
+    keys[offset + 1] = (byte) (value >>> 16);
+    keys[offset + 2] = (byte) (value >>> 8);
+    keys[offset + 3] = (byte) value;
+  }
+
+  private static void putLong(byte[] keys, int offset, long value) {
+    putInt(keys, offset, (int) (value >>> 32));
+    putInt(keys, offset + 4, (int) value);
+  }
+}
@@ -0,0 +1,249 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.xsort.managed;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.drill.exec.work.fragment.FragmentScheduler;
+
+/**
+ * Runs the merge passes of the in-memory merge sort ({@link MSortTemplate})
+ * on several threads.
+ * <p>
+ * Each pass merges pairs of sorted runs. The merge of a pair is split into
+ * pieces of about the same size by a binary search for the point where the
+ * first <i>k</i> output rows come from each run, so that all the threads are
+ * busy even in the last passes, which merge only a few large runs. The
+ * pieces write to disjoint parts of the output selection vector, and the
+ * generated comparison only reads the vectors bound at setup, so the pieces
+ * need no synchronization.
+ * <p>
+ * The helper threads come from a pool shared by the Drillbit. The number of
+ * helper threads used at a time by the sorts of a query on this Drillbit is
+ * bounded by <tt>exec.sort.parallel_merge.threads_per_query</tt>; a sort
+ * that finds the budget of its query used up merges on its own thread only.
+ */
+
+public class ParallelMerger {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ParallelMerger.class);
+
+  /**
+   * Pieces smaller than this are not worth handing to another thread.
+   */
+
+  public static final int MIN_PIECE_SIZE = 1024;
+
+  /**
+   * Helper threads in use, by query.
+   */
+
+  private static final Map<String, Integer> threadsInUse = new HashMap<>();
+
+  /**
+   * Merges the rows of two adjacent sorted ranges of the input selection
+   * vector into the output selection vector.
+   */
+
+  public interface RangeMerger {
+
+    /**
+     * Compares two rows of the input selection vector.
+     */
+
+    int compare(int leftIndex, int rightIndex);
+
+    /**
+     * Merges [leftStart, leftEnd) and [rightStart, rightEnd) of the input
+     * into the output, starting at outStart.
+     */
+
+    void merge(int leftStart, int leftEnd, int rightStart, int rightEnd, int outStart);
+  }
+
+  private static class PoolHolder {
+    private static final ForkJoinPool POOL = newPool();
+
+    private static ForkJoinPool newPool() {
+      final AtomicInteger threadCount = new AtomicInteger();
+      return new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+          pool -> {
+            ForkJoinWorkerThread thread = new ForkJoinWorkerThread(pool) { };
+            thread.setName("drill-sort-merge-" + threadCount.incrementAndGet());
+            return thread;
+          },
+          (thread, t) -> logger.error("{} leaked an exception.", thread.getName(), t),
+          false);
+    }
+  }
+
+  private final RangeMerger merger;
+  private final String queryId;
+  private final int budget;
+  private final List<int[]> pieces = new ArrayList<>();
+  private int helpers;
+
+  public ParallelMerger(RangeMerger merger, String queryId, int budget) {
+    this.merger = merger;
+    this.queryId = queryId;
+    this.budget = budget;
+  }
+
+  /**
+   * Reserves helper threads from the budget of the query, at most one per
+   * core. Must be paired with {@link #release()}.
+   *
+   * @param rowCount number of rows to merge
+   * @return number of helper threads granted, possibly zero
+   */
+
+  public int acquire(int rowCount) {
+    int wanted = Math.min(rowCount / MIN_PIECE_SIZE, Runtime.getRuntime().availableProcessors()) - 1;
+    synchronized (threadsInUse) {
+      int inUse = threadsInUse.getOrDefault(queryId, 0);
+      helpers = Math.max(0, Math.min(wanted, budget - inUse));
+      if (helpers > 0) {
+        threadsInUse.put(queryId, inUse + helpers);
+      }
+    }
+    logger.debug("Merging {} rows with {} helper threads", rowCount, helpers);
+    return helpers;
+  }
+
+  public void release() {
+    if (helpers == 0) {
+      return;
+    }
+    synchronized (threadsInUse) {
+      int inUse = threadsInUse.get(queryId) - helpers;
+      if (inUse == 0) {
+        threadsInUse.remove(queryId);
+      } else {
+        threadsInUse.put(queryId, inUse);
+      }
+    }
+    helpers = 0;
+  }
+
+  /**
+   * Merges a set of pairs of adjacent runs using the reserved threads.
+   *
+   * @param runs for each pair, the start of the left run, the start of the
+   * right run and the end of the right run, in order. The output of a pair
+   * starts where its left run does.
+   * @param rowCount total number of rows in the pairs
+   */
+
+  public void mergePairs(List<int[]> runs, int rowCount) {
+    int pieceSize = Math.max(MIN_PIECE_SIZE, (rowCount + helpers) / (helpers + 1));
+    pieces.clear();
+    for (int[] run : runs) {
+      split(run[0], run[1], run[2], pieceSize);
+    }
+    if (helpers == 0 || pieces.size() < 2) {
+      mergePieces(new AtomicInteger());
+      return;
+    }
+
+    AtomicInteger next = new AtomicInteger();
+    int taskCount = Math.min(helpers, pieces.size() - 1);
+    List<ForkJoinTask<?>> tasks = new ArrayList<>(taskCount);
+    for (int i = 0; i < taskCount; i++) {
+      tasks.add(PoolHolder.POOL.submit(() -> mergePieces(next)));
+    }
+    RuntimeException failure = null;
+    try {
+      mergePieces(next);
+    } catch (RuntimeException e) {
+      failure = e;
+    }
+    for (ForkJoinTask<?> task : tasks) {
+      try {
+        FragmentScheduler.managedCall(task::join);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        failure = new IllegalStateException("Interrupted while merging sorted runs", e);
+      } catch (RuntimeException e) {
+        if (failure == null) {
+          failure = e;
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private void mergePieces(AtomicInteger next) {
+    int index;
+    while ((index = next.getAndIncrement()) < pieces.size()) {
+      int[] piece = pieces.get(index);
+      merger.merge(piece[0], piece[1], piece[2], piece[3], piece[4]);
+    }
+  }
+
+  /**
+   * Splits the merge of [leftStart, rightStart) and [rightStart, rightEnd)
+   * into pieces of the output of about the given size.
+   */
+
+  private void split(int leftStart, int rightStart, int rightEnd, int pieceSize) {
+    int leftLength = rightStart - leftStart;
+    int length = rightEnd - leftStart;
+    int left = 0;
+    int right = 0;
+    for (int outLength = pieceSize; left + right < length; outLength += pieceSize) {
+      int nextLeft = outLength >= length ? leftLength : coRank(leftStart, leftLength, rightStart, rightEnd - rightStart, outLength);
+      int nextRight = Math.min(outLength, length) - nextLeft;
+      pieces.add(new int[] {leftStart + left, leftStart + nextLeft, rightStart + right, rightStart + nextRight,
+          leftStart + left + right});
+      left = nextLeft;
+      right = nextRight;
+    }
+  }
+
+  /**
+   * Finds how many of the first rows of the merged output come from the left
+   * run. Ties go to the left run, as in the sequential merge, which keeps
+   * the merge stable.
+   *
+   * @return the number of left rows among the first outLength output rows
+   */
+
+  private int coRank(int leftStart, int leftLength, int rightStart, int rightLength, int outLength) {
+    int low = Math.max(0, outLength - rightLength);
+    int high = Math.min(outLength, leftLength);
+    while (low < high) {
+      int left = (low + high) >>> 1;
+      int right = outLength - left;
+      // The left row goes first if it is not greater than the last right row taken
+      if (right > 0 && merger.compare(leftStart + left, rightStart + right - 1) <= 0) {
+        low = left + 1;
+      } else {
+        high = left;
+      }
+    }
+    return low;
+  }
+}
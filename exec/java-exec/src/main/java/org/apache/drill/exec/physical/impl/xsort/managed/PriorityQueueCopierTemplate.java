@@ -26,19 +26,36 @@ import org.apache.drill.exec.exception.SchemaChangeException;
 import org.apache.drill.exec.memory.BufferAllocator;
 import org.apache.drill.exec.record.VectorAccessible;
 import org.apache.drill.exec.record.VectorAccessibleUtilities;
-import org.apache.drill.exec.record.selection.SelectionVector4;
-
-import io.netty.buffer.DrillBuf;
 
+/**
+ * Merges sorted batches with a tournament ("loser") tree. Each internal
+ * node of the tree holds the run which lost the match played there, the
+ * root holds the overall winner. Replacing the winner by the next row of
+ * its run replays only the matches on the path from its leaf to the root,
+ * one comparison per level, where a binary heap needs two per level.
+ * <p>
+ * Rows which compare equal are taken from the run with the lowest index
+ * first.
+ */
 public abstract class PriorityQueueCopierTemplate implements PriorityQueueCopier {
 //  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(PriorityQueueCopierTemplate.class);
 
-  private SelectionVector4 vector4;
   private List<BatchGroup> batchGroups;
   private VectorAccessible hyperBatch;
   private VectorAccessible outgoing;
   private int size;
-  private int queueSize = 0;
+
+  /**
+   * Compound (batch, offset) index of the current row of each run,
+   * -1 once the run is exhausted.
+   */
+  private int[] current;
+
+  /**
+   * Losers of the matches played at the internal nodes 1..size-1, the
+   * winner of the tournament at 0.
+   */
+  private int[] tree;
 
   @Override
   public void setup(BufferAllocator allocator, VectorAccessible hyperBatch, List<BatchGroup> batchGroups,
@@ -48,47 +65,39 @@ public abstract class PriorityQueueCopierTemplate implements PriorityQueueCopier
     this.outgoing = outgoing;
     this.size = batchGroups.size();
 
-    final DrillBuf drillBuf = allocator.buffer(4 * size);
-    vector4 = new SelectionVector4(drillBuf, size, Character.MAX_VALUE);
     doSetup(hyperBatch, outgoing);
 
-    queueSize = 0;
+    current = new int[size];
+    tree = new int[size];
     for (int i = 0; i < size; i++) {
       int index = batchGroups.get(i).getNextIndex();
-      vector4.set(i, i, index);
-      if (index > -1) {
-        siftUp();
-        queueSize++;
-      }
+      current[i] = index < 0 ? -1 : (i << 16) | index;
+    }
+    if (size > 0) {
+      tree[0] = play(1);
     }
   }
 
   @Override
   public int next(int targetRecordCount) {
+    if (size == 0) {
+      return 0;
+    }
     for (int outgoingIndex = 0; outgoingIndex < targetRecordCount; outgoingIndex++) {
-      if (queueSize == 0) {
-        return 0;
+      int batch = tree[0];
+      int compoundIndex = current[batch];
+      if (compoundIndex < 0) {
+        if (outgoingIndex > 0) {
+          VectorAccessibleUtilities.setValueCount(outgoing, outgoingIndex);
+        }
+        return outgoingIndex;
       }
-      int compoundIndex = vector4.get(0);
-      int batch = compoundIndex >>> 16;
       assert batch < batchGroups.size() : String.format("batch: %d batchGroups: %d", batch, batchGroups.size());
       try {
         doCopy(compoundIndex, outgoingIndex);
-      } catch (SchemaChangeException e) {
-        throw new IllegalStateException(e);
-      }
-      int nextIndex = batchGroups.get(batch).getNextIndex();
-      if (nextIndex < 0) {
-        vector4.set(0, vector4.get(--queueSize));
-      } else {
-        vector4.set(0, batch, nextIndex);
-      }
-      if (queueSize == 0) {
-        VectorAccessibleUtilities.setValueCount(outgoing, ++outgoingIndex);
-        return outgoingIndex;
-      }
-      try {
-        siftDown();
+        int nextIndex = batchGroups.get(batch).getNextIndex();
+        current[batch] = nextIndex < 0 ? -1 : (batch << 16) | nextIndex;
+        replay(batch);
       } catch (SchemaChangeException e) {
         throw new IllegalStateException(e);
       }
@@ -99,56 +108,56 @@ public abstract class PriorityQueueCopierTemplate implements PriorityQueueCopier
 
   @Override
   public void close() throws IOException {
-    vector4.clear();
     VectorAccessibleUtilities.clear(outgoing);
     VectorAccessibleUtilities.clear(hyperBatch);
     BatchGroup.closeAll(batchGroups);
   }
 
-  private void siftUp() throws SchemaChangeException {
-    int p = queueSize;
-    while (p > 0) {
-      if (compare(p, (p - 1) / 2) < 0) {
-        swap(p, (p - 1) / 2);
-        p = (p - 1) / 2;
-      } else {
-        break;
-      }
+  /**
+   * Plays the matches of the subtree rooted at the given node, the leaves
+   * being the nodes size..2*size-1.
+   *
+   * @return the winner of the subtree
+   */
+  private int play(int node) throws SchemaChangeException {
+    if (node >= size) {
+      return node - size;
+    }
+    int left = play(2 * node);
+    int right = play(2 * node + 1);
+    if (beats(left, right)) {
+      tree[node] = right;
+      return left;
     }
+    tree[node] = left;
+    return right;
   }
 
-  private void siftDown() throws SchemaChangeException {
-    int p = 0;
-    int next;
-    while (p * 2 + 1 < queueSize) { // While the current node has at least one child
-      if (p * 2 + 2 >= queueSize) { // if current node has only one child, then we only look at it
-        next = p * 2 + 1;
-      } else {
-        if (compare(p * 2 + 1, p * 2 + 2) <= 0) {//if current node has two children, we must first determine which one has higher priority
-          next = p * 2 + 1;
-        } else {
-          next = p * 2 + 2;
-        }
-      }
-      if (compare(p, next) > 0) { // compare current node to highest priority child and swap if necessary
-        swap(p, next);
-        p = next;
-      } else {
-        break;
+  /**
+   * Replays the matches from the leaf of a run, whose current row changed,
+   * up to the root.
+   */
+  private void replay(int batch) throws SchemaChangeException {
+    int winner = batch;
+    for (int node = (batch + size) >>> 1; node > 0; node >>>= 1) {
+      int loser = tree[node];
+      if (beats(loser, winner)) {
+        tree[node] = winner;
+        winner = loser;
       }
     }
+    tree[0] = winner;
   }
 
-  public void swap(int sv0, int sv1) {
-    int tmp = vector4.get(sv0);
-    vector4.set(sv0, vector4.get(sv1));
-    vector4.set(sv1, tmp);
-  }
-
-  public int compare(int leftIndex, int rightIndex) throws SchemaChangeException {
-    int sv1 = vector4.get(leftIndex);
-    int sv2 = vector4.get(rightIndex);
-    return doEval(sv1, sv2);
+  private boolean beats(int left, int right) throws SchemaChangeException {
+    if (current[left] < 0) {
+      return false;
+    }
+    if (current[right] < 0) {
+      return true;
+    }
+    int result = doEval(current[left], current[right]);
+    return result < 0 || (result == 0 && left < right);
   }
 
   public abstract void doSetup(@Named("incoming") VectorAccessible incoming,
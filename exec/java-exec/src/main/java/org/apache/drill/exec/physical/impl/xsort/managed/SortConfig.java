@@ -72,6 +72,13 @@ public class SortConfig {
 
   private final int mSortBatchSize;
 
+  /**
+   * Read the next batch of each spilled run being merged on another
+   * thread, when memory allows.
+   */
+
+  private final boolean spillReadAhead;
+
   public SortConfig(DrillConfig config, OptionManager options) {
     // Optional configured memory limit, typically used only for testing.
 
@@ -126,15 +133,17 @@ public class SortConfig {
       mSortBatchSize = Character.MAX_VALUE;
     }
 
+    spillReadAhead = options.getOption(ExecConstants.EXTERNAL_SORT_SPILL_READ_AHEAD);
+
     logConfig();
   }
 
   private void logConfig() {
     logger.debug("Config: " +
                  "spill file size = {}, spill batch size = {}, " +
-                 "merge batch size = {}, mSort batch size = {}",
+                 "merge batch size = {}, mSort batch size = {}, spill read-ahead = {}",
                   spillFileSize, spillBatchSize,
-                  mergeBatchSize, mSortBatchSize);
+                  mergeBatchSize, mSortBatchSize, spillReadAhead);
   }
 
   @Override
@@ -143,6 +152,7 @@ public class SortConfig {
         + ", spillBatchSize=" + spillBatchSize
         + ", mergeBatchSize=" + mergeBatchSize
         + ", mSortBatchSize=" + mSortBatchSize
+        + ", spillReadAhead=" + spillReadAhead
         + "]";
   }
 
@@ -153,4 +163,5 @@ public class SortConfig {
   public int mergeBatchSize() { return mergeBatchSize; }
   public int getBufferedBatchLimit() { return bufferedBatchLimit; }
   public int getMSortBatchSize() { return mSortBatchSize; }
+  public boolean spillReadAhead() { return spillReadAhead; }
 }
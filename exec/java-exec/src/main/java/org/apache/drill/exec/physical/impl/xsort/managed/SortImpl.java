@@ -22,6 +22,8 @@ import java.util.List;
 
 import org.apache.drill.exec.expr.TypeHelper;
 import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.memory.MemoryReleaseRequest;
+import org.apache.drill.exec.ops.FragmentMemoryPool;
 import org.apache.drill.exec.ops.OperatorContext;
 import org.apache.drill.exec.record.MaterializedField;
 import org.apache.drill.exec.record.RecordBatch.IterOutcome;
@@ -227,6 +229,12 @@ public class SortImpl {
 
   private final BufferedBatches bufferedBatches;
 
+  // Requests of the Drillbit to release memory when it runs short of it
+  private final MemoryReleaseRequest releaseRequest;
+
+  // Memory given back by the other buffered operators of the fragment
+  private final FragmentMemoryPool memoryPool;
+
   private RecordBatchSizer sizer;
 
   private VectorInitializer allocHelper;
@@ -238,9 +246,12 @@ public class SortImpl {
     this.spilledRuns = spilledRuns;
     allocator = opContext.getAllocator();
     config = sortConfig;
+    spilledRuns.setReadAhead(config.spillReadAhead());
     memManager = new SortMemoryManager(config, allocator.getLimit());
     metrics = new SortMetrics(opContext.getStats());
     bufferedBatches = new BufferedBatches(opContext);
+    releaseRequest = new MemoryReleaseRequest(allocator);
+    memoryPool = opContext.getFragmentContext().getMemoryPool();
 
     // Request leniency from the allocator. Leniency
     // will reduce the probability that random chance causes the allocator
@@ -359,6 +370,14 @@ public class SortImpl {
       return true;
     }
 
+    // The Drillbit runs short of direct memory: spill now, whatever our own
+    // limit says. The request stays pending until there is something to spill.
+
+    if (bufferedBatches.size() >= 2 && releaseRequest.take() > 0) {
+      metrics.incrPressureSpillCount();
+      return true;
+    }
+
     // Can't spill if less than two batches else the merge
     // can't make progress.
 
@@ -375,9 +394,35 @@ public class SortImpl {
       return false;
     }
 
+    // Rather than spill, borrow the memory we lack from what the other
+    // buffered operators of the fragment gave back.
+
+    if (spillNeeded && borrowMemory(memManager.bufferShortfall(allocator.getAllocatedMemory(), incomingSize))) {
+      return memManager.isSpillNeeded(allocator.getAllocatedMemory(), incomingSize);
+    }
     return spillNeeded;
   }
 
+  /**
+   * Borrow memory given back by the other buffered operators of the
+   * fragment, raising the limit of our allocator by that much.
+   *
+   * @param bytes memory to borrow
+   * @return whether the memory was lent
+   */
+
+  private boolean borrowMemory(long bytes) {
+
+    // A configured limit caps our memory whatever the allocator limit.
+
+    if (config.maxMemory() != 0 || ! memoryPool.borrow(allocator, bytes)) {
+      return false;
+    }
+    memManager.updateMemoryLimit(allocator.getLimit());
+    metrics.incrBorrowCount();
+    return true;
+  }
+
   private void validateBatchSize(long actualBatchSize, long memoryDelta) {
     if (actualBatchSize != memoryDelta) {
       ExternalSortBatch.logger.debug("Memory delta: {}, actual batch size: {}, Diff: {}",
@@ -472,8 +517,12 @@ public class SortImpl {
       return false; }
 
     // Do we have enough memory for MSorter (the in-memory sorter)?
+    // If not, try to borrow what we lack rather than spill everything.
 
-    if (! memManager.hasMemoryMergeCapacity(allocator.getAllocatedMemory(), MSortTemplate.memoryNeeded(metrics.getInputRowCount()))) {
+    long memoryNeeded = MSortTemplate.memoryNeeded(metrics.getInputRowCount());
+    if (! memManager.hasMemoryMergeCapacity(allocator.getAllocatedMemory(), memoryNeeded) &&
+        ! (borrowMemory(memoryNeeded - memManager.freeMemory(allocator.getAllocatedMemory())) &&
+           memManager.hasMemoryMergeCapacity(allocator.getAllocatedMemory(), memoryNeeded))) {
       return false; }
 
     // Make sure we don't exceed the maximum number of batches SV4 can address.
@@ -560,7 +609,8 @@ public class SortImpl {
     }
 
     int mergeRowCount = memManager.getMergeBatchRowCount();
-    return spilledRuns.finalMerge(bufferedBatches.removeAll(), outputBatch, mergeRowCount, allocHelper);
+    return spilledRuns.finalMerge(bufferedBatches.removeAll(), outputBatch, mergeRowCount,
+        memManager.getMergeMemoryLimit(), allocHelper);
   }
 
   private void mergeRuns(int targetCount) {
@@ -571,7 +621,9 @@ public class SortImpl {
   }
 
   public void close() {
+    releaseRequest.close();
     metrics.updateWriteBytes(spilledRuns.getWriteBytes());
+    metrics.updateCompressedWriteBytes(spilledRuns.getCompressedWriteBytes());
     RuntimeException ex = null;
     try {
       spilledRuns.close();
@@ -177,10 +177,11 @@ public class SortMemoryManager {
   /**
    * Maximum memory this operator may use. Usually comes from the
    * operator definition, but may be overridden by a configuration
-   * parameter for unit testing.
+   * parameter for unit testing. Raised when the operator borrows
+   * memory given back by other operators of the fragment.
    */
 
-  private final long memoryLimit;
+  private long memoryLimit;
 
   /**
    * Estimated size of the records for this query, updated on each
@@ -287,6 +288,43 @@ public class SortMemoryManager {
     }
   }
 
+  /**
+   * Update the memory limit after the limit of the operator allocator
+   * was raised, as when borrowing memory given back by other operators
+   * of the fragment. The configured limit, if any, still applies.
+   *
+   * @param opMemoryLimit the new limit of the operator allocator
+   * @return true if the memory limit changed, false if the configured
+   * limit does not let the operator use more memory
+   */
+
+  public boolean updateMemoryLimit(long opMemoryLimit) {
+    final long configMemoryLimit = config.maxMemory();
+    final long newMemoryLimit = (configMemoryLimit == 0) ? opMemoryLimit
+                              : Math.min(opMemoryLimit, configMemoryLimit);
+    if (newMemoryLimit == memoryLimit) {
+      return false;
+    }
+    memoryLimit = newMemoryLimit;
+
+    // Before the first batch, the buffer memory limit is the initial guess
+    // made by the constructor. After it, redo the calculations done for
+    // the estimates at hand.
+
+    if (inputBatchSize.dataSize == 0) {
+      bufferMemoryLimit = (memoryLimit - config.spillBatchSize()) / 2;
+      if (bufferMemoryLimit < 0) {
+        bufferMemoryLimit = memoryLimit / 2;
+      }
+    } else {
+      updateSpillSettings();
+      updateMergeSettings();
+      adjustForLowMemory();
+    }
+    logger.debug("Memory config: Allocator limit raised to {}", memoryLimit);
+    return true;
+  }
+
   /**
    * Update the data-driven memory use numbers including:
    * <ul>
@@ -757,6 +795,13 @@ public class SortMemoryManager {
     return allocatedBytes + incomingSize >= bufferMemoryLimit;
   }
 
+  // Memory to add to the limit for the incoming batch to fit
+  // without spilling.
+
+  public long bufferShortfall(long allocatedBytes, long incomingSize) {
+    return allocatedBytes + incomingSize - bufferMemoryLimit + 1;
+  }
+
   public boolean hasMemoryMergeCapacity(long allocatedBytes, long neededForInMemorySort) {
     return (freeMemory(allocatedBytes) >= neededForInMemorySort);
   }
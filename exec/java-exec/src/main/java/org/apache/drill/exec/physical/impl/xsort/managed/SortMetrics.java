@@ -42,6 +42,7 @@ public class SortMetrics {
   private int spillCount;
   private int mergeCount;
   private long writeBytes;
+  private long compressedWriteBytes;
 
   public SortMetrics(OperatorStats stats) {
     assert stats != null;
@@ -85,14 +86,29 @@ public class SortMetrics {
     spillCount++;
   }
 
+  public void incrPressureSpillCount() {
+    stats.addLongStat(ExternalSortBatch.Metric.PRESSURE_SPILL_COUNT, 1);
+  }
+
+  public void incrBorrowCount() {
+    stats.addLongStat(ExternalSortBatch.Metric.BORROW_COUNT, 1);
+  }
+
   public void updateWriteBytes(long writeBytes) {
     stats.setDoubleStat(ExternalSortBatch.Metric.SPILL_MB,
         writeBytes / 1024.0D / 1024.0);
+    stats.setLongStat(ExternalSortBatch.Metric.SPILL_UNCOMPRESSED_BYTES, writeBytes);
     this.writeBytes = writeBytes;
   }
 
+  public void updateCompressedWriteBytes(long compressedWriteBytes) {
+    stats.setLongStat(ExternalSortBatch.Metric.SPILL_COMPRESSED_BYTES, compressedWriteBytes);
+    this.compressedWriteBytes = compressedWriteBytes;
+  }
+
   public int getSpillCount() { return spillCount; }
   public int getMergeCount() { return mergeCount; }
   public long getWriteBytes() { return writeBytes; }
+  public long getCompressedWriteBytes() { return compressedWriteBytes; }
   public int getPeakBatchCount() { return peakBatchCount; }
 }
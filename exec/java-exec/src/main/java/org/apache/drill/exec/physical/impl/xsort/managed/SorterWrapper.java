@@ -18,10 +18,12 @@
 package org.apache.drill.exec.physical.impl.xsort.managed;
 
 import org.apache.drill.common.exceptions.UserException;
+import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.exception.SchemaChangeException;
 import org.apache.drill.exec.expr.ClassGenerator;
 import org.apache.drill.exec.expr.CodeGenerator;
 import org.apache.drill.exec.ops.OperatorContext;
+import org.apache.drill.exec.physical.config.Sort;
 import org.apache.drill.exec.physical.impl.xsort.SingleBatchSorter;
 import org.apache.drill.exec.record.VectorAccessible;
 import org.apache.drill.exec.record.VectorContainer;
@@ -33,6 +35,10 @@ import org.apache.drill.exec.record.selection.SelectionVector2;
  * across batches. The sorter must be closed at each schema change
  * so that the sorter will generate a new implementation against
  * the changed schema.
+ * <p>
+ * When the sort columns allow it, the batch is sorted by normalized
+ * keys instead, and the generated sorter is only used to order rows
+ * whose keys are equal. See {@link NormalizedKeySorter}.
  */
 
 public class SorterWrapper extends BaseSortWrapper {
@@ -46,14 +52,32 @@ public class SorterWrapper extends BaseSortWrapper {
 
   private SingleBatchSorter sorter;
 
+  /**
+   * Normalized key sorter for the current schema, null if the schema
+   * is not eligible or the option is disabled.
+   */
+
+  private NormalizedKeySorter keySorter;
+  private boolean keySorterChecked;
+
   public SorterWrapper(OperatorContext opContext) {
     super(opContext);
   }
 
   public void sortBatch(VectorContainer convertedBatch, SelectionVector2 sv2) {
 
-    SingleBatchSorter sorter = getSorter(convertedBatch);
+    NormalizedKeySorter keySorter = getKeySorter(convertedBatch);
     try {
+      if (keySorter != null) {
+        SingleBatchSorter tieBreaker = null;
+        if (keySorter.needsTieBreaker()) {
+          tieBreaker = getSorter(convertedBatch);
+          tieBreaker.setup(context.getFragmentContext(), sv2, convertedBatch);
+        }
+        keySorter.sort(convertedBatch, sv2, tieBreaker);
+        return;
+      }
+      SingleBatchSorter sorter = getSorter(convertedBatch);
       sorter.setup(context.getFragmentContext(), sv2, convertedBatch);
       sorter.sort(sv2);
     } catch (SchemaChangeException e) {
@@ -66,6 +90,19 @@ public class SorterWrapper extends BaseSortWrapper {
 
   public void close() {
     sorter = null;
+    keySorter = null;
+    keySorterChecked = false;
+  }
+
+  private NormalizedKeySorter getKeySorter(VectorAccessible batch) {
+    if (!keySorterChecked) {
+      keySorterChecked = true;
+      if (context.getFragmentContext().getOptions().getOption(ExecConstants.EXTERNAL_SORT_NORMALIZED_KEYS)) {
+        Sort popConfig = context.getOperatorDefn();
+        keySorter = NormalizedKeySorter.create(popConfig.getOrderings(), batch);
+      }
+    }
+    return keySorter;
   }
 
   private SingleBatchSorter getSorter(VectorAccessible batch) {
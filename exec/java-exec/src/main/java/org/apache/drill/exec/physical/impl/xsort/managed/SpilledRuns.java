@@ -20,6 +20,8 @@ package org.apache.drill.exec.physical.impl.xsort.managed;
 import java.io.IOException;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.function.ObjIntConsumer;
 
 import org.apache.drill.common.AutoCloseables;
 import org.apache.drill.common.exceptions.UserException;
@@ -58,6 +60,26 @@ public class SpilledRuns {
 
   private final OperatorContext context;
 
+  /**
+   * Whether spilled runs being merged may read their next batch on
+   * another thread, when memory allows.
+   */
+
+  private boolean readAhead;
+
+  /**
+   * Most rows of a spilled run, the rows after them being of no use to the
+   * consumer of the sort, as for a Top-N.
+   */
+
+  private int runRowLimit = Integer.MAX_VALUE;
+
+  /**
+   * Told the last row kept of each run cut short at the row limit.
+   */
+
+  private ObjIntConsumer<VectorContainer> runLimitListener;
+
   public SpilledRuns(OperatorContext opContext, SpillSet spillSet, PriorityQueueCopierWrapper copier) {
     this.context = opContext;
     this.spillSet = spillSet;
@@ -73,9 +95,28 @@ public class SpilledRuns {
     copierHolder.close();
   }
 
+  public void setReadAhead(boolean readAhead) {
+    this.readAhead = readAhead;
+  }
+
+  /**
+   * Keeps only the first rows of each spilled run, for a sort whose output
+   * is cut short after them.
+   *
+   * @param runRowLimit most rows of a run
+   * @param runLimitListener told the batch and the index of the last row of
+   * each run reaching the limit, before the batch is written out, or null
+   */
+
+  public void setRunRowLimit(int runRowLimit, ObjIntConsumer<VectorContainer> runLimitListener) {
+    this.runRowLimit = runRowLimit;
+    this.runLimitListener = runLimitListener;
+  }
+
   public int size() { return spilledRuns.size(); }
   public boolean hasSpilled() { return spillSet.hasSpilled(); }
   public long getWriteBytes() { return spillSet.getWriteBytes(); }
+  public long getCompressedWriteBytes() { return spillSet.getCompressedWriteBytes(); }
 
   public static List<BatchGroup> prepareSpillBatches(LinkedList<? extends BatchGroup> source, int spillCount) {
     List<BatchGroup> batchesToSpill = Lists.newArrayList();
@@ -130,9 +171,42 @@ public class SpilledRuns {
     // Do the actual spill.
 
     List<BatchGroup> batchesToSpill = prepareSpillBatches(spilledRuns, mergeCount);
+    startReadAhead(batchesToSpill, mergeMemoryPool - mergeSize);
     mergeAndSpill(batchesToSpill, spillBatchRowCount, allocHelper);
   }
 
+  /**
+   * Starts the read-ahead of the spilled runs about to be merged, if the
+   * memory left after loading one batch of each run can also hold the
+   * batch read ahead by each run. Otherwise, the runs read their batches
+   * on the fragment thread, as needed.
+   *
+   * @param runs the runs to merge
+   * @param availableMemory memory available beyond one batch per run
+   */
+
+  private void startReadAhead(List<? extends BatchGroup> runs, long availableMemory) {
+    ExecutorService executor = context.getScanExecutor();
+    if (! readAhead || executor == null) {
+      return;
+    }
+    long readAheadSize = 0;
+    for (BatchGroup run : runs) {
+      if (run instanceof SpilledRun) {
+        readAheadSize += ((SpilledRun) run).getBatchSize();
+      }
+    }
+    if (readAheadSize > availableMemory) {
+      logger.debug("No read-ahead: needs {} bytes, available {}", readAheadSize, availableMemory);
+      return;
+    }
+    for (BatchGroup run : runs) {
+      if (run instanceof SpilledRun) {
+        ((SpilledRun) run).startReadAhead(executor);
+      }
+    }
+  }
+
   private BatchGroup.SpilledRun safeMergeAndSpill(List<? extends BatchGroup> batchesToSpill, int spillBatchRowCount, VectorInitializer allocHelper) {
     try {
       return doMergeAndSpill(batchesToSpill, spillBatchRowCount, allocHelper);
@@ -168,7 +242,19 @@ public class SpilledRuns {
       // the outputContainer up to targetRecordCount number of rows.
       // The actual count may be less if fewer records are available.
 
-      while (merger.next()) {
+      int rowsLeft = runRowLimit;
+      while (rowsLeft > 0 && merger.next()) {
+
+        // The rows past the row limit are dropped along with the
+        // rest of the batches to spill.
+
+        if (dest.getRecordCount() >= rowsLeft) {
+          dest.setValueCount(rowsLeft);
+          if (runLimitListener != null) {
+            runLimitListener.accept(dest, rowsLeft - 1);
+          }
+        }
+        rowsLeft -= dest.getRecordCount();
 
         // Add a new batch of records (given by merger.getOutput()) to the spill
         // file.
@@ -197,7 +283,8 @@ public class SpilledRuns {
   }
 
   public SortResults finalMerge(List<? extends BatchGroup> bufferedBatches,
-                    VectorContainer container, int mergeRowCount, VectorInitializer allocHelper) {
+                    VectorContainer container, int mergeRowCount, long mergeMemoryPool,
+                    VectorInitializer allocHelper) {
     List<BatchGroup> allBatches = new LinkedList<>();
     allBatches.addAll(bufferedBatches);
     bufferedBatches.clear();
@@ -205,6 +292,17 @@ public class SpilledRuns {
     spilledRuns.clear();
     logger.debug("Starting merge phase. Runs = {}, Alloc. memory = {}",
         allBatches.size(), context.getAllocator().getAllocatedMemory());
+
+    // The spilled runs do not hold a batch yet: they load the first one
+    // when the merge starts.
+
+    long runsSize = 0;
+    for (BatchGroup run : allBatches) {
+      if (run instanceof SpilledRun) {
+        runsSize += ((SpilledRun) run).getBatchSize();
+      }
+    }
+    startReadAhead(allBatches, mergeMemoryPool - context.getAllocator().getAllocatedMemory() - runsSize);
     return copierHolder.startMerge(schema, allBatches, container, mergeRowCount, allocHelper);
   }
 
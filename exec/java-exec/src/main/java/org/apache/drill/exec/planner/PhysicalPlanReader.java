@@ -25,6 +25,7 @@ import org.apache.drill.common.config.LogicalPlanPersistence;
 import org.apache.drill.common.logical.LogicalPlan;
 import org.apache.drill.common.scanner.persistence.ScanResult;
 import org.apache.drill.common.types.TypeProtos.MajorType;
+import org.apache.drill.exec.cache.ResultCacheRecordReader;
 import org.apache.drill.exec.coord.DrillbitEndpointSerDe;
 import org.apache.drill.exec.physical.PhysicalPlan;
 import org.apache.drill.exec.physical.base.FragmentLeaf;
@@ -74,6 +75,7 @@ public class PhysicalPlanReader {
     Set<Class<? extends PhysicalOperator>> subTypes = PhysicalOperatorUtil.getSubTypes(scanResult);
     subTypes.forEach(lpMapper::registerSubtypes);
     lpMapper.registerSubtypes(DynamicPojoRecordReader.class);
+    lpMapper.registerSubtypes(ResultCacheRecordReader.class);
     InjectableValues injectables = new InjectableValues.Std()
         .addValue(StoragePluginRegistry.class, pluginRegistry)
         .addValue(DrillbitEndpoint.class, endpoint);
@@ -64,6 +64,7 @@ public class DrillViewTable implements TranslatableTable, DrillViewInfoProvider
   @Override
   public RelNode toRel(ToRelContext context, RelOptTable relOptTable) {
     ViewExpansionContext.ViewExpansionToken token = null;
+    viewExpansionContext.setViewExpanded();
     try {
       RelDataType rowType = relOptTable.getRowType();
       RelNode rel;
@@ -231,6 +231,11 @@ public class PlannerSettings implements Context{
 
   public static final BooleanValidator STATISTICS_USE = new BooleanValidator("planner.statistics.use", null);
 
+  public static final String PLAN_CACHE_ENABLED_KEY = "planner.plan_cache.enabled";
+  public static final BooleanValidator PLAN_CACHE_ENABLED = new BooleanValidator(PLAN_CACHE_ENABLED_KEY,
+      new OptionDescription("Reuses the physical plans of repeated SELECT statements, cached per Drillbit. " +
+          "A cached plan is re-planned when the files of a scanned table change."));
+
   public static final RangeDoubleValidator STATISTICS_MULTICOL_NDV_ADJUST_FACTOR = new RangeDoubleValidator("planner.statistics.multicol_ndv_adjustment_factor", 0.0, 1.0, null);
 
   public OptionManager options = null;
@@ -65,11 +65,17 @@ public class RuntimeFilterVisitor extends BasePrelVisitor<Prel, Void, RuntimeExc
 
   private int bloomFilterMaxSizeInBytesDef;
 
+  private boolean generateRangeFilter;
+
+  private long aggregationTimeout;
+
   private static final AtomicLong rfIdCounter = new AtomicLong();
 
   private RuntimeFilterVisitor(QueryContext queryContext) {
     this.bloomFilterMaxSizeInBytesDef = queryContext.getOption(ExecConstants.HASHJOIN_BLOOM_FILTER_MAX_SIZE_KEY).num_val.intValue();
     this.fpp = queryContext.getOption(ExecConstants.HASHJOIN_BLOOM_FILTER_FPP_KEY).float_val;
+    this.generateRangeFilter = queryContext.getOption(ExecConstants.HASHJOIN_RUNTIME_FILTER_RANGE_ENABLE_KEY).bool_val;
+    this.aggregationTimeout = queryContext.getOption(ExecConstants.HASHJOIN_RUNTIME_FILTER_AGGREGATION_TIMEOUT_KEY).num_val;
   }
 
   public static Prel addRuntimeFilter(Prel prel, QueryContext queryContext) {
@@ -198,7 +204,8 @@ public class RuntimeFilterVisitor extends BasePrelVisitor<Prel, Void, RuntimeExc
     }
     if (bloomFilterDefs.size() > 0) {
       //left sendToForeman parameter to be set later.
-      RuntimeFilterDef runtimeFilterDef = new RuntimeFilterDef(true, false, bloomFilterDefs, false, -1);
+      RuntimeFilterDef runtimeFilterDef = new RuntimeFilterDef(true, generateRangeFilter, bloomFilterDefs, false, -1);
+      runtimeFilterDef.setAggregationTimeout(aggregationTimeout);
       probeSideScan2hj.put(probeSideScanPrel, hashJoinPrel);
       return runtimeFilterDef;
     }
@@ -31,6 +31,7 @@ import org.apache.calcite.tools.RelConversionException;
 import org.apache.calcite.tools.ValidationException;
 import org.apache.drill.common.exceptions.UserException;
 import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.cache.ResultCache;
 import org.apache.drill.exec.exception.MetadataException;
 import org.apache.drill.exec.ops.QueryContext;
 import org.apache.drill.exec.ops.QueryContext.SqlStatementType;
@@ -51,7 +52,9 @@ import org.apache.drill.exec.planner.sql.parser.DrillSqlCall;
 import org.apache.drill.exec.planner.sql.parser.DrillSqlDescribeTable;
 import org.apache.drill.exec.planner.sql.parser.DrillSqlResetOption;
 import org.apache.drill.exec.planner.sql.parser.DrillSqlSetOption;
+import org.apache.drill.exec.planner.sql.parser.SqlDropTableMetadata;
 import org.apache.drill.exec.planner.sql.parser.SqlSchema;
+import org.apache.drill.exec.planner.sql.parser.SqlUseSchema;
 import org.apache.drill.exec.testing.ControlsInjector;
 import org.apache.drill.exec.testing.ControlsInjectorFactory;
 import org.apache.drill.exec.util.Pointer;
@@ -78,6 +81,39 @@ public class DrillSqlWorker {
     return getPlan(context, sql, null);
   }
 
+  /**
+   * Converts sql query string into query physical plan, reusing the plan
+   * of the same query from the {@link PlanCache} when enabled. When the
+   * {@link ResultCache} is enabled, the plan either reads the cached results
+   * of the query or caches its results.
+   *
+   * @param context query context
+   * @param sql sql query
+   * @param textPlan text plan
+   * @return query physical plan
+   */
+  public static PhysicalPlan getPlan(QueryContext context, String sql, Pointer<String> textPlan) throws ForemanSetupException {
+    PhysicalPlan plan = getPlanWithPlanCache(context, sql, textPlan);
+    return context.getResultCache().getPlan(context, sql, plan);
+  }
+
+  private static PhysicalPlan getPlanWithPlanCache(QueryContext context, String sql, Pointer<String> textPlan)
+      throws ForemanSetupException {
+    PlanCache planCache = context.getPlanCache();
+    PlanCache.Key cacheKey = planCache.newKey(context, sql);
+    if (cacheKey != null) {
+      PhysicalPlan plan = planCache.getPlan(cacheKey, context, textPlan);
+      if (plan != null) {
+        return plan;
+      }
+    }
+    PhysicalPlan plan = getPlanWithoutCache(context, sql, textPlan);
+    if (cacheKey != null) {
+      planCache.putPlan(cacheKey, context, sql, plan, textPlan);
+    }
+    return plan;
+  }
+
   /**
    * Converts sql query string into query physical plan.
    * Catches various exceptions and converts them into user exception when possible.
@@ -87,7 +123,8 @@ public class DrillSqlWorker {
    * @param textPlan text plan
    * @return query physical plan
    */
-  public static PhysicalPlan getPlan(QueryContext context, String sql, Pointer<String> textPlan) throws ForemanSetupException {
+  private static PhysicalPlan getPlanWithoutCache(QueryContext context, String sql, Pointer<String> textPlan)
+      throws ForemanSetupException {
     try {
       return convertPlan(context, sql, textPlan);
     } catch (ValidationException e) {
@@ -279,7 +316,32 @@ public class DrillSqlWorker {
       context.getOptions().setLocalOption(ExecConstants.RETURN_RESULT_SET_FOR_DDL, true);
     }
 
-    return handler.getPlan(sqlNode);
+    PhysicalPlan plan = handler.getPlan(sqlNode);
+    if (changesMetadata(sqlNode)) {
+      // Cached plans cannot tell that a view or the metadata of a table changed
+      context.getPlanCache().invalidateAll();
+    }
+    return plan;
+  }
+
+  /**
+   * @return true if the statement may change views, tables, schemas or
+   * their metadata
+   */
+  private static boolean changesMetadata(SqlNode sqlNode) {
+    switch (sqlNode.getKind()) {
+      case CREATE_TABLE:
+      case CREATE_VIEW:
+      case DROP_TABLE:
+      case DROP_VIEW:
+        return true;
+      case OTHER_DDL:
+        return !(sqlNode instanceof SqlUseSchema);
+      case OTHER:
+        return sqlNode instanceof SqlDropTableMetadata;
+      default:
+        return false;
+    }
   }
 
   private static boolean isAutoLimitShouldBeApplied(SqlNode sqlNode, int queryMaxRows) {
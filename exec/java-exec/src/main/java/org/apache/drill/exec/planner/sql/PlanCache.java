@@ -0,0 +1,389 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.planner.sql;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.calcite.sql.SqlCall;
+import org.apache.calcite.sql.SqlIdentifier;
+import org.apache.calcite.sql.SqlNode;
+import org.apache.calcite.sql.SqlOperator;
+import org.apache.calcite.sql.util.SqlBasicVisitor;
+import org.apache.drill.common.config.DrillConfig;
+import org.apache.drill.common.config.LogicalPlanPersistence;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.expr.fn.DrillFuncHolder;
+import org.apache.drill.exec.expr.fn.WorkspaceReference;
+import org.apache.drill.exec.ops.ContextInformation;
+import org.apache.drill.exec.ops.QueryContext;
+import org.apache.drill.exec.ops.QueryContext.SqlStatementType;
+import org.apache.drill.exec.physical.PhysicalPlan;
+import org.apache.drill.exec.physical.base.GroupScan;
+import org.apache.drill.exec.physical.base.PhysicalOperator;
+import org.apache.drill.exec.planner.PhysicalPlanReader;
+import org.apache.drill.exec.planner.physical.PlannerSettings;
+import org.apache.drill.exec.server.options.OptionValue;
+import org.apache.drill.exec.server.options.OptionValue.OptionScope;
+import org.apache.drill.exec.util.Pointer;
+import org.apache.drill.shaded.guava.com.google.common.cache.Cache;
+import org.apache.drill.shaded.guava.com.google.common.cache.CacheBuilder;
+import org.apache.drill.shaded.guava.com.google.common.hash.Hasher;
+import org.apache.drill.shaded.guava.com.google.common.hash.Hashing;
+
+/**
+ * Drillbit-wide cache of the physical plans of SELECT statements, so that
+ * repeated queries (dashboards and the like) skip parsing, validation and
+ * Calcite planning.
+ * <p>
+ * Plans are keyed on the normalized SQL text, the query user, the default
+ * schema, the function registry version and the values of all options
+ * visible to the query. They are stored as JSON and read back with the
+ * {@link PhysicalPlanReader} on every hit, as for submitted physical plans,
+ * so that no operator instance is shared between queries.
+ * <p>
+ * Each entry also records the {@link GroupScan#getMetadataVersion() metadata
+ * version} of every scan of the plan. A hit is only used if the versions of
+ * the re-read plan still match; otherwise the entry is dropped and the query
+ * is planned again. Plans with a scan of unknown version, plans of queries
+ * calling functions whose value depends on the query (<tt>now()</tt>,
+ * <tt>random()</tt>, <tt>session_id</tt>, ...), plans of sessions with
+ * temporary tables and plans expanding views are not cached: view
+ * definitions are not versioned, and may be replaced through any Drillbit.
+ * DDL statements run on this Drillbit still clear the cache, and entries
+ * expire after <tt>drill.exec.plan_cache.expire_secs</tt>.
+ */
+public class PlanCache {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(PlanCache.class);
+
+  private final PhysicalPlanReader reader;
+  private final LogicalPlanPersistence lpPersistence;
+  private final Cache<Key, CachedPlan> plans;
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong invalidations = new AtomicLong();
+
+  public PlanCache(DrillConfig config, PhysicalPlanReader reader, LogicalPlanPersistence lpPersistence) {
+    this.reader = reader;
+    this.lpPersistence = lpPersistence;
+    this.plans = CacheBuilder.newBuilder()
+        .maximumSize(config.getInt(ExecConstants.PLAN_CACHE_MAX_ENTRIES))
+        .expireAfterWrite(config.getLong(ExecConstants.PLAN_CACHE_EXPIRE_SECS), TimeUnit.SECONDS)
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * @return the cache key of the given query, or null if the plan cache is
+   * disabled or the query cannot be cached
+   */
+  public Key newKey(QueryContext context, String sql) {
+    if (!context.getOptions().getOption(PlannerSettings.PLAN_CACHE_ENABLED) ||
+        context.getSession().hasTemporaryTables()) {
+      return null;
+    }
+    return new Key(normalize(sql), context.getQueryUserName(), context.getSession().getDefaultSchemaPath(),
+        context.getDrillOperatorTable().getFunctionRegistryVersion(), digestOptions(context));
+  }
+
+  /**
+   * @return a digest of the values of all options visible to the query
+   */
+  public static String digestOptions(QueryContext context) {
+    // Later managers (session, then query) override the values of earlier ones
+    Map<String, Object> options = new TreeMap<>();
+    for (OptionValue option : context.getOptions()) {
+      options.put(option.getName(), option.getValue());
+    }
+    Hasher hasher = Hashing.sha256().newHasher();
+    for (Map.Entry<String, Object> option : options.entrySet()) {
+      hasher.putString(option.getKey(), StandardCharsets.UTF_8)
+          .putString(String.valueOf(option.getValue()), StandardCharsets.UTF_8);
+    }
+    return hasher.hash().toString();
+  }
+
+  /**
+   * Returns the cached plan of the query, if any and still valid, applying
+   * the side effects of its planning to the query context.
+   *
+   * @return the plan, or null on a cache miss
+   */
+  public PhysicalPlan getPlan(Key key, QueryContext context, Pointer<String> textPlan) {
+    CachedPlan cached = plans.getIfPresent(key);
+    if (cached == null) {
+      misses.incrementAndGet();
+      return null;
+    }
+    PhysicalPlan plan;
+    try {
+      plan = reader.readPhysicalPlan(cached.json);
+      if (!cached.scanVersions.equals(getScanVersions(plan))) {
+        logger.debug("Metadata of a table scanned by cached plan changed, planning again: {}", key.sql);
+        plan = null;
+      }
+    } catch (Exception e) {
+      logger.warn("Failed to reuse cached plan, planning again: {}", key.sql, e);
+      plan = null;
+    }
+    if (plan == null) {
+      plans.invalidate(key);
+      invalidations.incrementAndGet();
+      misses.incrementAndGet();
+      return null;
+    }
+    hits.incrementAndGet();
+    context.setSQLStatementType(SqlStatementType.SELECT);
+    for (OptionValue option : cached.queryOptions) {
+      context.getOptions().setLocalOption(option.getName(), option.getValue());
+    }
+    if (textPlan != null) {
+      textPlan.value = cached.textPlan;
+    }
+    return plan;
+  }
+
+  /**
+   * Caches the plan of a query just planned, if it can be reused.
+   */
+  public void putPlan(Key key, QueryContext context, String sql, PhysicalPlan plan, Pointer<String> textPlan) {
+    if (context.getSQLStatementType() != SqlStatementType.SELECT
+        || context.getViewExpansionContext().isViewExpanded()
+        || !isQueryIndependent(context, sql)) {
+      return;
+    }
+    try {
+      String json = plan.unparse(lpPersistence.getMapper().writer());
+      // Versions are taken from the plan as it will be read back on a hit
+      List<String> scanVersions = getScanVersions(reader.readPhysicalPlan(json));
+      if (scanVersions == null) {
+        return;
+      }
+      List<OptionValue> queryOptions = new ArrayList<>();
+      for (OptionValue option : context.getOptions().getOptionList()) {
+        if (option.getScope() == OptionScope.QUERY) {
+          queryOptions.add(option);
+        }
+      }
+      plans.put(key, new CachedPlan(json, textPlan == null ? null : textPlan.value, scanVersions, queryOptions));
+    } catch (Exception e) {
+      logger.debug("Plan of query is not cached: {}", sql, e);
+    }
+  }
+
+  /**
+   * Drops all cached plans, for instance after a DDL statement which may
+   * have changed a view.
+   */
+  public void invalidateAll() {
+    invalidations.addAndGet(plans.size());
+    plans.invalidateAll();
+  }
+
+  public long size() {
+    return plans.size();
+  }
+
+  public long getHits() {
+    return hits.get();
+  }
+
+  public long getMisses() {
+    return misses.get();
+  }
+
+  public long getEvictions() {
+    return plans.stats().evictionCount();
+  }
+
+  public long getInvalidations() {
+    return invalidations.get();
+  }
+
+  /**
+   * @return the metadata versions of the scans of the plan, or null if one
+   * of them is unknown
+   */
+  private static List<String> getScanVersions(PhysicalPlan plan) throws IOException {
+    List<String> versions = new ArrayList<>();
+    for (PhysicalOperator op : plan.getSortedOperators()) {
+      if (op instanceof GroupScan) {
+        String version = ((GroupScan) op).getMetadataVersion();
+        if (version == null) {
+          return null;
+        }
+        versions.add(version);
+      }
+    }
+    return versions;
+  }
+
+  /**
+   * Checks that the query calls no function whose value depends on the query
+   * or session rather than on its arguments, since the planner folds such
+   * calls into constants.
+   */
+  public static boolean isQueryIndependent(QueryContext context, String sql) {
+    DrillOperatorTable table = context.getDrillOperatorTable();
+    SqlNode sqlNode = new SqlConverter(context).parse(sql);
+    boolean[] independent = {true};
+    sqlNode.accept(new SqlBasicVisitor<Void>() {
+      @Override
+      public Void visit(SqlCall call) {
+        SqlOperator operator = call.getOperator();
+        if (!isQueryIndependent(operator) || !isQueryIndependent(table.getSqlOperator(operator.getName()))) {
+          independent[0] = false;
+        }
+        return super.visit(call);
+      }
+
+      @Override
+      public Void visit(SqlIdentifier id) {
+        // Niladic functions may be called without parentheses
+        if (id.isSimple() && !isQueryIndependent(table.getSqlOperator(id.getSimple()))) {
+          independent[0] = false;
+        }
+        return null;
+      }
+    });
+    return independent[0];
+  }
+
+  private static boolean isQueryIndependent(List<SqlOperator> operators) {
+    if (operators != null) {
+      for (SqlOperator operator : operators) {
+        if (!isQueryIndependent(operator)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static boolean isQueryIndependent(SqlOperator operator) {
+    if (!operator.isDeterministic() || operator.isDynamicFunction()) {
+      return false;
+    }
+    if (operator instanceof DrillSqlOperator) {
+      DrillSqlOperator drillOperator = (DrillSqlOperator) operator;
+      if (drillOperator.isNiladic()) {
+        return false;
+      }
+      for (DrillFuncHolder holder : drillOperator.getFunctions()) {
+        for (WorkspaceReference ref : holder.getWorkspaceVars()) {
+          if (ref.isInject() && ref.getType() == ContextInformation.class) {
+            return false;
+          }
+        }
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Collapses runs of white space outside of quoted literals and identifiers.
+   */
+  static String normalize(String sql) {
+    StringBuilder buf = new StringBuilder(sql.length());
+    char quote = 0;
+    boolean space = false;
+    for (int i = 0; i < sql.length(); i++) {
+      char c = sql.charAt(i);
+      if (quote != 0) {
+        buf.append(c);
+        if (c == quote) {
+          quote = 0;
+        }
+      } else if (Character.isWhitespace(c)) {
+        space = buf.length() > 0;
+      } else {
+        if (space) {
+          buf.append(' ');
+          space = false;
+        }
+        if (c == '\'' || c == '"' || c == '`') {
+          quote = c;
+        }
+        buf.append(c);
+      }
+    }
+    return buf.toString();
+  }
+
+  /**
+   * Identifies a query and everything its plan depends on, apart from the
+   * metadata of the scanned tables.
+   */
+  public static class Key {
+    private final String sql;
+    private final String userName;
+    private final String defaultSchema;
+    private final int functionRegistryVersion;
+    private final String optionsDigest;
+
+    Key(String sql, String userName, String defaultSchema, int functionRegistryVersion, String optionsDigest) {
+      this.sql = sql;
+      this.userName = userName;
+      this.defaultSchema = defaultSchema;
+      this.functionRegistryVersion = functionRegistryVersion;
+      this.optionsDigest = optionsDigest;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      Key that = (Key) o;
+      return functionRegistryVersion == that.functionRegistryVersion &&
+          sql.equals(that.sql) &&
+          Objects.equals(userName, that.userName) &&
+          Objects.equals(defaultSchema, that.defaultSchema) &&
+          optionsDigest.equals(that.optionsDigest);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(sql, userName, defaultSchema, functionRegistryVersion, optionsDigest);
+    }
+  }
+
+  private static class CachedPlan {
+    private final String json;
+    private final String textPlan;
+    private final List<String> scanVersions;
+    private final List<OptionValue> queryOptions;
+
+    CachedPlan(String json, String textPlan, List<String> scanVersions, List<OptionValue> queryOptions) {
+      this.json = json;
+      this.textPlan = textPlan;
+      this.scanVersions = scanVersions;
+      this.queryOptions = queryOptions;
+    }
+  }
+}
@@ -38,7 +38,7 @@ public abstract class AbstractSingleRecordBatch<T extends PhysicalOperator> exte
   }
 
   @Override
-  protected RecordBatch getIncoming() {
+  public RecordBatch getIncoming() {
     return incoming;
   }
 
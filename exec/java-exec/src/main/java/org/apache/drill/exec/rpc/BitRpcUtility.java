@@ -121,6 +121,19 @@ public final class BitRpcUtility {
       local.getAddress().equals(remote.getAddress()) && local.getControlPort() == remote.getControlPort();
   }
 
+  /**
+   * Verifies if local and remote Drillbit Endpoint has same data server by using address and data port
+   * information, see {@link #isLocalControlServer(DrillbitEndpoint, DrillbitEndpoint)}.
+   * @param local - DrillbitEndpoint instance for local bit
+   * @param remote - DrillbitEndpoint instance for remote bit
+   * @return true if address and data port for local and remote are same.
+   *         false - otherwise
+   */
+  public static boolean isLocalDataServer(DrillbitEndpoint local, DrillbitEndpoint remote) {
+    return local.hasAddress() && local.hasDataPort() && remote.hasAddress() && remote.hasDataPort() &&
+      local.getAddress().equals(remote.getAddress()) && local.getDataPort() == remote.getDataPort();
+  }
+
   // Suppress default constructor
   private BitRpcUtility() {
   }
@@ -102,6 +102,10 @@ public class DataClient extends BasicClient<RpcType, DataClientConnection, BitCl
 
     @Override
     protected List<String> validateHandshake(BitServerHandshake handshake) throws RpcException {
+      if (handshake.hasCompressionCodec()) {
+        connection.setCompression(
+            DataCompression.create(handshake.getCompressionCodec(), config.getCompressionThreshold()));
+      }
       return BitRpcUtility.validateHandshake(handshake.getRpcVersion(), handshake.getAuthenticationMechanismsList(),
         DataRpcConfig.RPC_VERSION, connection, config, this);
     }
@@ -26,6 +26,7 @@ import org.apache.drill.exec.memory.BufferAllocator;
 import org.apache.drill.exec.proto.BitData.RpcType;
 import org.apache.drill.exec.rpc.AbstractClientConnection;
 import org.apache.drill.exec.rpc.EncryptionContext;
+import org.apache.drill.exec.rpc.RpcException;
 import org.apache.drill.exec.rpc.RpcOutcomeListener;
 
 import com.google.protobuf.MessageLite;
@@ -37,6 +38,7 @@ public class DataClientConnection extends AbstractClientConnection {
 
   private final DataClient client;
   private final UUID id;
+  private volatile DataCompression compression;
 
   public DataClientConnection(SocketChannel channel, DataClient client,
                               EncryptionContext encryptionContextImpl) {
@@ -56,6 +58,26 @@ public class DataClientConnection extends AbstractClientConnection {
     client.send(outcomeListener, this, rpcType, protobufBody, clazz, dataBodies);
   }
 
+  /**
+   * @return the compression of the record batches negotiated in the handshake, or null if
+   * batches are sent uncompressed
+   */
+  DataCompression getCompression() {
+    return compression;
+  }
+
+  void setCompression(DataCompression compression) {
+    this.compression = compression;
+  }
+
+  @Override
+  public void channelClosed(RpcException ex) {
+    if (compression != null) {
+      compression.close();
+    }
+    super.channelClosed(ex);
+  }
+
   @Override
   public int hashCode() {
     final int prime = 31;
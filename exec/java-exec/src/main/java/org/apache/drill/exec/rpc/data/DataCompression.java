@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.rpc.data;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.DrillBuf;
+import org.apache.drill.common.exceptions.UserException;
+import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.physical.impl.spill.SpillCodec;
+import org.apache.drill.exec.proto.UserBitShared.RecordBatchDef;
+import org.apache.drill.exec.proto.UserBitShared.SerializedField;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Compression of the record batches sent over a data connection, with the codec negotiated
+ * in the handshake of the connection: the client asks for the codec given by
+ * <tt>drill.exec.rpc.bit.data.compression.codec</tt> and the server accepts it if it has it.
+ * <p>
+ * The data buffers of a batch are compressed together into a single body, unless they hold
+ * fewer bytes than <tt>drill.exec.rpc.bit.data.compression.threshold</tt> or do not shrink,
+ * in which case they are sent as is. The header of the batch is left alone: its definition
+ * gives the length of every buffer, so a body shorter than the total of these lengths is a
+ * compressed one.
+ * <p>
+ * Codecs keep state, so each sending thread takes one from a pool held by the connection.
+ * Codecs that support direct buffers work on the memory of the batch itself; the others
+ * copy through heap arrays kept with the pooled codec.
+ */
+public class DataCompression implements AutoCloseable {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(DataCompression.class);
+
+  private final String codecName;
+  private final int threshold;
+  private final Queue<PooledCodec> codecs = new ConcurrentLinkedQueue<>();
+
+  private DataCompression(String codecName, int threshold) {
+    this.codecName = codecName;
+    this.threshold = threshold;
+  }
+
+  /**
+   * @param codecName name of the codec, as given by the client in the handshake
+   * @param threshold the least number of bytes of data of a batch to compress
+   * @return the compression of batches with the given codec, or null if this Drillbit
+   * does not have the codec
+   */
+  public static DataCompression create(String codecName, int threshold) {
+    try {
+      SpillCodec codec = SpillCodec.create(codecName);
+      if (codec == null) {
+        return null;
+      }
+      DataCompression compression = new DataCompression(codecName, threshold);
+      compression.codecs.add(new PooledCodec(codec));
+      return compression;
+    } catch (UserException e) {
+      logger.warn("Record batch compression codec {} is not available, sending batches uncompressed", codecName);
+      return null;
+    }
+  }
+
+  public String getCodecName() {
+    return codecName;
+  }
+
+  /**
+   * Compresses the data buffers of a batch into a single buffer, releasing the given buffers.
+   *
+   * @return the compressed body, or the given buffers if the batch is not worth compressing
+   */
+  public ByteBuf[] compress(BufferAllocator allocator, ByteBuf[] buffers) throws IOException {
+    long length = 0;
+    for (ByteBuf buffer : buffers) {
+      length += buffer.readableBytes();
+    }
+    if (length < threshold || length > Integer.MAX_VALUE) {
+      return buffers;
+    }
+
+    PooledCodec pooled = takeCodec();
+    DrillBuf body;
+    long start = System.nanoTime();
+    try {
+      body = pooled.codec.supportsDirectBuffers()
+          ? compressDirect(pooled.codec, allocator, buffers, (int) length)
+          : compressHeap(pooled, allocator, buffers, (int) length);
+    } finally {
+      codecs.add(pooled);
+    }
+    int compressedLength = body.readableBytes();
+    DataRpcMetrics.addCompression(length, Math.min(compressedLength, length), System.nanoTime() - start);
+    if (compressedLength >= length) {
+      body.release();
+      return buffers;
+    }
+
+    for (ByteBuf buffer : buffers) {
+      buffer.release();
+    }
+    return new ByteBuf[] {body};
+  }
+
+  /**
+   * Compresses straight from the direct memory of the batch into the body. Only a batch
+   * spread over several buffers is first gathered into one.
+   */
+  private static DrillBuf compressDirect(SpillCodec codec, BufferAllocator allocator,
+                                         ByteBuf[] buffers, int length) throws IOException {
+    DrillBuf gathered = null;
+    ByteBuffer input;
+    if (buffers.length == 1 && buffers[0].isDirect() && buffers[0].nioBufferCount() == 1) {
+      input = buffers[0].nioBuffer();
+    } else {
+      gathered = allocator.buffer(length);
+      for (ByteBuf buffer : buffers) {
+        gathered.writeBytes(buffer, buffer.readerIndex(), buffer.readableBytes());
+      }
+      input = gathered.nioBuffer(0, length);
+    }
+    DrillBuf body = allocator.buffer(codec.maxCompressedLength(length));
+    try {
+      body.writerIndex(codec.compress(input, body.nioBuffer(0, body.capacity())));
+      return body;
+    } catch (IOException | RuntimeException e) {
+      body.release();
+      throw e;
+    } finally {
+      if (gathered != null) {
+        gathered.release();
+      }
+    }
+  }
+
+  private static DrillBuf compressHeap(PooledCodec pooled, BufferAllocator allocator,
+                                       ByteBuf[] buffers, int length) throws IOException {
+    byte[] input = pooled.input(length);
+    int position = 0;
+    for (ByteBuf buffer : buffers) {
+      int count = buffer.readableBytes();
+      buffer.getBytes(buffer.readerIndex(), input, position, count);
+      position += count;
+    }
+    byte[] output = pooled.output(pooled.codec.maxCompressedLength(length));
+    int compressedLength = pooled.codec.compress(input, length, output);
+
+    DrillBuf body = allocator.buffer(compressedLength);
+    body.writeBytes(output, 0, compressedLength);
+    return body;
+  }
+
+  /**
+   * Decompresses the body of a batch if it was compressed.
+   *
+   * @return a new buffer with the data of the batch, owned by the caller, or null if the body
+   * was not compressed
+   */
+  public DrillBuf decompress(BufferAllocator allocator, RecordBatchDef def, DrillBuf body) throws IOException {
+    if (body == null) {
+      return null;
+    }
+    long length = getDataLength(def);
+    if (body.readableBytes() >= length) {
+      return null;
+    }
+
+    DrillBuf data = allocator.buffer((int) length);
+    PooledCodec pooled = takeCodec();
+    long start = System.nanoTime();
+    try {
+      if (pooled.codec.supportsDirectBuffers()) {
+        pooled.codec.decompress(body.nioBuffer(body.readerIndex(), body.readableBytes()),
+            data.nioBuffer(0, (int) length), (int) length);
+      } else {
+        byte[] input = pooled.input(body.readableBytes());
+        body.getBytes(body.readerIndex(), input, 0, body.readableBytes());
+        byte[] output = pooled.output((int) length);
+        pooled.codec.decompress(input, body.readableBytes(), output, (int) length);
+        data.setBytes(0, output, 0, (int) length);
+      }
+      data.writerIndex((int) length);
+    } catch (IOException | RuntimeException e) {
+      data.release();
+      throw e;
+    } finally {
+      codecs.add(pooled);
+    }
+    DataRpcMetrics.addDecompression(System.nanoTime() - start);
+    return data;
+  }
+
+  /**
+   * @return the number of bytes of the data buffers of a batch, before compression
+   */
+  static long getDataLength(RecordBatchDef def) {
+    long length = 0;
+    for (SerializedField field : def.getFieldList()) {
+      length += field.getBufferLength();
+    }
+    return length;
+  }
+
+  private PooledCodec takeCodec() {
+    PooledCodec pooled = codecs.poll();
+    return pooled != null ? pooled : new PooledCodec(SpillCodec.create(codecName));
+  }
+
+  @Override
+  public void close() {
+    PooledCodec pooled;
+    while ((pooled = codecs.poll()) != null) {
+      pooled.codec.close();
+    }
+  }
+
+  /**
+   * A codec of the connection, with the heap arrays that codecs without direct buffer
+   * support work in. The arrays grow to the largest batch seen and are reused after.
+   */
+  private static class PooledCodec {
+    private final SpillCodec codec;
+    private byte[] input = new byte[0];
+    private byte[] output = new byte[0];
+
+    private PooledCodec(SpillCodec codec) {
+      this.codec = codec;
+    }
+
+    private byte[] input(int length) {
+      if (input.length < length) {
+        input = new byte[length];
+      }
+      return input;
+    }
+
+    private byte[] output(int length) {
+      if (output.length < length) {
+        output = new byte[length];
+      }
+      return output;
+    }
+  }
+}
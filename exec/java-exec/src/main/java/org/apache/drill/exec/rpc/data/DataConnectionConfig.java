@@ -17,8 +17,12 @@
  */
 package org.apache.drill.exec.rpc.data;
 
+import org.apache.drill.common.config.DrillConfig;
+import org.apache.drill.common.exceptions.UserException;
+import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.exception.DrillbitStartupException;
 import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.physical.impl.spill.SpillCodec;
 import org.apache.drill.exec.rpc.BitConnectionConfig;
 import org.apache.drill.exec.server.BootStrapContext;
 
@@ -28,11 +32,29 @@ class DataConnectionConfig extends BitConnectionConfig {
 //  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(DataConnectionConfig.class);
 
   private final DataServerRequestHandler handler;
+  private final String compressionCodec;
+  private final int compressionThreshold;
 
   DataConnectionConfig(BufferAllocator allocator, BootStrapContext context, DataServerRequestHandler handler)
       throws DrillbitStartupException {
     super(allocator, context);
     this.handler = handler;
+
+    final DrillConfig config = context.getConfig();
+    compressionThreshold = config.getInt(ExecConstants.BIT_DATA_COMPRESSION_THRESHOLD);
+    final String codecName = config.getString(ExecConstants.BIT_DATA_COMPRESSION_CODEC).trim();
+    final SpillCodec codec;
+    try {
+      codec = SpillCodec.create(codecName);
+    } catch (UserException e) {
+      throw new DrillbitStartupException("Invalid " + ExecConstants.BIT_DATA_COMPRESSION_CODEC + ": " + codecName, e);
+    }
+    if (codec != null) {
+      codec.close();
+      compressionCodec = codecName;
+    } else {
+      compressionCodec = null;
+    }
   }
 
   @Override
@@ -43,4 +65,15 @@ class DataConnectionConfig extends BitConnectionConfig {
   DataServerRequestHandler getMessageHandler() {
     return handler;
   }
+
+  /**
+   * @return the codec to ask the other Drillbits to compress record batches with, or null
+   */
+  String getCompressionCodec() {
+    return compressionCodec;
+  }
+
+  int getCompressionThreshold() {
+    return compressionThreshold;
+  }
 }
@@ -24,6 +24,7 @@ import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.exception.DrillbitStartupException;
 import org.apache.drill.exec.memory.BufferAllocator;
 import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
+import org.apache.drill.exec.rpc.BitRpcUtility;
 import org.apache.drill.exec.rpc.control.WorkEventBus;
 import org.apache.drill.exec.server.BootStrapContext;
 import org.apache.drill.exec.work.WorkManager.WorkerBee;
@@ -40,10 +41,13 @@ public class DataConnectionCreator implements AutoCloseable {
   private final ConcurrentMap<DrillbitEndpoint, DataConnectionManager> connectionManager = Maps.newConcurrentMap();
 
   private final DataConnectionConfig config;
+  private final boolean localExchange;
+  private volatile DrillbitEndpoint localEndpoint;
 
   public DataConnectionCreator(BootStrapContext context, BufferAllocator allocator, WorkEventBus workBus,
                                WorkerBee bee) throws DrillbitStartupException {
     config = new DataConnectionConfig(allocator, context, new DataServerRequestHandler(workBus, bee));
+    localExchange = context.getConfig().getBoolean(ExecConstants.BIT_DATA_LOCAL_EXCHANGE);
 
     // Initialize the singleton instance of DataRpcMetrics.
     ((DataRpcMetrics) DataRpcMetrics.getInstance()).initialize(config.isEncryptionEnabled(), allocator);
@@ -56,16 +60,24 @@ public class DataConnectionCreator implements AutoCloseable {
       port = config.getBootstrapContext().getConfig().getInt(ExecConstants.INITIAL_DATA_PORT);
     }
     port = server.bind(port, allowPortHunting);
-    return partialEndpoint.toBuilder().setDataPort(port).build();
+    localEndpoint = partialEndpoint.toBuilder().setDataPort(port).build();
+    return localEndpoint;
   }
 
   public DataTunnel getTunnel(DrillbitEndpoint endpoint) {
-    DataConnectionManager newManager = new DataConnectionManager(endpoint, config);
-    DataConnectionManager oldManager = connectionManager.putIfAbsent(endpoint, newManager);
-    if (oldManager != null) {
-      newManager = oldManager;
+    DataConnectionManager manager = connectionManager.get(endpoint);
+    if (manager == null) {
+      // batches sent to the fragments of this Drillbit are handed over without a data connection
+      DataConnectionManager newManager =
+          localExchange && localEndpoint != null && BitRpcUtility.isLocalDataServer(localEndpoint, endpoint)
+              ? new LocalDataConnectionManager(endpoint, config)
+              : new DataConnectionManager(endpoint, config);
+      manager = connectionManager.putIfAbsent(endpoint, newManager);
+      if (manager == null) {
+        manager = newManager;
+      }
     }
-    return new DataTunnel(newManager);
+    return new DataTunnel(manager);
   }
 
   @Override
@@ -28,14 +28,8 @@ public class DataConnectionManager extends ReconnectingConnection<DataClientConn
   private final DrillbitEndpoint remoteEndpoint;
   private final DataConnectionConfig config;
 
-  private final static BitClientHandshake HANDSHAKE = BitClientHandshake //
-      .newBuilder() //
-      .setRpcVersion(DataRpcConfig.RPC_VERSION) //
-      .setChannel(RpcChannel.BIT_DATA) //
-      .build();
-
   public DataConnectionManager(DrillbitEndpoint remoteEndpoint, DataConnectionConfig config) {
-    super(HANDSHAKE, remoteEndpoint.getAddress(), remoteEndpoint.getDataPort());
+    super(getHandshake(config), remoteEndpoint.getAddress(), remoteEndpoint.getDataPort());
     this.remoteEndpoint = remoteEndpoint;
     this.config = config;
   }
@@ -45,4 +39,15 @@ public class DataConnectionManager extends ReconnectingConnection<DataClientConn
     return new DataClient(remoteEndpoint, config, new CloseHandlerCreator());
   }
 
+  private static BitClientHandshake getHandshake(DataConnectionConfig config) {
+    final BitClientHandshake.Builder builder = BitClientHandshake //
+        .newBuilder() //
+        .setRpcVersion(DataRpcConfig.RPC_VERSION) //
+        .setChannel(RpcChannel.BIT_DATA);
+    if (config.getCompressionCodec() != null) {
+      builder.setCompressionCodec(config.getCompressionCodec());
+    }
+    return builder.build();
+  }
+
 }
\ No newline at end of file
@@ -18,11 +18,15 @@
 package org.apache.drill.exec.rpc.data;
 
 import com.codahale.metrics.Counter;
+import com.codahale.metrics.RatioGauge;
+import com.codahale.metrics.Timer;
 import org.apache.drill.exec.memory.BufferAllocator;
 import org.apache.drill.exec.metrics.DrillMetrics;
 import org.apache.drill.exec.rpc.AbstractRpcMetrics;
 import org.apache.drill.exec.rpc.RpcMetrics;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Holds metrics related to bit data rpc layer
  */
@@ -37,6 +41,21 @@ public class DataRpcMetrics extends AbstractRpcMetrics {
   private static final Counter unencryptedConnection = DrillMetrics.getRegistry()
       .counter(CONNECTION_COUNTER_PREFIX + "data.unencrypted");
 
+  private static final String COMPRESSION_PREFIX = "drill.rpc.bit.data.compression.";
+
+  // Bytes of data of the record batches given to the compression codec, and the bytes sent for them
+  private static final Counter uncompressedBytes = DrillMetrics.getRegistry()
+      .counter(COMPRESSION_PREFIX + "uncompressed.bytes");
+
+  private static final Counter compressedBytes = DrillMetrics.getRegistry()
+      .counter(COMPRESSION_PREFIX + "compressed.bytes");
+
+  private static final Timer compressionTime = DrillMetrics.getRegistry()
+      .timer(COMPRESSION_PREFIX + "compress.time");
+
+  private static final Timer decompressionTime = DrillMetrics.getRegistry()
+      .timer(COMPRESSION_PREFIX + "decompress.time");
+
   private static final RpcMetrics INSTANCE = new DataRpcMetrics();
 
   // prevent instantiation
@@ -59,6 +78,37 @@ public class DataRpcMetrics extends AbstractRpcMetrics {
   public void initialize(boolean useEncryptedCounter, BufferAllocator allocator) {
     this.useEncryptedCounter = useEncryptedCounter;
     registerAllocatorMetrics(allocator);
+    DrillMetrics.register(COMPRESSION_PREFIX + "ratio", new RatioGauge() {
+      @Override
+      protected Ratio getRatio() {
+        return Ratio.of(compressedBytes.getCount(), uncompressedBytes.getCount());
+      }
+    });
+  }
+
+  /**
+   * Records the compression of the data of a record batch.
+   *
+   * @param uncompressed bytes of data of the batch
+   * @param compressed bytes sent for the batch, the same as uncompressed if the batch did not shrink
+   * @param nanos time taken by the codec
+   */
+  static void addCompression(long uncompressed, long compressed, long nanos) {
+    uncompressedBytes.inc(uncompressed);
+    compressedBytes.inc(compressed);
+    compressionTime.update(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  static void addDecompression(long nanos) {
+    decompressionTime.update(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  static long getUncompressedBytes() {
+    return uncompressedBytes.getCount();
+  }
+
+  static long getCompressedBytes() {
+    return compressedBytes.getCount();
   }
 
   @Override
@@ -88,6 +88,14 @@ public class DataServer extends BasicServer<RpcType, DataServerConnection> {
         if (config.getAuthMechanismToUse() != null) {
           builder.addAllAuthenticationMechanisms(config.getAuthProvider().getAllFactoryNames());
         }
+        if (inbound.hasCompressionCodec()) {
+          // the threshold only applies to the batches sent by the client
+          final DataCompression compression = DataCompression.create(inbound.getCompressionCodec(), 0);
+          if (compression != null) {
+            connection.setCompression(compression);
+            builder.setCompressionCodec(compression.getCodecName());
+          }
+        }
 
         return builder.build();
       }
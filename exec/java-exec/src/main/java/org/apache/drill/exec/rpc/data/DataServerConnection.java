@@ -21,12 +21,15 @@ import io.netty.channel.socket.SocketChannel;
 import org.apache.drill.exec.proto.BitData.RpcType;
 import org.apache.drill.exec.rpc.security.ServerAuthenticationHandler;
 import org.apache.drill.exec.rpc.AbstractServerConnection;
+import org.apache.drill.exec.rpc.RpcException;
 import org.slf4j.Logger;
 
 // data connection on server-side (i.e. bit handling request or receiving data)
 public class DataServerConnection extends AbstractServerConnection<DataServerConnection> {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(DataServerConnection.class);
 
+  private volatile DataCompression compression;
+
   DataServerConnection(SocketChannel channel, DataConnectionConfig config) {
     super(channel, config, config.getAuthMechanismToUse() == null
         ? config.getMessageHandler()
@@ -34,6 +37,26 @@ public class DataServerConnection extends AbstractServerConnection<DataServerCon
         RpcType.SASL_MESSAGE_VALUE, RpcType.SASL_MESSAGE));
   }
 
+  /**
+   * @return the compression of the record batches negotiated in the handshake, or null if
+   * batches are sent uncompressed
+   */
+  DataCompression getCompression() {
+    return compression;
+  }
+
+  void setCompression(DataCompression compression) {
+    this.compression = compression;
+  }
+
+  @Override
+  public void channelClosed(RpcException ex) {
+    if (compression != null) {
+      compression.close();
+    }
+    super.channelClosed(ex);
+  }
+
   @Override
   protected Logger getLogger() {
     return logger;
@@ -20,17 +20,22 @@ package org.apache.drill.exec.rpc.data;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.DrillBuf;
 import org.apache.drill.exec.exception.FragmentSetupException;
+import org.apache.drill.exec.exception.OutOfMemoryException;
+import org.apache.drill.exec.memory.BufferAllocator;
 import org.apache.drill.exec.proto.BitData;
 import org.apache.drill.exec.proto.BitData.FragmentRecordBatch;
 import org.apache.drill.exec.proto.BitData.RpcType;
 import org.apache.drill.exec.proto.ExecProtos.FragmentHandle;
+import org.apache.drill.exec.proto.GeneralRPCProtos.Ack;
 import org.apache.drill.exec.proto.helper.QueryIdHelper;
+import org.apache.drill.exec.record.FragmentWritableBatch;
 import org.apache.drill.exec.rpc.Acks;
 import org.apache.drill.exec.rpc.RequestHandler;
 import org.apache.drill.exec.rpc.Response;
 import org.apache.drill.exec.rpc.ResponseSender;
 import org.apache.drill.exec.rpc.RpcBus;
 import org.apache.drill.exec.rpc.RpcException;
+import org.apache.drill.exec.rpc.RpcOutcomeListener;
 import org.apache.drill.exec.rpc.control.WorkEventBus;
 import org.apache.drill.exec.work.WorkManager;
 import org.apache.drill.exec.work.filter.RuntimeFilterWritable;
@@ -62,7 +67,7 @@ class DataServerRequestHandler implements RequestHandler<DataServerConnection> {
       }
 
       case RpcType.REQ_RECORD_BATCH_VALUE : {
-        handleRecordBatchRequest(pBody, dBody, sender);
+        handleRecordBatchRequest(connection, pBody, dBody, sender);
         break;
       }
 
@@ -71,15 +76,68 @@ class DataServerRequestHandler implements RequestHandler<DataServerConnection> {
     }
   }
 
-  private void handleRecordBatchRequest(ByteBuf pBody, ByteBuf dBody, ResponseSender sender) throws RpcException {
+  private void handleRecordBatchRequest(DataServerConnection connection, ByteBuf pBody, ByteBuf dBody,
+                                        ResponseSender sender) throws RpcException {
     final FragmentRecordBatch fragmentBatch = RpcBus.get(pBody, FragmentRecordBatch.PARSER);
+    final DataCompression compression = connection.getCompression();
+    DrillBuf decompressed = null;
+    if (compression != null && fragmentBatch.hasDef()) {
+      try {
+        decompressed = compression.decompress(connection.getAllocator(), fragmentBatch.getDef(), (DrillBuf) dBody);
+      } catch (IOException e) {
+        logger.error("Failure while decompressing record batch. {}",
+          QueryIdHelper.getQueryIdentifiers(fragmentBatch.getQueryId(),
+            fragmentBatch.getReceivingMajorFragmentId(),
+            fragmentBatch.getReceivingMinorFragmentIdList()), e);
+        sender.send(new Response(BitData.RpcType.ACK, Acks.FAIL));
+        return;
+      }
+    }
+    try {
+      handleRecordBatch(fragmentBatch, decompressed != null ? decompressed : (DrillBuf) dBody, sender);
+    } finally {
+      // the receiving fragments took their own references to the decompressed body
+      if (decompressed != null) {
+        decompressed.release();
+      }
+    }
+  }
+
+  /**
+   * Hands a batch sent by a fragment of this Drillbit to its receiving fragments, the same way
+   * as a batch received from a data connection. The data buffers of the batch are gathered into
+   * the single body expected by the receivers, unless there is only one, and are released.
+   *
+   * @param batch batch given to a {@link DataTunnel} to the local Drillbit
+   * @param allocator allocator of the data connections, which owns the body until the
+   *                  receiving fragments take it over
+   * @param listener listener told of the acknowledgement of the batch by the receivers
+   */
+  void handleLocalRecordBatch(FragmentWritableBatch batch, BufferAllocator allocator, RpcOutcomeListener<Ack> listener) {
+    final DrillBuf body;
+    try {
+      body = getBody(batch.getBuffers(), allocator);
+    } catch (OutOfMemoryException e) {
+      listener.failed(new RpcException("Failure while copying record batch for a local fragment", e));
+      return;
+    }
+    try {
+      handleRecordBatch(batch.getHeader(), body, response -> listener.success((Ack) response.pBody, null));
+    } finally {
+      if (body != null) {
+        body.release();
+      }
+    }
+  }
+
+  private void handleRecordBatch(FragmentRecordBatch fragmentBatch, DrillBuf body, ResponseSender sender) {
     final AckSender ack = new AckSender(sender);
 
     // increment so we don't get false returns.
     ack.increment();
 
     try {
-      final IncomingDataBatch batch = new IncomingDataBatch(fragmentBatch, (DrillBuf) dBody, ack);
+      final IncomingDataBatch batch = new IncomingDataBatch(fragmentBatch, body, ack);
       final int targetCount = fragmentBatch.getReceivingMinorFragmentIdCount();
 
       // randomize who gets first transfer (and thus ownership) so memory usage is balanced when we're sharing amongst
@@ -102,6 +160,34 @@ class DataServerRequestHandler implements RequestHandler<DataServerConnection> {
     }
   }
 
+  /**
+   * @return the given buffer if there is only one, or a new buffer with the bytes of the given
+   * buffers, which are released; null if the buffers hold no bytes
+   */
+  private static DrillBuf getBody(ByteBuf[] buffers, BufferAllocator allocator) {
+    if (buffers.length == 1 && buffers[0] instanceof DrillBuf && buffers[0].readerIndex() == 0) {
+      return (DrillBuf) buffers[0];
+    }
+    try {
+      int length = 0;
+      for (ByteBuf buffer : buffers) {
+        length += buffer.readableBytes();
+      }
+      if (length == 0) {
+        return null;
+      }
+      final DrillBuf body = allocator.buffer(length);
+      for (ByteBuf buffer : buffers) {
+        body.writeBytes(buffer, buffer.readerIndex(), buffer.readableBytes());
+      }
+      return body;
+    } finally {
+      for (ByteBuf buffer : buffers) {
+        buffer.release();
+      }
+    }
+  }
+
   private void handleRuntimeFilterRequest(ByteBuf pBody, ByteBuf dBody, ResponseSender sender) throws RpcException {
     BitData.RuntimeFilterBDef runtimeFilterBDef = RpcBus.get(pBody, BitData.RuntimeFilterBDef.PARSER);
     if (dBody == null) {
@@ -110,13 +196,22 @@ class DataServerRequestHandler implements RequestHandler<DataServerConnection> {
     List<Integer> bfSizeInBytes = runtimeFilterBDef.getBloomFilterSizeInBytesList();
     int boomFilterNum = bfSizeInBytes.size();
     DrillBuf data = (DrillBuf) dBody;
-    DrillBuf[] bufs = new DrillBuf[boomFilterNum];
+    int bodySize = 0;
+    for (int length : bfSizeInBytes) {
+      bodySize += length;
+    }
+    // the bloom filters may be followed by a range filter
+    boolean hasRangeFilter = data.writerIndex() > bodySize;
+    DrillBuf[] bufs = new DrillBuf[hasRangeFilter ? boomFilterNum + 1 : boomFilterNum];
     int index = 0;
     for (int i = 0; i < boomFilterNum; i++) {
       int length = bfSizeInBytes.get(i);
       bufs[i] = data.slice(index, length);
       index = index + length;
     }
+    if (hasRangeFilter) {
+      bufs[boomFilterNum] = data.slice(index, data.writerIndex() - index);
+    }
     RuntimeFilterWritable runtimeFilterWritable = new RuntimeFilterWritable(runtimeFilterBDef, bufs);
     AckSender ackSender = new AckSender(sender);
     ackSender.increment();
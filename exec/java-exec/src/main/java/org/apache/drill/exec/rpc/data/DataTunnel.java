@@ -19,7 +19,9 @@ package org.apache.drill.exec.rpc.data;
 
 import com.google.protobuf.MessageLite;
 import io.netty.buffer.ByteBuf;
+import java.io.IOException;
 import java.util.concurrent.Semaphore;
+import org.apache.drill.exec.memory.BufferAllocator;
 import org.apache.drill.exec.proto.BitData.RpcType;
 import org.apache.drill.exec.proto.GeneralRPCProtos.Ack;
 import org.apache.drill.exec.record.FragmentWritableBatch;
@@ -29,6 +31,7 @@ import org.apache.drill.exec.rpc.RpcOutcomeListener;
 import org.apache.drill.exec.testing.ControlsInjector;
 import org.apache.drill.exec.testing.ExecutionControls;
 import org.apache.drill.exec.work.filter.RuntimeFilterWritable;
+import org.apache.drill.exec.work.fragment.FragmentScheduler;
 
 
 public class DataTunnel {
@@ -75,7 +78,10 @@ public class DataTunnel {
         testInjector.injectInterruptiblePause(testControls, "data-tunnel-send-batch-wait-for-interrupt", testLogger);
       }
 
-      sendingSemaphore.acquire();
+      FragmentScheduler.managedCall(() -> {
+        sendingSemaphore.acquire();
+        return null;
+      });
       manager.runCommand(b);
     } catch (final InterruptedException e) {
       // Release the buffers first before informing the listener about the interrupt.
@@ -91,6 +97,14 @@ public class DataTunnel {
     }
   }
 
+  /**
+   * @return true if the batches sent through this tunnel are handed to fragments of the local
+   * Drillbit without going through a data connection
+   */
+  public boolean isLocal() {
+    return manager instanceof LocalDataConnectionManager;
+  }
+
   public void sendRuntimeFilter(RpcOutcomeListener<Ack> outcomeListener, RuntimeFilterWritable runtimeFilter) {
     SendRuntimeFilterAsyncListen cmd = new SendRuntimeFilterAsyncListen(outcomeListener, runtimeFilter);
     try{
@@ -138,7 +152,7 @@ public class DataTunnel {
     }
   }
 
-  private class SendBatchAsyncListen extends ListeningCommand<Ack, DataClientConnection, RpcType, MessageLite> {
+  class SendBatchAsyncListen extends ListeningCommand<Ack, DataClientConnection, RpcType, MessageLite> {
     final FragmentWritableBatch batch;
 
     public SendBatchAsyncListen(RpcOutcomeListener<Ack> listener, FragmentWritableBatch batch) {
@@ -148,8 +162,30 @@ public class DataTunnel {
 
     @Override
     public void doRpcCall(RpcOutcomeListener<Ack> outcomeListener, DataClientConnection connection) {
+      ByteBuf[] buffers = batch.getBuffers();
+      DataCompression compression = connection.getCompression();
+      if (compression != null) {
+        try {
+          buffers = compression.compress(connection.getAllocator(), buffers);
+        } catch (IOException e) {
+          for (ByteBuf buffer : buffers) {
+            buffer.release();
+          }
+          new ThrottlingOutcomeListener(outcomeListener).failed(
+              new RpcException("Failure while compressing record batch", e));
+          return;
+        }
+      }
       connection.send(new ThrottlingOutcomeListener(outcomeListener), getRpcType(), batch.getHeader(),
-        Ack.class, batch.getBuffers());
+        Ack.class, buffers);
+    }
+
+    /**
+     * Hands the batch to the receiving fragments of the local Drillbit instead of sending it,
+     * see {@link LocalDataConnectionManager}.
+     */
+    void sendLocal(DataServerRequestHandler handler, BufferAllocator allocator) {
+      handler.handleLocalRecordBatch(batch, allocator, new ThrottlingOutcomeListener(getOutcomeListener()));
     }
 
     @Override
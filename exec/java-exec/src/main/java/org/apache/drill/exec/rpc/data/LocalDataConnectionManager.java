@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.rpc.data;
+
+import org.apache.drill.exec.proto.BitData.RpcType;
+import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
+import org.apache.drill.exec.rpc.RpcCommand;
+import org.apache.drill.exec.rpc.RpcConstants;
+
+/**
+ * Connection manager for the data tunnels to the local Drillbit. Record batches are handed to
+ * the receiving fragments of this Drillbit in process, the way {@link DataServer} would hand
+ * them over once received, without being written to and read back from a socket. The other
+ * commands, such as runtime filters, go through a data connection to the local Drillbit.
+ */
+public class LocalDataConnectionManager extends DataConnectionManager {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(LocalDataConnectionManager.class);
+
+  private final DataConnectionConfig config;
+
+  public LocalDataConnectionManager(DrillbitEndpoint localEndpoint, DataConnectionConfig config) {
+    super(localEndpoint, config);
+    this.config = config;
+  }
+
+  @Override
+  public void runCommand(RpcCommand cmd) {
+    if (cmd.getRpcType() == RpcType.REQ_RECORD_BATCH && cmd instanceof DataTunnel.SendBatchAsyncListen) {
+      if (RpcConstants.EXTRA_DEBUGGING) {
+        logger.debug("Sending record batch over local connection manager");
+      }
+      ((DataTunnel.SendBatchAsyncListen) cmd).sendLocal(config.getMessageHandler(), config.getAllocator());
+    } else {
+      super.runCommand(cmd);
+    }
+  }
+}
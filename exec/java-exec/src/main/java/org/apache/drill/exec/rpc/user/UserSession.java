@@ -296,6 +296,13 @@ public class UserSession implements AutoCloseable {
     return oldTemporaryTableName == null ? temporaryTableName : oldTemporaryTableName;
   }
 
+  /**
+   * @return true if temporary tables were created in this session
+   */
+  public boolean hasTemporaryTables() {
+    return !temporaryTables.isEmpty();
+  }
+
   /**
    * Returns generated temporary table name from the list of session temporary tables, null otherwise.
    * Original temporary name is converted to lower case to achieve case-insensitivity.
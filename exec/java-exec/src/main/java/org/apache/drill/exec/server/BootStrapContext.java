@@ -43,6 +43,7 @@ import org.apache.drill.exec.rpc.TransportCheck;
 import org.apache.drill.exec.rpc.security.AuthenticatorProvider;
 import org.apache.drill.exec.rpc.security.AuthenticatorProviderImpl;
 import org.apache.drill.exec.server.options.OptionDefinition;
+import org.apache.drill.exec.work.fragment.FragmentScheduler;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.CommonConfigurationKeys;
 import org.apache.hadoop.security.UserGroupInformation;
@@ -69,6 +70,7 @@ public class BootStrapContext implements AutoCloseable {
   private final BufferAllocator allocator;
   private final ScanResult classpathScan;
   private final ExecutorService executor;
+  private final ExecutorService fragmentExecutor;
   private final ExecutorService scanExecutor;
   private final ExecutorService scanDecodeExecutor;
   private final String hostName;
@@ -97,6 +99,9 @@ public class BootStrapContext implements AutoCloseable {
         super.afterExecute(r, t);
       }
     };
+    this.fragmentExecutor = config.getBoolean(ExecConstants.FRAGMENT_SCHEDULER_ENABLED)
+        ? FragmentScheduler.newPool(config)
+        : executor;
     // Setup two threadpools one for reading raw data from disk and another for decoding the data
     // A good guideline is to have the number threads in the scan pool to be a multiple (fractional
     // numbers are ok) of the number of disks.
@@ -179,6 +184,14 @@ public class BootStrapContext implements AutoCloseable {
     return executor;
   }
 
+  /**
+   * @return the executor on which fragments run: the general executor, or the
+   * bounded {@link FragmentScheduler} pool if enabled
+   */
+  public ExecutorService getFragmentExecutor() {
+    return fragmentExecutor;
+  }
+
   public ExecutorService getScanExecutor() {
     return scanExecutor;
   }
@@ -248,6 +261,10 @@ public class BootStrapContext implements AutoCloseable {
       }
     }
 
+    if (fragmentExecutor != null && fragmentExecutor != executor) {
+      fragmentExecutor.shutdownNow();
+    }
+
     if (scanExecutor != null) {
       scanExecutor.shutdown();
     }
@@ -26,10 +26,12 @@ import org.apache.drill.exec.compile.CodeCompiler;
 import org.apache.drill.exec.coord.ClusterCoordinator;
 import org.apache.drill.exec.expr.fn.FunctionImplementationRegistry;
 import org.apache.drill.exec.expr.fn.registry.RemoteFunctionRegistry;
+import org.apache.drill.exec.cache.ResultCache;
 import org.apache.drill.exec.memory.BufferAllocator;
 import org.apache.drill.exec.physical.impl.OperatorCreatorRegistry;
 import org.apache.drill.exec.planner.PhysicalPlanReader;
 import org.apache.drill.exec.planner.sql.DrillOperatorTable;
+import org.apache.drill.exec.planner.sql.PlanCache;
 import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
 import org.apache.drill.exec.rpc.control.Controller;
 import org.apache.drill.exec.rpc.control.WorkEventBus;
@@ -42,6 +44,7 @@ import org.apache.drill.exec.server.options.SystemOptionManager;
 import org.apache.drill.exec.store.SchemaFactory;
 import org.apache.drill.exec.store.StoragePluginRegistry;
 import org.apache.drill.exec.store.sys.PersistentStoreProvider;
+import org.apache.drill.exec.work.filter.LocalRuntimeFilterAggregator;
 import org.apache.drill.exec.work.foreman.rm.ResourceManager;
 import org.apache.drill.exec.work.foreman.rm.ResourceManagerBuilder;
 import org.apache.drill.metastore.MetastoreRegistry;
@@ -76,6 +79,9 @@ public class DrillbitContext implements AutoCloseable {
   private final QueryProfileStoreContext profileStoreContext;
   private ResourceManager resourceManager;
   private final MetastoreRegistry metastoreRegistry;
+  private final PlanCache planCache;
+  private final ResultCache resultCache;
+  private final LocalRuntimeFilterAggregator runtimeFilterAggregator;
 
   public DrillbitContext(
       DrillbitEndpoint endpoint,
@@ -113,6 +119,9 @@ public class DrillbitContext implements AutoCloseable {
         .getInstance(StoragePluginRegistry.STORAGE_PLUGIN_REGISTRY_IMPL, StoragePluginRegistry.class, this);
 
     reader = new PhysicalPlanReader(config, classpathScan, lpPersistence, endpoint, storagePlugins);
+    planCache = new PlanCache(config, reader, lpPersistence);
+    resultCache = new ResultCache(config);
+    runtimeFilterAggregator = new LocalRuntimeFilterAggregator(context.getAllocator());
     operatorCreatorRegistry = new OperatorCreatorRegistry(classpathScan);
     systemOptions = new SystemOptionManager(lpPersistence, provider, config, context.getDefinitions());
     functionRegistry = new FunctionImplementationRegistry(config, classpathScan, systemOptions);
@@ -230,6 +239,18 @@ public class DrillbitContext implements AutoCloseable {
     return reader;
   }
 
+  public PlanCache getPlanCache() {
+    return planCache;
+  }
+
+  public ResultCache getResultCache() {
+    return resultCache;
+  }
+
+  public LocalRuntimeFilterAggregator getRuntimeFilterAggregator() {
+    return runtimeFilterAggregator;
+  }
+
   public PersistentStoreProvider getStoreProvider() {
     return provider;
   }
@@ -300,6 +321,8 @@ public class DrillbitContext implements AutoCloseable {
     getRemoteFunctionRegistry().close();
     getCompiler().close();
     getMetastoreRegistry().close();
+    getResultCache().close();
+    getRuntimeFilterAggregator().close();
   }
 
   public ResourceManager getResourceManager() {
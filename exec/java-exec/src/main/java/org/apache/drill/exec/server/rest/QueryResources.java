@@ -41,6 +41,7 @@ import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.Produces;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
 
 import java.util.Collections;
@@ -90,6 +91,37 @@ public class QueryResources {
     }
   }
 
+  @POST
+  @Path("/query/stream.json")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  public Response submitQueryStreamingJSON(QueryWrapper query) throws Exception {
+    return streamQuery(query, StreamingQueryResult.Format.JSON);
+  }
+
+  @POST
+  @Path("/query/stream.csv")
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces("text/csv")
+  public Response submitQueryStreamingCSV(QueryWrapper query) throws Exception {
+    return streamQuery(query, StreamingQueryResult.Format.CSV);
+  }
+
+  /**
+   * Runs a query whose rows are written to the response as they are returned by the query.
+   * The session is cleaned up by the {@link StreamingQueryResult} once the results are written.
+   */
+  private Response streamQuery(QueryWrapper query, StreamingQueryResult.Format format) throws Exception {
+    try {
+      return Response.ok(query.stream(work, webUserConnection, format)).build();
+    } catch (Exception | Error e) {
+      webUserConnection.discardBatches();
+      // no-op for authenticated user
+      webUserConnection.cleanupSession();
+      throw e;
+    }
+  }
+
   @POST
   @Path("/query")
   @Consumes(MediaType.APPLICATION_FORM_URLENCODED)
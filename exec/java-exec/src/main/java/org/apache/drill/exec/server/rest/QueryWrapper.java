@@ -70,26 +70,10 @@ public class QueryWrapper {
   }
 
   public QueryResult run(final WorkManager workManager, final WebUserConnection webUserConnection) throws Exception {
-    final RunQuery runQuery = RunQuery.newBuilder().setType(getType())
-        .setPlan(getQuery())
-        .setResultsMode(QueryResultsMode.STREAM_FULL)
-        .setAutolimitRowcount(autoLimitRowCount)
-        .build();
-
-    int defaultMaxRows = webUserConnection.getSession().getOptions().getOption(ExecConstants.QUERY_MAX_ROWS).num_val.intValue();
-    int maxRows;
-    if (autoLimitRowCount > 0 && defaultMaxRows > 0) {
-      maxRows = Math.min(autoLimitRowCount, defaultMaxRows);
-    } else {
-      maxRows = Math.max(autoLimitRowCount, defaultMaxRows);
-    }
-    webUserConnection.setAutoLimitRowCount(maxRows);
-
     // Heap usage threshold/trigger to provide resiliency on web server for queries submitted via HTTP
     double memoryFailureThreshold = workManager.getContext().getConfig().getDouble(ExecConstants.HTTP_MEMORY_HEAP_FAILURE_THRESHOLD);
 
-    // Submit user query to Drillbit work queue.
-    final QueryId queryId = workManager.getUserWorker().submitWork(webUserConnection, runQuery);
+    final QueryId queryId = submit(workManager, webUserConnection);
 
     boolean isComplete = false;
     boolean nearlyOutOfHeapSpace = false;
@@ -131,6 +115,53 @@ public class QueryWrapper {
     return new QueryResult(queryId, webUserConnection, webUserConnection.results);
   }
 
+  /**
+   * Runs the query and returns its results as a stream written to the HTTP response batch by batch,
+   * so that the results are never held on heap as a whole. Waits for the first batch of results,
+   * so that a query failing to start is reported as the failure of the request.
+   */
+  public StreamingQueryResult stream(final WorkManager workManager, final WebUserConnection webUserConnection,
+                                     final StreamingQueryResult.Format format) throws Exception {
+    webUserConnection.streamResults(workManager.getContext().getConfig().getInt(ExecConstants.HTTP_STREAMING_QUEUE_SIZE));
+
+    final QueryId queryId = submit(workManager, webUserConnection);
+
+    boolean isComplete = false;
+    while (!isComplete && !webUserConnection.hasStreamedBatch()) {
+      try {
+        isComplete = webUserConnection.await(100);
+      } catch (InterruptedException e) {}
+    }
+
+    if (!webUserConnection.hasStreamedBatch() && webUserConnection.getError() != null) {
+      throw new UserRemoteException(webUserConnection.getError());
+    }
+    return new StreamingQueryResult(queryId, workManager, webUserConnection, format);
+  }
+
+  /**
+   * Submits the query to the Drillbit work queue.
+   */
+  private QueryId submit(final WorkManager workManager, final WebUserConnection webUserConnection) {
+    final RunQuery runQuery = RunQuery.newBuilder().setType(getType())
+        .setPlan(getQuery())
+        .setResultsMode(QueryResultsMode.STREAM_FULL)
+        .setAutolimitRowcount(autoLimitRowCount)
+        .build();
+
+    int defaultMaxRows = webUserConnection.getSession().getOptions().getOption(ExecConstants.QUERY_MAX_ROWS).num_val.intValue();
+    int maxRows;
+    if (autoLimitRowCount > 0 && defaultMaxRows > 0) {
+      maxRows = Math.min(autoLimitRowCount, defaultMaxRows);
+    } else {
+      maxRows = Math.max(autoLimitRowCount, defaultMaxRows);
+    }
+    webUserConnection.setAutoLimitRowCount(maxRows);
+
+    // Submit user query to Drillbit work queue.
+    return workManager.getUserWorker().submitWork(webUserConnection, runQuery);
+  }
+
   //Detect possible excess heap
   private float getHeapUsage() {
     return (float) memMXBean.getHeapMemoryUsage().getUsed() / memMXBean.getHeapMemoryUsage().getMax();
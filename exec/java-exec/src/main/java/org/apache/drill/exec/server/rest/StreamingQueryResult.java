@@ -0,0 +1,296 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.server.rest;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.DrillBuf;
+import org.apache.drill.common.types.TypeProtos;
+import org.apache.drill.exec.exception.SchemaChangeException;
+import org.apache.drill.exec.physical.impl.materialize.QueryWritableBatch;
+import org.apache.drill.exec.proto.UserBitShared.DrillPBError;
+import org.apache.drill.exec.proto.UserBitShared.QueryId;
+import org.apache.drill.exec.proto.helper.QueryIdHelper;
+import org.apache.drill.exec.record.BatchSchema;
+import org.apache.drill.exec.record.MaterializedField;
+import org.apache.drill.exec.record.RecordBatchLoader;
+import org.apache.drill.exec.record.VectorWrapper;
+import org.apache.drill.exec.server.rest.WebUserConnection.StreamedBatch;
+import org.apache.drill.exec.util.ValueVectorElementFormatter;
+import org.apache.drill.exec.vector.ValueVector.Accessor;
+import org.apache.drill.exec.work.WorkManager;
+
+import javax.ws.rs.core.StreamingOutput;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes the results of a query to the HTTP response as the batches arrive, instead of
+ * collecting them into a {@link QueryWrapper.QueryResult}. Each batch is acknowledged to the
+ * query only after its rows were written, so a slow client holds the query back rather than
+ * letting the results pile up on the heap of the Drillbit.
+ * <p>
+ * The JSON format has the fields of {@link QueryWrapper.QueryResult}, with the rows written
+ * before the final query state, followed by an <tt>errorMessage</tt> if the query failed
+ * after it started to return rows. The CSV format has a header line with the column names;
+ * since a failure cannot be reported in the data, the response is aborted instead.
+ * If the client goes away, the query is cancelled.
+ */
+public class StreamingQueryResult implements StreamingOutput {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(StreamingQueryResult.class);
+
+  private static final long POLL_MILLIS = 100;
+
+  public enum Format { JSON, CSV }
+
+  private final QueryId queryId;
+  private final WorkManager workManager;
+  private final WebUserConnection connection;
+  private final Format format;
+
+  public StreamingQueryResult(QueryId queryId, WorkManager workManager, WebUserConnection connection, Format format) {
+    this.queryId = queryId;
+    this.workManager = workManager;
+    this.connection = connection;
+    this.format = format;
+  }
+
+  @Override
+  public void write(OutputStream output) throws IOException {
+    boolean isComplete = false;
+    try {
+      final ResultWriter writer = format == Format.JSON
+          ? new JsonResultWriter(output)
+          : new CsvResultWriter(output);
+      final ValueVectorElementFormatter formatter = new ValueVectorElementFormatter(connection.getSession().getOptions());
+      // The query only completes once all its batches were acknowledged
+      while (!isComplete || connection.hasStreamedBatch()) {
+        final StreamedBatch batch = connection.pollBatch(POLL_MILLIS);
+        if (batch == null) {
+          isComplete = connection.await(0);
+          continue;
+        }
+        try {
+          writeBatch(writer, formatter, batch.getBatch());
+        } finally {
+          batch.ack();
+        }
+      }
+      writer.finish(connection.getQueryState(), connection.getError());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while streaming the results of query " + QueryIdHelper.getQueryId(queryId), e);
+    } finally {
+      if (!isComplete) {
+        logger.info("Cancelling query {}, its results could not be written to the client",
+            QueryIdHelper.getQueryId(queryId));
+        workManager.getUserWorker().cancelQuery(queryId);
+      }
+      connection.discardBatches();
+      // no-op for authenticated user
+      connection.cleanupSession();
+    }
+  }
+
+  private void writeBatch(ResultWriter writer, ValueVectorElementFormatter formatter,
+                          QueryWritableBatch batch) throws IOException {
+    final int dataByteCount = (int) batch.getByteCount();
+    if (dataByteCount < 0) {
+      logger.debug("There is BufferOverflow in dataByteCount: {}", dataByteCount);
+      return;
+    }
+    final RecordBatchLoader loader = new RecordBatchLoader(connection.webSessionResources.getAllocator());
+    final DrillBuf bufferWithData = connection.webSessionResources.getAllocator().buffer(dataByteCount);
+    try {
+      for (ByteBuf buffer : batch.getBuffers()) {
+        bufferWithData.writeBytes(buffer);
+      }
+      loader.load(batch.getHeader().getDef(), bufferWithData);
+      writer.startBatch(loader.getSchema());
+      final int rows = batch.getHeader().getRowCount();
+      final String[] values = new String[loader.getSchema().getFieldCount()];
+      for (int i = 0; i < rows; ++i) {
+        int column = 0;
+        for (VectorWrapper<?> vw : loader) {
+          final TypeProtos.MinorType fieldMinorType = vw.getValueVector().getMetadata().getMajorType().getMinorType();
+          final Accessor accessor = vw.getValueVector().getAccessor();
+          final Object value = i < accessor.getValueCount() ? accessor.getObject(i) : null;
+          values[column++] = value == null ? null : formatter.format(value, fieldMinorType);
+        }
+        writer.writeRow(loader.getSchema(), values);
+      }
+      // Hands the rows of the batch to the client before the query is let to send more
+      writer.flush();
+    } catch (SchemaChangeException e) {
+      throw new IOException("Failed to load a batch of query " + QueryIdHelper.getQueryId(queryId), e);
+    } finally {
+      loader.clear();
+      bufferWithData.release();
+    }
+  }
+
+  private interface ResultWriter {
+
+    /**
+     * Called with the schema of each batch before its rows.
+     */
+    void startBatch(BatchSchema schema) throws IOException;
+
+    void writeRow(BatchSchema schema, String[] values) throws IOException;
+
+    void flush() throws IOException;
+
+    /**
+     * Ends the response once the query is done, with the error of the query if it failed.
+     */
+    void finish(String queryState, DrillPBError error) throws IOException;
+  }
+
+  private class JsonResultWriter implements ResultWriter {
+    private final JsonGenerator generator;
+    private boolean started;
+
+    JsonResultWriter(OutputStream output) throws IOException {
+      generator = new JsonFactory().createGenerator(output, JsonEncoding.UTF8);
+      generator.writeStartObject();
+      generator.writeStringField("queryId", QueryIdHelper.getQueryId(queryId));
+    }
+
+    @Override
+    public void startBatch(BatchSchema schema) throws IOException {
+      if (started) {
+        return;
+      }
+      generator.writeArrayFieldStart("columns");
+      for (MaterializedField col : schema) {
+        generator.writeString(col.getName());
+      }
+      generator.writeEndArray();
+      generator.writeArrayFieldStart("metadata");
+      for (MaterializedField col : schema) {
+        generator.writeString(WebUserConnection.getDataType(col));
+      }
+      generator.writeEndArray();
+      generator.writeArrayFieldStart("rows");
+      started = true;
+    }
+
+    @Override
+    public void writeRow(BatchSchema schema, String[] values) throws IOException {
+      generator.writeStartObject();
+      for (int i = 0; i < values.length; i++) {
+        generator.writeStringField(schema.getColumn(i).getName(), values[i]);
+      }
+      generator.writeEndObject();
+    }
+
+    @Override
+    public void flush() throws IOException {
+      generator.flush();
+    }
+
+    @Override
+    public void finish(String queryState, DrillPBError error) throws IOException {
+      if (!started) {
+        generator.writeArrayFieldStart("columns");
+        generator.writeEndArray();
+        generator.writeArrayFieldStart("metadata");
+        generator.writeEndArray();
+        generator.writeArrayFieldStart("rows");
+      }
+      generator.writeEndArray();
+      generator.writeStringField("queryState", queryState);
+      generator.writeNumberField("attemptedAutoLimit", connection.getAutoLimitRowCount());
+      if (error != null) {
+        generator.writeStringField("errorMessage", error.getMessage());
+      }
+      generator.writeEndObject();
+      generator.flush();
+    }
+  }
+
+  private static class CsvResultWriter implements ResultWriter {
+    private final Writer writer;
+    private boolean started;
+
+    CsvResultWriter(OutputStream output) {
+      writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void startBatch(BatchSchema schema) throws IOException {
+      if (started) {
+        return;
+      }
+      final String[] names = new String[schema.getFieldCount()];
+      for (int i = 0; i < names.length; i++) {
+        names[i] = schema.getColumn(i).getName();
+      }
+      writeLine(names);
+      started = true;
+    }
+
+    @Override
+    public void writeRow(BatchSchema schema, String[] values) throws IOException {
+      writeLine(values);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      writer.flush();
+    }
+
+    @Override
+    public void finish(String queryState, DrillPBError error) throws IOException {
+      writer.flush();
+      if (error != null) {
+        throw new IOException("Query failed: " + error.getMessage());
+      }
+    }
+
+    /**
+     * Writes a line as described in RFC 4180; null values are written as empty fields.
+     */
+    private void writeLine(String[] values) throws IOException {
+      for (int i = 0; i < values.length; i++) {
+        if (i > 0) {
+          writer.write(',');
+        }
+        final String value = values[i];
+        if (value == null) {
+          continue;
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+          writer.write('"');
+          writer.write(value.replace("\"", "\"\""));
+          writer.write('"');
+        } else {
+          writer.write(value);
+        }
+      }
+      writer.write("\r\n");
+    }
+  }
+}
@@ -39,12 +39,16 @@ import org.apache.drill.exec.rpc.RpcOutcomeListener;
 import org.apache.drill.exec.rpc.user.UserSession;
 import org.apache.drill.exec.vector.ValueVector.Accessor;
 import org.apache.drill.exec.record.MaterializedField;
+import org.apache.drill.exec.work.fragment.FragmentScheduler;
 
 import java.net.SocketAddress;
 import java.util.List;
 import java.util.Map;
 import java.util.ArrayList;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
  * WebUserConnectionWrapper which represents the UserClientConnection between WebServer and Foreman, for the WebUser
@@ -71,6 +75,14 @@ public class WebUserConnection extends AbstractDisposableUserClientConnection im
 
   private int autoLimitRowCount;
 
+  /**
+   * Batches waiting to be written by a {@link StreamingQueryResult}, set only when the results
+   * of the query are streamed instead of being collected in {@link #results}.
+   */
+  private BlockingQueue<StreamedBatch> streamedBatches;
+
+  private volatile boolean discardBatches;
+
   WebUserConnection(WebSessionResources webSessionResources) {
     this.webSessionResources = webSessionResources;
   }
@@ -82,6 +94,11 @@ public class WebUserConnection extends AbstractDisposableUserClientConnection im
 
   @Override
   public void sendData(RpcOutcomeListener<Ack> listener, QueryWritableBatch result) {
+    if (streamedBatches != null) {
+      queueBatch(new StreamedBatch(listener, result));
+      return;
+    }
+
     // There can be overflow here but DrillBuf doesn't support allocating with
     // bytes in long. Hence we are just preserving the earlier behavior and logging debug log for the case.
     final int dataByteCount = (int) result.getByteCount();
@@ -116,26 +133,7 @@ public class WebUserConnection extends AbstractDisposableUserClientConnection im
           //DRILL-6847:  This section adds query metadata to the REST results
           MaterializedField col = loader.getSchema().getColumn(i);
           columns.add(col.getName());
-          StringBuilder dataType = new StringBuilder(col.getType().getMinorType().name());
-
-          //For DECIMAL type
-          if (col.getType().hasPrecision()) {
-            dataType.append("(");
-            dataType.append(col.getType().getPrecision());
-
-            if (col.getType().hasScale()) {
-              dataType.append(", ");
-              dataType.append(col.getType().getScale());
-            }
-
-            dataType.append(")");
-          } else if (col.getType().hasWidth()) {
-            //Case for VARCHAR columns with specified width
-            dataType.append("(");
-            dataType.append(col.getType().getWidth());
-            dataType.append(")");
-          }
-          metadata.add(dataType.toString());
+          metadata.add(getDataType(col));
         }
         ValueVectorElementFormatter formatter = new ValueVectorElementFormatter(webSessionResources.getSession().getOptions());
         for (int i = 0; i < rows; ++i) {
@@ -166,6 +164,95 @@ public class WebUserConnection extends AbstractDisposableUserClientConnection im
     }
   }
 
+  /**
+   * Returns the type of a column as shown in the metadata of the REST results.
+   */
+  static String getDataType(MaterializedField col) {
+    StringBuilder dataType = new StringBuilder(col.getType().getMinorType().name());
+
+    //For DECIMAL type
+    if (col.getType().hasPrecision()) {
+      dataType.append("(");
+      dataType.append(col.getType().getPrecision());
+
+      if (col.getType().hasScale()) {
+        dataType.append(", ");
+        dataType.append(col.getType().getScale());
+      }
+
+      dataType.append(")");
+    } else if (col.getType().hasWidth()) {
+      //Case for VARCHAR columns with specified width
+      dataType.append("(");
+      dataType.append(col.getType().getWidth());
+      dataType.append(")");
+    }
+    return dataType.toString();
+  }
+
+  /**
+   * Makes the batches of the query wait in a queue of the given capacity until
+   * {@link #pollBatch(long)} takes them, instead of collecting their rows in {@link #results}.
+   * A batch is only acknowledged once it was written to the client, so a query
+   * whose results are read slowly is held back by the usual flow control of the
+   * screen operator rather than by buffering the results on heap.
+   * Must be called before the query is submitted.
+   */
+  void streamResults(int capacity) {
+    streamedBatches = new ArrayBlockingQueue<>(capacity);
+  }
+
+  boolean hasStreamedBatch() {
+    return !streamedBatches.isEmpty();
+  }
+
+  /**
+   * Takes the next batch of a streamed query, waiting at most the given time.
+   *
+   * @return the batch, or null if none arrived in time. The caller must
+   * {@link StreamedBatch#ack()} the batch once done with it.
+   */
+  StreamedBatch pollBatch(long timeoutMillis) throws InterruptedException {
+    return streamedBatches.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Releases and acknowledges the queued batches and all the batches arriving later,
+   * used once the client of a streamed query went away or the query is done.
+   */
+  void discardBatches() {
+    discardBatches = true;
+    if (streamedBatches != null) {
+      drainBatches();
+    }
+  }
+
+  private void drainBatches() {
+    StreamedBatch batch;
+    while ((batch = streamedBatches.poll()) != null) {
+      batch.ack();
+    }
+  }
+
+  private void queueBatch(StreamedBatch batch) {
+    try {
+      // Called on the thread of the screen fragment, which waits here while the client is behind
+      boolean queued = false;
+      while (!queued && !discardBatches) {
+        queued = FragmentScheduler.managedCall(() -> streamedBatches.offer(batch, 1, TimeUnit.SECONDS));
+      }
+      if (!queued) {
+        batch.ack();
+      } else if (discardBatches) {
+        // The batches may have been discarded right before this one was queued
+        drainBatches();
+      }
+    } catch (InterruptedException e) {
+      batch.ack();
+      Thread.currentThread().interrupt();
+    }
+  }
+
   @Override
   public ChannelFuture getChannelClosureFuture() {
     return webSessionResources.getCloseFuture();
@@ -204,6 +291,33 @@ public class WebUserConnection extends AbstractDisposableUserClientConnection im
     }
   }
 
+  /**
+   * A batch of a streamed query, holding back the acknowledgement of the batch until it was written.
+   */
+  static class StreamedBatch {
+    private final RpcOutcomeListener<Ack> listener;
+    private final QueryWritableBatch batch;
+
+    StreamedBatch(RpcOutcomeListener<Ack> listener, QueryWritableBatch batch) {
+      this.listener = listener;
+      this.batch = batch;
+    }
+
+    QueryWritableBatch getBatch() {
+      return batch;
+    }
+
+    /**
+     * Releases the buffers of the batch and lets the query send the next one.
+     */
+    void ack() {
+      for (ByteBuf buffer : batch.getBuffers()) {
+        buffer.release();
+      }
+      listener.success(Acks.OK, null);
+    }
+  }
+
   /**
    * Sets an autolimit on the size of records to be sent back on the connection
    * @param autoLimitRowCount Max number of records to be sent back to WebServer
@@ -22,11 +22,17 @@ import org.apache.drill.exec.ops.FragmentContext;
 import org.apache.drill.exec.ops.MetricDef;
 import org.apache.drill.exec.ops.OperatorContext;
 import org.apache.drill.exec.store.parquet.ParquetReaderStats;
+import org.apache.drill.exec.work.filter.RangeFilterAware;
+import org.apache.drill.exec.work.filter.StatisticsFilter;
 import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
 import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.PrimitiveType;
 import org.slf4j.Logger;
 
-public abstract class CommonParquetRecordReader extends AbstractRecordReader {
+public abstract class CommonParquetRecordReader extends AbstractRecordReader implements RangeFilterAware {
 
   /** Set when caller wants to read all the rows contained within the Parquet file */
   public static final int NUM_RECORDS_TO_READ_NOT_SPECIFIED = -1;
@@ -71,13 +77,64 @@ public abstract class CommonParquetRecordReader extends AbstractRecordReader {
     TIME_DISK_SCAN,                // Time in nanos spent in reading data from disk.
     TIME_FIXEDCOLUMN_READ,         // Time in nanos spent in converting fixed width data to value vectors
     TIME_VARCOLUMN_READ,           // Time in nanos spent in converting varwidth data to value vectors
-    TIME_PROCESS;                  // Time in nanos spent in processing
+    TIME_PROCESS,                  // Time in nanos spent in processing
+    NUM_DATA_PAGES_SKIPPED,        // Number of data pages left out by page-level filtering
+    ROWGROUPS_RUNTIME_FILTERED;    // Number of rowgroups skipped by the range filter of a hash join or a Top-N cutoff
 
     @Override public int metricId() {
       return ordinal();
     }
   }
 
+  /**
+   * @return index of the row group read in the file
+   */
+  public abstract int getRowGroupIndex();
+
+  /**
+   * Compares the filter with the statistics of the top level integer, timestamp and floating
+   * point columns of the row group.
+   */
+  @Override
+  public boolean canSkip(StatisticsFilter filter, OperatorContext context) {
+    for (ColumnChunkMetaData column : footer.getBlocks().get(getRowGroupIndex()).getColumns()) {
+      String[] path = column.getPath().toArray();
+      Statistics<?> statistics = column.getStatistics();
+      if (path.length != 1 || !hasNumericStatistics(column.getPrimitiveType())
+          || statistics == null || statistics.isEmpty() || !statistics.hasNonNullValue()) {
+        continue;
+      }
+      Object min = statistics.genericGetMin();
+      Object max = statistics.genericGetMax();
+      if (min instanceof Number && max instanceof Number
+          && !filter.canMatch(path[0], (Number) min, (Number) max, statistics.getNumNulls() != 0)) {
+        context.getStats().addLongStat(Metric.ROWGROUPS_RUNTIME_FILTERED, 1);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Dates, times, decimals and unsigned integers are stored as integers whose statistics
+   * do not compare with the values Drill reads. Timestamps in milliseconds do.
+   */
+  private static boolean hasNumericStatistics(PrimitiveType type) {
+    OriginalType originalType = type.getOriginalType();
+    switch (type.getPrimitiveTypeName()) {
+      case INT32:
+      case INT64:
+        return originalType == null || originalType == OriginalType.INT_8 || originalType == OriginalType.INT_16
+            || originalType == OriginalType.INT_32 || originalType == OriginalType.INT_64
+            || originalType == OriginalType.TIMESTAMP_MILLIS;
+      case FLOAT:
+      case DOUBLE:
+        return originalType == null;
+      default:
+        return false;
+    }
+  }
+
   protected void closeStats(Logger logger, Path hadoopPath) {
     if (parquetReaderStats != null) {
       if ( operatorContext != null ) {
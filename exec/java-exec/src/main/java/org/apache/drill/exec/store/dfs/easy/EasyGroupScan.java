@@ -57,6 +57,7 @@ import org.apache.drill.shaded.guava.com.google.common.base.Preconditions;
 import org.apache.drill.shaded.guava.com.google.common.collect.Iterators;
 import org.apache.drill.shaded.guava.com.google.common.collect.ListMultimap;
 import org.apache.drill.shaded.guava.com.google.common.collect.Lists;
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.Path;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -184,6 +185,11 @@ public class EasyGroupScan extends AbstractFileGroupScan {
     return selectionRoot;
   }
 
+  @Override
+  protected Configuration getFsConf() {
+    return formatPlugin.getFsConf();
+  }
+
   @Override
   @JsonIgnore
   public int getMinParallelizationWidth() {
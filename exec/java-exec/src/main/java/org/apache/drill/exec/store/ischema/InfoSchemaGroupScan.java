@@ -110,6 +110,15 @@ public class InfoSchemaGroupScan extends AbstractGroupScan {
     return table.toString() + ", filter=" + filter;
   }
 
+  /**
+   * Information schema tables are read when the query runs, so their plans
+   * never go stale.
+   */
+  @Override
+  public String getMetadataVersion() {
+    return "";
+  }
+
   @Override
   public GroupScan clone(List<SchemaPath> columns) {
     return new InfoSchemaGroupScan(this);
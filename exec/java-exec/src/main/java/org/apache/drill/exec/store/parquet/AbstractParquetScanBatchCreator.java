@@ -109,6 +109,10 @@ public abstract class AbstractParquetScanBatchCreator {
       long totalPruneTime = 0;
       long totalRowGroups = rowGroupScan.getRowGroupReadEntries().size();
       Stopwatch pruneTimer = Stopwatch.createUnstarted();
+      // Page-level filtering applies to the row groups kept by run-time pruning, read by the flat reader
+      boolean doPageFiltering = context.getOptions().getBoolean(ExecConstants.PARQUET_FLAT_READER_PAGE_FILTER)
+          && !context.getOptions().getBoolean(ExecConstants.PARQUET_NEW_RECORD_READER);
+      boolean doDictionaryFiltering = context.getOptions().getBoolean(ExecConstants.PARQUET_READER_DICTIONARY_FILTER);
 
       // If pruning - Prepare the predicate and the columns before the FOR LOOP
       if (doRuntimePruning) {
@@ -154,6 +158,7 @@ public abstract class AbstractParquetScanBatchCreator {
           footers.put(rowGroup.getPath(), footer);
         }
         ParquetMetadata footer = footers.get(rowGroup.getPath());
+        ParquetPageFilter.RowRange rowRange = null;
 
         //
         //   If a filter is given (and it is not just "TRUE") - then use it to perform run-time pruning
@@ -211,6 +216,23 @@ public abstract class AbstractParquetScanBatchCreator {
 
               matchResult = FilterEvaluatorUtils.matches(filterPredicate, columnsStatistics, footerRowCount, rowGroupSchema, schemaPathsInExpr);
 
+              // The min/max statistics could not prune the row group, its dictionaries may
+              if (doDictionaryFiltering && matchResult == RowsMatch.SOME
+                  && ParquetDictionaryFilter.canDrop(fs, rowGroup.getPath(), footer, rowGroupIndex,
+                      filterPredicate, columnsStatistics, rowGroupSchema, schemaPathsInExpr,
+                      ParquetReaderUtility.detectCorruptDates(footer, rowGroupScan.getColumns(),
+                          readerConfig.autoCorrectCorruptedDates()))) {
+                matchResult = RowsMatch.NONE;
+              }
+
+              if (doPageFiltering && matchResult == RowsMatch.SOME
+                  && (rowGroup.getNumRecordsToRead() == CommonParquetRecordReader.NUM_RECORDS_TO_READ_NOT_SPECIFIED
+                      || rowGroup.getNumRecordsToRead() >= footerRowCount)
+                  && !ParquetReaderUtility.containsComplexColumn(footer, rowGroupScan.getColumns())) {
+                rowRange = ParquetPageFilter.getRowRange(fs, rowGroup.getPath(), footer, rowGroupIndex,
+                    rowGroupScan.getColumns(), filterPredicate, columnsStatistics, rowGroupSchema, schemaPathsInExpr);
+              }
+
               // collect logging info
               long timeToRead = pruneTimer.elapsed(TimeUnit.MICROSECONDS);
               totalPruneTime += timeToRead;
@@ -237,14 +259,14 @@ public abstract class AbstractParquetScanBatchCreator {
           }
         }
 
-        mapWithMaxColumns = createReaderAndImplicitColumns(context, rowGroupScan, oContext, columnExplorer, readers, implicitColumns, mapWithMaxColumns, rowGroup, fs, footer, false);
+        mapWithMaxColumns = createReaderAndImplicitColumns(context, rowGroupScan, oContext, columnExplorer, readers, implicitColumns, mapWithMaxColumns, rowGroup, fs, footer, false, rowRange);
       }
 
       // in case all row groups were pruned out - create a single reader for the first one (so that the schema could be returned)
       if (readers.isEmpty() && firstRowGroup != null) {
         DrillFileSystem fs = fsManager.get(rowGroupScan.getFsConf(firstRowGroup), firstRowGroup.getPath());
         mapWithMaxColumns = createReaderAndImplicitColumns(context, rowGroupScan, oContext, columnExplorer, readers, implicitColumns, mapWithMaxColumns, firstRowGroup, fs,
-          firstFooter, true);
+          firstFooter, true, null);
       }
       // do some logging, if relevant
       if (totalPruneTime > 0)  {
@@ -284,6 +306,7 @@ public abstract class AbstractParquetScanBatchCreator {
    * @param fs file system
    * @param footer this file's footer
    * @param readSchemaOnly if true sets the number of rows to read to be zero
+   * @param rowRange the rows left to read by page-level filtering, or null to read the whole row group
    * @return the (possibly modified) input mapWithMaxColumns
    */
   private Map<String, String> createReaderAndImplicitColumns(ExecutorFragmentContext context,
@@ -296,7 +319,8 @@ public abstract class AbstractParquetScanBatchCreator {
                                                              RowGroupReadEntry rowGroup,
                                                              DrillFileSystem fs,
                                                              ParquetMetadata footer,
-                                                             boolean readSchemaOnly) {
+                                                             boolean readSchemaOnly,
+                                                             ParquetPageFilter.RowRange rowRange) {
     ParquetReaderConfig readerConfig = rowGroupScan.getReaderConfig();
     ParquetReaderUtility.DateCorruptionStatus containsCorruptDates = ParquetReaderUtility.detectCorruptDates(footer,
       rowGroupScan.getColumns(), readerConfig.autoCorrectCorruptedDates());
@@ -320,7 +344,7 @@ public abstract class AbstractParquetScanBatchCreator {
         containsCorruptDates,
         recordsToRead);
     } else {
-      reader = new ParquetRecordReader(context,
+      ParquetRecordReader parquetRecordReader = new ParquetRecordReader(context,
         rowGroup.getPath(),
         rowGroup.getRowGroupIndex(),
         recordsToRead,
@@ -329,6 +353,11 @@ public abstract class AbstractParquetScanBatchCreator {
         footer,
         rowGroupScan.getColumns(),
         containsCorruptDates);
+      // page statistics of dates are not corrected, the pages are read when they may be corrupted
+      if (rowRange != null && containsCorruptDates != ParquetReaderUtility.DateCorruptionStatus.META_SHOWS_CORRUPTION) {
+        parquetRecordReader.setRowRange(rowRange);
+      }
+      reader = parquetRecordReader;
     }
 
     logger.debug("Query {} uses {}",
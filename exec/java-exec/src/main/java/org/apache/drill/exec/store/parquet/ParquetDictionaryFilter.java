@@ -0,0 +1,232 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.parquet;
+
+import org.apache.drill.common.expression.SchemaPath;
+import org.apache.drill.common.types.TypeProtos;
+import org.apache.drill.exec.expr.FilterPredicate;
+import org.apache.drill.exec.expr.StatisticsProvider;
+import org.apache.drill.exec.expr.stat.RowsMatch;
+import org.apache.drill.exec.record.metadata.TupleMetadata;
+import org.apache.drill.metastore.statistics.ColumnStatistics;
+import org.apache.drill.metastore.statistics.ColumnStatisticsKind;
+import org.apache.drill.metastore.statistics.Statistic;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.Dictionary;
+import org.apache.parquet.column.Encoding;
+import org.apache.parquet.column.EncodingStats;
+import org.apache.parquet.column.page.DictionaryPage;
+import org.apache.parquet.format.PageHeader;
+import org.apache.parquet.format.PageType;
+import org.apache.parquet.format.Util;
+import org.apache.parquet.hadoop.CodecFactory;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.PrimitiveType;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Row group pruning based on the dictionaries of the filter columns, for the row groups that
+ * run-time pruning could not prune with the min/max statistics.
+ * <p>
+ * When every page of a filter column is dictionary-encoded, the dictionary holds all the values
+ * of the column in the row group. The filter predicate is evaluated for each value of the dictionary,
+ * as if the column held that value only, and against all nulls if the column has nulls. If the filter
+ * matches none of them, no row of the row group can match. This prunes row groups whose values lie
+ * within the min/max range of the filter, such as <tt>col = 'x'</tt>, <tt>col IN ('x', 'y')</tt>
+ * or <tt>col LIKE 'x%'</tt> over a column of unordered, low cardinality values.
+ * <p>
+ * The dictionary values of DATE columns are corrected as the reader corrects the values it reads.
+ * Files whose metadata shows corrupt dates are not filtered at all, as for the page filter.
+ */
+public class ParquetDictionaryFilter {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ParquetDictionaryFilter.class);
+
+  private ParquetDictionaryFilter() {
+  }
+
+  /**
+   * Checks the dictionaries of the filter columns of a row group.
+   *
+   * @param fs file system of the file
+   * @param path path of the file
+   * @param footer footer of the file
+   * @param rowGroupIndex index of the row group in the file
+   * @param filterPredicate the filter predicate built for the row group schema
+   * @param columnsStatistics the statistics of the row group, used for run-time pruning
+   * @param schema the schema of the row group
+   * @param schemaPathsInExpr the columns of the filter
+   * @param dateCorruptionStatus whether the DATE values of the file are corrupt, as detected for the reader
+   * @return true if a dictionary shows that no row of the row group matches the filter
+   */
+  public static boolean canDrop(FileSystem fs, Path path, ParquetMetadata footer, int rowGroupIndex,
+                                FilterPredicate<?> filterPredicate, Map<SchemaPath, ColumnStatistics<?>> columnsStatistics,
+                                TupleMetadata schema, Set<SchemaPath> schemaPathsInExpr,
+                                ParquetReaderUtility.DateCorruptionStatus dateCorruptionStatus) throws IOException {
+    if (dateCorruptionStatus == ParquetReaderUtility.DateCorruptionStatus.META_SHOWS_CORRUPTION) {
+      return false;
+    }
+    BlockMetaData rowGroup = footer.getBlocks().get(rowGroupIndex);
+    MessageType fileSchema = footer.getFileMetaData().getSchema();
+    long rowCount = rowGroup.getRowCount();
+    CodecFactory codecFactory = null;
+    FSDataInputStream in = null;
+    try {
+      for (ColumnChunkMetaData chunk : rowGroup.getColumns()) {
+        String[] chunkPath = chunk.getPath().toArray();
+        SchemaPath filterColumn = ParquetPageFilter.findStatisticsKey(columnsStatistics, schemaPathsInExpr, chunkPath[0]);
+        if (filterColumn == null || chunkPath.length > 1 || hasNonDictionaryPages(chunk)) {
+          continue;
+        }
+        ColumnDescriptor descriptor = fileSchema.getColumnDescription(chunkPath);
+        if (descriptor.getMaxRepetitionLevel() > 0 || descriptor.getType() == PrimitiveType.PrimitiveTypeName.INT96) {
+          continue;
+        }
+        if (in == null) {
+          in = fs.open(path);
+          codecFactory = new CodecFactory(fs.getConf(), 0);
+        }
+        Dictionary dictionary = readDictionary(in, chunk, descriptor, codecFactory);
+        if (dictionary != null && !anyMatch(dictionary, descriptor, fileSchema, filterColumn, filterPredicate,
+            columnsStatistics, rowCount, schema, schemaPathsInExpr, dateCorruptionStatus)) {
+          logger.debug("Dictionary of column {} has no value matching the filter, pruning row group {} of {}",
+              filterColumn, rowGroupIndex, path);
+          return true;
+        }
+      }
+    } finally {
+      if (codecFactory != null) {
+        codecFactory.release();
+      }
+      if (in != null) {
+        in.close();
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Evaluates the filter for each value of the dictionary of a column, and for nulls if the column may have any.
+   */
+  private static boolean anyMatch(Dictionary dictionary, ColumnDescriptor descriptor, MessageType fileSchema,
+                                  SchemaPath filterColumn, FilterPredicate<?> filterPredicate,
+                                  Map<SchemaPath, ColumnStatistics<?>> columnsStatistics, long rowCount,
+                                  TupleMetadata schema, Set<SchemaPath> schemaPathsInExpr,
+                                  ParquetReaderUtility.DateCorruptionStatus dateCorruptionStatus) {
+    PrimitiveType type = fileSchema.getType(descriptor.getPath()).asPrimitiveType();
+    PrimitiveType.PrimitiveTypeName primitiveType = type.getPrimitiveTypeName();
+    OriginalType originalType = type.getOriginalType();
+    TypeProtos.MinorType minorType = ParquetReaderUtility.getMinorType(primitiveType, originalType);
+
+    Map<SchemaPath, ColumnStatistics<?>> valueStatistics = new HashMap<>(columnsStatistics);
+    ColumnStatistics<?> chunkStatistics = columnsStatistics.get(filterColumn);
+    Long nulls = chunkStatistics != null ? ColumnStatisticsKind.NULLS_COUNT.getFrom(chunkStatistics) : null;
+    if (nulls == null || nulls == Statistic.NO_COLUMN_STATS || nulls > 0) {
+      valueStatistics.put(filterColumn, StatisticsProvider.getColumnStatistics(null, null, rowCount, minorType));
+      if (FilterEvaluatorUtils.matches(filterPredicate, valueStatistics, rowCount, schema, schemaPathsInExpr) != RowsMatch.NONE) {
+        return true;
+      }
+    }
+    // Without metadata telling, the reader corrects the dates too far in the future to be correct ones
+    boolean testDates = originalType == OriginalType.DATE
+        && dateCorruptionStatus == ParquetReaderUtility.DateCorruptionStatus.META_UNCLEAR_TEST_VALUES;
+    for (int id = 0; id <= dictionary.getMaxId(); id++) {
+      Object decoded = decode(dictionary, id, primitiveType);
+      if (testDates && (Integer) decoded > ParquetReaderUtility.DATE_CORRUPTION_THRESHOLD) {
+        decoded = ParquetReaderUtility.autoCorrectCorruptedDate((Integer) decoded);
+      }
+      Object value = ParquetTableMetadataUtils.getValue(decoded, primitiveType, originalType);
+      valueStatistics.put(filterColumn, StatisticsProvider.getColumnStatistics(value, value, 0, minorType));
+      if (FilterEvaluatorUtils.matches(filterPredicate, valueStatistics, rowCount, schema, schemaPathsInExpr) != RowsMatch.NONE) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static Object decode(Dictionary dictionary, int id, PrimitiveType.PrimitiveTypeName primitiveType) {
+    switch (primitiveType) {
+      case INT32:
+        return dictionary.decodeToInt(id);
+      case INT64:
+        return dictionary.decodeToLong(id);
+      case FLOAT:
+        return dictionary.decodeToFloat(id);
+      case DOUBLE:
+        return dictionary.decodeToDouble(id);
+      default:
+        return dictionary.decodeToBinary(id);
+    }
+  }
+
+  /**
+   * Reads the dictionary page of a column chunk.
+   *
+   * @return the dictionary, or null if the chunk does not start with a dictionary page
+   */
+  private static Dictionary readDictionary(FSDataInputStream in, ColumnChunkMetaData chunk,
+                                           ColumnDescriptor descriptor, CodecFactory codecFactory) throws IOException {
+    in.seek(chunk.getStartingPos());
+    PageHeader pageHeader = Util.readPageHeader(in);
+    if (pageHeader.getType() != PageType.DICTIONARY_PAGE) {
+      return null;
+    }
+    byte[] data = new byte[pageHeader.getCompressed_page_size()];
+    in.readFully(data);
+    BytesInput bytes = codecFactory.getDecompressor(chunk.getCodec())
+        .decompress(BytesInput.from(data), pageHeader.getUncompressed_page_size());
+    DictionaryPage page = new DictionaryPage(
+        bytes,
+        pageHeader.getUncompressed_page_size(),
+        pageHeader.getDictionary_page_header().getNum_values(),
+        ParquetFormatPlugin.parquetMetadataConverter.getEncoding(pageHeader.getDictionary_page_header().getEncoding()));
+    return page.getEncoding().initDictionary(descriptor, page);
+  }
+
+  /**
+   * Checks whether some pages of a column chunk are not dictionary-encoded, as Parquet's own
+   * dictionary filter does: from the encoding stats when the writer gave them, else from the
+   * encodings of the chunk, which only tell for the Parquet 1.0 encodings.
+   */
+  private static boolean hasNonDictionaryPages(ColumnChunkMetaData chunk) {
+    EncodingStats stats = chunk.getEncodingStats();
+    if (stats != null) {
+      return stats.hasNonDictionaryEncodedPages();
+    }
+    Set<Encoding> encodings = new HashSet<>(chunk.getEncodings());
+    if (!encodings.remove(Encoding.PLAIN_DICTIONARY)) {
+      return true;
+    }
+    // RLE and BIT_PACKED are the encodings of the repetition and definition levels
+    encodings.remove(Encoding.RLE);
+    encodings.remove(Encoding.BIT_PACKED);
+    return !encodings.isEmpty();
+  }
+}
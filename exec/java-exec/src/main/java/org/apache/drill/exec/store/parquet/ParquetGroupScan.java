@@ -49,6 +49,7 @@ import org.apache.drill.exec.store.StoragePluginRegistry;
 import org.apache.drill.exec.store.dfs.FileSelection;
 import org.apache.drill.exec.store.dfs.ReadEntryWithPath;
 import org.apache.drill.exec.util.ImpersonationUtil;
+import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.FileStatus;
 import org.apache.hadoop.fs.Path;
 
@@ -209,6 +210,11 @@ public class ParquetGroupScan extends AbstractParquetGroupScan {
     return cacheFileRoot;
   }
 
+  @Override
+  protected Configuration getFsConf() {
+    return formatPlugin.getFsConf();
+  }
+
   @JsonProperty
   @JsonIgnore(value = false)
   @Override
@@ -0,0 +1,378 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.parquet;
+
+import org.apache.drill.common.expression.SchemaPath;
+import org.apache.drill.common.types.TypeProtos;
+import org.apache.drill.exec.expr.FilterPredicate;
+import org.apache.drill.exec.expr.stat.RowsMatch;
+import org.apache.drill.exec.record.metadata.TupleMetadata;
+import org.apache.drill.exec.util.Utilities;
+import org.apache.drill.metastore.statistics.ColumnStatistics;
+import org.apache.drill.metastore.statistics.ColumnStatisticsKind;
+import org.apache.drill.metastore.statistics.Statistic;
+import org.apache.drill.metastore.statistics.StatisticsHolder;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.format.PageHeader;
+import org.apache.parquet.format.Util;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.PrimitiveType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Page-level filtering of a row group that run-time pruning kept, based on the statistics
+ * of the data pages of the filter columns.
+ * <p>
+ * The Parquet library in use does not expose column and offset indexes, so the statistics
+ * are taken from the page headers instead, which are read before the row group is scanned.
+ * The rows of the row group are split at every page boundary of the filter columns and the
+ * filter predicate is evaluated against the page statistics of each range. Only the rows
+ * from the first to the last range that may match are read: the reader skips the leading
+ * pages without reading them, up to a row where every column read starts a new page, and
+ * stops reading at the end of the last range, so that the trailing pages are never read.
+ * This suits filters on columns sorted within the row group, such as timestamps.
+ * <p>
+ * Applies only to flat columns and <tt>DATA_PAGE</tt> pages, read by {@link
+ * org.apache.drill.exec.store.parquet.columnreaders.ParquetRecordReader}.
+ */
+public class ParquetPageFilter {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(ParquetPageFilter.class);
+
+  private ParquetPageFilter() {
+  }
+
+  /**
+   * Rows of a row group left to read after page-level filtering.
+   */
+  public static class RowRange {
+    private final long firstRow;
+    private final long rowCount;
+    private final long pagesSkipped;
+    private final Map<String, Long> pageOffsets;
+
+    RowRange(long firstRow, long rowCount, long pagesSkipped, Map<String, Long> pageOffsets) {
+      this.firstRow = firstRow;
+      this.rowCount = rowCount;
+      this.pagesSkipped = pagesSkipped;
+      this.pageOffsets = pageOffsets;
+    }
+
+    /**
+     * @return the first row to read, where every column read starts a page
+     */
+    public long getFirstRow() {
+      return firstRow;
+    }
+
+    /**
+     * @return the number of rows to read from the first row
+     */
+    public long getRowCount() {
+      return rowCount;
+    }
+
+    /**
+     * @return the number of data pages of the columns read that are not read at all
+     */
+    public long getPagesSkipped() {
+      return pagesSkipped;
+    }
+
+    /**
+     * @param columnPath the path of a column, as given by {@link
+     * org.apache.parquet.column.ColumnDescriptor#getPath()}
+     * @return the file offset of the page header of the page holding the first row, if
+     * leading pages of the column are skipped, or null
+     */
+    public Long getPageOffset(String[] columnPath) {
+      return pageOffsets.get(Arrays.toString(columnPath));
+    }
+  }
+
+  private static class PageInfo {
+    final long offset;
+    final long firstRow;
+    final long rowCount;
+    final org.apache.parquet.format.Statistics statistics;
+
+    PageInfo(long offset, long firstRow, long rowCount, org.apache.parquet.format.Statistics statistics) {
+      this.offset = offset;
+      this.firstRow = firstRow;
+      this.rowCount = rowCount;
+      this.statistics = statistics;
+    }
+
+    long lastRow() {
+      return firstRow + rowCount;
+    }
+  }
+
+  /**
+   * Evaluates the filter against the page statistics of a row group.
+   *
+   * @param fs file system of the file
+   * @param path path of the file
+   * @param footer footer of the file
+   * @param rowGroupIndex index of the row group in the file
+   * @param columns the columns read by the scan
+   * @param filterPredicate the filter predicate built for the row group schema
+   * @param columnsStatistics the statistics of the row group, used for run-time pruning
+   * @param schema the schema of the row group
+   * @param schemaPathsInExpr the columns of the filter
+   * @return the rows to read, or null if no page can be skipped
+   */
+  public static RowRange getRowRange(FileSystem fs, Path path, ParquetMetadata footer, int rowGroupIndex,
+                                     List<SchemaPath> columns, FilterPredicate<?> filterPredicate,
+                                     Map<SchemaPath, ColumnStatistics<?>> columnsStatistics,
+                                     TupleMetadata schema, Set<SchemaPath> schemaPathsInExpr) throws IOException {
+    BlockMetaData rowGroup = footer.getBlocks().get(rowGroupIndex);
+    long rowGroupRowCount = rowGroup.getRowCount();
+    String createdBy = footer.getFileMetaData().getCreatedBy();
+
+    Map<ColumnChunkMetaData, List<PageInfo>> readColumns = new HashMap<>();
+    Map<SchemaPath, List<PageInfo>> filterColumns = new HashMap<>();
+    Map<SchemaPath, ColumnChunkMetaData> filterChunks = new HashMap<>();
+    boolean isStarQuery = Utilities.isStarQuery(columns);
+
+    try (FSDataInputStream in = fs.open(path)) {
+      for (ColumnChunkMetaData chunk : rowGroup.getColumns()) {
+        String[] chunkPath = chunk.getPath().toArray();
+        SchemaPath filterColumn = findStatisticsKey(columnsStatistics, schemaPathsInExpr, chunkPath[0]);
+        boolean isRead = isStarQuery || containsRoot(columns, chunkPath[0]);
+        if (!isRead && filterColumn == null) {
+          continue;
+        }
+        if (chunkPath.length > 1 || footer.getFileMetaData().getSchema().getColumnDescription(chunkPath).getMaxRepetitionLevel() > 0) {
+          // Rows and values of nested or repeated columns do not line up
+          return null;
+        }
+        List<PageInfo> pages = readPageHeaders(in, chunk);
+        if (pages == null) {
+          return null;
+        }
+        if (isRead) {
+          readColumns.put(chunk, pages);
+        }
+        if (filterColumn != null) {
+          filterColumns.put(filterColumn, pages);
+          filterChunks.put(filterColumn, chunk);
+        }
+      }
+    }
+    if (filterColumns.isEmpty() || readColumns.isEmpty()) {
+      return null;
+    }
+
+    // Splits the rows at the page boundaries of every filter column
+    TreeSet<Long> boundaries = new TreeSet<>();
+    for (List<PageInfo> pages : filterColumns.values()) {
+      for (PageInfo page : pages) {
+        boundaries.add(page.firstRow);
+      }
+    }
+    boundaries.add(rowGroupRowCount);
+
+    long firstRow = -1;
+    long lastRow = 0;
+    Long rangeStart = null;
+    for (Long rangeEnd : boundaries) {
+      if (rangeStart != null) {
+        Map<SchemaPath, ColumnStatistics<?>> rangeStatistics = new HashMap<>(columnsStatistics);
+        long rangeRowCount = rangeEnd - rangeStart;
+        for (Map.Entry<SchemaPath, List<PageInfo>> entry : filterColumns.entrySet()) {
+          ColumnChunkMetaData chunk = filterChunks.get(entry.getKey());
+          PageInfo page = findPage(entry.getValue(), rangeStart);
+          if (page != null) {
+            rangeStatistics.put(entry.getKey(), getStatistics(footer, chunk, page, rangeRowCount, createdBy));
+          }
+        }
+        RowsMatch match = FilterEvaluatorUtils.matches(filterPredicate, rangeStatistics, rangeRowCount, schema, schemaPathsInExpr);
+        if (match != RowsMatch.NONE) {
+          if (firstRow < 0) {
+            firstRow = rangeStart;
+          }
+          lastRow = rangeEnd;
+        }
+      }
+      rangeStart = rangeEnd;
+    }
+    if (firstRow < 0) {
+      firstRow = 0;
+    }
+
+    // Leading pages can only be skipped up to a row at which every column read starts a page
+    long alignedRow = 0;
+    for (Long row : boundaries.headSet(firstRow, true).descendingSet()) {
+      if (startsPageInAll(readColumns.values(), row)) {
+        alignedRow = row;
+        break;
+      }
+    }
+    if (alignedRow == 0 && lastRow == rowGroupRowCount) {
+      return null;
+    }
+
+    long pagesSkipped = 0;
+    Map<String, Long> pageOffsets = new HashMap<>();
+    for (Map.Entry<ColumnChunkMetaData, List<PageInfo>> entry : readColumns.entrySet()) {
+      for (PageInfo page : entry.getValue()) {
+        if (page.lastRow() <= alignedRow || page.firstRow >= lastRow) {
+          pagesSkipped++;
+        }
+        if (alignedRow > 0 && page.firstRow == alignedRow) {
+          pageOffsets.put(Arrays.toString(entry.getKey().getPath().toArray()), page.offset);
+        }
+      }
+    }
+    logger.debug("Page-level filtering of row group {} of {}: reading rows {} to {} of {}, skipping {} pages",
+        rowGroupIndex, path, alignedRow, lastRow, rowGroupRowCount, pagesSkipped);
+    return new RowRange(alignedRow, Math.max(0, lastRow - alignedRow), pagesSkipped, pageOffsets);
+  }
+
+  /**
+   * Reads the headers of the pages of a column chunk, skipping the page data.
+   *
+   * @return the data pages of the chunk, or null if it has pages of other kinds
+   */
+  private static List<PageInfo> readPageHeaders(FSDataInputStream in, ColumnChunkMetaData chunk) throws IOException {
+    List<PageInfo> pages = new ArrayList<>();
+    long pos = chunk.getStartingPos();
+    long end = pos + chunk.getTotalSize();
+    long firstRow = 0;
+    while (pos < end && firstRow < chunk.getValueCount()) {
+      in.seek(pos);
+      PageHeader pageHeader = Util.readPageHeader(in);
+      switch (pageHeader.getType()) {
+        case DATA_PAGE:
+          int valueCount = pageHeader.getData_page_header().getNum_values();
+          pages.add(new PageInfo(pos, firstRow, valueCount, pageHeader.getData_page_header().getStatistics()));
+          firstRow += valueCount;
+          break;
+        case DICTIONARY_PAGE:
+        case INDEX_PAGE:
+          break;
+        default:
+          return null;
+      }
+      pos = in.getPos() + pageHeader.getCompressed_page_size();
+    }
+    return pages;
+  }
+
+  /**
+   * Builds the statistics of a range of rows within a page, from the statistics of the page.
+   */
+  private static ColumnStatistics<?> getStatistics(ParquetMetadata footer, ColumnChunkMetaData chunk, PageInfo page,
+                                                   long rangeRowCount, String createdBy) {
+    PrimitiveType type = footer.getFileMetaData().getSchema().getType(chunk.getPath().toArray()).asPrimitiveType();
+    PrimitiveType.PrimitiveTypeName primitiveType = type.getPrimitiveTypeName();
+    OriginalType originalType = type.getOriginalType();
+    TypeProtos.MinorType minorType = ParquetReaderUtility.getMinorType(primitiveType, originalType);
+
+    Object min = null;
+    Object max = null;
+    long nulls = Statistic.NO_COLUMN_STATS;
+    if (page.statistics != null) {
+      Statistics<?> statistics = ParquetFormatPlugin.parquetMetadataConverter
+          .fromParquetStatistics(createdBy, page.statistics, type);
+      if (statistics.hasNonNullValue()) {
+        min = ParquetTableMetadataUtils.getValue(statistics.genericGetMin(), primitiveType, originalType);
+        max = ParquetTableMetadataUtils.getValue(statistics.genericGetMax(), primitiveType, originalType);
+      }
+      if (statistics.isNumNullsSet()) {
+        // The null count is known for the whole page only: a range within the page with none
+        // or only nulls if the page has, else with some nulls if it has more than one row
+        long pageNulls = statistics.getNumNulls();
+        if (pageNulls == 0) {
+          nulls = 0;
+        } else if (pageNulls == page.rowCount) {
+          nulls = rangeRowCount;
+        } else if (rangeRowCount > 1) {
+          nulls = 1;
+        }
+      }
+    }
+    if (min == null && nulls != rangeRowCount) {
+      // Neither min/max values nor only nulls, nothing is known of the range
+      nulls = Statistic.NO_COLUMN_STATS;
+    }
+    List<StatisticsHolder<?>> holders = new ArrayList<>();
+    holders.add(new StatisticsHolder<>(min, ColumnStatisticsKind.MIN_VALUE));
+    holders.add(new StatisticsHolder<>(max, ColumnStatisticsKind.MAX_VALUE));
+    holders.add(new StatisticsHolder<>(nulls, ColumnStatisticsKind.NULLS_COUNT));
+    return new ColumnStatistics<>(holders, minorType);
+  }
+
+  private static PageInfo findPage(List<PageInfo> pages, long row) {
+    for (PageInfo page : pages) {
+      if (page.firstRow <= row && row < page.lastRow()) {
+        return page;
+      }
+    }
+    return null;
+  }
+
+  private static boolean startsPageInAll(Iterable<List<PageInfo>> columns, long row) {
+    for (List<PageInfo> pages : columns) {
+      PageInfo page = findPage(pages, row);
+      if (page == null || page.firstRow != row) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean containsRoot(List<SchemaPath> columns, String name) {
+    for (SchemaPath column : columns) {
+      if (column.getRootSegmentPath().equalsIgnoreCase(name)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Finds the key of the statistics of a filter column, matched by name as the readers do.
+   */
+  static SchemaPath findStatisticsKey(Map<SchemaPath, ColumnStatistics<?>> columnsStatistics,
+                                      Set<SchemaPath> schemaPathsInExpr, String name) {
+    if (!containsRoot(new ArrayList<>(schemaPathsInExpr), name)) {
+      return null;
+    }
+    for (SchemaPath key : columnsStatistics.keySet()) {
+      if (key.getRootSegmentPath().equalsIgnoreCase(name)) {
+        return key;
+      }
+    }
+    return null;
+  }
+}
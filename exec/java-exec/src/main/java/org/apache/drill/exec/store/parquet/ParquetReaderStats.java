@@ -33,6 +33,7 @@ public class ParquetReaderStats {
   public AtomicLong numDataPagesDecoded = new AtomicLong();
   public AtomicLong numDictPagesDecompressed = new AtomicLong();
   public AtomicLong numDataPagesDecompressed = new AtomicLong();
+  public AtomicLong numDataPagesSkipped = new AtomicLong();
 
   public AtomicLong totalDictPageReadBytes = new AtomicLong();
   public AtomicLong totalDataPageReadBytes = new AtomicLong();
@@ -57,7 +58,7 @@ public class ParquetReaderStats {
 
   public void logStats(org.slf4j.Logger logger, Path hadoopPath) {
     logger.trace(
-        "ParquetTrace,Summary,{},{},{},{},{},{},{},{},{},{},{},{},{},{},{},{},{},{},{},{},{},{}",
+        "ParquetTrace,Summary,{},{},{},{},{},{},{},{},{},{},{},{},{},{},{},{},{},{},{},{},{},{},{}",
         hadoopPath,
         numRowgroups,
         rowgroupsPruned,
@@ -66,6 +67,7 @@ public class ParquetReaderStats {
         numDataPagesDecoded,
         numDictPagesDecompressed,
         numDataPagesDecompressed,
+        numDataPagesSkipped,
         totalDictPageReadBytes,
         totalDataPageReadBytes,
         totalDictDecompressedBytes,
@@ -96,6 +98,7 @@ public class ParquetReaderStats {
         numDictPagesDecompressed.longValue());
     stats.addLongStat(Metric.NUM_DATA_PAGES_DECOMPRESSED,
         numDataPagesDecompressed.longValue());
+    stats.addLongStat(Metric.NUM_DATA_PAGES_SKIPPED, numDataPagesSkipped.longValue());
     stats.addLongStat(Metric.TOTAL_DICT_PAGE_READ_BYTES,
         totalDictPageReadBytes.longValue());
     stats.addLongStat(Metric.TOTAL_DATA_PAGE_READ_BYTES,
@@ -19,7 +19,6 @@ package org.apache.drill.exec.store.parquet.columnreaders;
 
 import static org.apache.parquet.column.Encoding.valueOf;
 
-import java.io.EOFException;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.concurrent.Callable;
@@ -107,22 +106,12 @@ class AsyncPageReader extends PageReader {
     if (columnChunkMetaData.getDictionaryPageOffset() > 0) {
       try {
         assert(columnChunkMetaData.getDictionaryPageOffset() >= dataReader.getPos() );
-        long bytesToSkip = columnChunkMetaData.getDictionaryPageOffset() - dataReader.getPos();
-        while (bytesToSkip > 0) {
-          long skipped = dataReader.skip(bytesToSkip);
-          if (skipped > 0) {
-            bytesToSkip -= skipped;
-          } else {
-            // no good way to handle this. Guava uses InputStream.available to check
-            // if EOF is reached and because available is not reliable,
-            // tries to read the rest of the data.
-            DrillBuf skipBuf = dataReader.getNext((int) bytesToSkip);
-            if (skipBuf != null) {
-              skipBuf.release();
-            } else {
-              throw new EOFException("End of File reached.");
-            }
-          }
+        if (skipsPages()) {
+          // The pages following the dictionary are skipped before the first read task runs,
+          // so the dictionary page is read right away
+          super.loadDictionaryIfExists(parentStatus, columnChunkMetaData, f);
+        } else {
+          skipTo(columnChunkMetaData.getDictionaryPageOffset());
         }
       } catch (IOException e) {
         handleAndThrowException(e, "Error Reading dictionary page.");
@@ -130,6 +119,13 @@ class AsyncPageReader extends PageReader {
     }
   }
 
+  @Override
+  protected long skipPages() throws IOException {
+    final long valuesSkipped = super.skipPages();
+    totalPageValuesRead += valuesSkipped;
+    return valuesSkipped;
+  }
+
   @Override protected void init() throws IOException {
     super.init();
     //Avoid Init if a shutdown is already in progress even if init() is called once
@@ -410,7 +406,7 @@ class AsyncPageReader extends PageReader {
       final long totalValuesRead = parent.totalPageValuesRead;
       Stopwatch timer = Stopwatch.createStarted();
 
-      final long totalValuesCount = parent.parentColumnReader.columnChunkMetaData.getValueCount();
+      final long totalValuesCount = parent.getValueCountToRead();
 
       // if we are done, just put a marker object in the queue and we are done.
       logger.trace("[{}]: Total Values COUNT {}  Total Values READ {} ", name, totalValuesCount, totalValuesRead);
@@ -26,6 +26,7 @@ import io.netty.buffer.DrillBuf;
 import org.apache.drill.common.exceptions.ExecutionSetupException;
 import org.apache.drill.exec.memory.BufferAllocator;
 import org.apache.drill.exec.store.parquet.ParquetFormatPlugin;
+import org.apache.drill.exec.store.parquet.ParquetPageFilter;
 import org.apache.drill.exec.store.parquet.ParquetReaderStats;
 import org.apache.drill.exec.util.filereader.DirectBufInputStream;
 import org.apache.hadoop.fs.FSDataInputStream;
@@ -156,29 +157,72 @@ class PageReader {
   protected void init() throws IOException{
     dataReader.init();
     loadDictionaryIfExists(parentColumnReader, parentColumnReader.columnChunkMetaData, dataReader);
+    skipPages();
+  }
+
+  /**
+   * Skips the leading data pages of the column chunk left out by page-level filtering,
+   * see {@link ParquetPageFilter}. The pages are neither read nor decompressed.
+   *
+   * @return the number of values skipped
+   */
+  protected long skipPages() throws IOException {
+    final ParquetPageFilter.RowRange rowRange = parentColumnReader.parentReader.getRowRange();
+    final Long pageOffset = rowRange == null ? null : rowRange.getPageOffset(parentColumnReader.columnDescriptor.getPath());
+    if (pageOffset == null) {
+      return 0;
+    }
+    skipTo(pageOffset);
+    parentColumnReader.totalValuesRead += (int) rowRange.getFirstRow();
+    return rowRange.getFirstRow();
+  }
+
+  /**
+   * @return true if the leading data pages of the column chunk are skipped
+   */
+  protected boolean skipsPages() {
+    final ParquetPageFilter.RowRange rowRange = parentColumnReader.parentReader.getRowRange();
+    return rowRange != null && rowRange.getPageOffset(parentColumnReader.columnDescriptor.getPath()) != null;
+  }
+
+  /**
+   * @return the number of values of the column chunk to read, up to the last row read
+   * if page-level filtering leaves out the trailing pages
+   */
+  protected long getValueCountToRead() {
+    final long valueCount = parentColumnReader.columnChunkMetaData.getValueCount();
+    final ParquetPageFilter.RowRange rowRange = parentColumnReader.parentReader.getRowRange();
+    return rowRange == null ? valueCount : Math.min(valueCount, rowRange.getFirstRow() + rowRange.getRowCount());
+  }
+
+  /**
+   * Moves the read position forward to the given file offset.
+   */
+  protected void skipTo(long pos) throws IOException {
+    long bytesToSkip = pos - dataReader.getPos();
+    while (bytesToSkip > 0) {
+      long skipped = dataReader.skip(bytesToSkip);
+      if (skipped > 0) {
+        bytesToSkip -= skipped;
+      } else {
+        // no good way to handle this. Guava uses InputStream.available to check
+        // if EOF is reached and because available is not reliable,
+        // tries to read the rest of the data.
+        DrillBuf skipBuf = dataReader.getNext((int) bytesToSkip);
+        if (skipBuf != null) {
+          skipBuf.release();
+        } else {
+          throw new EOFException("End of File reachecd.");
+        }
+      }
+    }
   }
 
   protected void loadDictionaryIfExists(final org.apache.drill.exec.store.parquet.columnreaders.ColumnReader<?> parentStatus,
       final ColumnChunkMetaData columnChunkMetaData, final DirectBufInputStream f) throws IOException {
     Stopwatch timer = Stopwatch.createUnstarted();
     if (columnChunkMetaData.getDictionaryPageOffset() > 0) {
-      long bytesToSkip = columnChunkMetaData.getDictionaryPageOffset() - dataReader.getPos();
-      while (bytesToSkip > 0) {
-        long skipped = dataReader.skip(bytesToSkip);
-        if (skipped > 0) {
-          bytesToSkip -= skipped;
-        } else {
-          // no good way to handle this. Guava uses InputStream.available to check
-          // if EOF is reached and because available is not reliable,
-          // tries to read the rest of the data.
-          DrillBuf skipBuf = dataReader.getNext((int) bytesToSkip);
-          if (skipBuf != null) {
-            skipBuf.release();
-          } else {
-            throw new EOFException("End of File reachecd.");
-          }
-        }
-      }
+      skipTo(columnChunkMetaData.getDictionaryPageOffset());
 
       long start=dataReader.getPos();
       timer.start();
@@ -300,7 +344,7 @@ class PageReader {
 
     // TODO - the metatdata for total size appears to be incorrect for impala generated files, need to find cause
     // and submit a bug report
-    long totalValueCount = parentColumnReader.columnChunkMetaData.getValueCount();
+    long totalValueCount = getValueCountToRead();
     if(parentColumnReader.totalValuesRead >= totalValueCount) {
       return false;
     }
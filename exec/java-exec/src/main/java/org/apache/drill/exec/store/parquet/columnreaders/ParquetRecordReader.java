@@ -30,6 +30,7 @@ import org.apache.drill.exec.exception.OutOfMemoryException;
 import org.apache.drill.exec.ops.FragmentContext;
 import org.apache.drill.exec.ops.OperatorContext;
 import org.apache.drill.exec.physical.impl.OutputMutator;
+import org.apache.drill.exec.store.parquet.ParquetPageFilter;
 import org.apache.drill.exec.store.parquet.ParquetReaderUtility;
 import org.apache.drill.exec.store.parquet.columnreaders.batchsizing.RecordBatchSizerManager;
 import org.apache.drill.exec.util.record.RecordBatchStats.RecordBatchStatsContext;
@@ -50,11 +51,13 @@ public class ParquetRecordReader extends CommonParquetRecordReader {
   private static final List<SchemaPath> DEFAULT_COLS_TO_READ = ImmutableList.of(SchemaPath.getSimplePath("_DEFAULT_COL_TO_READ_"));
 
   private final FileSystem fileSystem;
-  private final long numRecordsToRead; // number of records to read
+  private long numRecordsToRead; // number of records to read
   private final Path hadoopPath;
   private final CodecFactory codecFactory;
   private final int rowGroupIndex;
   private final ParquetReaderUtility.DateCorruptionStatus dateCorruptionStatus;
+  /** Rows left to read by page-level filtering, if any */
+  private ParquetPageFilter.RowRange rowRange;
 
   /** Container object for holding Parquet columnar readers state */
   private ReadState readState;
@@ -147,10 +150,25 @@ public class ParquetRecordReader extends CommonParquetRecordReader {
     return fileSystem;
   }
 
+  @Override
   public int getRowGroupIndex() {
     return rowGroupIndex;
   }
 
+  /**
+   * Reads only the given rows of the row group, leaving out the leading and trailing pages
+   * that cannot match the filter of the scan. Must be called before {@link #setup}.
+   */
+  public void setRowRange(ParquetPageFilter.RowRange rowRange) {
+    this.rowRange = rowRange;
+    this.numRecordsToRead = rowRange.getRowCount();
+    parquetReaderStats.numDataPagesSkipped.addAndGet(rowRange.getPagesSkipped());
+  }
+
+  public ParquetPageFilter.RowRange getRowRange() {
+    return rowRange;
+  }
+
   public RecordBatchSizerManager getBatchSizesMgr() {
     return batchSizerMgr;
   }
@@ -395,6 +395,11 @@ public class DrillParquetReader extends CommonParquetRecordReader {
     return count;
   }
 
+  @Override
+  public int getRowGroupIndex() {
+    return entry.getRowGroupIndex();
+  }
+
   @Override
   public void close() {
     closeStats(logger, entry.getPath());
@@ -25,6 +25,7 @@ import java.util.Iterator;
 import java.util.List;
 
 import org.apache.drill.common.config.DrillConfig;
+import org.apache.drill.exec.memory.AllocationManager;
 import org.apache.drill.exec.ops.ExecutorFragmentContext;
 import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
 import org.apache.drill.exec.store.pojo.NonNullable;
@@ -65,6 +66,12 @@ public class MemoryIterator implements Iterator<Object> {
     // We need the memory used by the root allocator for the Drillbit
     memoryInfo.direct_current = context.getRootAllocator().getAllocatedMemory();
     memoryInfo.direct_max = DrillConfig.getMaxDirectMemory();
+
+    // Memory held by the pooled allocator below the allocators: chunks of its arenas, the
+    // part of these chunks no buffer uses (fragmentation), and buffers too large for a chunk
+    memoryInfo.direct_arena = AllocationManager.arenaMemory();
+    memoryInfo.direct_arena_free = AllocationManager.arenaFreeMemory();
+    memoryInfo.direct_huge = AllocationManager.hugeMemory();
     return memoryInfo;
   }
 
@@ -92,5 +99,8 @@ public class MemoryIterator implements Iterator<Object> {
     public long direct_current;
     public long jvm_direct_current;
     public long direct_max;
+    public long direct_arena;
+    public long direct_arena_free;
+    public long direct_huge;
   }
 }
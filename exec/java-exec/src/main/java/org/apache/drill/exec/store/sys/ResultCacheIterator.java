@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.sys;
+
+import java.util.Iterator;
+
+import org.apache.drill.exec.cache.ResultCache;
+import org.apache.drill.exec.ops.ExecutorFragmentContext;
+import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
+import org.apache.drill.exec.store.pojo.NonNullable;
+
+/**
+ * Lists the size, the hit ratio and the evictions of the result cache of the
+ * Drillbit.
+ */
+public class ResultCacheIterator implements Iterator<Object> {
+
+  private boolean beforeFirst = true;
+  private final ExecutorFragmentContext context;
+
+  public ResultCacheIterator(final ExecutorFragmentContext context) {
+    this.context = context;
+  }
+
+  @Override
+  public boolean hasNext() {
+    return beforeFirst;
+  }
+
+  @Override
+  public Object next() {
+    if (!beforeFirst) {
+      throw new IllegalStateException();
+    }
+    beforeFirst = false;
+    final ResultCacheInfo resultCacheInfo = new ResultCacheInfo();
+
+    final DrillbitEndpoint endpoint = context.getEndpoint();
+    resultCacheInfo.hostname = endpoint.getAddress();
+    resultCacheInfo.user_port = endpoint.getUserPort();
+
+    final ResultCache resultCache = context.getResultCache();
+    resultCacheInfo.entries = resultCache.size();
+    resultCacheInfo.size_bytes = resultCache.getSizeBytes();
+    resultCacheInfo.hits = resultCache.getHits();
+    resultCacheInfo.misses = resultCache.getMisses();
+    final long lookups = resultCacheInfo.hits + resultCacheInfo.misses;
+    resultCacheInfo.hit_ratio = lookups == 0 ? 0 : (double) resultCacheInfo.hits / lookups;
+    resultCacheInfo.evictions = resultCache.getEvictions();
+    resultCacheInfo.invalidations = resultCache.getInvalidations();
+    return resultCacheInfo;
+  }
+
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException();
+  }
+
+  public static class ResultCacheInfo {
+    @NonNullable
+    public String hostname;
+    public long user_port;
+    public long entries;
+    public long size_bytes;
+    public long hits;
+    public long misses;
+    public double hit_ratio;
+    public long evictions;
+    public long invalidations;
+  }
+}
@@ -26,7 +26,7 @@ import org.apache.drill.exec.store.sys.OptionIterator.OptionValueWrapper;
  * An enumeration of all tables in Drill's system ("sys") schema.
  * <p>
  *   OPTION, DRILLBITS and VERSION are local tables available on every Drillbit.
- *   MEMORY and THREADS are distributed tables with one record on every Drillbit.
+ *   MEMORY, THREADS, PLAN_CACHE and RESULT_CACHE are distributed tables with one record on every Drillbit.
  *   PROFILES and PROFILES_JSON are stored in local / distributed storage.
  * </p>
  */
@@ -122,6 +122,20 @@ public enum SystemTable {
     public Iterator<Object> getIterator(final ExecutorFragmentContext context, final int maxRecords) {
       return new FunctionsIterator(context);
     }
+  },
+
+  PLAN_CACHE("plan_cache", true, PlanCacheIterator.PlanCacheInfo.class) {
+    @Override
+    public Iterator<Object> getIterator(final ExecutorFragmentContext context, final int maxRecords) {
+      return new PlanCacheIterator(context);
+    }
+  },
+
+  RESULT_CACHE("result_cache", true, ResultCacheIterator.ResultCacheInfo.class) {
+    @Override
+    public Iterator<Object> getIterator(final ExecutorFragmentContext context, final int maxRecords) {
+      return new ResultCacheIterator(context);
+    }
   };
 
   private final String tableName;
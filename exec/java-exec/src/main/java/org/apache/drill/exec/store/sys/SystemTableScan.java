@@ -135,6 +135,14 @@ public class SystemTableScan extends AbstractGroupScan implements SubScan {
     return builder.toString();
   }
 
+  /**
+   * System tables are read when the query runs, so their plans never go stale.
+   */
+  @Override
+  public String getMetadataVersion() {
+    return "";
+  }
+
   @Override
   public int getOperatorType() {
     return CoreOperatorType.SYSTEM_TABLE_SCAN_VALUE;
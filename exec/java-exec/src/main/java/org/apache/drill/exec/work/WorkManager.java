@@ -85,6 +85,7 @@ public class WorkManager implements AutoCloseable {
   private final WorkerBee bee;
   private final WorkEventBus workBus;
   private final Executor executor;
+  private final Executor fragmentPool;
   private final StatusThread statusThread;
   private final Lock isEmptyLock = new ReentrantLock();
   private Condition isEmptyCondition;
@@ -99,6 +100,7 @@ public class WorkManager implements AutoCloseable {
     bee = new WorkerBee(); // TODO should this just be an interface?
     workBus = new WorkEventBus(); // TODO should this just be an interface?
     executor = context.getExecutor();
+    fragmentPool = context.getFragmentExecutor();
 
     // TODO references to this escape here (via WorkerBee) before construction is done
     controlMessageWorker = new ControlMessageHandler(bee); // TODO getFragmentRunner(), getForemanForQueryId()
@@ -330,10 +332,11 @@ public class WorkManager implements AutoCloseable {
     public void addFragmentRunner(final FragmentExecutor fragmentExecutor) {
       final FragmentHandle fragmentHandle = fragmentExecutor.getContext().getHandle();
       runningFragments.put(fragmentHandle, fragmentExecutor);
-      executor.execute(new SelfCleaningRunnable(fragmentExecutor) {
+      fragmentPool.execute(new SelfCleaningRunnable(fragmentExecutor) {
         @Override
         protected void cleanup() {
           runningFragments.remove(fragmentHandle);
+          dropRuntimeFiltersIfQueryEnded(fragmentHandle.getQueryId());
           indicateIfSafeToExit();
         }
       });
@@ -353,18 +356,32 @@ public class WorkManager implements AutoCloseable {
         return;
       }
       runningFragments.put(fragmentHandle, fragmentExecutor);
-      executor.execute(new SelfCleaningRunnable(fragmentExecutor) {
+      fragmentPool.execute(new SelfCleaningRunnable(fragmentExecutor) {
         @Override
         protected void cleanup() {
           runningFragments.remove(fragmentHandle);
           if (!fragmentManager.isCancelled()) {
             workBus.removeFragmentManager(fragmentHandle, false);
           }
+          dropRuntimeFiltersIfQueryEnded(fragmentHandle.getQueryId());
           indicateIfSafeToExit();
         }
       });
     }
 
+    /**
+     * Drops the RuntimeFilters of the query still waiting for local build side fragments
+     * once no fragment of the query runs here anymore.
+     */
+    private void dropRuntimeFiltersIfQueryEnded(final QueryId queryId) {
+      for (final FragmentHandle handle : runningFragments.keySet()) {
+        if (handle.getQueryId().equals(queryId)) {
+          return;
+        }
+      }
+      dContext.getRuntimeFilterAggregator().dropQuery(queryId);
+    }
+
     public FragmentExecutor getFragmentRunner(final FragmentHandle handle) {
       return runningFragments.get(handle);
     }
@@ -463,6 +480,9 @@ public class WorkManager implements AutoCloseable {
           }
         }
 
+        // Drop the runtime filters of the local build side fragments which will not be completed anymore
+        dContext.getRuntimeFilterAggregator().expire();
+
         try {
           Thread.sleep(STATUS_PERIOD_SECONDS * 1000);
         } catch (final InterruptedException e) {
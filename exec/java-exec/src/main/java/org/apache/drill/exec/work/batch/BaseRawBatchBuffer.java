@@ -25,6 +25,7 @@ import org.apache.drill.common.exceptions.DrillRuntimeException;
 import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.ops.FragmentContext;
 import org.apache.drill.exec.record.RawFragmentBatch;
+import org.apache.drill.exec.work.fragment.FragmentScheduler;
 
 public abstract class BaseRawBatchBuffer<T> implements RawBatchBuffer {
   private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(BaseRawBatchBuffer.class);
@@ -183,7 +184,7 @@ public abstract class BaseRawBatchBuffer<T> implements RawBatchBuffer {
         // thread will stuck forever. So we pool for 5 seconds until we get a batch or FragmentExecutor state is in
         // error condition.
         while (b == null) {
-          b = bufferQueue.poll(5, TimeUnit.SECONDS);
+          b = FragmentScheduler.managedCall(() -> bufferQueue.poll(5, TimeUnit.SECONDS));
           if (!context.getExecutorState().shouldContinue()) {
             kill(context);
             if (b != null) {
@@ -21,9 +21,6 @@ import org.apache.drill.shaded.guava.com.google.common.base.Preconditions;
 import io.netty.buffer.DrillBuf;
 import org.apache.drill.exec.memory.BufferAllocator;
 
-import java.util.Arrays;
-
-
 /**
  * According to Putze et al.'s "Cache-, Hash- and Space-Efficient BloomFilter
  * Filters", see <a href="http://algo2.iti.kit.edu/singler/publications/cacheefficientbloomfilters-wea2007.pdf">this paper</a>
@@ -40,9 +37,17 @@ public class BloomFilter {
 
   private DrillBuf byteBuf;
 
-  private int numBytes;
+  //8 odd numbers act as salt value to participate in the computation of the bucket mask.
+  private static final int SALT0 = 0x47b6137b;
+  private static final int SALT1 = 0x44974d91;
+  private static final int SALT2 = 0x8824ad5b;
+  private static final int SALT3 = 0xa2b7289d;
+  private static final int SALT4 = 0x705495c7;
+  private static final int SALT5 = 0x2df1424b;
+  private static final int SALT6 = 0x9efc4947;
+  private static final int SALT7 = 0x5c6bfb31;
 
-  private int bucketMask[] = new int[8];
+  private int numBytes;
 
   public BloomFilter(int numBytes, BufferAllocator bufferAllocator) {
     int size = BloomFilter.adjustByteSize(numBytes);
@@ -72,42 +77,23 @@ public class BloomFilter {
     return numBytes;
   }
 
-  private void setMask(int key) {
-    //8 odd numbers act as salt value to participate in the computation of the bucketMask.
-    final int SALT[] = {0x47b6137b, 0x44974d91, 0x8824ad5b, 0xa2b7289d, 0x705495c7, 0x2df1424b, 0x9efc4947, 0x5c6bfb31};
-
-    Arrays.fill(bucketMask, 0);
-
-    for (int i = 0; i < 8; ++i) {
-      bucketMask[i] = key * SALT[i];
-    }
-
-    for (int i = 0; i < 8; ++i) {
-      bucketMask[i] = bucketMask[i] >>> 27;
-    }
-
-    for (int i = 0; i < 8; ++i) {
-      bucketMask[i] = 0x1 << bucketMask[i];
-    }
-  }
-
   /**
    * Add an element's hash value to this bloom filter.
    *
    * @param hash hash result of element.
    */
   public void insert(long hash) {
-    int bucketIndex = (int) (hash >> 32) & (numBytes / BYTES_PER_BUCKET - 1);
+    int startIndex = bucketStart(hash);
     int key = (int) hash;
-    setMask(key);
-    int initialStartIndex = bucketIndex * BYTES_PER_BUCKET;
-    for (int i = 0; i < 8; i++) {
-      int index = initialStartIndex + i * 4;
-      //every iterate batch,we set 32 bits
-      int a = byteBuf.getInt(index);
-      a |= bucketMask[i];
-      byteBuf.setInt(index, a);
-    }
+    //every bucket is 8 words of 32 bits, one bit of each is set
+    byteBuf.setInt(startIndex, byteBuf.getInt(startIndex) | 1 << (key * SALT0 >>> 27));
+    byteBuf.setInt(startIndex + 4, byteBuf.getInt(startIndex + 4) | 1 << (key * SALT1 >>> 27));
+    byteBuf.setInt(startIndex + 8, byteBuf.getInt(startIndex + 8) | 1 << (key * SALT2 >>> 27));
+    byteBuf.setInt(startIndex + 12, byteBuf.getInt(startIndex + 12) | 1 << (key * SALT3 >>> 27));
+    byteBuf.setInt(startIndex + 16, byteBuf.getInt(startIndex + 16) | 1 << (key * SALT4 >>> 27));
+    byteBuf.setInt(startIndex + 20, byteBuf.getInt(startIndex + 20) | 1 << (key * SALT5 >>> 27));
+    byteBuf.setInt(startIndex + 24, byteBuf.getInt(startIndex + 24) | 1 << (key * SALT6 >>> 27));
+    byteBuf.setInt(startIndex + 28, byteBuf.getInt(startIndex + 28) | 1 << (key * SALT7 >>> 27));
   }
 
   /**
@@ -117,19 +103,49 @@ public class BloomFilter {
    * @return false if the element is not set, true if the element is probably set.
    */
   public boolean find(long hash) {
-    int bucketIndex = (int) (hash >> 32) & (numBytes / BYTES_PER_BUCKET - 1);
-    int key = (int) hash;
-    setMask(key);
-    int startIndex = bucketIndex * BYTES_PER_BUCKET;
-    for (int i = 0; i < 8; i++) {
-      int index = startIndex + i * 4;
-      int a = byteBuf.getInt(index);
-      int b = a & bucketMask[i];
-      if (b == 0) {
-        return false;
-      }
+    return missingBits(hash) == 0;
+  }
+
+  /**
+   * Determine, for a batch of elements, whether each one is set or not. Unlike {@link #find(long)},
+   * the bits of a bucket are all checked without branching, and the selection bitmap is only written.
+   * The selection of several bloom filters is the intersection of theirs, hence the bits of the elements
+   * which are not set are cleared while the other ones are left as they are.
+   *
+   * @param hashes the hash values of the elements
+   * @param count the number of elements
+   * @param selection bitmap of the elements, the bit of the i-th one is the bit i % 64 of the word i / 64;
+   *                  cleared if the element is not set.
+   */
+  public void findAll(long[] hashes, int count, long[] selection) {
+    Preconditions.checkArgument(hashes.length >= count && selection.length >= (count + 63) >>> 6);
+    for (int i = 0; i < count; i++) {
+      int missing = missingBits(hashes[i]);
+      //1 if any bit of the element is missing, 0 otherwise
+      long notFound = (missing | -missing) >>> 31;
+      selection[i >>> 6] &= ~(notFound << i);
     }
-    return true;
+  }
+
+  /**
+   * @return the bits of the element's bucket mask which are not set, 0 if it is probably set
+   */
+  private int missingBits(long hash) {
+    int startIndex = bucketStart(hash);
+    int key = (int) hash;
+    return ~byteBuf.getInt(startIndex) & 1 << (key * SALT0 >>> 27)
+        | ~byteBuf.getInt(startIndex + 4) & 1 << (key * SALT1 >>> 27)
+        | ~byteBuf.getInt(startIndex + 8) & 1 << (key * SALT2 >>> 27)
+        | ~byteBuf.getInt(startIndex + 12) & 1 << (key * SALT3 >>> 27)
+        | ~byteBuf.getInt(startIndex + 16) & 1 << (key * SALT4 >>> 27)
+        | ~byteBuf.getInt(startIndex + 20) & 1 << (key * SALT5 >>> 27)
+        | ~byteBuf.getInt(startIndex + 24) & 1 << (key * SALT6 >>> 27)
+        | ~byteBuf.getInt(startIndex + 28) & 1 << (key * SALT7 >>> 27);
+  }
+
+  private int bucketStart(long hash) {
+    int bucketIndex = (int) (hash >> 32) & (numBytes / BYTES_PER_BUCKET - 1);
+    return bucketIndex * BYTES_PER_BUCKET;
   }
 
   /**
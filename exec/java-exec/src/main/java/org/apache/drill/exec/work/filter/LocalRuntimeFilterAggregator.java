@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.work.filter;
+
+import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.proto.BitData;
+import org.apache.drill.exec.proto.CoordinationProtos;
+import org.apache.drill.exec.proto.UserBitShared;
+import org.apache.drill.exec.proto.helper.QueryIdHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aggregates the RuntimeFilters of the build side minor fragments running on this Drillbit,
+ * so that the Foreman receives one RuntimeFilter per Drillbit instead of one per minor fragment.
+ *
+ * The contributions are copied into the allocator of the aggregator, as the fragments which produced
+ * them may finish before the last local one reports. A RuntimeFilter missing a contribution would filter
+ * out rows which join, hence the pending ones are dropped once their timeout expired, checked periodically
+ * by the WorkManager, or as soon as the last local fragment of their query ended. The probe side scans then
+ * proceed without them.
+ */
+public class LocalRuntimeFilterAggregator implements AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(LocalRuntimeFilterAggregator.class);
+
+  private final BufferAllocator allocator;
+
+  private final Map<String, PendingRuntimeFilter> pending = new HashMap<>();
+
+  public LocalRuntimeFilterAggregator(BufferAllocator parentAllocator) {
+    this.allocator = parentAllocator.newChildAllocator("runtime-filter-aggregator", 0, Long.MAX_VALUE);
+  }
+
+  /**
+   * @param endpoint a Drillbit
+   * @return the key of the Drillbit in {@link RuntimeFilterDef#getBuildFragmentsPerDrillbit()}
+   */
+  public static String endpointKey(CoordinationProtos.DrillbitEndpoint endpoint) {
+    return endpoint.getAddress() + ":" + endpoint.getDataPort();
+  }
+
+  /**
+   * Adds the RuntimeFilter of a local build side minor fragment. The given RuntimeFilter is
+   * always closed.
+   *
+   * @param runtimeFilterWritable the RuntimeFilter of a minor fragment
+   * @param localFragments number of build side minor fragments of the join running on this Drillbit
+   * @param timeout time in milliseconds to wait for the other ones after the first one
+   * @return the aggregated RuntimeFilter to be sent to the Foreman once all the local minor fragments
+   * have added theirs, null otherwise
+   */
+  public synchronized RuntimeFilterWritable add(RuntimeFilterWritable runtimeFilterWritable, int localFragments, long timeout) {
+    expire();
+    String key = key(runtimeFilterWritable.getRuntimeFilterBDef());
+    try {
+      PendingRuntimeFilter toAggregate = pending.get(key);
+      if (toAggregate == null) {
+        toAggregate = new PendingRuntimeFilter(runtimeFilterWritable.duplicate(allocator), localFragments, timeout);
+        pending.put(key, toAggregate);
+      } else {
+        toAggregate.aggregated.aggregate(runtimeFilterWritable);
+      }
+      toAggregate.remaining--;
+      if (toAggregate.remaining > 0) {
+        return null;
+      }
+      pending.remove(key);
+      logger.debug("aggregated the RuntimeFilters of {} local minor fragments for {} in {} ms", localFragments, key,
+          TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - toAggregate.start));
+      return toAggregate.aggregated;
+    } finally {
+      runtimeFilterWritable.close();
+    }
+  }
+
+  /**
+   * Drops the RuntimeFilters still waiting for some local minor fragments after their timeout.
+   */
+  public synchronized void expire() {
+    long now = System.nanoTime();
+    Iterator<Map.Entry<String, PendingRuntimeFilter>> iterator = pending.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<String, PendingRuntimeFilter> entry = iterator.next();
+      PendingRuntimeFilter toExpire = entry.getValue();
+      if (now - toExpire.start > TimeUnit.MILLISECONDS.toNanos(toExpire.timeout)) {
+        logger.warn("dropped the RuntimeFilter of {} still waiting for {} local minor fragments after {} ms",
+            entry.getKey(), toExpire.remaining, toExpire.timeout);
+        toExpire.aggregated.close();
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * Drops the RuntimeFilters of a query still waiting for some local minor fragments, once
+   * none of its fragments runs on this Drillbit anymore: the missing ones will never report.
+   *
+   * @param queryId the query whose local fragments all ended
+   */
+  public synchronized void dropQuery(UserBitShared.QueryId queryId) {
+    String prefix = QueryIdHelper.getQueryId(queryId) + ":";
+    Iterator<Map.Entry<String, PendingRuntimeFilter>> iterator = pending.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<String, PendingRuntimeFilter> entry = iterator.next();
+      if (entry.getKey().startsWith(prefix)) {
+        logger.debug("dropped the RuntimeFilter of {} still waiting for {} local minor fragments of the ended query",
+            entry.getKey(), entry.getValue().remaining);
+        entry.getValue().aggregated.close();
+        iterator.remove();
+      }
+    }
+  }
+
+  public synchronized int getPendingCount() {
+    return pending.size();
+  }
+
+  @Override
+  public synchronized void close() {
+    for (PendingRuntimeFilter toClose : pending.values()) {
+      toClose.aggregated.close();
+    }
+    pending.clear();
+    allocator.close();
+  }
+
+  private static String key(BitData.RuntimeFilterBDef runtimeFilterBDef) {
+    return QueryIdHelper.getQueryId(runtimeFilterBDef.getQueryId())
+        + ":" + runtimeFilterBDef.getMajorFragmentId()
+        + ":" + runtimeFilterBDef.getHjOpId();
+  }
+
+  private static class PendingRuntimeFilter {
+
+    private final RuntimeFilterWritable aggregated;
+
+    private final long start = System.nanoTime();
+
+    private final long timeout;
+
+    private int remaining;
+
+    PendingRuntimeFilter(RuntimeFilterWritable aggregated, int remaining, long timeout) {
+      this.aggregated = aggregated;
+      this.remaining = remaining;
+      this.timeout = timeout;
+    }
+  }
+}
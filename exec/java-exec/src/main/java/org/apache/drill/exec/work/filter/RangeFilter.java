@@ -0,0 +1,398 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.work.filter;
+
+import io.netty.buffer.DrillBuf;
+import org.apache.drill.common.types.TypeProtos.MinorType;
+import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.vector.BigIntVector;
+import org.apache.drill.exec.vector.Float4Vector;
+import org.apache.drill.exec.vector.Float8Vector;
+import org.apache.drill.exec.vector.IntVector;
+import org.apache.drill.exec.vector.NullableVector;
+import org.apache.drill.exec.vector.ValueVector;
+import org.apache.drill.shaded.guava.com.google.common.base.Preconditions;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The range of the join keys seen on the build side of a hash join and, as long as
+ * there are few of them, their distinct values: one per probe field of the runtime filter.
+ * Unlike the bloom filter, which is probed row by row, it is compared with the column
+ * statistics of the probe side scan to skip the row groups none of whose rows may join.
+ * <p>
+ * Only INT, BIGINT, FLOAT4 and FLOAT8 keys are kept. The filter of a field gets disabled,
+ * and lets everything through, on any other type or on a null key.
+ * <p>
+ * It travels after the bloom filters in the data body of the runtime filter. Its size only
+ * depends on the number of fields and on the maximum number of values, so that the
+ * filters received from all the build side fragments may be merged in place.
+ */
+public class RangeFilter implements StatisticsFilter {
+
+  // Nothing inserted yet, the build side is empty so far
+  private static final int UNSET = 0;
+  private static final int DISABLED = 1;
+  private static final int LONG = 2;
+  private static final int DOUBLE = 3;
+
+  // Distinct value count of a field which got more distinct values than kept
+  private static final int OVERFLOW = -1;
+
+  private static final int HEADER_SIZE = 8;
+  private static final int FIELD_HEADER_SIZE = 24;
+
+  private final List<String> probeFields;
+  private final int maxValues;
+  private final int[] kinds;
+  private final long[] mins;
+  private final long[] maxs;
+  // Distinct values of each field, null once there are more than maxValues of them
+  private final List<Set<Long>> values;
+
+  public RangeFilter(List<String> probeFields, int maxValues) {
+    this.probeFields = probeFields;
+    this.maxValues = maxValues;
+    int fieldCount = probeFields.size();
+    kinds = new int[fieldCount];
+    mins = new long[fieldCount];
+    maxs = new long[fieldCount];
+    values = new ArrayList<>(fieldCount);
+    for (int i = 0; i < fieldCount; i++) {
+      values.add(new HashSet<Long>());
+    }
+  }
+
+  /**
+   * Reads back a range filter written by {@link #writeTo(DrillBuf)}.
+   */
+  public RangeFilter(List<String> probeFields, DrillBuf content) {
+    this(probeFields, content.getInt(4));
+    Preconditions.checkArgument(content.getInt(0) == probeFields.size(),
+        "the range filter does not match the probe fields");
+    int offset = HEADER_SIZE;
+    for (int field = 0; field < kinds.length; field++) {
+      kinds[field] = content.getInt(offset);
+      int count = content.getInt(offset + 4);
+      mins[field] = content.getLong(offset + 8);
+      maxs[field] = content.getLong(offset + 16);
+      if (count == OVERFLOW) {
+        values.set(field, null);
+      } else {
+        Set<Long> fieldValues = values.get(field);
+        for (int i = 0; i < count; i++) {
+          fieldValues.add(content.getLong(offset + FIELD_HEADER_SIZE + i * 8));
+        }
+      }
+      offset += fieldSize();
+    }
+  }
+
+  /**
+   * Adds the keys of a build side batch.
+   *
+   * @param field index of the probe field the keys join with
+   * @param vector build side key vector
+   * @param recordCount number of keys in the vector
+   */
+  public void insert(int field, ValueVector vector, int recordCount) {
+    if (kinds[field] == DISABLED) {
+      return;
+    }
+    int kind = kindOf(vector);
+    if (kind == DISABLED || kinds[field] != UNSET && kinds[field] != kind) {
+      disable(field);
+      return;
+    }
+    kinds[field] = kind;
+    ValueVector.Accessor accessor = vector.getAccessor();
+    ValueVector valuesVector = vector instanceof NullableVector ? ((NullableVector) vector).getValuesVector() : vector;
+    MinorType type = valuesVector.getField().getType().getMinorType();
+    for (int i = 0; i < recordCount; i++) {
+      if (accessor.isNull(i)) {
+        disable(field);
+        return;
+      }
+      switch (type) {
+        case INT:
+          insertLong(field, ((IntVector) valuesVector).getAccessor().get(i));
+          break;
+        case BIGINT:
+          insertLong(field, ((BigIntVector) valuesVector).getAccessor().get(i));
+          break;
+        case FLOAT4:
+          if (!insertDouble(field, ((Float4Vector) valuesVector).getAccessor().get(i))) {
+            return;
+          }
+          break;
+        default:
+          if (!insertDouble(field, ((Float8Vector) valuesVector).getAccessor().get(i))) {
+            return;
+          }
+      }
+    }
+  }
+
+  private static int kindOf(ValueVector vector) {
+    switch (vector.getField().getType().getMinorType()) {
+      case INT:
+      case BIGINT:
+        return LONG;
+      case FLOAT4:
+      case FLOAT8:
+        return DOUBLE;
+      default:
+        return DISABLED;
+    }
+  }
+
+  private void insertLong(int field, long value) {
+    if (isEmpty(field)) {
+      mins[field] = value;
+      maxs[field] = value;
+    } else {
+      mins[field] = Math.min(mins[field], value);
+      maxs[field] = Math.max(maxs[field], value);
+    }
+    addValue(field, value);
+  }
+
+  private boolean insertDouble(int field, double value) {
+    if (Double.isNaN(value)) {
+      disable(field);
+      return false;
+    }
+    // -0.0 joins with 0.0
+    long bits = Double.doubleToLongBits(value == 0.0 ? 0.0 : value);
+    boolean first = isEmpty(field);
+    if (first || value < Double.longBitsToDouble(mins[field])) {
+      mins[field] = bits;
+    }
+    if (first || value > Double.longBitsToDouble(maxs[field])) {
+      maxs[field] = bits;
+    }
+    addValue(field, bits);
+    return true;
+  }
+
+  private boolean isEmpty(int field) {
+    Set<Long> fieldValues = values.get(field);
+    return fieldValues != null && fieldValues.isEmpty();
+  }
+
+  private void addValue(int field, long value) {
+    Set<Long> fieldValues = values.get(field);
+    if (fieldValues != null && fieldValues.add(value) && fieldValues.size() > maxValues) {
+      values.set(field, null);
+    }
+  }
+
+  private void disable(int field) {
+    kinds[field] = DISABLED;
+    values.set(field, null);
+  }
+
+  /**
+   * Lets everything through, as when merged with a runtime filter which has no range filter.
+   */
+  public void disable() {
+    for (int field = 0; field < kinds.length; field++) {
+      disable(field);
+    }
+  }
+
+  /**
+   * Merges the range filter of another build side fragment of the same hash join into this one.
+   */
+  public void merge(RangeFilter other) {
+    Preconditions.checkArgument(other.kinds.length == kinds.length);
+    for (int field = 0; field < kinds.length; field++) {
+      if (other.kinds[field] == UNSET || other.isEmpty(field) || kinds[field] == DISABLED) {
+        continue;
+      }
+      if (kinds[field] == UNSET || isEmpty(field)) {
+        kinds[field] = other.kinds[field];
+        mins[field] = other.mins[field];
+        maxs[field] = other.maxs[field];
+        values.set(field, other.values.get(field) == null ? null : new HashSet<>(other.values.get(field)));
+        continue;
+      }
+      if (other.kinds[field] != kinds[field]) {
+        disable(field);
+        continue;
+      }
+      Set<Long> otherValues = other.values.get(field);
+      if (kinds[field] == LONG) {
+        mins[field] = Math.min(mins[field], other.mins[field]);
+        maxs[field] = Math.max(maxs[field], other.maxs[field]);
+      } else {
+        if (Double.longBitsToDouble(other.mins[field]) < Double.longBitsToDouble(mins[field])) {
+          mins[field] = other.mins[field];
+        }
+        if (Double.longBitsToDouble(other.maxs[field]) > Double.longBitsToDouble(maxs[field])) {
+          maxs[field] = other.maxs[field];
+        }
+      }
+      if (otherValues == null) {
+        values.set(field, null);
+      } else {
+        for (long value : otherValues) {
+          addValue(field, value);
+        }
+      }
+    }
+  }
+
+  /**
+   * Tells whether rows whose values of a probe field are all within the given range,
+   * as told by the statistics of the probe side, may join with the build side.
+   *
+   * @param probeField name of the probe side column
+   * @param min minimum value of the column, an Integer, Long, Float or Double
+   * @param max maximum value of the column
+   * @return false if none of the values in the range joins
+   */
+  public boolean canMatch(String probeField, Number min, Number max) {
+    int field = fieldIndex(probeField);
+    if (field < 0 || kinds[field] == DISABLED) {
+      return true;
+    }
+    Set<Long> fieldValues = values.get(field);
+    if (kinds[field] == UNSET || isEmpty(field)) {
+      // The build side is empty
+      return false;
+    }
+    if (kinds[field] == LONG) {
+      if (!(min instanceof Integer || min instanceof Long) || !(max instanceof Integer || max instanceof Long)) {
+        return true;
+      }
+      long low = min.longValue();
+      long high = max.longValue();
+      if (high < mins[field] || low > maxs[field]) {
+        return false;
+      }
+      if (fieldValues == null) {
+        return true;
+      }
+      for (long value : fieldValues) {
+        if (value >= low && value <= high) {
+          return true;
+        }
+      }
+      return false;
+    }
+    if (!(min instanceof Float || min instanceof Double) || !(max instanceof Float || max instanceof Double)) {
+      return true;
+    }
+    double low = min.doubleValue();
+    double high = max.doubleValue();
+    if (Double.isNaN(low) || Double.isNaN(high)) {
+      return true;
+    }
+    if (high < Double.longBitsToDouble(mins[field]) || low > Double.longBitsToDouble(maxs[field])) {
+      return false;
+    }
+    if (fieldValues == null) {
+      return true;
+    }
+    for (long bits : fieldValues) {
+      double value = Double.longBitsToDouble(bits);
+      if (value >= low && value <= high) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Nulls never join, they do not change the outcome.
+   */
+  @Override
+  public boolean canMatch(String field, Number min, Number max, boolean hasNulls) {
+    return canMatch(field, min, max);
+  }
+
+  private int fieldIndex(String probeField) {
+    for (int i = 0; i < probeFields.size(); i++) {
+      if (probeFields.get(i).equalsIgnoreCase(probeField)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  public List<String> getProbeFields() {
+    return probeFields;
+  }
+
+  @Override
+  public String toString() {
+    return "range filter on " + probeFields;
+  }
+
+  private int fieldSize() {
+    return FIELD_HEADER_SIZE + maxValues * 8;
+  }
+
+  /**
+   * @return the size in bytes of the range filter as written by {@link #writeTo(DrillBuf)}
+   */
+  public int getSizeInBytes() {
+    return HEADER_SIZE + kinds.length * fieldSize();
+  }
+
+  /**
+   * Writes this range filter at the beginning of the given buffer, which must hold
+   * at least {@link #getSizeInBytes()} bytes.
+   */
+  public void writeTo(DrillBuf content) {
+    Preconditions.checkArgument(content.capacity() >= getSizeInBytes());
+    content.setInt(0, kinds.length);
+    content.setInt(4, maxValues);
+    int offset = HEADER_SIZE;
+    for (int field = 0; field < kinds.length; field++) {
+      Set<Long> fieldValues = values.get(field);
+      content.setInt(offset, kinds[field]);
+      content.setInt(offset + 4, fieldValues == null ? OVERFLOW : fieldValues.size());
+      content.setLong(offset + 8, mins[field]);
+      content.setLong(offset + 16, maxs[field]);
+      if (fieldValues != null) {
+        int i = 0;
+        for (long value : fieldValues) {
+          content.setLong(offset + FIELD_HEADER_SIZE + i * 8, value);
+          i++;
+        }
+      }
+      offset += fieldSize();
+    }
+    content.writerIndex(getSizeInBytes());
+  }
+
+  /**
+   * @return a new buffer holding this range filter
+   */
+  public DrillBuf serialize(BufferAllocator allocator) {
+    DrillBuf content = allocator.buffer(getSizeInBytes());
+    content.setZero(0, content.capacity());
+    writeTo(content);
+    return content;
+  }
+}
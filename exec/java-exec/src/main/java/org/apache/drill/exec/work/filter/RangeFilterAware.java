@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.work.filter;
+
+import org.apache.drill.exec.ops.OperatorContext;
+
+/**
+ * A record reader which can tell, before it is set up, that none of the rows it would read
+ * may pass a {@link StatisticsFilter}, such as the {@link RangeFilter} of a hash join or the
+ * {@link TopNCutoff} of a Top-N.
+ */
+public interface RangeFilterAware {
+
+  /**
+   * @param filter filter received by the scan
+   * @param context context of the scan operator, to account for the skipped data
+   * @return true if the reader may be skipped without being set up
+   */
+  boolean canSkip(StatisticsFilter filter, OperatorContext context);
+}
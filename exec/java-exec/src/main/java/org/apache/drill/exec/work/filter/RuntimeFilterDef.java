@@ -21,6 +21,7 @@ import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.util.List;
+import java.util.Map;
 
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class RuntimeFilterDef {
@@ -35,6 +36,11 @@ public class RuntimeFilterDef {
 
   private long runtimeFilterIdentifier;
 
+  private long aggregationTimeout;
+
+  //Drillbit to the number of build side minor fragments it runs, set by the RuntimeFilterRouter
+  private Map<String, Integer> buildFragmentsPerDrillbit;
+
   @JsonCreator
   public RuntimeFilterDef(@JsonProperty("generateBloomFilter") boolean generateBloomFilter, @JsonProperty("generateMinMaxFilter") boolean generateMinMaxFilter,
                           @JsonProperty("bloomFilterDefs") List<BloomFilterDef> bloomFilterDefs, @JsonProperty("sendToForeman") boolean sendToForeman,
@@ -87,4 +93,20 @@ public class RuntimeFilterDef {
   public void setRuntimeFilterIdentifier(long runtimeFilterIdentifier) {
     this.runtimeFilterIdentifier = runtimeFilterIdentifier;
   }
+
+  public long getAggregationTimeout() {
+    return aggregationTimeout;
+  }
+
+  public void setAggregationTimeout(long aggregationTimeout) {
+    this.aggregationTimeout = aggregationTimeout;
+  }
+
+  public Map<String, Integer> getBuildFragmentsPerDrillbit() {
+    return buildFragmentsPerDrillbit;
+  }
+
+  public void setBuildFragmentsPerDrillbit(Map<String, Integer> buildFragmentsPerDrillbit) {
+    this.buildFragmentsPerDrillbit = buildFragmentsPerDrillbit;
+  }
 }
@@ -27,9 +27,11 @@ import org.apache.drill.exec.proto.UserBitShared;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
- * A reporter to send out the bloom filters to their receivers.
+ * A reporter to send out the bloom filters to their receivers. The ones to be sent to the Foreman
+ * are first aggregated with those of the other build side fragments running on the same Drillbit.
  */
 public class RuntimeFilterReporter {
 
@@ -40,10 +42,18 @@ public class RuntimeFilterReporter {
   }
 
   public void sendOut(List<BloomFilter> bloomFilters, List<String> probeFields, RuntimeFilterDef runtimeFilterDef, int hashJoinOpId) {
+    sendOut(bloomFilters, null, probeFields, runtimeFilterDef, hashJoinOpId);
+  }
+
+  /**
+   * Sends out the bloom filters, followed by the range filter of the join keys if not null.
+   */
+  public void sendOut(List<BloomFilter> bloomFilters, RangeFilter rangeFilter, List<String> probeFields,
+                      RuntimeFilterDef runtimeFilterDef, int hashJoinOpId) {
     boolean sendToForeman = runtimeFilterDef.isSendToForeman();
     long rfIdentifier = runtimeFilterDef.getRuntimeFilterIdentifier();
     ExecProtos.FragmentHandle fragmentHandle = context.getHandle();
-    DrillBuf[] data = new DrillBuf[bloomFilters.size()];
+    DrillBuf[] data = new DrillBuf[rangeFilter == null ? bloomFilters.size() : bloomFilters.size() + 1];
     List<Integer> bloomFilterSizeInBytes = new ArrayList<>();
     int i = 0;
     for (BloomFilter bloomFilter : bloomFilters) {
@@ -52,6 +62,9 @@ public class RuntimeFilterReporter {
       bloomFilterSizeInBytes.add(bfContent.capacity());
       i++;
     }
+    if (rangeFilter != null) {
+      data[i] = rangeFilter.serialize(context.getAllocator());
+    }
 
     UserBitShared.QueryId queryId = fragmentHandle.getQueryId();
     int majorFragmentId = fragmentHandle.getMajorFragmentId();
@@ -72,6 +85,17 @@ public class RuntimeFilterReporter {
     RuntimeFilterWritable runtimeFilterWritable = new RuntimeFilterWritable(runtimeFilterB, data);
 
     if (sendToForeman) {
+      Map<String, Integer> buildFragmentsPerDrillbit = runtimeFilterDef.getBuildFragmentsPerDrillbit();
+      Integer localFragments = buildFragmentsPerDrillbit == null ? null
+          : buildFragmentsPerDrillbit.get(LocalRuntimeFilterAggregator.endpointKey(context.getEndpoint()));
+      if (localFragments != null && localFragments > 1 && runtimeFilterDef.getAggregationTimeout() > 0) {
+        // The last local fragment sends the aggregated RuntimeFilter of this Drillbit
+        runtimeFilterWritable = context.getRuntimeFilterAggregator()
+            .add(runtimeFilterWritable, localFragments, runtimeFilterDef.getAggregationTimeout());
+        if (runtimeFilterWritable == null) {
+          return;
+        }
+      }
       CoordinationProtos.DrillbitEndpoint foremanEndpoint = context.getForemanEndpoint();
       AccountingDataTunnel dataTunnel = context.getDataTunnel(foremanEndpoint);
       dataTunnel.sendRuntimeFilter(runtimeFilterWritable);
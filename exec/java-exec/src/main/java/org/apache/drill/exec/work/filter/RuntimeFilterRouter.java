@@ -44,7 +44,8 @@ import java.util.Map;
  * The working flow of the RuntimeFilter has two kinds: Broadcast case and Partitioned case.
  * The HashJoinRecordBatch is responsible to generate the RuntimeFilter.
  * To Partitioned case:
- * The generated RuntimeFilter will be sent to the Foreman node. The Foreman node receives the RuntimeFilter
+ * The generated RuntimeFilter will be aggregated with the ones of the other build side MinorFragments running on
+ * the same Drillbit, then sent to the Foreman node. The Foreman node receives the RuntimeFilter
  * async, broadcasts them to the Scan nodes's MinorFragment. The RuntimeFilterRecordBatch which is downstream
  * to the Scan node will aggregate all the received RuntimeFilter and will leverage it to filter out the
  * scanned rows to generate the SV2.
@@ -85,6 +86,8 @@ public class RuntimeFilterRouter {
     //HashJoin node's major fragment id to its corresponding probe side scan node's belonging major fragment id
     Map<Integer, Integer> joinMjId2ScanMjId = new HashMap<>();
     Map<Integer, Integer> joinMjId2rfNumber = new HashMap<>();
+    //HashJoin node's major fragment id to the time to wait for all its RuntimeFilters after the first one
+    Map<Integer, Long> joinMjId2Timeout = new HashMap<>();
 
     RuntimeFilterParallelismCollector runtimeFilterParallelismCollector = new RuntimeFilterParallelismCollector();
     rootWrapper.getNode().getRoot().accept(runtimeFilterParallelismCollector, null);
@@ -102,11 +105,13 @@ public class RuntimeFilterRouter {
         joinMjId2probeScanEps.put(joinNodeMajorId, probeSideEndpoints);
         joinMjId2ScanMjId.put(joinNodeMajorId, probeSideScanMajorId);
         joinMjId2rfNumber.put(joinNodeMajorId, buildSideRfNumber);
+        joinMjId2Timeout.put(joinNodeMajorId, runtimeFilterDef.getAggregationTimeout());
       }
     }
     runtimeFilterSink.setJoinMjId2probeScanEps(joinMjId2probeScanEps);
     runtimeFilterSink.setJoinMjId2rfNumber(joinMjId2rfNumber);
     runtimeFilterSink.setJoinMjId2ScanMjId(joinMjId2ScanMjId);
+    runtimeFilterSink.setJoinMjId2Timeout(joinMjId2Timeout);
   }
 
   public void waitForComplete() {
@@ -151,6 +156,15 @@ public class RuntimeFilterRouter {
             throw new IllegalStateException(String.format("No valid Wrapper found for HashJoinPOP with id=%d", hashJoinPOP.getOperatorId()));
           }
           int buildSideRFNumber = container.getAssignedEndpoints().size();
+          if (runtimeFilterDef.getAggregationTimeout() > 0) {
+            //the build side fragments of a Drillbit aggregate their RuntimeFilters before sending one to the Foreman
+            Map<String, Integer> buildFragmentsPerDrillbit = new HashMap<>();
+            for (CoordinationProtos.DrillbitEndpoint endpoint : container.getAssignedEndpoints()) {
+              buildFragmentsPerDrillbit.merge(LocalRuntimeFilterAggregator.endpointKey(endpoint), 1, Integer::sum);
+            }
+            runtimeFilterDef.setBuildFragmentsPerDrillbit(buildFragmentsPerDrillbit);
+            buildSideRFNumber = buildFragmentsPerDrillbit.size();
+          }
           holder.setBuildSideRfNumber(buildSideRFNumber);
           int majorFragmentId = container.getMajorFragmentId();
           holder.setJoinMajorId(majorFragmentId);
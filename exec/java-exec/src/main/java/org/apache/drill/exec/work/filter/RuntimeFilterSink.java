@@ -37,9 +37,11 @@ import org.slf4j.LoggerFactory;
 
 import java.io.Closeable;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -47,7 +49,8 @@ import java.util.concurrent.atomic.AtomicBoolean;
 /**
  * This sink receives the RuntimeFilters from the netty thread,
  * aggregates them in an async thread, broadcast the final aggregated
- * one to the RuntimeFilterRecordBatch.
+ * one to the RuntimeFilterRecordBatch. An aggregated RuntimeFilter still
+ * incomplete after its timeout is dropped.
  */
 public class RuntimeFilterSink implements Closeable
 {
@@ -62,10 +65,13 @@ public class RuntimeFilterSink implements Closeable
   //HashJoin node's major fragment id to its corresponding probe side scan node's belonging major fragment id
   private Map<Integer, Integer> joinMjId2ScanMjId = new HashMap<>();
 
+  //HashJoin node's major fragment id to the time to wait for all its RuntimeFilters after the first one
+  private Map<Integer, Long> joinMjId2Timeout = new HashMap<>();
+
   //HashJoin node's major fragment id to its aggregated RuntimeFilterWritable
   private Map<Integer, RuntimeFilterWritable> joinMjId2AggregatedRF = new HashMap<>();
-  //for debug usage
-  private Map<Integer, Stopwatch> joinMjId2Stopwatch = new HashMap<>();
+  //HashJoin node's major fragment id to the time elapsed since its first RuntimeFilter arrived
+  private Map<Integer, Stopwatch> joinMjId2Stopwatch = new ConcurrentHashMap<>();
 
   private DrillbitContext drillbitContext;
 
@@ -77,6 +83,8 @@ public class RuntimeFilterSink implements Closeable
 
   private static final Logger logger = LoggerFactory.getLogger(RuntimeFilterSink.class);
 
+  private static final long EXPIRE_CHECK_INTERVAL_MS = 100;
+
 
   public RuntimeFilterSink(DrillbitContext drillbitContext, SendingAccountor sendingAccountor)
   {
@@ -94,10 +102,7 @@ public class RuntimeFilterSink implements Closeable
     }
     runtimeFilterWritable.retainBuffers(1);
     int joinMjId = runtimeFilterWritable.getRuntimeFilterBDef().getMajorFragmentId();
-    if (joinMjId2Stopwatch.get(joinMjId) == null) {
-      Stopwatch stopwatch = Stopwatch.createStarted();
-      joinMjId2Stopwatch.put(joinMjId, stopwatch);
-    }
+    joinMjId2Stopwatch.computeIfAbsent(joinMjId, id -> Stopwatch.createStarted());
     synchronized (rfQueue) {
       if (!running.get()) {
         runtimeFilterWritable.close();
@@ -133,8 +138,12 @@ public class RuntimeFilterSink implements Closeable
     int joinMajorId = runtimeFilterB.getMajorFragmentId();
     int buildSideRfNumber;
     RuntimeFilterWritable toAggregated = null;
-    buildSideRfNumber = joinMjId2rfNumber.get(joinMajorId);
-    buildSideRfNumber--;
+    Integer remaining = joinMjId2rfNumber.get(joinMajorId);
+    if (remaining == null) {
+      logger.debug("dropped a RFW of the majorId {}'s HashJoin nodes arrived after their aggregated RFW was flushed or dropped", joinMajorId);
+      return;
+    }
+    buildSideRfNumber = remaining - 1;
     joinMjId2rfNumber.put(joinMajorId, buildSideRfNumber);
     toAggregated = joinMjId2AggregatedRF.get(joinMajorId);
     if (toAggregated == null) {
@@ -157,6 +166,33 @@ public class RuntimeFilterSink implements Closeable
     }
   }
 
+  /**
+   * Drops the aggregated RFWs still waiting for some RFWs after their timeout, as an incomplete
+   * one would filter out rows which join. The probe side scans proceed without them.
+   */
+  private void expire()
+  {
+    Iterator<Map.Entry<Integer, RuntimeFilterWritable>> iterator = joinMjId2AggregatedRF.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<Integer, RuntimeFilterWritable> entry = iterator.next();
+      int joinMajorId = entry.getKey();
+      Long timeout = joinMjId2Timeout.get(joinMajorId);
+      Stopwatch stopwatch = joinMjId2Stopwatch.get(joinMajorId);
+      if (timeout == null || timeout <= 0 || stopwatch == null || stopwatch.elapsed(TimeUnit.MILLISECONDS) <= timeout) {
+        continue;
+      }
+      logger.warn(
+          "dropped the aggregated RFW of the majorId {}'s HashJoin nodes still waiting for {} RFWs after {} ms",
+          joinMajorId,
+          joinMjId2rfNumber.get(joinMajorId),
+          timeout
+      );
+      entry.getValue().close();
+      iterator.remove();
+      joinMjId2rfNumber.remove(joinMajorId);
+    }
+  }
+
   private void route(RuntimeFilterWritable srcRuntimeFilterWritable)
   {
     BitData.RuntimeFilterBDef runtimeFilterB = srcRuntimeFilterWritable.getRuntimeFilterBDef();
@@ -221,6 +257,11 @@ public class RuntimeFilterSink implements Closeable
     this.joinMjId2ScanMjId = joinMjId2ScanMjId;
   }
 
+  public void setJoinMjId2Timeout(Map<Integer, Long> joinMjId2Timeout)
+  {
+    this.joinMjId2Timeout = joinMjId2Timeout;
+  }
+
   private class AsyncAggregateWorker implements Runnable
   {
     private AtomicBoolean over = new AtomicBoolean(false);
@@ -233,8 +274,9 @@ public class RuntimeFilterSink implements Closeable
         synchronized (rfQueue) {
           try {
             toAggregate = rfQueue.poll();
-            while (toAggregate == null && running.get()) {
-              rfQueue.wait();
+            if (toAggregate == null && running.get()) {
+              // wake up regularly to drop the aggregated RFWs which timed out
+              rfQueue.wait(EXPIRE_CHECK_INTERVAL_MS);
               toAggregate = rfQueue.poll();
             }
           } catch (InterruptedException ex) {
@@ -243,6 +285,7 @@ public class RuntimeFilterSink implements Closeable
           }
         }
         if (toAggregate == null) {
+          expire();
           continue;
         }
         // perform aggregate outside the sync block.
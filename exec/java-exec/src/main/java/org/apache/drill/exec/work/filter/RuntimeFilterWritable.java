@@ -29,7 +29,8 @@ import java.util.List;
 
 /**
  * A binary wire transferable representation of the RuntimeFilter which contains
- * the runtime filter definition and its corresponding data.
+ * the runtime filter definition and its corresponding data: one buffer per bloom filter,
+ * optionally followed by a buffer holding the {@link RangeFilter} of the probe fields.
  */
 public class RuntimeFilterWritable implements AutoCloseables.Closeable{
 
@@ -42,7 +43,8 @@ public class RuntimeFilterWritable implements AutoCloseables.Closeable{
   public RuntimeFilterWritable(BitData.RuntimeFilterBDef runtimeFilterBDef, DrillBuf... data) {
     List<Integer> bfSizeInBytes = runtimeFilterBDef.getBloomFilterSizeInBytesList();
     int bufArrLen = data.length;
-    Preconditions.checkArgument(bfSizeInBytes.size() == bufArrLen, "the input DrillBuf number does not match the metadata definition!");
+    Preconditions.checkArgument(bfSizeInBytes.size() == bufArrLen || bfSizeInBytes.size() + 1 == bufArrLen,
+      "the input DrillBuf number does not match the metadata definition!");
     this.runtimeFilterBDef = runtimeFilterBDef;
     this.data = data;
     this.identifier = "majorFragmentId:" + runtimeFilterBDef.getMajorFragmentId()
@@ -77,6 +79,17 @@ public class RuntimeFilterWritable implements AutoCloseables.Closeable{
     return bloomFilters;
   }
 
+  /**
+   * @return the range filter following the bloom filters, or null if there is none
+   */
+  public RangeFilter unwrapRangeFilter() {
+    int bloomFilterNum = runtimeFilterBDef.getBloomFilterSizeInBytesCount();
+    if (data.length == bloomFilterNum) {
+      return null;
+    }
+    return new RangeFilter(runtimeFilterBDef.getProbeFieldsList(), data[bloomFilterNum]);
+  }
+
   public void aggregate(RuntimeFilterWritable runtimeFilterWritable) {
     List<BloomFilter> thisFilters = this.unwrap();
     List<BloomFilter> otherFilters = runtimeFilterWritable.unwrap();
@@ -88,6 +101,17 @@ public class RuntimeFilterWritable implements AutoCloseables.Closeable{
     for (BloomFilter bloomFilter : otherFilters) {
       bloomFilter.getContent().clear();
     }
+    RangeFilter thisRange = unwrapRangeFilter();
+    if (thisRange != null) {
+      RangeFilter otherRange = runtimeFilterWritable.unwrapRangeFilter();
+      if (otherRange != null) {
+        thisRange.merge(otherRange);
+      } else {
+        thisRange.disable();
+      }
+      // The merged filter has the same size
+      thisRange.writeTo(data[thisFilters.size()]);
+    }
   }
 
   public RuntimeFilterWritable duplicate(BufferAllocator bufferAllocator) {
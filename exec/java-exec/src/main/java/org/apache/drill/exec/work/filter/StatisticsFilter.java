@@ -0,0 +1,34 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.work.filter;
+
+/**
+ * A condition received by a scan at runtime, which tells from the statistics of a column
+ * whether some rows of a reader may pass it.
+ */
+public interface StatisticsFilter {
+
+  /**
+   * @param field name of a top level column of the scan
+   * @param min minimum non null value of the column
+   * @param max maximum non null value of the column
+   * @param hasNulls whether the column may hold nulls
+   * @return false if none of the rows may pass the filter
+   */
+  boolean canMatch(String field, Number min, Number max, boolean hasNulls);
+}
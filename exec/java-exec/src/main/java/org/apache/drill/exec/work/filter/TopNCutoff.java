@@ -0,0 +1,285 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.work.filter;
+
+import org.apache.calcite.rel.RelFieldCollation.Direction;
+import org.apache.drill.common.expression.LogicalExpression;
+import org.apache.drill.common.expression.SchemaPath;
+import org.apache.drill.common.logical.data.Order.Ordering;
+import org.apache.drill.common.types.TypeProtos.MinorType;
+import org.apache.drill.exec.record.selection.SelectionVector2;
+import org.apache.drill.exec.vector.BigIntVector;
+import org.apache.drill.exec.vector.Float4Vector;
+import org.apache.drill.exec.vector.Float8Vector;
+import org.apache.drill.exec.vector.IntVector;
+import org.apache.drill.exec.vector.NullableVector;
+import org.apache.drill.exec.vector.TimeStampVector;
+import org.apache.drill.exec.vector.ValueVector;
+
+/**
+ * The value of the first sort key of the last row kept by a Top-N whose heap is full.
+ * A row whose key sorts strictly after it may not enter the Top-N any more, whatever
+ * the other keys. As the heap only ever keeps better rows, the cutoff only tightens,
+ * so that the operators and the scan below the Top-N may discard such rows early.
+ * <p>
+ * Only INT, BIGINT, TIMESTAMP, FLOAT4 and FLOAT8 keys are handled. The cutoff lets
+ * everything through until it is first set, and for good once disabled. A null key
+ * never sets it, and the rows with a null key pass it when nulls sort first.
+ * <p>
+ * The Top-N and the operators it is shared with run in the same fragment, hence on the
+ * same thread.
+ */
+public class TopNCutoff implements StatisticsFilter {
+
+  // Nothing kept yet, or the heap is not full
+  private static final int UNSET = 0;
+  private static final int DISABLED = 1;
+  private static final int LONG = 2;
+  private static final int DOUBLE = 3;
+
+  private final String field;
+  private final boolean descending;
+  // Whether the rows with a null key sort before all the others
+  private final boolean nullsFirst;
+  private int kind = UNSET;
+  // A long value, or the bits of a double one
+  private long cutoff;
+
+  private TopNCutoff(String field, boolean descending, boolean nullsFirst) {
+    this.field = field;
+    this.descending = descending;
+    this.nullsFirst = nullsFirst;
+  }
+
+  /**
+   * @param ordering first sort key of the Top-N
+   * @return the cutoff of the key, or null if it is not a top level column
+   */
+  public static TopNCutoff create(Ordering ordering) {
+    LogicalExpression expr = ordering.getExpr();
+    if (!(expr instanceof SchemaPath) || !((SchemaPath) expr).isLeaf()) {
+      return null;
+    }
+    boolean descending = ordering.getDirection() == Direction.DESCENDING;
+    // Nulls sorting high come last in ascending order and first in descending order
+    return new TopNCutoff(((SchemaPath) expr).getRootSegmentPath(), descending,
+        ordering.nullsSortHigh() == descending);
+  }
+
+  /**
+   * @return name of the key column at the Top-N
+   */
+  public String getField() {
+    return field;
+  }
+
+  public boolean isSet() {
+    return kind == LONG || kind == DOUBLE;
+  }
+
+  /**
+   * Lets everything through again, for the Top-N to start over.
+   */
+  public void reset() {
+    if (kind != DISABLED) {
+      kind = UNSET;
+    }
+  }
+
+  public void disable() {
+    kind = DISABLED;
+  }
+
+  /**
+   * Tightens the cutoff to the key of the last row kept by the full heap of the Top-N.
+   *
+   * @param vector key column of the batch holding the row
+   * @param index index of the row in the batch
+   */
+  public void update(ValueVector vector, int index) {
+    if (kind == DISABLED || vector.getAccessor().isNull(index)) {
+      return;
+    }
+    ValueVector valuesVector = vector instanceof NullableVector ? ((NullableVector) vector).getValuesVector() : vector;
+    switch (valuesVector.getField().getType().getMinorType()) {
+      case INT:
+        updateLong(((IntVector) valuesVector).getAccessor().get(index));
+        break;
+      case BIGINT:
+        updateLong(((BigIntVector) valuesVector).getAccessor().get(index));
+        break;
+      case TIMESTAMP:
+        updateLong(((TimeStampVector) valuesVector).getAccessor().get(index));
+        break;
+      case FLOAT4:
+        updateDouble(((Float4Vector) valuesVector).getAccessor().get(index));
+        break;
+      case FLOAT8:
+        updateDouble(((Float8Vector) valuesVector).getAccessor().get(index));
+        break;
+      default:
+        disable();
+    }
+  }
+
+  private void updateLong(long value) {
+    if (kind == DOUBLE) {
+      disable();
+    } else if (kind == UNSET || passes(value)) {
+      kind = LONG;
+      cutoff = value;
+    }
+  }
+
+  private void updateDouble(double value) {
+    if (kind == LONG) {
+      disable();
+    } else if (!Double.isNaN(value) && (kind == UNSET || passes(value))) {
+      // NaN sorts after all the other values, a NaN cutoff would only keep NaN in descending order
+      kind = DOUBLE;
+      cutoff = Double.doubleToLongBits(value);
+    }
+  }
+
+  private static int kindOf(MinorType type) {
+    switch (type) {
+      case INT:
+      case BIGINT:
+      case TIMESTAMP:
+        return LONG;
+      case FLOAT4:
+      case FLOAT8:
+        return DOUBLE;
+      default:
+        return DISABLED;
+    }
+  }
+
+  private boolean passes(long value) {
+    return descending ? value >= cutoff : value <= cutoff;
+  }
+
+  private boolean passes(double value) {
+    double bound = Double.longBitsToDouble(cutoff);
+    return descending ? Double.isNaN(value) || value >= bound : !Double.isNaN(value) && value <= bound;
+  }
+
+  /**
+   * Tells whether some rows of a batch may still enter the Top-N.
+   *
+   * @param vector key column of the batch
+   * @param sv2 selection vector of the batch, or null
+   * @param recordCount number of rows of the batch
+   * @return false if none of the rows passes the cutoff
+   */
+  public boolean canMatchAny(ValueVector vector, SelectionVector2 sv2, int recordCount) {
+    if (!isSet()) {
+      return true;
+    }
+    ValueVector.Accessor accessor = vector.getAccessor();
+    ValueVector valuesVector = vector instanceof NullableVector ? ((NullableVector) vector).getValuesVector() : vector;
+    MinorType type = valuesVector.getField().getType().getMinorType();
+    if (kind != kindOf(type)) {
+      return true;
+    }
+    for (int i = 0; i < recordCount; i++) {
+      int index = sv2 == null ? i : sv2.getIndex(i);
+      if (accessor.isNull(index)) {
+        if (nullsFirst) {
+          return true;
+        }
+        continue;
+      }
+      boolean passes;
+      switch (type) {
+        case INT:
+          passes = passes(((IntVector) valuesVector).getAccessor().get(index));
+          break;
+        case BIGINT:
+          passes = passes(((BigIntVector) valuesVector).getAccessor().get(index));
+          break;
+        case TIMESTAMP:
+          passes = passes(((TimeStampVector) valuesVector).getAccessor().get(index));
+          break;
+        case FLOAT4:
+          passes = passes(((Float4Vector) valuesVector).getAccessor().get(index));
+          break;
+        default:
+          passes = passes(((Float8Vector) valuesVector).getAccessor().get(index));
+      }
+      if (passes) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Compares the cutoff with the statistics of the key column.
+   */
+  @Override
+  public boolean canMatch(String field, Number min, Number max, boolean hasNulls) {
+    if (!isSet() || !this.field.equalsIgnoreCase(field) || (hasNulls && nullsFirst)) {
+      return true;
+    }
+    // The best value of the column is the maximum in descending order and the minimum otherwise
+    Number best = descending ? max : min;
+    if (kind == LONG) {
+      return !(best instanceof Integer || best instanceof Long) || passes(best.longValue());
+    }
+    if (!(min instanceof Float || min instanceof Double) || !(max instanceof Float || max instanceof Double)
+        || Double.isNaN(min.doubleValue()) || Double.isNaN(max.doubleValue())) {
+      return true;
+    }
+    return passes(best.doubleValue());
+  }
+
+  /**
+   * @param field name of the key column below an operator which renames it
+   * @return the cutoff as seen from below the operator
+   */
+  public StatisticsFilter renamed(final String field) {
+    return new StatisticsFilter() {
+      @Override
+      public boolean canMatch(String otherField, Number min, Number max, boolean hasNulls) {
+        return !field.equalsIgnoreCase(otherField) || TopNCutoff.this.canMatch(TopNCutoff.this.field, min, max, hasNulls);
+      }
+
+      @Override
+      public String toString() {
+        return TopNCutoff.this.toString() + " as " + field;
+      }
+    };
+  }
+
+  @Override
+  public String toString() {
+    String value;
+    switch (kind) {
+      case LONG:
+        value = String.valueOf(cutoff);
+        break;
+      case DOUBLE:
+        value = String.valueOf(Double.longBitsToDouble(cutoff));
+        break;
+      default:
+        value = "unset";
+    }
+    return "Top-N cutoff on " + field + (descending ? " >= " : " <= ") + value;
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.work.fragment;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.drill.common.config.DrillConfig;
+import org.apache.drill.exec.ExecConstants;
+
+/**
+ * Bounded, work-stealing pool on which the {@link FragmentExecutor}s of a
+ * Drillbit run, used instead of the unbounded cached thread pool when
+ * <tt>drill.exec.fragment_scheduler.enabled</tt> is set.
+ * <p>
+ * The pool runs at most <i>cores * parallelism_factor</i> fragments at a time;
+ * the others wait in the pool's queue. A fragment cannot give up its thread
+ * in the middle of an operator tree, so instead the places where a fragment
+ * waits on another one (an empty {@link org.apache.drill.exec.work.batch.RawBatchBuffer},
+ * outgoing flow control in the data tunnel, the
+ * {@link org.apache.drill.exec.ops.SendingAccountor}, runtime filters) go
+ * through {@link #managedCall(BlockingCall)}. While a fragment is blocked
+ * there, the pool lets another thread run a queued fragment, so the number
+ * of fragments actually using a CPU stays at the configured parallelism and,
+ * up to the limit below, the producers a fragment waits on still get a thread.
+ * Threads that became idle are retired by the pool.
+ * <p>
+ * The pool makes up for at most <i>max_threads - parallelism</i> blocked
+ * fragments at a time, so that a query blocked on many exchanges cannot
+ * start thousands of threads. Past that, blocked fragments keep their thread
+ * while they wait: if all the threads are taken by fragments waiting on
+ * fragments still in the queue, the Drillbit deadlocks. <tt>max_threads</tt>
+ * must therefore be well above the number of fragments expected to wait at
+ * the same time.
+ */
+public final class FragmentScheduler {
+  private static final org.slf4j.Logger logger = org.slf4j.LoggerFactory.getLogger(FragmentScheduler.class);
+
+  /**
+   * A blocking call made by a fragment thread.
+   *
+   * @param <T> the result type
+   * @param <E> the checked exception thrown by the call, other than
+   * {@link InterruptedException}
+   */
+  @FunctionalInterface
+  public interface BlockingCall<T, E extends Exception> {
+    T call() throws E, InterruptedException;
+  }
+
+  private FragmentScheduler() { }
+
+  /**
+   * Creates the fragment pool, sized from the number of cores and the
+   * configured parallelism factor.
+   */
+  public static ForkJoinPool newPool(DrillConfig config) {
+    final int numCores = Runtime.getRuntime().availableProcessors();
+    final double factor = config.getDouble(ExecConstants.FRAGMENT_SCHEDULER_PARALLELISM_FACTOR);
+    final int parallelism = Math.max(1, (int) Math.ceil(numCores * factor));
+    final int maxThreads = config.getInt(ExecConstants.FRAGMENT_SCHEDULER_MAX_THREADS);
+    logger.info("Running fragments on a pool with parallelism {} and at most {} threads", parallelism,
+        Math.max(parallelism, maxThreads));
+    return newPool(parallelism, maxThreads);
+  }
+
+  static ForkJoinPool newPool(int parallelism, int maxThreads) {
+    return new FragmentPool(parallelism, maxThreads);
+  }
+
+  /**
+   * The fragment pool, which counts the blocked fragments it makes up for.
+   */
+  private static class FragmentPool extends ForkJoinPool {
+    private final Semaphore compensations;
+
+    FragmentPool(int parallelism, int maxThreads) {
+      super(parallelism, new FragmentThreadFactory(),
+          (thread, t) -> logger.error("{} leaked an exception.", thread.getName(), t),
+          true); // Fragments are independent tasks, run them in FIFO order
+      compensations = new Semaphore(Math.max(0, maxThreads - parallelism));
+    }
+  }
+
+  private static class FragmentThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    @Override
+    public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+      ForkJoinWorkerThread thread = new ForkJoinWorkerThread(pool) { };
+      thread.setName("drill-fragment-" + threadCount.incrementAndGet());
+      return thread;
+    }
+  }
+
+  /**
+   * Runs a call that may block waiting for another fragment. On a thread of
+   * the fragment pool the call is made through
+   * {@link ForkJoinPool#managedBlock(ForkJoinPool.ManagedBlocker)} so that the
+   * pool can start another fragment meanwhile, unless it already makes up
+   * for as many blocked fragments as allowed, in which case the call blocks
+   * the thread until it returns. On any other thread, including
+   * the threads of other fork/join pools, it is simply called.
+   *
+   * @return the result of the call
+   */
+  public static <T, E extends Exception> T managedCall(BlockingCall<T, E> call) throws E, InterruptedException {
+    final Thread thread = Thread.currentThread();
+    if (!(thread instanceof ForkJoinWorkerThread) || !(((ForkJoinWorkerThread) thread).getPool() instanceof FragmentPool)) {
+      return call.call();
+    }
+    final FragmentPool pool = (FragmentPool) ((ForkJoinWorkerThread) thread).getPool();
+    if (!pool.compensations.tryAcquire()) {
+      return call.call();
+    }
+    try {
+      final CallBlocker<T, E> blocker = new CallBlocker<>(call);
+      ForkJoinPool.managedBlock(blocker);
+      return blocker.getResult();
+    } finally {
+      pool.compensations.release();
+    }
+  }
+
+  private static class CallBlocker<T, E extends Exception> implements ForkJoinPool.ManagedBlocker {
+    private final BlockingCall<T, E> call;
+    private boolean done;
+    private T result;
+    private Exception failure;
+
+    CallBlocker(BlockingCall<T, E> call) {
+      this.call = call;
+    }
+
+    @Override
+    public boolean block() throws InterruptedException {
+      try {
+        result = call.call();
+      } catch (InterruptedException e) {
+        throw e;
+      } catch (Exception e) {
+        failure = e;
+      }
+      done = true;
+      return true;
+    }
+
+    @Override
+    public boolean isReleasable() {
+      return done;
+    }
+
+    @SuppressWarnings("unchecked")
+    T getResult() throws E {
+      if (failure != null) {
+        // Either an E or an unchecked exception, as declared by the call
+        throw (E) failure;
+      }
+      return result;
+    }
+  }
+}
@@ -33,6 +33,7 @@ import org.apache.drill.exec.expr.holders.ValueHolder;
 import org.apache.drill.exec.vector.ValueHolderHelper;
 import org.apache.drill.test.TestTools;
 import org.apache.drill.exec.ExecTest;
+import org.apache.drill.exec.cache.ResultCache;
 import org.apache.drill.exec.expr.fn.FunctionImplementationRegistry;
 import org.apache.drill.exec.memory.BufferAllocator;
 import org.apache.drill.exec.memory.RootAllocatorFactory;
@@ -41,6 +42,7 @@ import org.apache.drill.exec.physical.PhysicalPlan;
 import org.apache.drill.exec.planner.physical.PlannerSettings;
 import org.apache.drill.exec.planner.sql.DrillOperatorTable;
 import org.apache.drill.exec.planner.sql.DrillSqlWorker;
+import org.apache.drill.exec.planner.sql.PlanCache;
 import org.apache.drill.exec.proto.CoordinationProtos.DrillbitEndpoint;
 import org.apache.drill.exec.rpc.user.UserSession;
 import org.apache.drill.exec.server.DrillbitContext;
@@ -123,6 +125,8 @@ public class PlanningBase extends ExecTest {
     when(context.getAllocator()).thenReturn(allocator);
     when(context.getExecutionControls()).thenReturn(executionControls);
     when(context.getLpPersistence()).thenReturn(logicalPlanPersistence);
+    when(context.getPlanCache()).thenReturn(new PlanCache(config, null, logicalPlanPersistence));
+    when(context.getResultCache()).thenReturn(new ResultCache(config));
     // mocks for org.apache.drill.TestTpchPlanning#tpch06 test.
     // With changes for decimal types, subtract udf for decimals is used.
     when(context.getManagedBuffer()).thenReturn(allocator.buffer(4));
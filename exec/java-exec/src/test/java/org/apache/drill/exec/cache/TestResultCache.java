@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.ClusterFixtureBuilder;
+import org.apache.drill.test.ClusterTest;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Runs repeated queries with the result cache enabled, checking that cached
+ * results are served only while the scanned files are unchanged.
+ */
+public class TestResultCache extends ClusterTest {
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    ClusterFixtureBuilder builder = ClusterFixture.builder(dirTestWatcher)
+        .configProperty(ExecConstants.RESULT_CACHE_DIRECTORY, dirTestWatcher.getTmpDir().getAbsolutePath())
+        .configProperty(ExecConstants.RESULT_CACHE_MAX_ENTRY_BYTES, 1024 * 1024)
+        .sessionOption(ExecConstants.RESULT_CACHE_ENABLED_KEY, true);
+    startCluster(builder);
+  }
+
+  private static ResultCache resultCache() {
+    return cluster.drillbit().getContext().getResultCache();
+  }
+
+  @Test
+  public void testRepeatedQuery() throws Exception {
+    String sql = "SELECT n_regionkey, COUNT(*) AS cnt, MAX(n_name) AS mx " +
+        "FROM cp.`tpch/nation.parquet` GROUP BY n_regionkey";
+    client.queryBuilder().sql(sql).run();
+    long hits = resultCache().getHits();
+    testBuilder()
+        .unOrdered()
+        .sqlQuery(sql)
+        .optionSettingQueriesForBaseline("alter session set `%s` = false", ExecConstants.RESULT_CACHE_ENABLED_KEY)
+        .sqlBaselineQuery(sql)
+        .go();
+    assertEquals(hits + 1, resultCache().getHits());
+  }
+
+  @Test
+  public void testEmptyResult() throws Exception {
+    String sql = "SELECT n_name FROM cp.`tpch/nation.parquet` WHERE n_nationkey < 0";
+    assertEquals(0, client.queryBuilder().sql(sql).run().recordCount());
+    long hits = resultCache().getHits();
+    testBuilder()
+        .sqlQuery(sql)
+        .expectsEmptyResultSet()
+        .go();
+    assertEquals(hits + 1, resultCache().getHits());
+  }
+
+  @Test
+  public void testChangedFiles() throws Exception {
+    File table = new File(dirTestWatcher.getDfsTestTmpDir(), "result_cache_changed");
+    assertTrue(table.mkdirs());
+    File file = new File(table, "1.json");
+    Files.write(file.toPath(), "{\"a\": 1}\n{\"a\": 2}\n".getBytes(StandardCharsets.UTF_8));
+
+    String sql = "SELECT SUM(a) FROM dfs.tmp.`result_cache_changed`";
+    assertEquals(3, client.queryBuilder().sql(sql).singletonLong());
+    long hits = resultCache().getHits();
+    assertEquals(3, client.queryBuilder().sql(sql).singletonLong());
+    assertEquals(hits + 1, resultCache().getHits());
+    int fileCount = resultCache().getFileCount();
+
+    // Rewritten file
+    long lastModified = file.lastModified();
+    Files.write(file.toPath(), "{\"a\": 10}\n".getBytes(StandardCharsets.UTF_8));
+    assertTrue(file.setLastModified(lastModified + 10_000));
+    long invalidations = resultCache().getInvalidations();
+    assertEquals(10, client.queryBuilder().sql(sql).singletonLong());
+    assertEquals(hits + 1, resultCache().getHits());
+    assertEquals(invalidations + 1, resultCache().getInvalidations());
+    // The hit released the file of the invalidated results, replaced by the new ones
+    assertEquals(fileCount, resultCache().getFileCount());
+
+    // Added file
+    Files.write(new File(table, "2.json").toPath(), "{\"a\": 4}\n".getBytes(StandardCharsets.UTF_8));
+    assertEquals(14, client.queryBuilder().sql(sql).singletonLong());
+    assertEquals(hits + 1, resultCache().getHits());
+  }
+
+  /**
+   * A data file rewritten under a table with a metadata cache, before the
+   * cache is refreshed, still invalidates the cached results.
+   */
+  @Test
+  public void testChangedFileWithMetadataCache() throws Exception {
+    client.queryBuilder().sql("CREATE TABLE dfs.tmp.`result_cache_metadata` AS " +
+        "SELECT n_nationkey FROM cp.`tpch/nation.parquet` WHERE n_nationkey < 5").run();
+    client.queryBuilder().sql("CREATE TABLE dfs.tmp.`result_cache_metadata_new` AS " +
+        "SELECT n_nationkey FROM cp.`tpch/nation.parquet` WHERE n_nationkey BETWEEN 5 AND 9").run();
+    client.queryBuilder().sql("REFRESH TABLE METADATA dfs.tmp.`result_cache_metadata`").run();
+
+    String sql = "SELECT SUM(n_nationkey) FROM dfs.tmp.`result_cache_metadata`";
+    assertEquals(10, client.queryBuilder().sql(sql).singletonLong());
+    long hits = resultCache().getHits();
+    assertEquals(10, client.queryBuilder().sql(sql).singletonLong());
+    assertEquals(hits + 1, resultCache().getHits());
+
+    // Same row count, older modification times: the metadata cache still looks current
+    File table = new File(dirTestWatcher.getDfsTestTmpDir(), "result_cache_metadata");
+    File file = parquetFile(table);
+    long fileModified = file.lastModified();
+    long tableModified = table.lastModified();
+    Files.copy(parquetFile(new File(dirTestWatcher.getDfsTestTmpDir(), "result_cache_metadata_new")).toPath(),
+        file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    assertTrue(file.setLastModified(fileModified - 10_000));
+    assertTrue(table.setLastModified(tableModified));
+
+    long invalidations = resultCache().getInvalidations();
+    assertEquals(35, client.queryBuilder().sql(sql).singletonLong());
+    assertEquals(hits + 1, resultCache().getHits());
+    assertEquals(invalidations + 1, resultCache().getInvalidations());
+  }
+
+  private static File parquetFile(File table) {
+    File[] files = table.listFiles((dir, name) -> name.endsWith(".parquet"));
+    assertEquals(1, files.length);
+    return files[0];
+  }
+
+  @Test
+  public void testRandomNotCached() throws Exception {
+    String sql = "SELECT n_name, RANDOM() AS r FROM cp.`tpch/nation.parquet`";
+    long hits = resultCache().getHits();
+    long misses = resultCache().getMisses();
+    client.queryBuilder().sql(sql).run();
+    client.queryBuilder().sql(sql).run();
+    assertEquals(hits, resultCache().getHits());
+    assertEquals(misses, resultCache().getMisses());
+  }
+
+  @Test
+  public void testLargeResultNotCached() throws Exception {
+    String sql = "SELECT * FROM cp.`tpch/lineitem.parquet`";
+    long hits = resultCache().getHits();
+    long rowCount = client.queryBuilder().sql(sql).run().recordCount();
+    assertEquals(rowCount, client.queryBuilder().sql(sql).run().recordCount());
+    assertEquals(hits, resultCache().getHits());
+  }
+
+  @Test
+  public void testSysTable() throws Exception {
+    String sql = "SELECT r_name FROM cp.`tpch/region.parquet` WHERE r_regionkey > 1";
+    client.queryBuilder().sql(sql).run();
+    client.queryBuilder().sql(sql).run();
+    assertTrue(client.queryBuilder().sql("SELECT hit_ratio FROM sys.result_cache").singletonDouble() > 0);
+    assertTrue(client.queryBuilder().sql("SELECT size_bytes FROM sys.result_cache").singletonLong() > 0);
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.ops;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import io.netty.buffer.DrillBuf;
+import org.apache.drill.categories.MemoryTest;
+import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.test.SubOperatorTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+@Category(MemoryTest.class)
+public class TestFragmentMemoryPool extends SubOperatorTest {
+
+  private static final long ONE_MEG = 1024 * 1024;
+
+  @Test
+  public void testGiveBackAndBorrow() {
+    FragmentMemoryPool pool = new FragmentMemoryPool(true);
+    try (BufferAllocator sort = fixture.allocator().newChildAllocator("sort", 0, 10 * ONE_MEG);
+         BufferAllocator agg = fixture.allocator().newChildAllocator("agg", 0, 10 * ONE_MEG)) {
+
+      // Nothing to borrow yet
+      assertFalse(pool.borrow(sort, ONE_MEG));
+      assertEquals(10 * ONE_MEG, sort.getLimit());
+
+      // The aggregate holds 1 MB when done, and gives back the rest
+      DrillBuf buf = agg.buffer((int) ONE_MEG);
+      assertEquals(9 * ONE_MEG, pool.giveBack(agg));
+      assertEquals(ONE_MEG, agg.getLimit());
+      assertEquals(9 * ONE_MEG, pool.getAvailable());
+
+      // Nothing more to give back
+      assertEquals(0, pool.giveBack(agg));
+      buf.release();
+
+      // The sort borrows most of it, but not more than is left
+      assertTrue(pool.borrow(sort, 8 * ONE_MEG));
+      assertEquals(18 * ONE_MEG, sort.getLimit());
+      assertEquals(ONE_MEG, pool.getAvailable());
+      assertFalse(pool.borrow(sort, 2 * ONE_MEG));
+      assertEquals(18 * ONE_MEG, sort.getLimit());
+
+      // The sort can allocate beyond its original limit
+      DrillBuf big = sort.buffer((int) (16 * ONE_MEG));
+      big.release();
+
+      // and gives back what it borrowed once done
+      assertEquals(18 * ONE_MEG, pool.giveBack(sort));
+      assertEquals(19 * ONE_MEG, pool.getAvailable());
+    }
+  }
+
+  @Test
+  public void testDisabled() {
+    FragmentMemoryPool pool = new FragmentMemoryPool(false);
+    try (BufferAllocator agg = fixture.allocator().newChildAllocator("agg", 0, 10 * ONE_MEG)) {
+      assertEquals(0, pool.giveBack(agg));
+      assertEquals(10 * ONE_MEG, agg.getLimit());
+      assertEquals(0, pool.getAvailable());
+      assertFalse(pool.borrow(agg, ONE_MEG));
+      assertEquals(10 * ONE_MEG, agg.getLimit());
+    }
+  }
+}
@@ -17,6 +17,7 @@
  */
 package org.apache.drill.exec.physical.impl.TopN;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 import java.util.Random;
@@ -34,24 +35,33 @@ import org.apache.drill.common.expression.FieldReference;
 import org.apache.drill.common.logical.data.Order;
 import org.apache.drill.common.types.TypeProtos;
 import org.apache.drill.common.types.Types;
+import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.expr.fn.FunctionImplementationRegistry;
 import org.apache.drill.exec.memory.RootAllocator;
 import org.apache.drill.exec.physical.impl.sort.RecordBatchData;
+import org.apache.drill.exec.physical.impl.xsort.managed.ExternalSortBatch;
 import org.apache.drill.exec.pop.PopUnitTestBase;
+import org.apache.drill.exec.proto.UserBitShared.CoreOperatorType;
 import org.apache.drill.exec.record.BatchSchema;
 import org.apache.drill.exec.record.ExpandableHyperContainer;
 import org.apache.drill.exec.record.MaterializedField;
 import org.apache.drill.exec.record.VectorContainer;
+import org.apache.drill.exec.store.CommonParquetRecordReader;
 import org.apache.drill.test.ClientFixture;
 import org.apache.drill.test.ClusterFixture;
 import org.apache.drill.exec.physical.rowSet.HyperRowSetImpl;
 import org.apache.drill.exec.physical.rowSet.RowSet;
 import org.apache.drill.exec.physical.rowSet.RowSetBuilder;
+import org.apache.drill.exec.physical.rowSet.RowSetReader;
+import org.apache.drill.test.ProfileParser;
+import org.apache.drill.test.QueryRowSetIterator;
 import org.apache.drill.test.rowSet.RowSetComparison;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.when;
 
 @Category(OperatorTest.class)
@@ -172,4 +182,98 @@ public class TopNBatchTest extends PopUnitTestBase {
         .go();
     }
   }
+
+  /**
+   * End to end test of a TopN whose rows outgrow its memory and go through the external sort.
+   * @throws Throwable
+   */
+  @Test
+  public void sortSpilled() throws Throwable {
+    ClusterFixtureBuilder builder = ClusterFixture.builder(dirTestWatcher)
+      .sessionOption(ExecConstants.TOPN_SPILL_MIN_LIMIT_KEY, 1)
+      .sessionOption(ExecConstants.MAX_QUERY_MEMORY_PER_NODE_KEY, 60 * 1024 * 1024)
+      .sessionOption(ExecConstants.PERCENT_MEMORY_PER_QUERY_KEY, 0.0)
+      .maxParallelization(1)
+      .saveProfiles();
+    try (ClusterFixture cluster = builder.build();
+         ClientFixture client = cluster.clientFixture()) {
+      String sql = "SELECT id_i, name_s100 FROM `mock`.`employee_500K` ORDER BY id_i LIMIT 400000";
+      QueryRowSetIterator iter = client.queryBuilder().sql(sql).rowSetIterator();
+      int rowCount = 0;
+      int last = Integer.MIN_VALUE;
+      while (iter.hasNext()) {
+        RowSet result = iter.next();
+        RowSetReader reader = result.reader();
+        while (reader.next()) {
+          int id = reader.scalar(0).getInt();
+          assertTrue(id >= last);
+          last = id;
+          rowCount++;
+        }
+        result.clear();
+      }
+      assertEquals(400000, rowCount);
+
+      ProfileParser profile = client.parseProfile(iter.queryIdString());
+      long spillCount = 0;
+      for (ProfileParser.OperatorProfile op : profile.getOpsOfType(CoreOperatorType.TOP_N_SORT_VALUE)) {
+        spillCount += op.getMetric(ExternalSortBatch.Metric.SPILL_COUNT.ordinal());
+      }
+      assertTrue(spillCount > 0);
+    }
+  }
+
+  /**
+   * End to end test of a TopN whose cutoff drops the incoming batches and the row groups of a Parquet table written
+   * in the sort order, through a filter and projects which rename the key or take it out of a star.
+   * @throws Throwable
+   */
+  @Test
+  public void sortCutoffPushedDown() throws Throwable {
+    ClusterFixtureBuilder builder = ClusterFixture.builder(dirTestWatcher)
+      .sessionOption(ExecConstants.PARQUET_BLOCK_SIZE, 32 * 1024)
+      .sessionOption(ExecConstants.PARQUET_FLAT_BATCH_NUM_RECORDS, 512)
+      .maxParallelization(1)
+      .saveProfiles();
+    try (ClusterFixture cluster = builder.build();
+         ClientFixture client = cluster.clientFixture()) {
+      // A TIMESTAMP_MILLIS key, unique and descending through the row groups
+      client.queryBuilder().sql("CREATE TABLE dfs.tmp.topn_cutoff AS SELECT l_orderkey AS id, " +
+        "TO_TIMESTAMP(l_orderkey * 10 + l_linenumber) AS ts FROM cp.`tpch/lineitem.parquet` ORDER BY ts DESC").run();
+      String[] queries = {
+        "SELECT id, ts FROM dfs.tmp.topn_cutoff ORDER BY ts DESC LIMIT 10",
+        "SELECT id AS order_id, ts AS event_time FROM dfs.tmp.topn_cutoff WHERE MOD(id, 2) = 0 " +
+          "ORDER BY event_time DESC LIMIT 10",
+        "SELECT *, id + 1 AS next_id FROM dfs.tmp.topn_cutoff ORDER BY ts DESC LIMIT 10"};
+      for (String sql : queries) {
+        client.alterSession(ExecConstants.TOPN_CUTOFF_PUSHDOWN_KEY, false);
+        List<String> expected = new ArrayList<>();
+        readRows(client.queryBuilder().sql(sql).rowSetIterator(), expected);
+        client.alterSession(ExecConstants.TOPN_CUTOFF_PUSHDOWN_KEY, true);
+        List<String> actual = new ArrayList<>();
+        QueryRowSetIterator iter = client.queryBuilder().sql(sql).rowSetIterator();
+        readRows(iter, actual);
+        assertEquals(10, actual.size());
+        assertEquals(expected, actual);
+
+        ProfileParser profile = client.parseProfile(iter.queryIdString());
+        long filtered = 0;
+        for (ProfileParser.OperatorProfile op : profile.getOpsOfType(CoreOperatorType.PARQUET_ROW_GROUP_SCAN_VALUE)) {
+          filtered += op.getMetric(CommonParquetRecordReader.Metric.ROWGROUPS_RUNTIME_FILTERED.ordinal());
+        }
+        assertTrue(sql, filtered > 0);
+      }
+    }
+  }
+
+  private static void readRows(QueryRowSetIterator iter, List<String> rows) {
+    while (iter.hasNext()) {
+      RowSet result = iter.next();
+      RowSetReader reader = result.reader();
+      while (reader.next()) {
+        rows.add(reader.getAsString());
+      }
+      result.clear();
+    }
+  }
 }
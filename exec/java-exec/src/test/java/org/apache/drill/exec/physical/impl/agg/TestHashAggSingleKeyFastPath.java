@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.agg;
+
+import org.apache.drill.categories.OperatorTest;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.planner.physical.PlannerSettings;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.ClusterFixtureBuilder;
+import org.apache.drill.test.ClusterTest;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Checks that hash aggregates on a single fixed-width key produce the same
+ * results with the batch-at-a-time key hashing as with the generated hash.
+ */
+@Category(OperatorTest.class)
+public class TestHashAggSingleKeyFastPath extends ClusterTest {
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    ClusterFixtureBuilder builder = ClusterFixture.builder(dirTestWatcher)
+        .sessionOption(PlannerSettings.STREAMAGG.getOptionName(), false);
+    startCluster(builder);
+  }
+
+  private void compareWithGeneratedHash(String sql) throws Exception {
+    testBuilder()
+        .unOrdered()
+        .optionSettingQueriesForTestQuery("alter session set `%s` = true", ExecConstants.HASHAGG_SINGLE_KEY_FAST_PATH_KEY)
+        .sqlQuery(sql)
+        .optionSettingQueriesForBaseline("alter session set `%s` = false", ExecConstants.HASHAGG_SINGLE_KEY_FAST_PATH_KEY)
+        .sqlBaselineQuery(sql)
+        .go();
+  }
+
+  @Test
+  public void testIntKey() throws Exception {
+    compareWithGeneratedHash("SELECT l_orderkey, COUNT(*) AS cnt, SUM(l_quantity) AS qty " +
+        "FROM cp.`tpch/lineitem.parquet` GROUP BY l_orderkey");
+  }
+
+  @Test
+  public void testBigIntKey() throws Exception {
+    compareWithGeneratedHash("SELECT k, COUNT(*) AS cnt FROM " +
+        "(SELECT CAST(l_partkey AS BIGINT) * 1000000007 AS k FROM cp.`tpch/lineitem.parquet`) GROUP BY k");
+  }
+
+  @Test
+  public void testDateKey() throws Exception {
+    compareWithGeneratedHash("SELECT l_shipdate, MAX(l_extendedprice) AS mx " +
+        "FROM cp.`tpch/lineitem.parquet` GROUP BY l_shipdate");
+  }
+
+  @Test
+  public void testNullableKey() throws Exception {
+    compareWithGeneratedHash("SELECT k, COUNT(*) AS cnt FROM " +
+        "(SELECT CASE WHEN MOD(l_linenumber, 3) = 0 THEN NULL ELSE l_suppkey END AS k " +
+        "FROM cp.`tpch/lineitem.parquet`) GROUP BY k");
+  }
+
+  @Test
+  public void testTwoPhase() throws Exception {
+    try {
+      client.alterSession(PlannerSettings.FORCE_2PHASE_AGGR_KEY, true);
+      client.alterSession(ExecConstants.SLICE_TARGET, 1);
+      compareWithGeneratedHash("SELECT l_orderkey, COUNT(*) AS cnt " +
+          "FROM cp.`tpch/lineitem.parquet` GROUP BY l_orderkey");
+    } finally {
+      client.resetSession(PlannerSettings.FORCE_2PHASE_AGGR_KEY);
+      client.resetSession(ExecConstants.SLICE_TARGET);
+    }
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.common;
+
+import org.apache.drill.categories.OperatorTest;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.planner.physical.PlannerSettings;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.ClusterFixtureBuilder;
+import org.apache.drill.test.ClusterTest;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Runs hash aggregate and hash join queries with the open-addressing hash
+ * table and checks the results against the chained hash table.
+ */
+@Category(OperatorTest.class)
+public class TestOpenAddressingHashTable extends ClusterTest {
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    ClusterFixtureBuilder builder = ClusterFixture.builder(dirTestWatcher)
+        .sessionOption(PlannerSettings.STREAMAGG.getOptionName(), false)
+        .sessionOption(PlannerSettings.MERGEJOIN.getOptionName(), false)
+        .sessionOption(PlannerSettings.NESTEDLOOPJOIN.getOptionName(), false)
+        // Start small so that the slot array is resized several times
+        .sessionOption(ExecConstants.MIN_HASH_TABLE_SIZE_KEY, 1024);
+    startCluster(builder);
+  }
+
+  private void compareWithChainedTable(String sql) throws Exception {
+    testBuilder()
+        .unOrdered()
+        .optionSettingQueriesForTestQuery("alter session set `%s` = true", ExecConstants.HASH_TABLE_OPEN_ADDRESSING_KEY)
+        .sqlQuery(sql)
+        .optionSettingQueriesForBaseline("alter session set `%s` = false", ExecConstants.HASH_TABLE_OPEN_ADDRESSING_KEY)
+        .sqlBaselineQuery(sql)
+        .go();
+  }
+
+  @Test
+  public void testAggSingleIntKey() throws Exception {
+    compareWithChainedTable("SELECT l_orderkey, COUNT(*) AS cnt, SUM(l_quantity) AS qty " +
+        "FROM cp.`tpch/lineitem.parquet` GROUP BY l_orderkey");
+  }
+
+  @Test
+  public void testAggVarCharKeys() throws Exception {
+    compareWithChainedTable("SELECT l_comment, l_shipmode, COUNT(*) AS cnt " +
+        "FROM cp.`tpch/lineitem.parquet` GROUP BY l_comment, l_shipmode");
+  }
+
+  @Test
+  public void testAggNullableKey() throws Exception {
+    compareWithChainedTable("SELECT CASE WHEN MOD(l_linenumber, 3) = 0 THEN NULL ELSE l_partkey END AS k, COUNT(*) AS cnt " +
+        "FROM cp.`tpch/lineitem.parquet` GROUP BY CASE WHEN MOD(l_linenumber, 3) = 0 THEN NULL ELSE l_partkey END");
+  }
+
+  @Test
+  public void testJoin() throws Exception {
+    compareWithChainedTable("SELECT o.o_orderkey, o.o_custkey, l.l_partkey " +
+        "FROM cp.`tpch/orders.parquet` o JOIN cp.`tpch/lineitem.parquet` l ON o.o_orderkey = l.l_orderkey");
+  }
+
+  @Test
+  public void testJoinMultipleKeys() throws Exception {
+    compareWithChainedTable("SELECT ps.ps_partkey, ps.ps_suppkey, l.l_quantity " +
+        "FROM cp.`tpch/partsupp.parquet` ps JOIN cp.`tpch/lineitem.parquet` l " +
+        "ON ps.ps_partkey = l.l_partkey AND ps.ps_suppkey = l.l_suppkey");
+  }
+}
@@ -19,16 +19,27 @@ package org.apache.drill.exec.physical.impl.join;
 
 import org.apache.drill.categories.SqlTest;
 import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.physical.rowSet.RowSet;
+import org.apache.drill.exec.physical.rowSet.RowSetReader;
+import org.apache.drill.exec.proto.UserBitShared.CoreOperatorType;
+import org.apache.drill.exec.store.CommonParquetRecordReader;
 import org.apache.drill.test.ClusterFixture;
 import org.apache.drill.test.ClusterTest;
+import org.apache.drill.test.ProfileParser;
+import org.apache.drill.test.QueryRowSetIterator;
 import org.junit.After;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
 import static org.hamcrest.CoreMatchers.containsString;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 @Category(SqlTest.class)
 public class TestHashJoinJPPDCorrectness extends ClusterTest {
@@ -54,13 +65,15 @@ public class TestHashJoinJPPDCorrectness extends ClusterTest {
     startCluster(ClusterFixture.builder(dirTestWatcher)
       .clusterSize(2)
       .maxParallelization(1)
-      .systemOption(ExecConstants.SLICE_TARGET, 10));
+      .systemOption(ExecConstants.SLICE_TARGET, 10)
+      .saveProfiles());
   }
 
   @After
   public void tearDown() {
     client.resetSession(ExecConstants.HASHJOIN_ENABLE_RUNTIME_FILTER_KEY);
     client.resetSession(ExecConstants.HASHJOIN_RUNTIME_FILTER_WAITING_ENABLE_KEY);
+    client.resetSession(ExecConstants.HASHJOIN_RUNTIME_FILTER_MAX_WAITING_TIME_KEY);
   }
 
   /**
@@ -175,4 +188,40 @@ public class TestHashJoinJPPDCorrectness extends ClusterTest {
       .optionSettingQueriesForBaseline(ALTER_RUNTIME_FILTER_ENABLE_AND_WAIT_OPTION_COMMAND, "true", "true", 6000)
       .go();
   }
+
+  /**
+   * Verifies that the probe side scan skips the row groups whose key range lies outside the range of the build side
+   * keys, and that the result is the same. Each file of the probe side table holds a single row group of five nations.
+   */
+  @Test
+  public void testRangeFilterSkipsRowGroups() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      run("CREATE TABLE dfs.tmp.`jppd_nation_ranges/%d` AS SELECT * FROM cp.`tpch/nation.parquet` " +
+        "WHERE n_nationkey BETWEEN %d AND %d", i, 5 * i, 5 * i + 4);
+    }
+    client.alterSession(ExecConstants.HASHJOIN_ENABLE_RUNTIME_FILTER_KEY, true);
+    client.alterSession(ExecConstants.HASHJOIN_RUNTIME_FILTER_WAITING_ENABLE_KEY, true);
+    client.alterSession(ExecConstants.HASHJOIN_RUNTIME_FILTER_MAX_WAITING_TIME_KEY, 6000);
+
+    String sql = "SELECT l.n_name FROM dfs.tmp.`jppd_nation_ranges` l, dfs.`tpchmulti/region/` r where " +
+      "l.n_nationkey = r.r_regionkey and r.r_name = 'AMERICA'";
+    QueryRowSetIterator iter = queryBuilder().sql(sql).rowSetIterator();
+    List<String> names = new ArrayList<>();
+    while (iter.hasNext()) {
+      RowSet result = iter.next();
+      RowSetReader reader = result.reader();
+      while (reader.next()) {
+        names.add(reader.scalar(0).getString());
+      }
+      result.clear();
+    }
+    assertEquals(Collections.singletonList("ARGENTINA"), names);
+
+    ProfileParser profile = client.parseProfile(iter.queryIdString());
+    long filtered = 0;
+    for (ProfileParser.OperatorProfile op : profile.getOpsOfType(CoreOperatorType.PARQUET_ROW_GROUP_SCAN_VALUE)) {
+      filtered += op.getMetric(CommonParquetRecordReader.Metric.ROWGROUPS_RUNTIME_FILTERED.ordinal());
+    }
+    assertTrue(filtered > 0);
+  }
 }
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.partitionsender;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.planner.physical.PlannerSettings;
+import org.apache.drill.exec.proto.UserBitShared.CoreOperatorType;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.ClusterTest;
+import org.apache.drill.test.ProfileParser;
+import org.apache.drill.test.QueryBuilder.QuerySummary;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Checks the record count of the batches sent by the hash partition sender, sized from the
+ * width of the rows, the target batch size and the memory limit of the sender.
+ */
+public class TestPartitionSenderBatchSizing extends ClusterTest {
+
+  // Every row of lineitem is sent through the hash exchange below the aggregate
+  private static final String SQL = "SELECT COUNT(*) FROM " +
+      "(SELECT l_orderkey, COUNT(*) AS cnt FROM cp.`tpch/lineitem.parquet` GROUP BY l_orderkey)";
+
+  private static long groupCount;
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    startCluster(ClusterFixture.builder(dirTestWatcher)
+        .sessionOption(ExecConstants.SLICE_TARGET, 1)
+        .sessionOption(PlannerSettings.MULTIPHASE.getOptionName(), false)
+        .sessionOption(PlannerSettings.MUX_EXCHANGE.getOptionName(), false)
+        .maxParallelization(4)
+        .saveProfiles());
+
+    client.alterSession(PlannerSettings.EXCHANGE.getOptionName(), true);
+    try {
+      groupCount = client.queryBuilder().sql(SQL).singletonLong();
+    } finally {
+      client.resetSession(PlannerSettings.EXCHANGE.getOptionName());
+    }
+  }
+
+  @After
+  public void resetOptions() {
+    client.resetSession(ExecConstants.PARTITION_SENDER_BATCH_SIZE);
+    client.resetSession(ExecConstants.PARTITION_SENDER_MEMORY_LIMIT);
+  }
+
+  @Test
+  public void testNarrowRows() throws Exception {
+    // Batches of 1 MB of narrow rows are only limited by the rows each receiver gets
+    assertTrue(recordsPerBatch() > Partitioner.DEFAULT_RECORD_BATCH_SIZE);
+  }
+
+  @Test
+  public void testBatchSize() throws Exception {
+    client.alterSession(ExecConstants.PARTITION_SENDER_BATCH_SIZE, 1024);
+    assertTrue(recordsPerBatch() <= 255);
+  }
+
+  @Test
+  public void testMemoryLimit() throws Exception {
+    // 1 KB for each of the 4 receivers
+    client.alterSession(ExecConstants.PARTITION_SENDER_MEMORY_LIMIT, 4096);
+    assertTrue(recordsPerBatch() <= 255);
+  }
+
+  private double recordsPerBatch() throws Exception {
+    QuerySummary summary = client.queryBuilder().sql(SQL).run();
+    assertEquals(1, summary.recordCount());
+    assertEquals(groupCount, client.queryBuilder().sql(SQL).singletonLong());
+
+    ProfileParser profile = client.parseProfile(summary.queryIdString());
+    long records = 0;
+    long batches = 0;
+    for (ProfileParser.OperatorProfile op : profile.getOpsOfType(CoreOperatorType.HASH_PARTITION_SENDER_VALUE)) {
+      records += op.getMetric(PartitionSenderRootExec.Metric.RECORDS_SENT.ordinal());
+      batches += op.getMetric(PartitionSenderRootExec.Metric.BATCHES_SENT.ordinal());
+    }
+    assertTrue(batches > 0);
+    return (double) records / batches;
+  }
+}
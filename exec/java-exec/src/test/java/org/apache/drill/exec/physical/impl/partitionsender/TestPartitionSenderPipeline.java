@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.partitionsender;
+
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.physical.rowSet.RowSet;
+import org.apache.drill.exec.planner.physical.PlannerSettings;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.ClusterTest;
+import org.apache.drill.test.rowSet.RowSetComparison;
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Runs hash partitioned queries with a pipelined partition sender, with one and with several
+ * partitioner threads, and compares the results with the ones of the same queries run
+ * without exchanges.
+ */
+public class TestPartitionSenderPipeline extends ClusterTest {
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    startCluster(ClusterFixture.builder(dirTestWatcher)
+        .sessionOption(ExecConstants.SLICE_TARGET, 1)
+        .sessionOption(ExecConstants.PARTITION_SENDER_PIPELINED, true)
+        .sessionOption(PlannerSettings.MUX_EXCHANGE.getOptionName(), false)
+        .maxParallelization(4));
+  }
+
+  @After
+  public void resetOptions() {
+    client.resetSession(PlannerSettings.PARTITION_SENDER_SET_THREADS.getOptionName());
+  }
+
+  @Test
+  public void testSingleThread() throws Exception {
+    client.alterSession(PlannerSettings.PARTITION_SENDER_SET_THREADS.getOptionName(), 1);
+    verify("SELECT l_suppkey, COUNT(*) AS cnt, SUM(l_quantity) AS qty " +
+        "FROM cp.`tpch/lineitem.parquet` GROUP BY l_suppkey ORDER BY l_suppkey");
+  }
+
+  @Test
+  public void testSeveralThreads() throws Exception {
+    client.alterSession(PlannerSettings.PARTITION_SENDER_SET_THREADS.getOptionName(), 3);
+    verify("SELECT l_suppkey, COUNT(*) AS cnt, SUM(l_quantity) AS qty " +
+        "FROM cp.`tpch/lineitem.parquet` GROUP BY l_suppkey ORDER BY l_suppkey");
+  }
+
+  @Test
+  public void testFilteredInput() throws Exception {
+    client.alterSession(PlannerSettings.PARTITION_SENDER_SET_THREADS.getOptionName(), 2);
+    verify("SELECT l_orderkey, COUNT(*) AS cnt FROM cp.`tpch/lineitem.parquet` " +
+        "WHERE l_quantity > 25 GROUP BY l_orderkey ORDER BY l_orderkey");
+  }
+
+  private void verify(String sql) throws Exception {
+    client.alterSession(PlannerSettings.EXCHANGE.getOptionName(), true);
+    RowSet expected;
+    try {
+      expected = client.queryBuilder().sql(sql).rowSet();
+    } finally {
+      client.resetSession(PlannerSettings.EXCHANGE.getOptionName());
+    }
+    new RowSetComparison(expected).verifyAndClearAll(client.queryBuilder().sql(sql).rowSet());
+  }
+}
@@ -0,0 +1,248 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.physical.impl.spill;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.drill.categories.OperatorTest;
+import org.apache.drill.common.exceptions.UserException;
+import org.apache.drill.common.expression.FieldReference;
+import org.apache.drill.common.logical.data.Order.Ordering;
+import org.apache.drill.common.types.TypeProtos.MinorType;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.cache.VectorSerializer;
+import org.apache.drill.exec.physical.config.Sort;
+import org.apache.drill.exec.physical.rowSet.DirectRowSet;
+import org.apache.drill.exec.physical.rowSet.RowSet.SingleRowSet;
+import org.apache.drill.exec.physical.rowSet.RowSetBuilder;
+import org.apache.drill.exec.proto.ExecProtos.FragmentHandle;
+import org.apache.drill.exec.proto.UserBitShared.QueryId;
+import org.apache.drill.exec.record.VectorContainer;
+import org.apache.drill.exec.record.metadata.SchemaBuilder;
+import org.apache.drill.exec.record.metadata.TupleMetadata;
+import org.apache.drill.test.BaseDirTestWatcher;
+import org.apache.drill.test.DrillTest;
+import org.apache.drill.test.OperatorFixture;
+import org.apache.drill.test.rowSet.RowSetComparison;
+import org.apache.drill.shaded.guava.com.google.common.collect.Lists;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Writes batches through a {@link SpillSet} with each spill codec and reads
+ * them back, checking the data and the compressed byte counts.
+ */
+
+@Category(OperatorTest.class)
+public class TestSpillCompression extends DrillTest {
+
+  private static final int BATCH_COUNT = 3;
+  private static final int ROW_COUNT = 10_000;
+
+  @Rule
+  public final BaseDirTestWatcher dirTestWatcher = new BaseDirTestWatcher();
+
+  private final TupleMetadata schema = new SchemaBuilder()
+      .add("key", MinorType.INT)
+      .addNullable("value", MinorType.VARCHAR)
+      .buildSchema();
+
+  private OperatorFixture newFixture(String codec) {
+    OperatorFixture.Builder builder = OperatorFixture.builder(dirTestWatcher);
+    builder.configBuilder().put(ExecConstants.SPILL_COMPRESSION, codec);
+    return builder.build();
+  }
+
+  private SpillSet newSpillSet(OperatorFixture fixture) {
+    Ordering ordering = new Ordering(Ordering.ORDER_ASC, FieldReference.getWithQuotedRef("key"), Ordering.NULLS_LAST);
+    Sort popConfig = new Sort(null, Lists.newArrayList(ordering), false);
+    QueryId queryId = QueryId.newBuilder()
+        .setPart1(1234)
+        .setPart2(5678)
+        .build();
+    FragmentHandle handle = FragmentHandle.newBuilder()
+        .setMajorFragmentId(2)
+        .setMinorFragmentId(3)
+        .setQueryId(queryId)
+        .build();
+    return new SpillSet(fixture.config(), handle, popConfig);
+  }
+
+  private SingleRowSet makeBatch(OperatorFixture fixture, int batchIndex, boolean compressible) {
+    Random random = new Random(batchIndex);
+    RowSetBuilder builder = new RowSetBuilder(fixture.allocator(), schema, ROW_COUNT);
+    for (int i = 0; i < ROW_COUNT; i++) {
+      String value;
+      if (i % 7 == 0) {
+        value = null;
+      } else if (compressible) {
+        value = "value-" + (i % 10);
+      } else {
+        StringBuilder buf = new StringBuilder();
+        for (int j = 0; j < 20; j++) {
+          buf.append((char) ('!' + random.nextInt(90)));
+        }
+        value = buf.toString();
+      }
+      builder.addRow(compressible ? i : random.nextInt(), value);
+    }
+    return builder.build();
+  }
+
+  private String write(OperatorFixture fixture, SpillSet spillSet, boolean compressible) throws Exception {
+    String path = spillSet.getNextSpillFile();
+    VectorSerializer.Writer writer = spillSet.writer(path);
+    for (int i = 0; i < BATCH_COUNT; i++) {
+      SingleRowSet batch = makeBatch(fixture, i, compressible);
+      writer.write(batch.container());
+      batch.clear();
+    }
+    spillSet.close(writer);
+    return path;
+  }
+
+  private void read(OperatorFixture fixture, SpillSet spillSet, String path, boolean compressible) throws Exception {
+    try (InputStream in = spillSet.openForInput(path)) {
+      VectorSerializer.Reader reader = VectorSerializer.reader(fixture.allocator(), in);
+      for (int i = 0; i < BATCH_COUNT; i++) {
+        VectorContainer container = reader.read();
+        new RowSetComparison(makeBatch(fixture, i, compressible))
+            .verifyAndClearAll(DirectRowSet.fromContainer(container));
+      }
+      assertEquals(-1, in.read());
+      spillSet.tallyReadBytes(spillSet.getPosition(in));
+    }
+  }
+
+  private SpillSet roundTrip(OperatorFixture fixture, boolean compressible) throws Exception {
+    SpillSet spillSet = newSpillSet(fixture);
+    String path = write(fixture, spillSet, compressible);
+    read(fixture, spillSet, path, compressible);
+    spillSet.close();
+    if (spillSet.isCompressed()) {
+      // Both counts are of uncompressed bytes
+      assertEquals(spillSet.getWriteBytes(), spillSet.getReadBytes());
+    }
+    return spillSet;
+  }
+
+  @Test
+  public void testUncompressed() throws Exception {
+    try (OperatorFixture fixture = newFixture(SpillCodec.NONE)) {
+      SpillSet spillSet = roundTrip(fixture, true);
+      assertFalse(spillSet.isCompressed());
+      assertTrue(spillSet.getWriteBytes() > 0);
+      assertEquals(spillSet.getWriteBytes(), spillSet.getCompressedWriteBytes());
+    }
+  }
+
+  @Test
+  public void testSnappy() throws Exception {
+    try (OperatorFixture fixture = newFixture(SpillCodec.SNAPPY)) {
+      SpillSet spillSet = roundTrip(fixture, true);
+      assertTrue(spillSet.isCompressed());
+      assertTrue(spillSet.getCompressedWriteBytes() < spillSet.getWriteBytes());
+    }
+  }
+
+  @Test
+  public void testDeflate() throws Exception {
+    try (OperatorFixture fixture = newFixture(SpillCodec.DEFLATE)) {
+      SpillSet spillSet = roundTrip(fixture, true);
+      assertTrue(spillSet.isCompressed());
+      assertTrue(spillSet.getCompressedWriteBytes() < spillSet.getWriteBytes());
+    }
+  }
+
+  /**
+   * Random data does not compress; the blocks are stored as is, at the
+   * cost of only the block headers.
+   */
+  @Test
+  public void testIncompressible() throws Exception {
+    try (OperatorFixture fixture = newFixture(SpillCodec.SNAPPY)) {
+      SpillSet spillSet = roundTrip(fixture, false);
+      assertTrue(spillSet.getCompressedWriteBytes() < spillSet.getWriteBytes() * 1.01);
+    }
+  }
+
+  @Test
+  public void testCodecClassName() throws Exception {
+    try (OperatorFixture fixture = newFixture(DeflateSpillCodec.class.getName())) {
+      SpillSet spillSet = roundTrip(fixture, true);
+      assertTrue(spillSet.getCompressedWriteBytes() < spillSet.getWriteBytes());
+    }
+  }
+
+  /**
+   * The merge reads ahead several spilled runs at the same time, each on
+   * its own thread.
+   */
+  @Test
+  public void testDeflateConcurrentReads() throws Exception {
+    int runCount = 4;
+    ExecutorService executor = Executors.newFixedThreadPool(runCount);
+    try (OperatorFixture fixture = newFixture(SpillCodec.DEFLATE)) {
+      SpillSet spillSet = newSpillSet(fixture);
+      List<String> paths = new ArrayList<>();
+      for (int i = 0; i < runCount; i++) {
+        paths.add(write(fixture, spillSet, i % 2 == 0));
+      }
+      for (int round = 0; round < 5; round++) {
+        List<Future<?>> reads = new ArrayList<>();
+        for (int i = 0; i < runCount; i++) {
+          String path = paths.get(i);
+          boolean compressible = i % 2 == 0;
+          reads.add(executor.submit(() -> {
+            read(fixture, spillSet, path, compressible);
+            return null;
+          }));
+        }
+        for (Future<?> read : reads) {
+          read.get();
+        }
+      }
+      spillSet.close();
+      assertEquals(spillSet.getWriteBytes() * 5, spillSet.getReadBytes());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testUnknownCodec() throws Exception {
+    try (OperatorFixture fixture = newFixture("bogus")) {
+      newSpillSet(fixture);
+      fail();
+    } catch (UserException e) {
+      assertTrue(e.getMessage().contains("bogus"));
+    }
+  }
+}
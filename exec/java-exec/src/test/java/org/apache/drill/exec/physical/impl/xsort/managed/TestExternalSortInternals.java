@@ -190,6 +190,42 @@ public class TestExternalSortInternals extends SubOperatorTest {
     assertEquals(batchSize, memManager.getInputBatchSize().dataSize);
   }
 
+  /**
+   * Verify that raising the memory limit, as when borrowing memory
+   * given back by other operators, redoes the calculations.
+   */
+  @Test
+  public void testMemoryLimitUpdate() {
+    SortConfig sortConfig = new SortConfig(fixture.getFragmentContext().getConfig(), fixture.getFragmentContext().getOptions());
+    long memoryLimit = 50 * ONE_MEG;
+    SortMemoryManager memManager = new SortMemoryManager(sortConfig, memoryLimit);
+
+    int rowWidth = 300;
+    int rowCount = 10000;
+    int batchSize = rowWidth * rowCount * 2;
+    assertTrue(memManager.updateEstimates(batchSize, rowWidth, rowCount));
+    long bufferMemoryLimit = memManager.getBufferMemoryLimit();
+    long mergeMemoryLimit = memManager.getMergeMemoryLimit();
+
+    // Close to the buffer memory limit, the next batch needs a spill
+
+    long allocated = bufferMemoryLimit - batchSize / 2;
+    assertTrue(memManager.isSpillNeeded(allocated, batchSize));
+    long shortfall = memManager.bufferShortfall(allocated, batchSize);
+    assertTrue(shortfall > 0);
+
+    // Unless the limit is raised by the shortfall
+
+    memoryLimit += shortfall;
+    assertTrue(memManager.updateMemoryLimit(memoryLimit));
+    assertFalse(memManager.updateMemoryLimit(memoryLimit));
+    assertEquals(memoryLimit, memManager.getMemoryLimit());
+    assertEquals(bufferMemoryLimit + shortfall, memManager.getBufferMemoryLimit());
+    assertEquals(mergeMemoryLimit + shortfall, memManager.getMergeMemoryLimit());
+    assertFalse(memManager.isSpillNeeded(allocated, batchSize));
+    verifyCalcs(sortConfig, memoryLimit, memManager, batchSize, rowWidth, rowCount);
+  }
+
   private void verifyCalcs(SortConfig sortConfig, long memoryLimit, SortMemoryManager memManager, int batchSize,
       int rowWidth, int rowCount) {
 
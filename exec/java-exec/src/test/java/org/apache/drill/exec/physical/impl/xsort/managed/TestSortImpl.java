@@ -23,6 +23,8 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.apache.drill.categories.OperatorTest;
 import org.apache.drill.common.expression.FieldReference;
@@ -32,6 +34,7 @@ import org.apache.drill.exec.ExecConstants;
 import org.apache.drill.exec.memory.BufferAllocator;
 import org.apache.drill.exec.ops.OperatorContext;
 import org.apache.drill.exec.physical.config.Sort;
+import org.apache.drill.exec.physical.impl.spill.SpillCodec;
 import org.apache.drill.exec.physical.impl.spill.SpillSet;
 import org.apache.drill.exec.physical.impl.xsort.managed.SortImpl.SortResults;
 import org.apache.drill.exec.proto.ExecProtos.FragmentHandle;
@@ -495,6 +498,25 @@ public class TestSortImpl extends DrillTest {
     }
   }
 
+  /**
+   * Merge many in-memory batches with helper threads. The last passes
+   * split the merge of a pair of runs across the threads.
+   *
+   * @throws Exception
+   */
+
+  @Test
+  public void testParallelMerge() throws Exception {
+    OperatorFixture.Builder builder = OperatorFixture.builder(dirTestWatcher);
+    builder.systemOption(ExecConstants.EXTERNAL_SORT_PARALLEL_MERGE_THREADS_KEY, 3L);
+    try (OperatorFixture fixture = builder.build()) {
+      int rowCount = 20_000;
+      DataGenerator dataGen = new DataGenerator(fixture, rowCount, 500);
+      DataValidator validator = new DataValidator(rowCount, ValueVector.MAX_ROW_COUNT);
+      runLargeSortTest(fixture, dataGen, validator);
+    }
+  }
+
   /**
    * Use this function to pre-load Netty's free list with a large
    * number of "dirty" blocks. This will often catch error due to
@@ -623,4 +645,63 @@ public class TestSortImpl extends DrillTest {
       sortTest.run();
     }
   }
+
+  /**
+   * Spill, then read the spilled runs back with read-ahead on the scan
+   * executor.
+   *
+   * @throws Exception
+   */
+
+  @Test
+  public void testSpillReadAhead() throws Exception {
+    runSpillReadAheadTest(Executors.newSingleThreadExecutor(), SpillCodec.NONE);
+  }
+
+  /**
+   * Read the compressed spilled runs back with read-ahead on several
+   * threads, so that the runs decompress concurrently.
+   *
+   * @throws Exception
+   */
+
+  @Test
+  public void testSpillReadAheadDeflate() throws Exception {
+    runSpillReadAheadTest(Executors.newFixedThreadPool(4), SpillCodec.DEFLATE);
+  }
+
+  private void runSpillReadAheadTest(ExecutorService executor, String compression) throws Exception {
+    OperatorFixture.Builder builder = OperatorFixture.builder(dirTestWatcher);
+    builder.configBuilder()
+      .put(ExecConstants.EXTERNAL_SORT_BATCH_LIMIT, 2)
+      .put(ExecConstants.SPILL_COMPRESSION, compression);
+    builder.systemOption(ExecConstants.EXTERNAL_SORT_SPILL_READ_AHEAD_KEY, true);
+    builder.setScanExecutor(executor);
+    try (OperatorFixture fixture = builder.build()) {
+      TupleMetadata schema = SortTestUtilities.nonNullSchema();
+      SortTestFixture sortTest = new SortTestFixture(fixture) {
+        @Override
+        protected void validateSort(SortImpl sort) {
+          assertTrue(sort.getMetrics().getSpillCount() > 0);
+        }
+      };
+      for (int i = 5; i > 0; i--) {
+        sortTest.addInput(fixture.rowSetBuilder(schema)
+            .addRow(i, "row " + i)
+            .addRow(i + 10, "row " + (i + 10))
+            .build());
+      }
+      RowSetBuilder expected = fixture.rowSetBuilder(schema);
+      for (int i = 1; i <= 5; i++) {
+        expected.addRow(i, "row " + i);
+      }
+      for (int i = 11; i <= 15; i++) {
+        expected.addRow(i, "row " + i);
+      }
+      sortTest.addOutput(expected.build());
+      sortTest.run();
+    } finally {
+      executor.shutdown();
+    }
+  }
 }
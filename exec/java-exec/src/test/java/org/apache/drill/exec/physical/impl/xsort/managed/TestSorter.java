@@ -631,6 +631,135 @@ public class TestSorter extends DrillTest {
     }
   }
 
+  /**
+   * Strings sharing a prefix longer than the normalized key prefix are
+   * ordered by the generated comparison.
+   */
+
+  @Test
+  public void testLongStrings() throws Exception {
+    TupleMetadata schema = new SchemaBuilder()
+        .add("key", MinorType.VARCHAR)
+        .add("value", MinorType.INT)
+        .buildSchema();
+    String prefix = "abcdefghijklmnopq";
+
+    SingleRowSet input = fixture.rowSetBuilder(schema)
+        .addRow(prefix + "z", 1)
+        .addRow(prefix + "a", 2)
+        .addRow(prefix, 3)
+        .addRow("abc", 4)
+        .addRow(prefix + "m", 5)
+        .addRow("abcdefghijklmnop", 6)
+        .withSv2()
+        .build();
+
+    SingleRowSet output = fixture.rowSetBuilder(schema)
+        .addRow("abc", 4)
+        .addRow("abcdefghijklmnop", 6)
+        .addRow(prefix, 3)
+        .addRow(prefix + "a", 2)
+        .addRow(prefix + "m", 5)
+        .addRow(prefix + "z", 1)
+        .build();
+    runSorterTest(input, output);
+  }
+
+  @Test
+  public void testSpecialDoubles() throws Exception {
+    TupleMetadata schema = new SchemaBuilder()
+        .add("key", MinorType.FLOAT8)
+        .add("value", MinorType.INT)
+        .buildSchema();
+
+    SingleRowSet input = fixture.rowSetBuilder(schema)
+        .addRow(1.5, 1)
+        .addRow(Double.NaN, 2)
+        .addRow(Double.NEGATIVE_INFINITY, 3)
+        .addRow(-2.0, 4)
+        .addRow(0.0, 5)
+        .addRow(Double.POSITIVE_INFINITY, 6)
+        .addRow(-0.5, 7)
+        .withSv2()
+        .build();
+
+    SingleRowSet output = fixture.rowSetBuilder(schema)
+        .addRow(Double.NEGATIVE_INFINITY, 3)
+        .addRow(-2.0, 4)
+        .addRow(-0.5, 7)
+        .addRow(0.0, 5)
+        .addRow(1.5, 1)
+        .addRow(Double.POSITIVE_INFINITY, 6)
+        .addRow(Double.NaN, 2)
+        .build();
+    runSorterTest(input, output);
+  }
+
+  /**
+   * -0.0 and 0.0 compare equal, so the next key decides their order.
+   */
+
+  @Test
+  public void testNegativeZero() throws Exception {
+    TupleMetadata schema = new SchemaBuilder()
+        .add("f8", MinorType.FLOAT8)
+        .add("f4", MinorType.FLOAT4)
+        .add("i", MinorType.INT)
+        .buildSchema();
+
+    for (String key : new String[] {"f8", "f4"}) {
+      SingleRowSet input = fixture.rowSetBuilder(schema)
+          .addRow(-0.0, -0.0f, 5)
+          .addRow(0.0, 0.0f, 1)
+          .withSv2()
+          .build();
+      SingleRowSet output = fixture.rowSetBuilder(schema)
+          .addRow(0.0, 0.0f, 1)
+          .addRow(-0.0, -0.0f, 5)
+          .build();
+      Sort popConfig = new Sort(null, Lists.newArrayList(
+          new Ordering(Ordering.ORDER_ASC, FieldReference.getWithQuotedRef(key), Ordering.NULLS_LAST),
+          new Ordering(Ordering.ORDER_ASC, FieldReference.getWithQuotedRef("i"), Ordering.NULLS_LAST)), false);
+      runSorterTest(popConfig, input, output);
+    }
+  }
+
+  /**
+   * The columns after a string column are not part of the normalized
+   * key, and decide the order of the rows whose keys are equal.
+   */
+
+  @Test
+  public void testMultipleKeys() throws Exception {
+    TupleMetadata schema = new SchemaBuilder()
+        .add("a", MinorType.INT)
+        .addNullable("b", MinorType.VARCHAR)
+        .add("c", MinorType.INT)
+        .buildSchema();
+
+    SingleRowSet input = fixture.rowSetBuilder(schema)
+        .addRow(1, "x", 2)
+        .addRow(1, null, 3)
+        .addRow(1, "x", 1)
+        .addRow(0, "y", 5)
+        .addRow(1, "y", 0)
+        .withSv2()
+        .build();
+
+    SingleRowSet output = fixture.rowSetBuilder(schema)
+        .addRow(0, "y", 5)
+        .addRow(1, null, 3)
+        .addRow(1, "y", 0)
+        .addRow(1, "x", 1)
+        .addRow(1, "x", 2)
+        .build();
+    Sort popConfig = new Sort(null, Lists.newArrayList(
+        new Ordering(Ordering.ORDER_ASC, FieldReference.getWithQuotedRef("a"), Ordering.NULLS_LAST),
+        new Ordering(Ordering.ORDER_DESC, FieldReference.getWithQuotedRef("b"), Ordering.NULLS_FIRST),
+        new Ordering(Ordering.ORDER_ASC, FieldReference.getWithQuotedRef("c"), Ordering.NULLS_LAST)), false);
+    runSorterTest(popConfig, input, output);
+  }
+
   @Test
   @Ignore("DRILL-5384")
   public void testMapKey() throws Exception {
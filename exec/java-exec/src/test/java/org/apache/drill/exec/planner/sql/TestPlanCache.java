@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.planner.sql;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.drill.categories.PlannerTest;
+import org.apache.drill.exec.planner.physical.PlannerSettings;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.ClusterFixtureBuilder;
+import org.apache.drill.test.ClusterTest;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Runs repeated queries with the plan cache enabled, checking when cached
+ * plans are reused and when the query is planned again.
+ */
+@Category(PlannerTest.class)
+public class TestPlanCache extends ClusterTest {
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    ClusterFixtureBuilder builder = ClusterFixture.builder(dirTestWatcher)
+        .sessionOption(PlannerSettings.PLAN_CACHE_ENABLED_KEY, true);
+    startCluster(builder);
+  }
+
+  private static PlanCache planCache() {
+    return cluster.drillbit().getContext().getPlanCache();
+  }
+
+  @Test
+  public void testRepeatedQuery() throws Exception {
+    String sql = "SELECT COUNT(*) FROM cp.`tpch/nation.parquet` WHERE n_regionkey = 1";
+    long hits = planCache().getHits();
+    long expected = client.queryBuilder().sql(sql).singletonLong();
+    assertEquals(hits, planCache().getHits());
+    assertEquals(expected, client.queryBuilder().sql(sql).singletonLong());
+    assertEquals(hits + 1, planCache().getHits());
+    // Differs from the query above only in white space
+    assertEquals(expected, client.queryBuilder().sql(sql.replace(" WHERE ", "\n  WHERE  ")).singletonLong());
+    assertEquals(hits + 2, planCache().getHits());
+  }
+
+  @Test
+  public void testOptionsInKey() throws Exception {
+    String sql = "SELECT n_name FROM cp.`tpch/nation.parquet` ORDER BY n_name";
+    client.queryBuilder().sql(sql).run();
+    long hits = planCache().getHits();
+    try {
+      client.alterSession(PlannerSettings.HASHAGG.getOptionName(), false);
+      client.queryBuilder().sql(sql).run();
+      assertEquals(hits, planCache().getHits());
+    } finally {
+      client.resetSession(PlannerSettings.HASHAGG.getOptionName());
+    }
+    client.queryBuilder().sql(sql).run();
+    assertEquals(hits + 1, planCache().getHits());
+  }
+
+  @Test
+  public void testChangedFiles() throws Exception {
+    File table = new File(dirTestWatcher.getDfsTestTmpDir(), "plan_cache_changed");
+    assertTrue(table.mkdirs());
+    Files.write(new File(table, "1.json").toPath(), "{\"a\": 1}\n{\"a\": 2}\n".getBytes(StandardCharsets.UTF_8));
+
+    String sql = "SELECT SUM(a) FROM dfs.tmp.`plan_cache_changed`";
+    assertEquals(3, client.queryBuilder().sql(sql).singletonLong());
+    long hits = planCache().getHits();
+    assertEquals(3, client.queryBuilder().sql(sql).singletonLong());
+    assertEquals(hits + 1, planCache().getHits());
+
+    Files.write(new File(table, "2.json").toPath(), "{\"a\": 4}\n".getBytes(StandardCharsets.UTF_8));
+    long invalidations = planCache().getInvalidations();
+    assertEquals(7, client.queryBuilder().sql(sql).singletonLong());
+    assertEquals(hits + 1, planCache().getHits());
+    assertEquals(invalidations + 1, planCache().getInvalidations());
+  }
+
+  @Test
+  public void testReplacedFileWithOlderTime() throws Exception {
+    File table = new File(dirTestWatcher.getDfsTestTmpDir(), "plan_cache_replaced");
+    assertTrue(table.mkdirs());
+    File file = new File(table, "1.json");
+    Files.write(file.toPath(), "{\"a\": 1}\n".getBytes(StandardCharsets.UTF_8));
+    long tableModified = table.lastModified();
+
+    String sql = "SELECT SUM(a) FROM dfs.tmp.`plan_cache_replaced`";
+    assertEquals(1, client.queryBuilder().sql(sql).singletonLong());
+
+    // Same length, and older, as when copied over with its time kept
+    long fileModified = file.lastModified();
+    Files.write(file.toPath(), "{\"a\": 5}\n".getBytes(StandardCharsets.UTF_8));
+    assertTrue(file.setLastModified(fileModified - 60_000));
+    assertTrue(table.setLastModified(tableModified));
+    long invalidations = planCache().getInvalidations();
+    assertEquals(5, client.queryBuilder().sql(sql).singletonLong());
+    assertEquals(invalidations + 1, planCache().getInvalidations());
+  }
+
+  @Test
+  public void testDdlInvalidates() throws Exception {
+    String sql = "SELECT COUNT(*) FROM cp.`tpch/region.parquet` WHERE r_regionkey < 3";
+    client.queryBuilder().sql(sql).run();
+    assertTrue(planCache().size() > 0);
+    try {
+      client.queryBuilder().sql("CREATE VIEW dfs.tmp.plan_cache_view AS SELECT * FROM cp.`tpch/region.parquet`").run();
+      assertEquals(0, planCache().size());
+    } finally {
+      client.queryBuilder().sql("DROP VIEW IF EXISTS dfs.tmp.plan_cache_view").run();
+    }
+  }
+
+  /**
+   * A view may be replaced through another Drillbit, which does not clear
+   * the cache of this one: plans expanding views are not cached.
+   */
+  @Test
+  public void testViewNotCached() throws Exception {
+    try {
+      client.queryBuilder().sql("CREATE VIEW dfs.tmp.plan_cache_view2 AS " +
+          "SELECT r_regionkey FROM cp.`tpch/region.parquet`").run();
+      String sql = "SELECT COUNT(*) FROM dfs.tmp.plan_cache_view2";
+      long hits = planCache().getHits();
+      long size = planCache().size();
+      assertEquals(5, client.queryBuilder().sql(sql).singletonLong());
+      assertEquals(5, client.queryBuilder().sql(sql).singletonLong());
+      assertEquals(hits, planCache().getHits());
+      assertEquals(size, planCache().size());
+    } finally {
+      client.queryBuilder().sql("DROP VIEW IF EXISTS dfs.tmp.plan_cache_view2").run();
+    }
+  }
+
+  @Test
+  public void testQueryDependentFunctions() throws Exception {
+    String sql = "SELECT CURRENT_TIMESTAMP, session_user FROM (VALUES(1))";
+    long misses = planCache().getMisses();
+    long hits = planCache().getHits();
+    client.queryBuilder().sql(sql).run();
+    client.queryBuilder().sql(sql).run();
+    assertEquals(hits, planCache().getHits());
+    assertEquals(misses + 2, planCache().getMisses());
+  }
+
+  @Test
+  public void testSysTable() throws Exception {
+    String sql = "SELECT COUNT(*) FROM cp.`tpch/region.parquet` WHERE r_regionkey > 1";
+    client.queryBuilder().sql(sql).run();
+    client.queryBuilder().sql(sql).run();
+    assertTrue(client.queryBuilder().sql("SELECT hits FROM sys.plan_cache").singletonLong() > 0);
+  }
+
+  @Test
+  public void testNormalize() {
+    assertEquals("SELECT a FROM t WHERE b = 1", PlanCache.normalize("  SELECT a\n FROM\tt  WHERE b = 1 "));
+    assertEquals("SELECT 'a  b', `c  d` FROM t", PlanCache.normalize("SELECT  'a  b',  `c  d`\nFROM t"));
+    assertEquals("SELECT \"x\ny\" FROM t", PlanCache.normalize("SELECT \"x\ny\"   FROM t"));
+  }
+}
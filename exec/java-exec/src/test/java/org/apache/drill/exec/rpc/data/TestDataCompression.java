@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.rpc.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.DrillBuf;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.physical.impl.spill.SpillCodec;
+import org.apache.drill.exec.physical.rowSet.RowSet;
+import org.apache.drill.exec.planner.physical.PlannerSettings;
+import org.apache.drill.exec.proto.UserBitShared.RecordBatchDef;
+import org.apache.drill.exec.proto.UserBitShared.SerializedField;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.ClusterTest;
+import org.apache.drill.test.rowSet.RowSetComparison;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Sends record batches compressed between two Drillbits, and checks the compression of
+ * a batch on its own.
+ */
+public class TestDataCompression extends ClusterTest {
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    startCluster(ClusterFixture.builder(dirTestWatcher)
+        .clusterSize(2)
+        .configProperty(ExecConstants.BIT_DATA_COMPRESSION_CODEC, SpillCodec.SNAPPY)
+        .configProperty(ExecConstants.BIT_DATA_COMPRESSION_THRESHOLD, 0)
+        .sessionOption(ExecConstants.SLICE_TARGET, 1));
+  }
+
+  @Test
+  public void testDistributedQuery() throws Exception {
+    String sql = "SELECT l_suppkey, COUNT(*) AS cnt, SUM(l_quantity) AS qty " +
+        "FROM cp.`tpch/lineitem.parquet` GROUP BY l_suppkey ORDER BY l_suppkey";
+    long uncompressedBefore = DataRpcMetrics.getUncompressedBytes();
+
+    client.alterSession(PlannerSettings.EXCHANGE.getOptionName(), true);
+    RowSet expected;
+    try {
+      expected = client.queryBuilder().sql(sql).rowSet();
+    } finally {
+      client.resetSession(PlannerSettings.EXCHANGE.getOptionName());
+    }
+    RowSet actual = client.queryBuilder().sql(sql).rowSet();
+
+    new RowSetComparison(expected).verifyAndClearAll(actual);
+    assertTrue(DataRpcMetrics.getUncompressedBytes() > uncompressedBefore);
+  }
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    roundTrip(SpillCodec.SNAPPY);
+  }
+
+  @Test
+  public void testRoundTripDeflate() throws Exception {
+    roundTrip(SpillCodec.DEFLATE);
+  }
+
+  /**
+   * Sends batches of one and of two buffers, several times each so that the pooled
+   * codec and its scratch arrays are reused, with batches of growing size.
+   */
+  private void roundTrip(String codecName) throws Exception {
+    try (DataCompression compression = DataCompression.create(codecName, 0)) {
+      for (int size = 4096; size <= 65536; size *= 4) {
+        roundTrip(compression, size, 1024);
+        roundTrip(compression, size, 0);
+      }
+    }
+  }
+
+  private void roundTrip(DataCompression compression, int size, int split) throws Exception {
+    BufferAllocator allocator = cluster.allocator();
+    byte[] data = new byte[size];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) (i % 7);
+    }
+    RecordBatchDef.Builder def = RecordBatchDef.newBuilder();
+    ByteBuf[] buffers;
+    if (split == 0) {
+      buffers = new ByteBuf[] {allocator.buffer(size).writeBytes(data)};
+      def.addField(SerializedField.newBuilder().setBufferLength(size));
+    } else {
+      buffers = new ByteBuf[] {
+          allocator.buffer(split).writeBytes(data, 0, split),
+          allocator.buffer(size - split).writeBytes(data, split, size - split)};
+      def.addField(SerializedField.newBuilder().setBufferLength(split))
+          .addField(SerializedField.newBuilder().setBufferLength(size - split));
+    }
+
+    ByteBuf[] compressed = compression.compress(allocator, buffers);
+    assertEquals(1, compressed.length);
+    assertTrue(compressed[0].readableBytes() < data.length);
+
+    DrillBuf body = (DrillBuf) compressed[0];
+    DrillBuf decompressed = compression.decompress(allocator, def.build(), body);
+    try {
+      assertEquals(data.length, decompressed.readableBytes());
+      byte[] result = new byte[data.length];
+      decompressed.getBytes(0, result);
+      for (int i = 0; i < data.length; i++) {
+        assertEquals(data[i], result[i]);
+      }
+    } finally {
+      decompressed.release();
+      body.release();
+    }
+  }
+
+  @Test
+  public void testBelowThreshold() throws Exception {
+    BufferAllocator allocator = cluster.allocator();
+    DrillBuf buffer = allocator.buffer(128);
+    buffer.writeZero(128);
+    RecordBatchDef def = RecordBatchDef.newBuilder()
+        .addField(SerializedField.newBuilder().setBufferLength(128))
+        .build();
+
+    try (DataCompression compression = DataCompression.create(SpillCodec.SNAPPY, 1024)) {
+      ByteBuf[] buffers = new ByteBuf[] {buffer};
+      assertSame(buffers, compression.compress(allocator, buffers));
+      assertNull(compression.decompress(allocator, def, buffer));
+    } finally {
+      buffer.release();
+    }
+  }
+
+  @Test
+  public void testUnknownCodec() {
+    assertNull(DataCompression.create("org.apache.drill.NoSuchCodec", 0));
+    assertNull(DataCompression.create(SpillCodec.NONE, 0));
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.rpc.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.physical.impl.partitionsender.PartitionSenderRootExec;
+import org.apache.drill.exec.physical.rowSet.RowSet;
+import org.apache.drill.exec.planner.physical.PlannerSettings;
+import org.apache.drill.exec.proto.UserBitShared.CoreOperatorType;
+import org.apache.drill.test.ClientFixture;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.ClusterFixtureBuilder;
+import org.apache.drill.test.ClusterTest;
+import org.apache.drill.test.ProfileParser;
+import org.apache.drill.test.QueryBuilder.QuerySummary;
+import org.apache.drill.test.rowSet.RowSetComparison;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Runs hash partitioned queries on a single Drillbit, where every batch is sent to a fragment
+ * of the same Drillbit, with and without the local exchange.
+ */
+public class TestLocalExchange extends ClusterTest {
+
+  private static final String SQL = "SELECT l_suppkey, COUNT(*) AS cnt, SUM(l_quantity) AS qty " +
+      "FROM cp.`tpch/lineitem.parquet` GROUP BY l_suppkey ORDER BY l_suppkey";
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    startCluster(builder(true));
+  }
+
+  private static ClusterFixtureBuilder builder(boolean localExchange) {
+    return ClusterFixture.builder(dirTestWatcher)
+        .configProperty(ExecConstants.BIT_DATA_LOCAL_EXCHANGE, localExchange)
+        .sessionOption(ExecConstants.SLICE_TARGET, 1)
+        .sessionOption(PlannerSettings.MUX_EXCHANGE.getOptionName(), false)
+        .maxParallelization(4)
+        .saveProfiles();
+  }
+
+  @Test
+  public void testLocalExchange() throws Exception {
+    client.alterSession(PlannerSettings.EXCHANGE.getOptionName(), true);
+    RowSet expected;
+    try {
+      expected = client.queryBuilder().sql(SQL).rowSet();
+    } finally {
+      client.resetSession(PlannerSettings.EXCHANGE.getOptionName());
+    }
+    new RowSetComparison(expected).verifyAndClearAll(client.queryBuilder().sql(SQL).rowSet());
+
+    QuerySummary summary = client.queryBuilder().sql(SQL).run();
+    assertTrue(batchesSent(client, summary, PartitionSenderRootExec.Metric.LOCAL_BATCHES_SENT) > 0);
+    assertEquals(0, batchesSent(client, summary, PartitionSenderRootExec.Metric.REMOTE_BATCHES_SENT));
+  }
+
+  @Test
+  public void testRemoteExchange() throws Exception {
+    long expected = client.queryBuilder().sql(SQL).run().recordCount();
+    try (ClusterFixture remoteCluster = builder(false).build();
+         ClientFixture remoteClient = remoteCluster.clientFixture()) {
+      QuerySummary summary = remoteClient.queryBuilder().sql(SQL).run();
+      assertEquals(expected, summary.recordCount());
+      assertEquals(0, batchesSent(remoteClient, summary, PartitionSenderRootExec.Metric.LOCAL_BATCHES_SENT));
+      assertTrue(batchesSent(remoteClient, summary, PartitionSenderRootExec.Metric.REMOTE_BATCHES_SENT) > 0);
+    }
+  }
+
+  private static long batchesSent(ClientFixture client, QuerySummary summary,
+                                  PartitionSenderRootExec.Metric metric) throws Exception {
+    ProfileParser profile = client.parseProfile(summary.queryIdString());
+    long batches = 0;
+    for (ProfileParser.OperatorProfile op : profile.getOpsOfType(CoreOperatorType.HASH_PARTITION_SENDER_VALUE)) {
+      batches += op.getMetric(metric.ordinal());
+    }
+    return batches;
+  }
+}
@@ -195,8 +195,8 @@ public class TestUserBitKerberos extends BaseTestQuery {
     });
 
     // Run query on memory system table this sends remote fragments to all Drillbit and Drillbits then send data
-    // using data channel. In this test we have only 1 Drillbit so there should not be any control connection but a
-    // local data connections
+    // using data channel. In this test we have only 1 Drillbit so there should not be any control connection, and
+    // the data is handed over locally without a data connection
     testSql("SELECT * FROM sys.memory");
 
     // Check encrypted counters value
@@ -207,7 +207,7 @@ public class TestUserBitKerberos extends BaseTestQuery {
     // Check unencrypted counters value
     assertTrue(1 == UserRpcMetrics.getInstance().getUnEncryptedConnectionCount());
     assertTrue(0 == ControlRpcMetrics.getInstance().getUnEncryptedConnectionCount());
-    assertTrue(2 == DataRpcMetrics.getInstance().getUnEncryptedConnectionCount());
+    assertTrue(0 == DataRpcMetrics.getInstance().getUnEncryptedConnectionCount());
   }
 
   @AfterClass
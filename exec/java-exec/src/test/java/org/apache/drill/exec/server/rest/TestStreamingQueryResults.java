@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.server.rest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import javax.ws.rs.core.Response;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.ClusterFixtureBuilder;
+import org.apache.drill.test.ClusterTest;
+import org.apache.drill.test.RestClientFixture;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Runs queries through the streaming REST endpoints, with a queue of a single
+ * batch so that the query is held back by the writing of the response.
+ */
+public class TestStreamingQueryResults extends ClusterTest {
+
+  private static RestClientFixture restClient;
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    ClusterFixtureBuilder builder = ClusterFixture.builder(dirTestWatcher)
+        .configProperty(ExecConstants.HTTP_ENABLE, true)
+        .configProperty(ExecConstants.HTTP_PORT_HUNT, true)
+        .configProperty(ExecConstants.SYS_STORE_PROVIDER_LOCAL_ENABLE_WRITE, false)
+        .configProperty(ExecConstants.HTTP_STREAMING_QUEUE_SIZE, 1);
+    startCluster(builder);
+    restClient = cluster.restClientFixture();
+  }
+
+  @AfterClass
+  public static void closeClient() throws Exception {
+    if (restClient != null) {
+      restClient.close();
+    }
+  }
+
+  private JsonNode streamJson(String sql) throws Exception {
+    Response response = restClient.submitQuery("query/stream.json", sql);
+    assertEquals(200, response.getStatus());
+    return new ObjectMapper().readTree(response.readEntity(String.class));
+  }
+
+  @Test
+  public void testJson() throws Exception {
+    JsonNode result = streamJson("SELECT n_nationkey, n_name FROM cp.`tpch/nation.parquet` ORDER BY n_nationkey");
+    assertEquals("COMPLETED", result.get("queryState").asText());
+    assertEquals("n_nationkey", result.get("columns").get(0).asText());
+    assertEquals("n_name", result.get("columns").get(1).asText());
+    assertEquals("INT", result.get("metadata").get(0).asText());
+    assertEquals(25, result.get("rows").size());
+    assertEquals("ALGERIA", result.get("rows").get(0).get("n_name").asText());
+    assertTrue(result.get("rows").get(24).get("n_name").isTextual());
+  }
+
+  @Test
+  public void testManyBatches() throws Exception {
+    String sql = "SELECT l_orderkey, l_comment FROM cp.`tpch/lineitem.parquet`";
+    long expected = client.queryBuilder().sql("SELECT COUNT(*) FROM cp.`tpch/lineitem.parquet`").singletonLong();
+    JsonNode result = streamJson(sql);
+    assertEquals("COMPLETED", result.get("queryState").asText());
+    assertEquals(expected, result.get("rows").size());
+  }
+
+  @Test
+  public void testEmptyResult() throws Exception {
+    JsonNode result = streamJson("SELECT n_name FROM cp.`tpch/nation.parquet` WHERE n_nationkey < 0");
+    assertEquals("COMPLETED", result.get("queryState").asText());
+    assertEquals(0, result.get("rows").size());
+  }
+
+  @Test
+  public void testCsv() throws Exception {
+    Response response = restClient.submitQuery("query/stream.csv",
+        "SELECT 'a,b' AS x, 'say \"hi\"' AS y, CAST(NULL AS VARCHAR) AS z, 1 AS w FROM (VALUES(1))");
+    assertEquals(200, response.getStatus());
+    assertEquals("x,y,z,w\r\n\"a,b\",\"say \"\"hi\"\"\",,1\r\n", response.readEntity(String.class));
+  }
+
+  @Test
+  public void testFailedQuery() throws Exception {
+    Response response = restClient.submitQuery("query/stream.json", "SELECT * FROM cp.`no_such_table.json`");
+    assertEquals(500, response.getStatus());
+    assertTrue(response.readEntity(String.class).contains("no_such_table"));
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.parquet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.apache.drill.categories.ParquetTest;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.planner.physical.PlannerSettings;
+import org.apache.drill.exec.proto.UserBitShared;
+import org.apache.drill.exec.store.parquet.columnreaders.ParquetRecordReader;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.ClusterFixtureBuilder;
+import org.apache.drill.test.ClusterTest;
+import org.apache.drill.test.ProfileParser;
+import org.apache.drill.test.QueryBuilder;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Runs filtered scans over two dictionary-encoded files: one with the nations 0 and 21 only,
+ * whose min/max statistics include most of the filter values, and one with all the nations.
+ */
+@Category(ParquetTest.class)
+public class TestParquetDictionaryFilter extends ClusterTest {
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    ClusterFixtureBuilder builder = ClusterFixture.builder(dirTestWatcher)
+        .sessionOption(ExecConstants.SKIP_RUNTIME_ROWGROUP_PRUNING_KEY, false)
+        .sessionOption(PlannerSettings.PARQUET_ROWGROUP_FILTER_PUSHDOWN_PLANNING_THRESHOLD_KEY, 0)
+        .maxParallelization(1)
+        .saveProfiles();
+    startCluster(builder);
+    dirTestWatcher.copyResourceToRoot(Paths.get("parquetFilterPush", "dateTblCorrupted"));
+
+    client.alterSession(ExecConstants.PARQUET_WRITER_ENABLE_DICTIONARY_ENCODING, true);
+    try {
+      client.queryBuilder().sql("CREATE TABLE dfs.tmp.`dict_filter/1` AS " +
+          "SELECT n_nationkey, n_name FROM cp.`tpch/nation.parquet` WHERE n_nationkey IN (0, 21)").run();
+      client.queryBuilder().sql("CREATE TABLE dfs.tmp.`dict_filter/2` AS " +
+          "SELECT n_nationkey, n_name FROM cp.`tpch/nation.parquet`").run();
+    } finally {
+      client.resetSession(ExecConstants.PARQUET_WRITER_ENABLE_DICTIONARY_ENCODING);
+    }
+  }
+
+  @Test
+  public void testEquality() throws Exception {
+    checkPruned("SELECT n_nationkey FROM dfs.tmp.dict_filter WHERE n_name = 'BRAZIL'", 1, 1);
+    checkPruned("SELECT n_name FROM dfs.tmp.dict_filter WHERE n_nationkey = 5", 1, 1);
+  }
+
+  @Test
+  public void testIn() throws Exception {
+    checkPruned("SELECT n_nationkey FROM dfs.tmp.dict_filter WHERE n_name IN ('BRAZIL', 'CANADA')", 2, 1);
+  }
+
+  @Test
+  public void testLikePrefix() throws Exception {
+    checkPruned("SELECT n_nationkey FROM dfs.tmp.dict_filter WHERE n_name LIKE 'BR%'", 1, 1);
+  }
+
+  @Test
+  public void testMatchingValue() throws Exception {
+    checkPruned("SELECT n_nationkey FROM dfs.tmp.dict_filter WHERE n_name = 'VIETNAM'", 2, 0);
+  }
+
+  @Test
+  public void testDisabled() throws Exception {
+    try {
+      client.alterSession(ExecConstants.PARQUET_READER_DICTIONARY_FILTER, false);
+      checkPruned("SELECT n_nationkey FROM dfs.tmp.dict_filter WHERE n_name = 'BRAZIL'", 1, 0);
+    } finally {
+      client.resetSession(ExecConstants.PARQUET_READER_DICTIONARY_FILTER);
+    }
+  }
+
+  /**
+   * The files written by Drill 1.8 hold shifted dates (DRILL-4203), which the dictionaries must not
+   * compare as they are, or they prune the row groups holding the matching dates.
+   */
+  @Test
+  public void testCorruptDates() throws Exception {
+    String table = "dfs.`parquetFilterPush/dateTblCorrupted`";
+    assertEquals(9, client.queryBuilder()
+        .sql("SELECT o_orderdate FROM %s WHERE o_orderdate = date '1992-01-01'", table)
+        .run().recordCount());
+    assertEquals(20, client.queryBuilder()
+        .sql("SELECT o_orderdate FROM %s WHERE o_orderdate IN (date '1992-01-01', date '1992-01-04')", table)
+        .run().recordCount());
+  }
+
+  private void checkPruned(String sql, long expectedRows, long expectedPruned) throws Exception {
+    QueryBuilder.QuerySummary summary = client.queryBuilder().sql(sql).run();
+    assertEquals(expectedRows, summary.recordCount());
+
+    ProfileParser profile = client.parseProfile(summary.queryIdString());
+    List<ProfileParser.OperatorProfile> ops = profile.getOpsOfType(UserBitShared.CoreOperatorType.PARQUET_ROW_GROUP_SCAN_VALUE);
+    assertFalse(ops.isEmpty());
+    ProfileParser.OperatorProfile scan = ops.get(0);
+    assertEquals(2, scan.getMetric(ParquetRecordReader.Metric.NUM_ROWGROUPS.ordinal()));
+    assertEquals(expectedPruned, scan.getMetric(ParquetRecordReader.Metric.ROWGROUPS_PRUNED.ordinal()));
+  }
+}
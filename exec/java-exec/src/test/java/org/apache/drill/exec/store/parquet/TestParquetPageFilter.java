@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.store.parquet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.apache.drill.categories.ParquetTest;
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.planner.physical.PlannerSettings;
+import org.apache.drill.exec.proto.UserBitShared;
+import org.apache.drill.exec.store.parquet.columnreaders.ParquetRecordReader;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.ClusterFixtureBuilder;
+import org.apache.drill.test.ClusterTest;
+import org.apache.drill.test.ProfileParser;
+import org.apache.drill.test.QueryBuilder;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+/**
+ * Runs filtered scans over a table sorted on the filter column and written with small pages,
+ * checking that the pages which cannot match are skipped without changing the results.
+ */
+@Category(ParquetTest.class)
+public class TestParquetPageFilter extends ClusterTest {
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    ClusterFixtureBuilder builder = ClusterFixture.builder(dirTestWatcher)
+        .sessionOption(ExecConstants.SKIP_RUNTIME_ROWGROUP_PRUNING_KEY, false)
+        .sessionOption(PlannerSettings.PARQUET_ROWGROUP_FILTER_PUSHDOWN_PLANNING_THRESHOLD_KEY, 0)
+        .maxParallelization(1)
+        .saveProfiles();
+    startCluster(builder);
+
+    client.alterSession(ExecConstants.PARQUET_PAGE_SIZE, 1024);
+    try {
+      client.queryBuilder().sql("CREATE TABLE dfs.tmp.page_filter AS " +
+          "SELECT l_orderkey, l_partkey, l_comment FROM cp.`tpch/lineitem.parquet` ORDER BY l_orderkey").run();
+    } finally {
+      client.resetSession(ExecConstants.PARQUET_PAGE_SIZE);
+    }
+  }
+
+  @Test
+  public void testSkipsPages() throws Exception {
+    String sql = "SELECT COUNT(*) FROM dfs.tmp.page_filter WHERE l_orderkey BETWEEN 1000 AND 1100";
+    long expected = countWithoutPageFilter(sql);
+    assertTrue(expected > 0);
+    assertEquals(expected, client.queryBuilder().sql(sql).singletonLong());
+    assertTrue(pagesSkipped(client.queryBuilder().sql(sql)) > 0);
+  }
+
+  @Test
+  public void testSkippedRowValues() throws Exception {
+    // Sums a column which is not in the filter, so its values must line up with the filtered rows
+    String sql = "SELECT SUM(l_partkey) FROM dfs.tmp.page_filter WHERE l_orderkey BETWEEN 2000 AND 2010";
+    assertEquals(countWithoutPageFilter(sql), client.queryBuilder().sql(sql).singletonLong());
+  }
+
+  @Test
+  public void testAsyncPageReader() throws Exception {
+    String sql = "SELECT COUNT(*) FROM dfs.tmp.page_filter WHERE l_orderkey BETWEEN 3000 AND 3100";
+    long expected = countWithoutPageFilter(sql);
+    try {
+      client.alterSession(ExecConstants.PARQUET_PAGEREADER_ASYNC, true);
+      assertEquals(expected, client.queryBuilder().sql(sql).singletonLong());
+      client.alterSession(ExecConstants.PARQUET_PAGEREADER_ASYNC, false);
+      assertEquals(expected, client.queryBuilder().sql(sql).singletonLong());
+    } finally {
+      client.resetSession(ExecConstants.PARQUET_PAGEREADER_ASYNC);
+    }
+  }
+
+  @Test
+  public void testDisabled() throws Exception {
+    String sql = "SELECT COUNT(*) FROM dfs.tmp.page_filter WHERE l_orderkey BETWEEN 1000 AND 1100";
+    try {
+      client.alterSession(ExecConstants.PARQUET_FLAT_READER_PAGE_FILTER, false);
+      assertEquals(0, pagesSkipped(client.queryBuilder().sql(sql)));
+    } finally {
+      client.resetSession(ExecConstants.PARQUET_FLAT_READER_PAGE_FILTER);
+    }
+  }
+
+  private long countWithoutPageFilter(String sql) throws Exception {
+    try {
+      client.alterSession(ExecConstants.PARQUET_FLAT_READER_PAGE_FILTER, false);
+      return client.queryBuilder().sql(sql).singletonLong();
+    } finally {
+      client.resetSession(ExecConstants.PARQUET_FLAT_READER_PAGE_FILTER);
+    }
+  }
+
+  private long pagesSkipped(QueryBuilder query) throws Exception {
+    QueryBuilder.QuerySummary summary = query.run();
+    assertTrue(summary.succeeded());
+    ProfileParser profile = client.parseProfile(summary.queryIdString());
+    List<ProfileParser.OperatorProfile> ops = profile.getOpsOfType(UserBitShared.CoreOperatorType.PARQUET_ROW_GROUP_SCAN_VALUE);
+    long skipped = 0;
+    for (ProfileParser.OperatorProfile op : ops) {
+      skipped += op.getMetric(ParquetRecordReader.Metric.NUM_DATA_PAGES_SKIPPED.ordinal());
+    }
+    return skipped;
+  }
+}
@@ -26,6 +26,7 @@ import org.apache.drill.exec.expr.ValueVectorReadExpression;
 import org.apache.drill.exec.expr.fn.FunctionImplementationRegistry;
 import org.apache.drill.exec.expr.fn.impl.ValueVectorHashHelper;
 import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.memory.RootAllocatorFactory;
 import org.apache.drill.exec.ops.FragmentContext;
 import org.apache.drill.exec.ops.FragmentContextImpl;
 import org.apache.drill.exec.proto.BitControl;
@@ -45,7 +46,9 @@ import org.apache.drill.exec.vector.VarCharVector;
 import org.apache.drill.test.BaseTest;
 import org.junit.Assert;
 import org.junit.Test;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.Random;
 
 public class BloomFilterTest extends BaseTest {
   public static DrillConfig c = DrillConfig.create();
@@ -343,4 +346,36 @@ public class BloomFilterTest extends BaseTest {
     bitContext.close();
     bit.close();
   }
+
+  @Test
+  public void testFindAll() throws Exception {
+    try (BufferAllocator bufferAllocator = RootAllocatorFactory.newRoot(c)) {
+      BloomFilter bloomFilter = new BloomFilter(BloomFilter.optimalNumOfBytes(100, 0.03), bufferAllocator);
+      Random random = new Random(7);
+      for (int i = 0; i < 100; i++) {
+        bloomFilter.insert(random.nextLong());
+      }
+      int count = 130;
+      long[] hashes = new long[count];
+      random = new Random(7);
+      for (int i = 0; i < count; i++) {
+        hashes[i] = random.nextLong();
+      }
+      long[] selection = new long[3];
+      Arrays.fill(selection, -1L);
+      bloomFilter.findAll(hashes, count, selection);
+      for (int i = 0; i < count; i++) {
+        boolean selected = (selection[i >>> 6] & 1L << i) != 0;
+        Assert.assertEquals(bloomFilter.find(hashes[i]), selected);
+        if (i < 100) {
+          Assert.assertTrue(selected);
+        }
+      }
+      // Cleared bits stay cleared
+      Arrays.fill(selection, 0L);
+      bloomFilter.findAll(hashes, count, selection);
+      Assert.assertArrayEquals(new long[3], selection);
+      bloomFilter.getContent().close();
+    }
+  }
 }
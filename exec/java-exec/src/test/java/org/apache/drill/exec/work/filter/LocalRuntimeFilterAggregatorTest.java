@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.work.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.drill.exec.memory.BufferAllocator;
+import org.apache.drill.exec.proto.BitData;
+import org.apache.drill.exec.proto.UserBitShared;
+import org.apache.drill.test.SubOperatorTest;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+public class LocalRuntimeFilterAggregatorTest extends SubOperatorTest {
+
+  private static final long TIMEOUT = 60_000;
+
+  @Test
+  public void testAggregate() {
+    try (BufferAllocator fragments = fixture.allocator().newChildAllocator("fragments", 0, Long.MAX_VALUE);
+         LocalRuntimeFilterAggregator aggregator = new LocalRuntimeFilterAggregator(fixture.allocator())) {
+      assertNull(aggregator.add(writable(fragments, 0, 1, 1L), 3, TIMEOUT));
+      assertNull(aggregator.add(writable(fragments, 0, 2, 2L), 3, TIMEOUT));
+      // Another join does not complete the first one
+      assertNull(aggregator.add(writable(fragments, 1, 0, 4L), 2, TIMEOUT));
+      assertEquals(2, aggregator.getPendingCount());
+      // The contributions were copied, the fragments may be gone
+      assertEquals(0, fragments.getAllocatedMemory());
+
+      try (RuntimeFilterWritable aggregated = aggregator.add(writable(fragments, 0, 3, 3L), 3, TIMEOUT)) {
+        assertNotNull(aggregated);
+        BloomFilter bloomFilter = aggregated.unwrap().get(0);
+        assertTrue(bloomFilter.find(1L));
+        assertTrue(bloomFilter.find(2L));
+        assertTrue(bloomFilter.find(3L));
+      }
+      assertEquals(1, aggregator.getPendingCount());
+    }
+  }
+
+  @Test
+  public void testExpire() throws InterruptedException {
+    try (LocalRuntimeFilterAggregator aggregator = new LocalRuntimeFilterAggregator(fixture.allocator())) {
+      assertNull(aggregator.add(writable(fixture.allocator(), 0, 0, 1L), 2, 1));
+      Thread.sleep(10);
+      aggregator.expire();
+      assertEquals(0, aggregator.getPendingCount());
+
+      // The late contribution starts over rather than completing a partial filter
+      assertNull(aggregator.add(writable(fixture.allocator(), 0, 1, 2L), 2, TIMEOUT));
+      assertEquals(1, aggregator.getPendingCount());
+    }
+  }
+
+  @Test
+  public void testDropQuery() {
+    try (LocalRuntimeFilterAggregator aggregator = new LocalRuntimeFilterAggregator(fixture.allocator())) {
+      assertNull(aggregator.add(writable(fixture.allocator(), 0, 0, 1L), 2, TIMEOUT));
+      assertNull(aggregator.add(writable(fixture.allocator(), 1, 0, 1L), 2, TIMEOUT));
+      assertNull(aggregator.add(writable(fixture.allocator(), queryId(3), 0, 0, 1L), 2, TIMEOUT));
+      assertEquals(3, aggregator.getPendingCount());
+
+      // Only the filters of the ended query are dropped, without waiting for their timeout
+      aggregator.dropQuery(queryId(2));
+      assertEquals(1, aggregator.getPendingCount());
+      aggregator.dropQuery(queryId(3));
+      assertEquals(0, aggregator.getPendingCount());
+    }
+  }
+
+  private RuntimeFilterWritable writable(BufferAllocator allocator, int hjOpId, int minorFragmentId, long hash) {
+    return writable(allocator, queryId(2), hjOpId, minorFragmentId, hash);
+  }
+
+  private UserBitShared.QueryId queryId(long part2) {
+    return UserBitShared.QueryId.newBuilder().setPart1(1).setPart2(part2).build();
+  }
+
+  private RuntimeFilterWritable writable(BufferAllocator allocator, UserBitShared.QueryId queryId, int hjOpId,
+                                         int minorFragmentId, long hash) {
+    BloomFilter bloomFilter = new BloomFilter(256, allocator);
+    bloomFilter.insert(hash);
+    List<String> probeFields = Collections.singletonList("a");
+    BitData.RuntimeFilterBDef bDef = BitData.RuntimeFilterBDef.newBuilder()
+        .setQueryId(queryId)
+        .setMajorFragmentId(1)
+        .setMinorFragmentId(minorFragmentId)
+        .setHjOpId(hjOpId)
+        .addAllProbeFields(probeFields)
+        .addBloomFilterSizeInBytes(bloomFilter.getContent().capacity())
+        .build();
+    return new RuntimeFilterWritable(bDef, bloomFilter.getContent());
+  }
+}
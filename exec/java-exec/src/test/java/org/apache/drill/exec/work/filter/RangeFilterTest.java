@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.work.filter;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.drill.common.types.TypeProtos.MinorType;
+import org.apache.drill.common.types.Types;
+import org.apache.drill.exec.proto.BitData;
+import org.apache.drill.exec.record.MaterializedField;
+import org.apache.drill.exec.vector.BigIntVector;
+import org.apache.drill.exec.vector.Float8Vector;
+import org.apache.drill.exec.vector.IntVector;
+import org.apache.drill.exec.vector.NullableIntVector;
+import org.apache.drill.test.SubOperatorTest;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class RangeFilterTest extends SubOperatorTest {
+
+  private static final List<String> PROBE_FIELDS = Collections.singletonList("a");
+
+  @Test
+  public void testRangeAndValues() {
+    RangeFilter filter = new RangeFilter(PROBE_FIELDS, 4);
+    try (IntVector keys = intVector(10, 20, 30, 20)) {
+      filter.insert(0, keys, 4);
+    }
+    // Outside of the range
+    assertFalse(filter.canMatch("a", 0, 9));
+    assertFalse(filter.canMatch("a", 31L, 100L));
+    // Within the range, but between the values
+    assertFalse(filter.canMatch("a", 11, 19));
+    assertTrue(filter.canMatch("a", 15, 25));
+    assertTrue(filter.canMatch("A", 30, 40));
+    // Not a column of the filter, or statistics of another type
+    assertTrue(filter.canMatch("b", 0, 9));
+    assertTrue(filter.canMatch("a", 0.0, 9.0));
+  }
+
+  @Test
+  public void testTooManyValues() {
+    RangeFilter filter = new RangeFilter(PROBE_FIELDS, 2);
+    try (IntVector keys = intVector(10, 20, 30)) {
+      filter.insert(0, keys, 3);
+    }
+    // Only the range is left
+    assertTrue(filter.canMatch("a", 11, 19));
+    assertFalse(filter.canMatch("a", 31, 40));
+  }
+
+  @Test
+  public void testNullKey() {
+    RangeFilter filter = new RangeFilter(PROBE_FIELDS, 4);
+    try (NullableIntVector keys = new NullableIntVector(MaterializedField.create("k", Types.optional(MinorType.INT)), fixture.allocator())) {
+      keys.allocateNew(2);
+      keys.getMutator().set(0, 10);
+      keys.getMutator().setNull(1);
+      keys.getMutator().setValueCount(2);
+      filter.insert(0, keys, 2);
+    }
+    assertTrue(filter.canMatch("a", 0, 9));
+  }
+
+  @Test
+  public void testEmptyBuildSide() {
+    RangeFilter filter = new RangeFilter(PROBE_FIELDS, 4);
+    assertFalse(filter.canMatch("a", 0, 9));
+  }
+
+  @Test
+  public void testDoubles() {
+    RangeFilter filter = new RangeFilter(PROBE_FIELDS, 4);
+    try (Float8Vector keys = new Float8Vector(MaterializedField.create("k", Types.required(MinorType.FLOAT8)), fixture.allocator())) {
+      keys.allocateNew(2);
+      keys.getMutator().set(0, -0.0);
+      keys.getMutator().set(1, 2.5);
+      keys.getMutator().setValueCount(2);
+      filter.insert(0, keys, 2);
+    }
+    assertTrue(filter.canMatch("a", 0.0, 1.0));
+    assertFalse(filter.canMatch("a", 0.5, 2.0));
+    assertFalse(filter.canMatch("a", 3.0f, 4.0f));
+    assertTrue(filter.canMatch("a", 0, 9));
+  }
+
+  @Test
+  public void testMergeAndSerialize() {
+    List<String> probeFields = Arrays.asList("a", "b");
+    RangeFilter first = new RangeFilter(probeFields, 4);
+    RangeFilter second = new RangeFilter(probeFields, 4);
+    try (IntVector keys = intVector(10, 20);
+         BigIntVector otherKeys = new BigIntVector(MaterializedField.create("k", Types.required(MinorType.BIGINT)), fixture.allocator())) {
+      first.insert(0, keys, 2);
+      first.insert(1, keys, 2);
+      otherKeys.allocateNew(1);
+      otherKeys.getMutator().set(0, 100L);
+      otherKeys.getMutator().setValueCount(1);
+      second.insert(1, otherKeys, 1);
+    }
+
+    BitData.RuntimeFilterBDef bDef = BitData.RuntimeFilterBDef.newBuilder()
+        .addAllProbeFields(probeFields)
+        .addAllBloomFilterSizeInBytes(Arrays.asList(256, 256))
+        .build();
+    try (RuntimeFilterWritable firstWritable = writable(bDef, first);
+         RuntimeFilterWritable secondWritable = writable(bDef, second)) {
+      firstWritable.aggregate(secondWritable);
+      RangeFilter merged = firstWritable.unwrapRangeFilter();
+      assertNotNull(merged);
+      // The second fragment had no row for the first field
+      assertTrue(merged.canMatch("a", 5, 15));
+      assertFalse(merged.canMatch("a", 50, 150));
+      // and added a value to the second one
+      assertTrue(merged.canMatch("b", 90, 110));
+      assertFalse(merged.canMatch("b", 30, 90));
+      assertFalse(merged.canMatch("b", 0, 5));
+    }
+
+    try (RuntimeFilterWritable withoutRange = new RuntimeFilterWritable(bDef,
+        new BloomFilter(256, fixture.allocator()).getContent(), new BloomFilter(256, fixture.allocator()).getContent())) {
+      assertNull(withoutRange.unwrapRangeFilter());
+    }
+  }
+
+  private RuntimeFilterWritable writable(BitData.RuntimeFilterBDef bDef, RangeFilter rangeFilter) {
+    return new RuntimeFilterWritable(bDef,
+        new BloomFilter(256, fixture.allocator()).getContent(),
+        new BloomFilter(256, fixture.allocator()).getContent(),
+        rangeFilter.serialize(fixture.allocator()));
+  }
+
+  private IntVector intVector(int... values) {
+    IntVector vector = new IntVector(MaterializedField.create("k", Types.required(MinorType.INT)), fixture.allocator());
+    vector.allocateNew(values.length);
+    for (int i = 0; i < values.length; i++) {
+      vector.getMutator().set(i, values[i]);
+    }
+    vector.getMutator().setValueCount(values.length);
+    return vector;
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.work.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.apache.calcite.rel.RelFieldCollation.Direction;
+import org.apache.calcite.rel.RelFieldCollation.NullDirection;
+import org.apache.drill.common.expression.SchemaPath;
+import org.apache.drill.common.logical.data.Order.Ordering;
+import org.apache.drill.common.types.TypeProtos.MinorType;
+import org.apache.drill.common.types.Types;
+import org.apache.drill.exec.record.MaterializedField;
+import org.apache.drill.exec.vector.BigIntVector;
+import org.apache.drill.exec.vector.Float8Vector;
+import org.apache.drill.exec.vector.NullableFloat8Vector;
+import org.apache.drill.test.SubOperatorTest;
+import org.junit.Test;
+
+public class TopNCutoffTest extends SubOperatorTest {
+
+  @Test
+  public void testDescending() {
+    // Nulls sort first in descending order by default
+    TopNCutoff cutoff = TopNCutoff.create(new Ordering(Direction.DESCENDING, SchemaPath.getSimplePath("ts"),
+        NullDirection.UNSPECIFIED));
+    assertEquals("ts", cutoff.getField());
+    assertTrue(cutoff.canMatch("ts", 10L, 20L, false));
+
+    try (BigIntVector keys = bigIntVector(100, 50)) {
+      cutoff.update(keys, 0);
+      // The cutoff only tightens
+      cutoff.update(keys, 1);
+    }
+    assertTrue(cutoff.isSet());
+    assertFalse(cutoff.canMatch("ts", 10L, 99L, false));
+    assertTrue(cutoff.canMatch("TS", 10L, 100L, false));
+    assertTrue(cutoff.canMatch("ts", 10, 200, false));
+    // Nulls would enter, another column or statistics of another type
+    assertTrue(cutoff.canMatch("ts", 10L, 99L, true));
+    assertTrue(cutoff.canMatch("a", 10L, 99L, false));
+    assertTrue(cutoff.canMatch("ts", 10.0, 99.0, false));
+
+    StatisticsFilter renamed = cutoff.renamed("t");
+    assertFalse(renamed.canMatch("t", 10L, 99L, false));
+    assertTrue(renamed.canMatch("ts", 10L, 99L, false));
+
+    try (BigIntVector keys = bigIntVector(1, 2)) {
+      assertFalse(cutoff.canMatchAny(keys, null, 2));
+    }
+    try (BigIntVector keys = bigIntVector(1, 200)) {
+      assertTrue(cutoff.canMatchAny(keys, null, 2));
+    }
+
+    // Starting over lets everything through
+    cutoff.reset();
+    assertTrue(cutoff.canMatch("ts", 10L, 99L, false));
+  }
+
+  @Test
+  public void testAscendingDoubles() {
+    // Nulls sort last in ascending order by default
+    TopNCutoff cutoff = TopNCutoff.create(new Ordering(Direction.ASCENDING, SchemaPath.getSimplePath("d"),
+        NullDirection.UNSPECIFIED));
+    try (NullableFloat8Vector keys = nullableFloat8Vector(Double.NaN, 1.5, null)) {
+      // Neither NaN nor null set the cutoff
+      cutoff.update(keys, 0);
+      cutoff.update(keys, 2);
+      assertFalse(cutoff.isSet());
+      cutoff.update(keys, 1);
+      assertTrue(cutoff.isSet());
+    }
+    // NaN sorts after all the other values, and nulls come last
+    try (NullableFloat8Vector keys = nullableFloat8Vector(Double.NaN, null, 2.0)) {
+      assertFalse(cutoff.canMatchAny(keys, null, 3));
+    }
+    assertFalse(cutoff.canMatch("d", 2.0, 3.0, true));
+    assertTrue(cutoff.canMatch("d", 1.5f, 3.0f, false));
+    assertTrue(cutoff.canMatch("d", Double.NaN, 3.0, false));
+    assertTrue(cutoff.canMatch("d", 2L, 3L, false));
+
+    try (Float8Vector keys = float8Vector(3.0, -0.0)) {
+      assertTrue(cutoff.canMatchAny(keys, null, 2));
+    }
+
+    // Once disabled for good
+    cutoff.disable();
+    cutoff.reset();
+    try (Float8Vector keys = float8Vector(1.0)) {
+      cutoff.update(keys, 0);
+    }
+    assertFalse(cutoff.isSet());
+    assertTrue(cutoff.canMatch("d", 2.0, 3.0, false));
+  }
+
+  @Test
+  public void testNotAColumn() {
+    assertNull(TopNCutoff.create(new Ordering(Direction.ASCENDING, SchemaPath.getCompoundPath("m", "a"),
+        NullDirection.UNSPECIFIED)));
+  }
+
+  private BigIntVector bigIntVector(long... values) {
+    BigIntVector vector = new BigIntVector(MaterializedField.create("k", Types.required(MinorType.BIGINT)), fixture.allocator());
+    vector.allocateNew(values.length);
+    for (int i = 0; i < values.length; i++) {
+      vector.getMutator().set(i, values[i]);
+    }
+    vector.getMutator().setValueCount(values.length);
+    return vector;
+  }
+
+  private Float8Vector float8Vector(double... values) {
+    Float8Vector vector = new Float8Vector(MaterializedField.create("k", Types.required(MinorType.FLOAT8)), fixture.allocator());
+    vector.allocateNew(values.length);
+    for (int i = 0; i < values.length; i++) {
+      vector.getMutator().set(i, values[i]);
+    }
+    vector.getMutator().setValueCount(values.length);
+    return vector;
+  }
+
+  private NullableFloat8Vector nullableFloat8Vector(Double... values) {
+    NullableFloat8Vector vector = new NullableFloat8Vector(MaterializedField.create("k", Types.optional(MinorType.FLOAT8)),
+        fixture.allocator());
+    vector.allocateNew(values.length);
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] == null) {
+        vector.getMutator().setNull(i);
+      } else {
+        vector.getMutator().set(i, values[i]);
+      }
+    }
+    vector.getMutator().setValueCount(values.length);
+    return vector;
+  }
+}
@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.work.fragment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.drill.exec.ExecConstants;
+import org.apache.drill.exec.planner.physical.PlannerSettings;
+import org.apache.drill.test.ClusterFixture;
+import org.apache.drill.test.ClusterFixtureBuilder;
+import org.apache.drill.test.ClusterTest;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Runs fragments on a {@link FragmentScheduler} pool with a single thread of
+ * parallelism, so that queries only complete if blocked fragments let the
+ * pool run the fragments they wait on.
+ */
+public class TestFragmentScheduler extends ClusterTest {
+
+  @BeforeClass
+  public static void setup() throws Exception {
+    ClusterFixtureBuilder builder = ClusterFixture.builder(dirTestWatcher)
+        .configProperty(ExecConstants.FRAGMENT_SCHEDULER_ENABLED, true)
+        // Rounds up to a parallelism of one
+        .configProperty(ExecConstants.FRAGMENT_SCHEDULER_PARALLELISM_FACTOR, 0.001)
+        .maxParallelization(4);
+    startCluster(builder);
+  }
+
+  @Test
+  public void testManagedCallCompensates() throws Exception {
+    ForkJoinPool pool = FragmentScheduler.newPool(1, 16);
+    try {
+      CountDownLatch latch = new CountDownLatch(1);
+      Future<Boolean> consumer = pool.submit(() -> FragmentScheduler.managedCall(() -> latch.await(30, TimeUnit.SECONDS)));
+      Future<?> producer = pool.submit(latch::countDown);
+      producer.get(30, TimeUnit.SECONDS);
+      assertTrue(consumer.get(30, TimeUnit.SECONDS));
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testManagedCallCapped() throws Exception {
+    // No thread to spare: the blocked task keeps the only one
+    ForkJoinPool pool = FragmentScheduler.newPool(1, 1);
+    try {
+      CountDownLatch latch = new CountDownLatch(1);
+      Future<Boolean> consumer = pool.submit(() -> FragmentScheduler.managedCall(() -> latch.await(30, TimeUnit.SECONDS)));
+      Future<?> other = pool.submit(() -> { });
+      Thread.sleep(200);
+      assertFalse(other.isDone());
+      latch.countDown();
+      assertTrue(consumer.get(30, TimeUnit.SECONDS));
+      other.get(30, TimeUnit.SECONDS);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testManagedCallOtherPool() throws Exception {
+    // Threads of other fork/join pools are not made up for
+    ForkJoinPool pool = new ForkJoinPool(1);
+    try {
+      CountDownLatch latch = new CountDownLatch(1);
+      Future<Boolean> consumer = pool.submit(() -> FragmentScheduler.managedCall(() -> latch.await(30, TimeUnit.SECONDS)));
+      Future<?> other = pool.submit(() -> { });
+      Thread.sleep(200);
+      assertFalse(other.isDone());
+      latch.countDown();
+      assertTrue(consumer.get(30, TimeUnit.SECONDS));
+      other.get(30, TimeUnit.SECONDS);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testManagedCallRethrows() throws Exception {
+    ForkJoinPool pool = FragmentScheduler.newPool(1, 16);
+    try {
+      Future<String> future = pool.submit(() -> {
+        try {
+          return FragmentScheduler.managedCall(() -> {
+            throw new IOException("spill failed");
+          });
+        } catch (IOException e) {
+          return e.getMessage();
+        }
+      });
+      assertEquals("spill failed", future.get(30, TimeUnit.SECONDS));
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  public void testManagedCallOutsidePool() throws Exception {
+    assertEquals("direct", FragmentScheduler.managedCall(() -> "direct"));
+    try {
+      FragmentScheduler.managedCall(() -> {
+        throw new IllegalStateException("direct");
+      });
+      fail();
+    } catch (IllegalStateException e) {
+      assertEquals("direct", e.getMessage());
+    }
+  }
+
+  @Test
+  public void testMultiFragmentQuery() throws Exception {
+    String sql = "SELECT COUNT(*) FROM (SELECT l_orderkey, SUM(l_quantity) AS qty " +
+        "FROM cp.`tpch/lineitem.parquet` GROUP BY l_orderkey) t";
+    long expected = client.queryBuilder().sql(sql).singletonLong();
+    try {
+      client.alterSession(ExecConstants.SLICE_TARGET, 1);
+      client.alterSession(PlannerSettings.FORCE_2PHASE_AGGR_KEY, true);
+      assertEquals(expected, client.queryBuilder().sql(sql).singletonLong());
+    } finally {
+      client.resetSession(ExecConstants.SLICE_TARGET);
+      client.resetSession(PlannerSettings.FORCE_2PHASE_AGGR_KEY);
+    }
+  }
+
+  @Test
+  public void testJoinQuery() throws Exception {
+    String sql = "SELECT COUNT(*) FROM cp.`tpch/orders.parquet` o " +
+        "JOIN cp.`tpch/lineitem.parquet` l ON o.o_orderkey = l.l_orderkey";
+    long expected = client.queryBuilder().sql(sql).singletonLong();
+    try {
+      client.alterSession(ExecConstants.SLICE_TARGET, 1);
+      client.alterSession(PlannerSettings.BROADCAST.getOptionName(), false);
+      assertEquals(expected, client.queryBuilder().sql(sql).singletonLong());
+    } finally {
+      client.resetSession(ExecConstants.SLICE_TARGET);
+      client.resetSession(PlannerSettings.BROADCAST.getOptionName());
+    }
+  }
+}
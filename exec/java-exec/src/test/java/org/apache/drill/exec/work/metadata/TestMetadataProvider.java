@@ -149,7 +149,7 @@ public class TestMetadataProvider extends BaseTestQuery {
 
     assertEquals(RequestStatus.OK, resp.getStatus());
     List<TableMetadata> tables = resp.getTablesList();
-    assertEquals(20, tables.size());
+    assertEquals(22, tables.size());
 
     verifyTable("information_schema", "CATALOGS", tables);
     verifyTable("information_schema", "COLUMNS", tables);
@@ -183,7 +183,7 @@ public class TestMetadataProvider extends BaseTestQuery {
 
     assertEquals(RequestStatus.OK, resp.getStatus());
     List<TableMetadata> tables = resp.getTablesList();
-    assertEquals(20, tables.size());
+    assertEquals(22, tables.size());
 
     verifyTable("information_schema", "CATALOGS", tables);
     verifyTable("information_schema", "COLUMNS", tables);
@@ -242,7 +242,7 @@ public class TestMetadataProvider extends BaseTestQuery {
 
     assertEquals(RequestStatus.OK, resp.getStatus());
     List<ColumnMetadata> columns = resp.getColumnsList();
-    assertEquals(162, columns.size());
+    assertEquals(181, columns.size());
     // too many records to verify the output.
   }
 
@@ -255,13 +255,15 @@ public class TestMetadataProvider extends BaseTestQuery {
 
     assertEquals(RequestStatus.OK, resp.getStatus());
     List<ColumnMetadata> columns = resp.getColumnsList();
-    assertEquals(6, columns.size());
+    assertEquals(8, columns.size());
 
     verifyColumn("sys", SystemTable.DRILLBITS.getTableName(), "user_port", columns);
     verifyColumn("sys", SystemTable.DRILLBITS.getTableName(), "control_port", columns);
     verifyColumn("sys", SystemTable.DRILLBITS.getTableName(), "data_port", columns);
     verifyColumn("sys", SystemTable.MEMORY.getTableName(), "user_port", columns);
     verifyColumn("sys", SystemTable.THREADS.getTableName(), "user_port", columns);
+    verifyColumn("sys", SystemTable.PLAN_CACHE.getTableName(), "user_port", columns);
+    verifyColumn("sys", SystemTable.RESULT_CACHE.getTableName(), "user_port", columns);
   }
 
   @Test
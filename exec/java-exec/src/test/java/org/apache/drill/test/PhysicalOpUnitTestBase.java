@@ -20,6 +20,7 @@ package org.apache.drill.test;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.apache.calcite.rel.RelFieldCollation;
+import org.apache.drill.exec.cache.ResultCache;
 import org.apache.drill.exec.coord.ClusterCoordinator;
 import org.apache.drill.exec.memory.BufferAllocator;
 import org.apache.drill.exec.ops.AccountingDataTunnel;
@@ -29,6 +30,7 @@ import org.apache.drill.exec.ops.FragmentContext;
 import org.apache.drill.exec.ops.FragmentStats;
 import org.apache.drill.exec.physical.base.PhysicalVisitor;
 import org.apache.drill.exec.planner.PhysicalPlanReader;
+import org.apache.drill.exec.planner.sql.PlanCache;
 import org.apache.drill.exec.planner.logical.DrillLogicalTestUtils;
 import org.apache.drill.exec.proto.CoordinationProtos;
 import org.apache.drill.exec.rpc.control.Controller;
@@ -38,6 +40,7 @@ import org.apache.drill.exec.server.QueryProfileStoreContext;
 import org.apache.drill.exec.store.dfs.DrillFileSystem;
 import org.apache.drill.exec.store.easy.json.JSONRecordReader;
 import org.apache.drill.exec.work.batch.IncomingBuffers;
+import org.apache.drill.exec.work.filter.LocalRuntimeFilterAggregator;
 import org.apache.drill.exec.work.filter.RuntimeFilterWritable;
 import org.apache.drill.common.config.DrillConfig;
 import org.apache.drill.common.exceptions.ExecutionSetupException;
@@ -215,6 +218,21 @@ public class PhysicalOpUnitTestBase extends ExecTest {
       throw new UnsupportedOperationException();
     }
 
+    @Override
+    public PlanCache getPlanCache() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ResultCache getResultCache() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public LocalRuntimeFilterAggregator getRuntimeFilterAggregator() {
+      throw new UnsupportedOperationException();
+    }
+
     @Override
     public ClusterCoordinator getClusterCoordinator() {
       throw new UnsupportedOperationException();
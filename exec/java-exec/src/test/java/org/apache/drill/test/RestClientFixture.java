@@ -19,15 +19,18 @@ package org.apache.drill.test;
 
 import com.fasterxml.jackson.jaxrs.json.JacksonJsonProvider;
 import org.apache.drill.shaded.guava.com.google.common.base.Preconditions;
+import org.apache.drill.shaded.guava.com.google.common.collect.ImmutableMap;
 import org.apache.drill.exec.server.rest.StatusResources;
 import org.glassfish.jersey.client.ClientConfig;
 import org.glassfish.jersey.client.JerseyClientBuilder;
 
 import javax.annotation.Nullable;
 import javax.ws.rs.client.Client;
+import javax.ws.rs.client.Entity;
 import javax.ws.rs.client.WebTarget;
 import javax.ws.rs.core.GenericType;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Response;
 
 import java.util.List;
 
@@ -111,6 +114,18 @@ public class RestClientFixture implements AutoCloseable {
     return null;
   }
 
+  /**
+   * Submits a SQL query to the given query endpoint.
+   * @param path The path of the endpoint, such as <tt>query.json</tt>.
+   * @param sql The query to run.
+   * @return The response of the endpoint.
+   */
+  public Response submitQuery(String path, String sql) {
+    return baseTarget.path(path)
+      .request()
+      .post(Entity.json(ImmutableMap.of("queryType", "SQL", "query", sql)));
+  }
+
   @Override
   public void close() throws Exception {
     client.close();
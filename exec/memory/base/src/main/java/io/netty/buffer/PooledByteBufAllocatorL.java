@@ -72,6 +72,31 @@ public class PooledByteBufAllocatorL {
     return allocator.chunkSize;
   }
 
+  /**
+   * @return the number of bytes of the chunks the direct arenas hold, whether or not
+   * their memory is allocated to buffers
+   */
+  public long getArenaMemory() {
+    return allocator.getArenaMemory(false);
+  }
+
+  /**
+   * @return the number of bytes of the chunks of the direct arenas that are not allocated
+   * to buffers. Compared with {@link #getArenaMemory()}, tells how fragmented the pooled
+   * memory is: a chunk goes back to the system only once all its memory is free.
+   */
+  public long getArenaFreeMemory() {
+    return allocator.getArenaMemory(true);
+  }
+
+  /**
+   * @return the number of bytes of the buffers larger than a chunk, which are allocated
+   * outside of the arenas
+   */
+  public long getHugeMemory() {
+    return hugeBufferSize.get();
+  }
+
   private class InnerAllocator extends PooledByteBufAllocator {
 
     private final PoolArena<ByteBuffer>[] directArenas;
@@ -132,6 +157,20 @@ public class PooledByteBufAllocatorL {
         }
       });
 
+      registry.register(METRIC_PREFIX + "arena.size", new Gauge<Long>() {
+        @Override
+        public Long getValue() {
+          return getArenaMemory(false);
+        }
+      });
+
+      registry.register(METRIC_PREFIX + "arena.free", new Gauge<Long>() {
+        @Override
+        public Long getValue() {
+          return getArenaMemory(true);
+        }
+      });
+
       largeBuffersHist = registry.histogram(METRIC_PREFIX + "huge.hist");
       normalBuffersHist = registry.histogram(METRIC_PREFIX + "normal.hist");
     }
@@ -145,6 +184,22 @@ public class PooledByteBufAllocatorL {
       });
     }
 
+    /**
+     * Sums the sizes, or the free bytes, of the chunks of all the direct arenas. A chunk list
+     * hands out its chunks under the lock of its arena.
+     */
+    private long getArenaMemory(boolean free) {
+      long bytes = 0;
+      for (PoolArena<ByteBuffer> arena : directArenas) {
+        for (PoolChunkListMetric chunkList : arena.chunkLists()) {
+          for (PoolChunkMetric chunk : chunkList) {
+            bytes += free ? chunk.freeBytes() : chunk.chunkSize();
+          }
+        }
+      }
+      return bytes;
+    }
+
     private UnsafeDirectLittleEndian newDirectBufferL(int initialCapacity, int maxCapacity) {
       PoolThreadCache cache = threadCache();
       PoolArena<ByteBuffer> directArena = cache.directArena;
@@ -251,6 +306,12 @@ public class PooledByteBufAllocatorL {
         buf.append(a);
       }
 
+      buf.append("Arena chunks: ");
+      buf.append(getArenaMemory(false));
+      buf.append(" bytes, of which ");
+      buf.append(getArenaMemory(true));
+      buf.append(" bytes free.");
+      buf.append('\n');
       buf.append("Large buffers outstanding: ");
       buf.append(hugeBufferCount.get());
       buf.append(" totaling ");
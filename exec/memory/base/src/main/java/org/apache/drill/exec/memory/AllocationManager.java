@@ -146,6 +146,27 @@ public class AllocationManager {
     return INNER_ALLOCATOR.getChunkSize();
   }
 
+  /**
+   * @return bytes of the chunks held by the arenas of the pooled allocator
+   */
+  public static long arenaMemory() {
+    return INNER_ALLOCATOR.getArenaMemory();
+  }
+
+  /**
+   * @return bytes of the chunks of the arenas that are not allocated to any buffer
+   */
+  public static long arenaFreeMemory() {
+    return INNER_ALLOCATOR.getArenaFreeMemory();
+  }
+
+  /**
+   * @return bytes of the buffers too large for a chunk, allocated outside of the arenas
+   */
+  public static long hugeMemory() {
+    return INNER_ALLOCATOR.getHugeMemory();
+  }
+
   /**
    * The way that a particular BufferLedger communicates back to the
    * AllocationManager that it now longer needs to hold a reference to
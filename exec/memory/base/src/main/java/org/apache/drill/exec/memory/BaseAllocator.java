@@ -233,6 +233,7 @@ public abstract class BaseAllocator extends Accountant implements BufferAllocato
         nextPowerOfTwo(initialRequestSize)
         : initialRequestSize;
     AllocationOutcome outcome = allocateBytes(actualRequestSize);
+    root.checkMemoryPressure();
     if (!outcome.isOk()) {
       throw new OutOfMemoryException(createErrorMsg(this, actualRequestSize, initialRequestSize));
     }
@@ -267,6 +268,17 @@ public abstract class BaseAllocator extends Accountant implements BufferAllocato
     return buffer;
   }
 
+  @Override
+  public void addMemoryPressureListener(MemoryPressureListener listener) {
+    assertOpen();
+    root.registerPressureListener(this, listener);
+  }
+
+  @Override
+  public void removeMemoryPressureListener(MemoryPressureListener listener) {
+    root.unregisterPressureListener(this, listener);
+  }
+
   @Override
   public ByteBufAllocator getAsByteBufAllocator() {
     return thisAsByteBufAllocator;
@@ -477,6 +489,7 @@ public abstract class BaseAllocator extends Accountant implements BufferAllocato
     }
 
     isClosed = true;
+    root.unregisterPressureListeners(this);
 
     if (DEBUG) {
       synchronized(DEBUG_LOCK) {
@@ -154,6 +154,20 @@ public interface BufferAllocator extends AutoCloseable {
    */
   public boolean isOverLimit();
 
+  /**
+   * Add a listener to be asked to release memory held by this allocator when the Drillbit runs short of direct
+   * memory. The listener is removed when this allocator is closed.
+   *
+   * @param listener
+   *          The listener, notified from any thread.
+   */
+  public void addMemoryPressureListener(MemoryPressureListener listener);
+
+  /**
+   * Remove a listener added by {@link #addMemoryPressureListener(MemoryPressureListener)}.
+   */
+  public void removeMemoryPressureListener(MemoryPressureListener listener);
+
   /**
    * Return a verbose string describing this allocator. If in DEBUG mode, this will also include relevant stacktraces
    * and historical logs for underlying objects
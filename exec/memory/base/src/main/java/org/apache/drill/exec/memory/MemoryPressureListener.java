@@ -0,0 +1,36 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.memory;
+
+/**
+ * Listener added to an allocator by the owner of the memory it holds, such as a spilling
+ * operator, to be asked to release some of this memory when the Drillbit runs short of direct
+ * memory. See {@link RootAllocator} for when listeners are notified.
+ * <p>
+ * Notifications come from whichever thread found the memory short, usually not the thread of
+ * the owner: a listener must only record the request, which its owner acts on at its next
+ * opportunity.
+ */
+public interface MemoryPressureListener {
+
+  /**
+   * @param allocator the allocator the listener was added to
+   * @param bytes the number of bytes the owner of the allocator is asked to release
+   */
+  void onMemoryPressure(BufferAllocator allocator, long bytes);
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.drill.exec.memory;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the requests to release memory made to the owner of an allocator, for the owner to
+ * poll on its own thread, typically once per incoming batch. Added as a listener of the
+ * allocator on creation, and removed on close.
+ */
+public class MemoryReleaseRequest implements MemoryPressureListener, AutoCloseable {
+
+  private final BufferAllocator allocator;
+  private final AtomicLong requestedBytes = new AtomicLong();
+
+  public MemoryReleaseRequest(BufferAllocator allocator) {
+    this.allocator = allocator;
+    allocator.addMemoryPressureListener(this);
+  }
+
+  @Override
+  public void onMemoryPressure(BufferAllocator allocator, long bytes) {
+    requestedBytes.accumulateAndGet(bytes, Math::max);
+  }
+
+  /**
+   * @return true if the owner was asked to release memory since it last took the request
+   */
+  public boolean isPending() {
+    return requestedBytes.get() > 0;
+  }
+
+  /**
+   * Takes the pending request, if any.
+   *
+   * @return the number of bytes the owner is asked to release, 0 if none
+   */
+  public long take() {
+    return requestedBytes.getAndSet(0);
+  }
+
+  @Override
+  public void close() {
+    allocator.removeMemoryPressureListener(this);
+  }
+}
@@ -17,18 +17,59 @@
  */
 package org.apache.drill.exec.memory;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 import com.codahale.metrics.Gauge;
 import org.apache.drill.shaded.guava.com.google.common.annotations.VisibleForTesting;
 import org.apache.drill.exec.metrics.DrillMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * The root allocator for using direct memory inside a Drillbit. Supports creating a
  * tree of descendant child allocators.
+ * <p>
+ * Memory is not partitioned for good between the allocators of the tree: once the memory
+ * allocated by the whole tree reaches the pressure threshold, a fraction of the limit of this
+ * allocator, the allocators holding the most memory are asked, through their
+ * {@link MemoryPressureListener}s, to release enough of it to get 10% of the limit below the
+ * threshold. Requests are made at most once a second while the memory stays short.
  */
 public class RootAllocator extends BaseAllocator {
+  private static final Logger logger = LoggerFactory.getLogger(RootAllocator.class);
+
+  private static final long PRESSURE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private final ConcurrentMap<MemoryPressureListener, BaseAllocator> pressureListeners = new ConcurrentHashMap<>();
+  private final long pressureLimit;
+  private final long pressureTarget;
+  private final AtomicLong lastPressureNanos = new AtomicLong(System.nanoTime() - PRESSURE_INTERVAL_NANOS);
 
   public RootAllocator(final long limit) {
+    this(limit, 1);
+  }
+
+  /**
+   * @param limit the limit of the whole allocator tree
+   * @param pressureThreshold the fraction of the limit above which memory is asked back, or
+   * 1 to never ask for memory
+   */
+  public RootAllocator(final long limit, final double pressureThreshold) {
     super(null, "ROOT", 0, limit);
+    if (pressureThreshold > 0 && pressureThreshold < 1) {
+      pressureLimit = (long) (limit * pressureThreshold);
+      pressureTarget = (long) (limit * Math.max(0, pressureThreshold - 0.1));
+    } else {
+      pressureLimit = Long.MAX_VALUE;
+      pressureTarget = Long.MAX_VALUE;
+    }
     DrillMetrics.register("drill.allocator.root.used", new Gauge<Long>() {
       @Override
       public Long getValue() {
@@ -43,6 +84,78 @@ public class RootAllocator extends BaseAllocator {
     });
   }
 
+  void registerPressureListener(BaseAllocator allocator, MemoryPressureListener listener) {
+    pressureListeners.put(listener, allocator);
+  }
+
+  void unregisterPressureListener(BaseAllocator allocator, MemoryPressureListener listener) {
+    pressureListeners.remove(listener, allocator);
+  }
+
+  void unregisterPressureListeners(BaseAllocator allocator) {
+    pressureListeners.values().removeIf(a -> a == allocator);
+  }
+
+  /**
+   * Called after each allocation in the tree, on the allocating thread. Cheap unless the
+   * memory is short.
+   */
+  void checkMemoryPressure() {
+    if (pressureListeners.isEmpty()) {
+      return;
+    }
+    final long allocated = getAllocatedMemory();
+    if (allocated < pressureLimit) {
+      return;
+    }
+    final long now = System.nanoTime();
+    final long last = lastPressureNanos.get();
+    if (now - last < PRESSURE_INTERVAL_NANOS || !lastPressureNanos.compareAndSet(last, now)) {
+      return;
+    }
+    final int notified = requestMemoryRelease(allocated - pressureTarget);
+    logger.info("Direct memory short: {} bytes allocated of {}, asked {} allocator owners to release {} bytes",
+        allocated, getLimit(), notified, allocated - pressureTarget);
+  }
+
+  /**
+   * Asks the owners of the allocators with listeners to release the given number of bytes,
+   * starting with the allocators that hold the most memory. Each is asked for at most the
+   * memory it holds.
+   *
+   * @return the number of listeners notified
+   */
+  @VisibleForTesting
+  int requestMemoryRelease(long bytes) {
+    final List<PressureCandidate> candidates = new ArrayList<>();
+    for (Map.Entry<MemoryPressureListener, BaseAllocator> entry : pressureListeners.entrySet()) {
+      // The memory held is read once, as it changes while the candidates are sorted
+      final long held = entry.getValue().getAllocatedMemory();
+      if (held > 0) {
+        candidates.add(new PressureCandidate(entry.getKey(), entry.getValue(), held));
+      }
+    }
+    candidates.sort(Comparator.comparingLong((PressureCandidate candidate) -> candidate.held).reversed());
+
+    long remaining = bytes;
+    int notified = 0;
+    for (PressureCandidate candidate : candidates) {
+      if (remaining <= 0) {
+        break;
+      }
+      final long share = Math.min(remaining, candidate.held);
+      try {
+        candidate.listener.onMemoryPressure(candidate.allocator, share);
+      } catch (RuntimeException e) {
+        logger.warn("Memory pressure listener of allocator {} failed", candidate.allocator.getName(), e);
+        continue;
+      }
+      remaining -= share;
+      notified++;
+    }
+    return notified;
+  }
+
   /**
    * Verify the accounting state of the allocation system.
    */
@@ -50,4 +163,16 @@ public class RootAllocator extends BaseAllocator {
   public void verify() {
     verifyAllocator();
   }
+
+  private static class PressureCandidate {
+    private final MemoryPressureListener listener;
+    private final BaseAllocator allocator;
+    private final long held;
+
+    PressureCandidate(MemoryPressureListener listener, BaseAllocator allocator, long held) {
+      this.listener = listener;
+      this.allocator = allocator;
+      this.held = held;
+    }
+  }
 }
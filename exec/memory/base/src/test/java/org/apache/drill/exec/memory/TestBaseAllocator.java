@@ -18,6 +18,7 @@
 package org.apache.drill.exec.memory;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
@@ -646,4 +647,54 @@ public class TestBaseAllocator extends BaseTest {
 
     }
   }
+
+  @Test
+  public void testArenaMemory() throws Exception {
+    final int chunkSize = AllocationManager.chunkSize();
+    try (final RootAllocator rootAllocator = new RootAllocator(4L * chunkSize)) {
+      final DrillBuf pooled = rootAllocator.buffer(chunkSize / 4);
+      // Buffers allocated by other tests may still be pooled, so only the bounds are known
+      final long arenaMemory = AllocationManager.arenaMemory();
+      assertTrue(arenaMemory >= chunkSize);
+      assertTrue(AllocationManager.arenaFreeMemory() <= arenaMemory - chunkSize / 4);
+
+      final long hugeMemory = AllocationManager.hugeMemory();
+      final DrillBuf huge = rootAllocator.buffer(2 * chunkSize);
+      assertEquals(hugeMemory + 2 * chunkSize, AllocationManager.hugeMemory());
+      huge.release();
+      assertEquals(hugeMemory, AllocationManager.hugeMemory());
+      pooled.release();
+    }
+  }
+
+  @Test
+  public void testMemoryPressure() throws Exception {
+    try (final RootAllocator rootAllocator = new RootAllocator(16 * 1024, 0.5);
+         final BufferAllocator large = rootAllocator.newChildAllocator("large", 0, MAX_ALLOCATION);
+         final BufferAllocator small = rootAllocator.newChildAllocator("small", 0, MAX_ALLOCATION);
+         final MemoryReleaseRequest largeRequest = new MemoryReleaseRequest(large);
+         final MemoryReleaseRequest smallRequest = new MemoryReleaseRequest(small)) {
+      final DrillBuf largeBuf1 = large.buffer(4096);
+      final DrillBuf smallBuf = small.buffer(2048);
+      assertFalse(largeRequest.isPending());
+      assertFalse(smallRequest.isPending());
+
+      // 10 KB allocated of the 8 KB threshold: 10 KB - 6.4 KB are asked back from the largest holder
+      final DrillBuf largeBuf2 = large.buffer(4096);
+      assertTrue(largeRequest.isPending());
+      assertFalse(smallRequest.isPending());
+      final long requested = largeRequest.take();
+      assertTrue(requested > 3 * 1024 && requested < 4 * 1024);
+      assertFalse(largeRequest.isPending());
+
+      // Asking for more than the largest holder has moves on to the next one
+      assertEquals(2, rootAllocator.requestMemoryRelease(9 * 1024));
+      assertEquals(8192, largeRequest.take());
+      assertEquals(1024, smallRequest.take());
+
+      largeBuf1.release();
+      largeBuf2.release();
+      smallBuf.release();
+    }
+  }
 }
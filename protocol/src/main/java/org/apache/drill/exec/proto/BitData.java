@@ -202,6 +202,20 @@ public final class BitData {
      * <code>optional .exec.shared.RpcChannel channel = 2 [default = BIT_DATA];</code>
      */
     org.apache.drill.exec.proto.UserBitShared.RpcChannel getChannel();
+
+    /**
+     * <code>optional string compression_codec = 3;</code>
+     */
+    boolean hasCompressionCodec();
+    /**
+     * <code>optional string compression_codec = 3;</code>
+     */
+    java.lang.String getCompressionCodec();
+    /**
+     * <code>optional string compression_codec = 3;</code>
+     */
+    com.google.protobuf.ByteString
+        getCompressionCodecBytes();
   }
   /**
    * Protobuf type {@code exec.bit.data.BitClientHandshake}
@@ -218,6 +232,7 @@ public final class BitData {
     private BitClientHandshake() {
       rpcVersion_ = 0;
       channel_ = 1;
+      compressionCodec_ = "";
     }
 
     @java.lang.Override
@@ -261,6 +276,12 @@ public final class BitData {
               }
               break;
             }
+            case 26: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000004;
+              compressionCodec_ = bs;
+              break;
+            }
             default: {
               if (!parseUnknownField(
                   input, unknownFields, extensionRegistry, tag)) {
@@ -326,6 +347,48 @@ public final class BitData {
       return result == null ? org.apache.drill.exec.proto.UserBitShared.RpcChannel.BIT_DATA : result;
     }
 
+    public static final int COMPRESSION_CODEC_FIELD_NUMBER = 3;
+    private volatile java.lang.Object compressionCodec_;
+    /**
+     * <code>optional string compression_codec = 3;</code>
+     */
+    public boolean hasCompressionCodec() {
+      return ((bitField0_ & 0x00000004) == 0x00000004);
+    }
+    /**
+     * <code>optional string compression_codec = 3;</code>
+     */
+    public java.lang.String getCompressionCodec() {
+      java.lang.Object ref = compressionCodec_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          compressionCodec_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string compression_codec = 3;</code>
+     */
+    public com.google.protobuf.ByteString
+        getCompressionCodecBytes() {
+      java.lang.Object ref = compressionCodec_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        compressionCodec_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
     private byte memoizedIsInitialized = -1;
     @java.lang.Override
     public final boolean isInitialized() {
@@ -346,6 +409,9 @@ public final class BitData {
       if (((bitField0_ & 0x00000002) == 0x00000002)) {
         output.writeEnum(2, channel_);
       }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 3, compressionCodec_);
+      }
       unknownFields.writeTo(output);
     }
 
@@ -363,6 +429,9 @@ public final class BitData {
         size += com.google.protobuf.CodedOutputStream
           .computeEnumSize(2, channel_);
       }
+      if (((bitField0_ & 0x00000004) == 0x00000004)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(3, compressionCodec_);
+      }
       size += unknownFields.getSerializedSize();
       memoizedSize = size;
       return size;
@@ -388,6 +457,11 @@ public final class BitData {
       if (hasChannel()) {
         result = result && channel_ == other.channel_;
       }
+      result = result && (hasCompressionCodec() == other.hasCompressionCodec());
+      if (hasCompressionCodec()) {
+        result = result && getCompressionCodec()
+            .equals(other.getCompressionCodec());
+      }
       result = result && unknownFields.equals(other.unknownFields);
       return result;
     }
@@ -407,6 +481,10 @@ public final class BitData {
         hash = (37 * hash) + CHANNEL_FIELD_NUMBER;
         hash = (53 * hash) + channel_;
       }
+      if (hasCompressionCodec()) {
+        hash = (37 * hash) + COMPRESSION_CODEC_FIELD_NUMBER;
+        hash = (53 * hash) + getCompressionCodec().hashCode();
+      }
       hash = (29 * hash) + unknownFields.hashCode();
       memoizedHashCode = hash;
       return hash;
@@ -544,6 +622,8 @@ public final class BitData {
         bitField0_ = (bitField0_ & ~0x00000001);
         channel_ = 1;
         bitField0_ = (bitField0_ & ~0x00000002);
+        compressionCodec_ = "";
+        bitField0_ = (bitField0_ & ~0x00000004);
         return this;
       }
 
@@ -580,6 +660,10 @@ public final class BitData {
           to_bitField0_ |= 0x00000002;
         }
         result.channel_ = channel_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000004;
+        }
+        result.compressionCodec_ = compressionCodec_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -635,6 +719,11 @@ public final class BitData {
         if (other.hasChannel()) {
           setChannel(other.getChannel());
         }
+        if (other.hasCompressionCodec()) {
+          bitField0_ |= 0x00000004;
+          compressionCodec_ = other.compressionCodec_;
+          onChanged();
+        }
         this.mergeUnknownFields(other.unknownFields);
         onChanged();
         return this;
@@ -733,6 +822,82 @@ public final class BitData {
         onChanged();
         return this;
       }
+
+      private java.lang.Object compressionCodec_ = "";
+      /**
+       * <code>optional string compression_codec = 3;</code>
+       */
+      public boolean hasCompressionCodec() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <code>optional string compression_codec = 3;</code>
+       */
+      public java.lang.String getCompressionCodec() {
+        java.lang.Object ref = compressionCodec_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            compressionCodec_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string compression_codec = 3;</code>
+       */
+      public com.google.protobuf.ByteString
+          getCompressionCodecBytes() {
+        java.lang.Object ref = compressionCodec_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          compressionCodec_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string compression_codec = 3;</code>
+       */
+      public Builder setCompressionCodec(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000004;
+        compressionCodec_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string compression_codec = 3;</code>
+       */
+      public Builder clearCompressionCodec() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        compressionCodec_ = getDefaultInstance().getCompressionCodec();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string compression_codec = 3;</code>
+       */
+      public Builder setCompressionCodecBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000004;
+        compressionCodec_ = value;
+        onChanged();
+        return this;
+      }
       @java.lang.Override
       public final Builder setUnknownFields(
           final com.google.protobuf.UnknownFieldSet unknownFields) {
@@ -817,6 +982,20 @@ public final class BitData {
      */
     com.google.protobuf.ByteString
         getAuthenticationMechanismsBytes(int index);
+
+    /**
+     * <code>optional string compression_codec = 3;</code>
+     */
+    boolean hasCompressionCodec();
+    /**
+     * <code>optional string compression_codec = 3;</code>
+     */
+    java.lang.String getCompressionCodec();
+    /**
+     * <code>optional string compression_codec = 3;</code>
+     */
+    com.google.protobuf.ByteString
+        getCompressionCodecBytes();
   }
   /**
    * Protobuf type {@code exec.bit.data.BitServerHandshake}
@@ -833,6 +1012,7 @@ public final class BitData {
     private BitServerHandshake() {
       rpcVersion_ = 0;
       authenticationMechanisms_ = com.google.protobuf.LazyStringArrayList.EMPTY;
+      compressionCodec_ = "";
     }
 
     @java.lang.Override
@@ -873,6 +1053,12 @@ public final class BitData {
               authenticationMechanisms_.add(bs);
               break;
             }
+            case 26: {
+              com.google.protobuf.ByteString bs = input.readBytes();
+              bitField0_ |= 0x00000002;
+              compressionCodec_ = bs;
+              break;
+            }
             default: {
               if (!parseUnknownField(
                   input, unknownFields, extensionRegistry, tag)) {
@@ -953,6 +1139,48 @@ public final class BitData {
       return authenticationMechanisms_.getByteString(index);
     }
 
+    public static final int COMPRESSION_CODEC_FIELD_NUMBER = 3;
+    private volatile java.lang.Object compressionCodec_;
+    /**
+     * <code>optional string compression_codec = 3;</code>
+     */
+    public boolean hasCompressionCodec() {
+      return ((bitField0_ & 0x00000002) == 0x00000002);
+    }
+    /**
+     * <code>optional string compression_codec = 3;</code>
+     */
+    public java.lang.String getCompressionCodec() {
+      java.lang.Object ref = compressionCodec_;
+      if (ref instanceof java.lang.String) {
+        return (java.lang.String) ref;
+      } else {
+        com.google.protobuf.ByteString bs = 
+            (com.google.protobuf.ByteString) ref;
+        java.lang.String s = bs.toStringUtf8();
+        if (bs.isValidUtf8()) {
+          compressionCodec_ = s;
+        }
+        return s;
+      }
+    }
+    /**
+     * <code>optional string compression_codec = 3;</code>
+     */
+    public com.google.protobuf.ByteString
+        getCompressionCodecBytes() {
+      java.lang.Object ref = compressionCodec_;
+      if (ref instanceof java.lang.String) {
+        com.google.protobuf.ByteString b = 
+            com.google.protobuf.ByteString.copyFromUtf8(
+                (java.lang.String) ref);
+        compressionCodec_ = b;
+        return b;
+      } else {
+        return (com.google.protobuf.ByteString) ref;
+      }
+    }
+
     private byte memoizedIsInitialized = -1;
     @java.lang.Override
     public final boolean isInitialized() {
@@ -973,6 +1201,9 @@ public final class BitData {
       for (int i = 0; i < authenticationMechanisms_.size(); i++) {
         com.google.protobuf.GeneratedMessageV3.writeString(output, 2, authenticationMechanisms_.getRaw(i));
       }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        com.google.protobuf.GeneratedMessageV3.writeString(output, 3, compressionCodec_);
+      }
       unknownFields.writeTo(output);
     }
 
@@ -994,6 +1225,9 @@ public final class BitData {
         size += dataSize;
         size += 1 * getAuthenticationMechanismsList().size();
       }
+      if (((bitField0_ & 0x00000002) == 0x00000002)) {
+        size += com.google.protobuf.GeneratedMessageV3.computeStringSize(3, compressionCodec_);
+      }
       size += unknownFields.getSerializedSize();
       memoizedSize = size;
       return size;
@@ -1017,6 +1251,11 @@ public final class BitData {
       }
       result = result && getAuthenticationMechanismsList()
           .equals(other.getAuthenticationMechanismsList());
+      result = result && (hasCompressionCodec() == other.hasCompressionCodec());
+      if (hasCompressionCodec()) {
+        result = result && getCompressionCodec()
+            .equals(other.getCompressionCodec());
+      }
       result = result && unknownFields.equals(other.unknownFields);
       return result;
     }
@@ -1036,6 +1275,10 @@ public final class BitData {
         hash = (37 * hash) + AUTHENTICATIONMECHANISMS_FIELD_NUMBER;
         hash = (53 * hash) + getAuthenticationMechanismsList().hashCode();
       }
+      if (hasCompressionCodec()) {
+        hash = (37 * hash) + COMPRESSION_CODEC_FIELD_NUMBER;
+        hash = (53 * hash) + getCompressionCodec().hashCode();
+      }
       hash = (29 * hash) + unknownFields.hashCode();
       memoizedHashCode = hash;
       return hash;
@@ -1173,6 +1416,8 @@ public final class BitData {
         bitField0_ = (bitField0_ & ~0x00000001);
         authenticationMechanisms_ = com.google.protobuf.LazyStringArrayList.EMPTY;
         bitField0_ = (bitField0_ & ~0x00000002);
+        compressionCodec_ = "";
+        bitField0_ = (bitField0_ & ~0x00000004);
         return this;
       }
 
@@ -1210,6 +1455,10 @@ public final class BitData {
           bitField0_ = (bitField0_ & ~0x00000002);
         }
         result.authenticationMechanisms_ = authenticationMechanisms_;
+        if (((from_bitField0_ & 0x00000004) == 0x00000004)) {
+          to_bitField0_ |= 0x00000002;
+        }
+        result.compressionCodec_ = compressionCodec_;
         result.bitField0_ = to_bitField0_;
         onBuilt();
         return result;
@@ -1272,6 +1521,11 @@ public final class BitData {
           }
           onChanged();
         }
+        if (other.hasCompressionCodec()) {
+          bitField0_ |= 0x00000004;
+          compressionCodec_ = other.compressionCodec_;
+          onChanged();
+        }
         this.mergeUnknownFields(other.unknownFields);
         onChanged();
         return this;
@@ -1426,6 +1680,82 @@ public final class BitData {
         onChanged();
         return this;
       }
+
+      private java.lang.Object compressionCodec_ = "";
+      /**
+       * <code>optional string compression_codec = 3;</code>
+       */
+      public boolean hasCompressionCodec() {
+        return ((bitField0_ & 0x00000004) == 0x00000004);
+      }
+      /**
+       * <code>optional string compression_codec = 3;</code>
+       */
+      public java.lang.String getCompressionCodec() {
+        java.lang.Object ref = compressionCodec_;
+        if (!(ref instanceof java.lang.String)) {
+          com.google.protobuf.ByteString bs =
+              (com.google.protobuf.ByteString) ref;
+          java.lang.String s = bs.toStringUtf8();
+          if (bs.isValidUtf8()) {
+            compressionCodec_ = s;
+          }
+          return s;
+        } else {
+          return (java.lang.String) ref;
+        }
+      }
+      /**
+       * <code>optional string compression_codec = 3;</code>
+       */
+      public com.google.protobuf.ByteString
+          getCompressionCodecBytes() {
+        java.lang.Object ref = compressionCodec_;
+        if (ref instanceof String) {
+          com.google.protobuf.ByteString b = 
+              com.google.protobuf.ByteString.copyFromUtf8(
+                  (java.lang.String) ref);
+          compressionCodec_ = b;
+          return b;
+        } else {
+          return (com.google.protobuf.ByteString) ref;
+        }
+      }
+      /**
+       * <code>optional string compression_codec = 3;</code>
+       */
+      public Builder setCompressionCodec(
+          java.lang.String value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000004;
+        compressionCodec_ = value;
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string compression_codec = 3;</code>
+       */
+      public Builder clearCompressionCodec() {
+        bitField0_ = (bitField0_ & ~0x00000004);
+        compressionCodec_ = getDefaultInstance().getCompressionCodec();
+        onChanged();
+        return this;
+      }
+      /**
+       * <code>optional string compression_codec = 3;</code>
+       */
+      public Builder setCompressionCodecBytes(
+          com.google.protobuf.ByteString value) {
+        if (value == null) {
+    throw new NullPointerException();
+  }
+  bitField0_ |= 0x00000004;
+        compressionCodec_ = value;
+        onChanged();
+        return this;
+      }
       @java.lang.Override
       public final Builder setUnknownFields(
           final com.google.protobuf.UnknownFieldSet unknownFields) {
@@ -4403,28 +4733,29 @@ public final class BitData {
     java.lang.String[] descriptorData = {
       "\n\rBitData.proto\022\rexec.bit.data\032\025Executio" +
       "nProtos.proto\032\022Coordination.proto\032\023UserB" +
-      "itShared.proto\"]\n\022BitClientHandshake\022\023\n\013" +
+      "itShared.proto\"x\n\022BitClientHandshake\022\023\n\013" +
       "rpc_version\030\001 \001(\005\0222\n\007channel\030\002 \001(\0162\027.exe" +
-      "c.shared.RpcChannel:\010BIT_DATA\"K\n\022BitServ" +
-      "erHandshake\022\023\n\013rpc_version\030\001 \001(\005\022 \n\030auth" +
-      "enticationMechanisms\030\002 \003(\t\"\214\002\n\023FragmentR" +
-      "ecordBatch\022&\n\010query_id\030\001 \001(\0132\024.exec.shar" +
-      "ed.QueryId\022#\n\033receiving_major_fragment_i" +
-      "d\030\002 \001(\005\022#\n\033receiving_minor_fragment_id\030\003" +
-      " \003(\005\022!\n\031sending_major_fragment_id\030\004 \001(\005\022" +
-      "!\n\031sending_minor_fragment_id\030\005 \001(\005\022(\n\003de" +
-      "f\030\006 \001(\0132\033.exec.shared.RecordBatchDef\022\023\n\013" +
-      "isLastBatch\030\007 \001(\010\"\350\001\n\021RuntimeFilterBDef\022" +
-      "&\n\010query_id\030\001 \001(\0132\024.exec.shared.QueryId\022" +
-      "\031\n\021major_fragment_id\030\002 \001(\005\022\031\n\021minor_frag" +
-      "ment_id\030\003 \001(\005\022\022\n\nto_foreman\030\004 \001(\010\022\"\n\032blo" +
-      "om_filter_size_in_bytes\030\005 \003(\005\022\024\n\014probe_f" +
-      "ields\030\006 \003(\t\022\020\n\010hj_op_id\030\007 \001(\005\022\025\n\rrf_iden" +
-      "tifier\030\010 \001(\003*n\n\007RpcType\022\r\n\tHANDSHAKE\020\000\022\007" +
-      "\n\003ACK\020\001\022\013\n\007GOODBYE\020\002\022\024\n\020REQ_RECORD_BATCH" +
-      "\020\003\022\020\n\014SASL_MESSAGE\020\004\022\026\n\022REQ_RUNTIME_FILT" +
-      "ER\020\005B(\n\033org.apache.drill.exec.protoB\007Bit" +
-      "DataH\001"
+      "c.shared.RpcChannel:\010BIT_DATA\022\031\n\021compres" +
+      "sion_codec\030\003 \001(\t\"f\n\022BitServerHandshake\022\023" +
+      "\n\013rpc_version\030\001 \001(\005\022 \n\030authenticationMec" +
+      "hanisms\030\002 \003(\t\022\031\n\021compression_codec\030\003 \001(\t" +
+      "\"\214\002\n\023FragmentRecordBatch\022&\n\010query_id\030\001 \001" +
+      "(\0132\024.exec.shared.QueryId\022#\n\033receiving_ma",
+      "jor_fragment_id\030\002 \001(\005\022#\n\033receiving_minor" +
+      "_fragment_id\030\003 \003(\005\022!\n\031sending_major_frag" +
+      "ment_id\030\004 \001(\005\022!\n\031sending_minor_fragment_" +
+      "id\030\005 \001(\005\022(\n\003def\030\006 \001(\0132\033.exec.shared.Reco" +
+      "rdBatchDef\022\023\n\013isLastBatch\030\007 \001(\010\"\350\001\n\021Runt" +
+      "imeFilterBDef\022&\n\010query_id\030\001 \001(\0132\024.exec.s" +
+      "hared.QueryId\022\031\n\021major_fragment_id\030\002 \001(\005" +
+      "\022\031\n\021minor_fragment_id\030\003 \001(\005\022\022\n\nto_forema" +
+      "n\030\004 \001(\010\022\"\n\032bloom_filter_size_in_bytes\030\005 " +
+      "\003(\005\022\024\n\014probe_fields\030\006 \003(\t\022\020\n\010hj_op_id\030\007 ",
+      "\001(\005\022\025\n\rrf_identifier\030\010 \001(\003*n\n\007RpcType\022\r\n" +
+      "\tHANDSHAKE\020\000\022\007\n\003ACK\020\001\022\013\n\007GOODBYE\020\002\022\024\n\020RE" +
+      "Q_RECORD_BATCH\020\003\022\020\n\014SASL_MESSAGE\020\004\022\026\n\022RE" +
+      "Q_RUNTIME_FILTER\020\005B(\n\033org.apache.drill.e" +
+      "xec.protoB\007BitDataH\001"
     };
     com.google.protobuf.Descriptors.FileDescriptor.InternalDescriptorAssigner assigner =
         new com.google.protobuf.Descriptors.FileDescriptor.    InternalDescriptorAssigner() {
@@ -4446,13 +4777,13 @@ public final class BitData {
     internal_static_exec_bit_data_BitClientHandshake_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_exec_bit_data_BitClientHandshake_descriptor,
-        new java.lang.String[] { "RpcVersion", "Channel", });
+        new java.lang.String[] { "RpcVersion", "Channel", "CompressionCodec", });
     internal_static_exec_bit_data_BitServerHandshake_descriptor =
       getDescriptor().getMessageTypes().get(1);
     internal_static_exec_bit_data_BitServerHandshake_fieldAccessorTable = new
       com.google.protobuf.GeneratedMessageV3.FieldAccessorTable(
         internal_static_exec_bit_data_BitServerHandshake_descriptor,
-        new java.lang.String[] { "RpcVersion", "AuthenticationMechanisms", });
+        new java.lang.String[] { "RpcVersion", "AuthenticationMechanisms", "CompressionCodec", });
     internal_static_exec_bit_data_FragmentRecordBatch_descriptor =
       getDescriptor().getMessageTypes().get(2);
     internal_static_exec_bit_data_FragmentRecordBatch_fieldAccessorTable = new